@@ -9,6 +9,10 @@ public final class KafkaTopics {
     public static final String LESSON_GENERATION_REQUESTED_TOPIC = "lesson-generation-requested-v1";
     public static final String LESSON_PROCESSING_STEP_UPDATED_TOPIC = "lesson-processing-step-updated-v1";
     public static final String LESSON_PROCESSING_STEP_NOTIFY_TOPIC = "lesson-processing-step-notify-v1";
+    // Log-compacted, key = lessonId: chỉ giữ LessonProcessingStepNotifyEvent mới nhất của mỗi lesson
+    public static final String LESSON_PROCESSING_STATE_TOPIC = "lesson-processing-state-v1";
+    // Từ vựng của lesson vừa publish → dictionary-service tạo sẵn Word PENDING cho worker enrich
+    public static final String LESSON_WORDS_PUBLISHED_TOPIC = "lesson-words-published-v1";
     public static final String VOCAB_SUBTOPIC_READY_TOPIC = "vocab-subtopic-ready-v1";
 
     public static final String VOCAB_SUBTOPICS_GENERATED_TOPIC = "vocab-subtopics-generated-v1";
@@ -49,4 +49,12 @@ public class LessonProcessingStepNotifyEvent {
     private String sourceLanguage;
 
     private SourceLicenseType sourceLicenseType;
+
+    /** Present khi lesson thuộc 1 đợt import hàng loạt: tiến độ tổng của cả đợt (lessonId có thể null) */
+    private Long importBatchId;
+    private Integer importTotal;
+    private Integer importQueued;
+    private Integer importRunning;
+    private Integer importCompleted;
+    private Integer importFailed;
 }
@@ -0,0 +1,36 @@
+package com.rin.englishlearning.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Các từ (không trùng theo wordNormalized + posTag) của 1 lesson vừa được publish.
+ * Lesson nhiều từ được tách thành nhiều event (part / totalParts).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonWordsPublishedEvent {
+    private Long lessonId;
+    private int part;
+    private int totalParts;
+    private List<Word> words;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Word {
+        private String wordText;
+        private String wordNormalized;
+        private String posTag;
+        private String lemma;
+        private String entityType;
+        private String context; // câu chứa lần xuất hiện đầu tiên
+    }
+}
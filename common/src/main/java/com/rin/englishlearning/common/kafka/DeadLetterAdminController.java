@@ -0,0 +1,41 @@
+package com.rin.englishlearning.common.kafka;
+
+import com.rin.englishlearning.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Không tự scan: đi kèm KafkaRetryConfiguration, /admin/** đã yêu cầu ROLE_ADMIN.
+ */
+@RestController
+@RequestMapping("/admin/kafka/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterAdminController {
+
+    private final DeadLetterInspector deadLetterInspector;
+
+    @GetMapping("/topics")
+    public ApiResponse<Set<String>> getTopics() {
+        return ApiResponse.success(deadLetterInspector.getDeadLetterTopics());
+    }
+
+    @GetMapping
+    public ApiResponse<List<DeadLetterRecord>> list(
+            @RequestParam String topic,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ApiResponse.success(deadLetterInspector.list(topic, limit));
+    }
+
+    @PostMapping("/replay")
+    public ApiResponse<DeadLetterRecord> replay(
+            @RequestParam String topic,
+            @RequestParam int partition,
+            @RequestParam long offset
+    ) {
+        return ApiResponse.success(deadLetterInspector.replay(topic, partition, offset), "Dead letter replayed");
+    }
+}
@@ -0,0 +1,235 @@
+package com.rin.englishlearning.common.kafka;
+
+import com.rin.englishlearning.common.exception.BaseErrorCode;
+import com.rin.englishlearning.common.exception.BaseException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Đọc / replay record trong các DLT của một service. Dùng consumer riêng (assign + seek, không group) nên không
+ * ảnh hưởng offset của listener; replay copy bytes gốc về topic chính, record trong DLT vẫn giữ lại làm lịch sử.
+ */
+@Slf4j
+public class DeadLetterInspector implements AutoCloseable {
+
+    public static final String REPLAYED_FROM_HEADER = "x-replayed-from";
+
+    // RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS / BACKOFF_TIMESTAMP / ORIGINAL_TIMESTAMP
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+    private static final int MAX_LIST_LIMIT = 200;
+    private static final int MAX_VALUE_CHARS = 4_000;
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final String bootstrapServers;
+    private final Set<String> deadLetterTopics;
+    private volatile KafkaProducer<byte[], byte[]> producer;
+
+    /**
+     * @param mainTopics topic mà listener của service đang nghe, DLT tương ứng là topic + {@value KafkaRetrySupport#DLT_SUFFIX}
+     */
+    public DeadLetterInspector(String bootstrapServers, Collection<String> mainTopics) {
+        this.bootstrapServers = bootstrapServers;
+        this.deadLetterTopics = new TreeSet<>();
+        mainTopics.forEach(topic -> deadLetterTopics.add(KafkaRetrySupport.deadLetterTopic(topic)));
+    }
+
+    public Set<String> getDeadLetterTopics() {
+        return Collections.unmodifiableSet(deadLetterTopics);
+    }
+
+    /**
+     * limit record mới nhất của DLT (tính gộp mọi partition), mới nhất trước.
+     */
+    public List<DeadLetterRecord> list(String deadLetterTopic, int limit) {
+        requireKnownTopic(deadLetterTopic);
+        int max = Math.min(Math.max(1, limit), MAX_LIST_LIMIT);
+
+        try (KafkaConsumer<byte[], byte[]> consumer = newConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer, deadLetterTopic);
+            if (partitions.isEmpty()) return List.of();
+            consumer.assign(partitions);
+
+            Map<TopicPartition, Long> begin = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> remaining = new HashMap<>();
+            for (TopicPartition tp : partitions) {
+                // Mỗi partition lấy tối đa max record cuối, sort lại sau
+                long from = Math.max(begin.get(tp), end.get(tp) - max);
+                consumer.seek(tp, from);
+                if (end.get(tp) > from) remaining.put(tp, end.get(tp));
+            }
+
+            List<DeadLetterRecord> records = new ArrayList<>();
+            while (!remaining.isEmpty()) {
+                var polled = consumer.poll(POLL_TIMEOUT);
+                if (polled.isEmpty()) break;
+                for (ConsumerRecord<byte[], byte[]> record : polled) {
+                    records.add(toDeadLetterRecord(record));
+                }
+                remaining.keySet().removeIf(tp -> consumer.position(tp) >= remaining.get(tp));
+            }
+
+            records.sort(Comparator.comparing(DeadLetterRecord::getTimestamp).reversed());
+            return records.size() > max ? records.subList(0, max) : records;
+        }
+    }
+
+    /**
+     * Gửi lại record tại (partition, offset) của DLT về topic chính với key / value / header gốc.
+     */
+    public DeadLetterRecord replay(String deadLetterTopic, int partition, long offset) {
+        requireKnownTopic(deadLetterTopic);
+        ConsumerRecord<byte[], byte[]> record = fetch(deadLetterTopic, partition, offset);
+        String mainTopic = KafkaRetrySupport.mainTopic(deadLetterTopic);
+
+        ProducerRecord<byte[], byte[]> replay = new ProducerRecord<>(mainTopic, null, record.key(), record.value(),
+                replayHeaders(record.headers(), deadLetterTopic + "/" + partition + "@" + offset));
+        try {
+            producer().send(replay).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BaseException(BaseErrorCode.INTERNAL_SERVER_ERROR, "Interrupted while replaying dead letter");
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Replay {}-{}@{} về {} thất bại", deadLetterTopic, partition, offset, mainTopic, e);
+            throw new BaseException(BaseErrorCode.INTERNAL_SERVER_ERROR,
+                    "Failed to replay dead letter to " + mainTopic + ": " + e.getMessage());
+        }
+        log.info("Đã replay {}-{}@{} về {}", deadLetterTopic, partition, offset, mainTopic);
+        return toDeadLetterRecord(record);
+    }
+
+    @Override
+    public void close() {
+        if (producer != null) producer.close(Duration.ofSeconds(5));
+    }
+
+    private ConsumerRecord<byte[], byte[]> fetch(String topic, int partition, long offset) {
+        try (KafkaConsumer<byte[], byte[]> consumer = newConsumer()) {
+            TopicPartition tp = new TopicPartition(topic, partition);
+            if (partitions(consumer, topic).stream().noneMatch(tp::equals)) {
+                throw notFound(topic, partition, offset);
+            }
+            consumer.assign(List.of(tp));
+            long begin = consumer.beginningOffsets(List.of(tp)).get(tp);
+            long end = consumer.endOffsets(List.of(tp)).get(tp);
+            if (offset < begin || offset >= end) {
+                throw notFound(topic, partition, offset);
+            }
+            consumer.seek(tp, offset);
+            for (ConsumerRecord<byte[], byte[]> record : consumer.poll(POLL_TIMEOUT).records(tp)) {
+                if (record.offset() == offset) return record;
+            }
+            throw notFound(topic, partition, offset);
+        }
+    }
+
+    private static Headers replayHeaders(Headers original, String replayedFrom) {
+        Headers headers = new RecordHeaders();
+        for (Header header : original) {
+            String key = header.key();
+            // Bỏ thông tin lỗi / retry của lần chạy trước để record đi lại từ đầu
+            if (key.startsWith(KafkaHeaders.PREFIX + "dlt-")
+                    || key.startsWith(RETRY_HEADER_PREFIX)
+                    || key.equals(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER)
+                    || key.equals(SerializationUtils.KEY_DESERIALIZER_EXCEPTION_HEADER)) {
+                continue;
+            }
+            headers.add(header);
+        }
+        headers.add(REPLAYED_FROM_HEADER, replayedFrom.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    private static DeadLetterRecord toDeadLetterRecord(ConsumerRecord<byte[], byte[]> record) {
+        return DeadLetterRecord.builder()
+                .topic(record.topic())
+                .partition(record.partition())
+                .offset(record.offset())
+                .timestamp(Instant.ofEpochMilli(record.timestamp()))
+                .key(record.key() == null ? null : new String(record.key(), StandardCharsets.UTF_8))
+                .mainTopic(KafkaRetrySupport.mainTopic(record.topic()))
+                .exceptionClass(lastHeader(record.headers(), KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN,
+                        KafkaHeaders.DLT_EXCEPTION_FQCN))
+                .exceptionMessage(lastHeader(record.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE))
+                .value(record.value() == null ? null : truncate(new String(record.value(), StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    // Qua nhiều lần retry có thể có nhiều header cùng tên, lấy cái cuối (lần fail gần nhất)
+    private static String lastHeader(Headers headers, String... keys) {
+        for (String key : keys) {
+            Header header = headers.lastHeader(key);
+            if (header != null && header.value() != null) {
+                return new String(header.value(), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_VALUE_CHARS ? value : value.substring(0, MAX_VALUE_CHARS) + "…";
+    }
+
+    private static List<TopicPartition> partitions(KafkaConsumer<byte[], byte[]> consumer, String topic) {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic, POLL_TIMEOUT);
+        if (infos == null) return List.of();
+        return infos.stream().map(info -> new TopicPartition(topic, info.partition())).toList();
+    }
+
+    private void requireKnownTopic(String deadLetterTopic) {
+        if (!deadLetterTopics.contains(deadLetterTopic)) {
+            throw new BaseException(BaseErrorCode.INVALID_REQUEST,
+                    "Unknown dead-letter topic: " + deadLetterTopic + ", expected one of " + deadLetterTopics);
+        }
+    }
+
+    private static BaseException notFound(String topic, int partition, long offset) {
+        return new BaseException(BaseErrorCode.RESOURCE_NOT_FOUND,
+                "Dead letter not found: " + topic + "-" + partition + "@" + offset);
+    }
+
+    private KafkaConsumer<byte[], byte[]> newConsumer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, MAX_LIST_LIMIT);
+        return new KafkaConsumer<>(props, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private KafkaProducer<byte[], byte[]> producer() {
+        if (producer == null) {
+            synchronized (this) {
+                if (producer == null) {
+                    Map<String, Object> props = new HashMap<>();
+                    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+                    props.put(ProducerConfig.ACKS_CONFIG, "all");
+                    producer = new KafkaProducer<>(props, new ByteArraySerializer(), new ByteArraySerializer());
+                }
+            }
+        }
+        return producer;
+    }
+}
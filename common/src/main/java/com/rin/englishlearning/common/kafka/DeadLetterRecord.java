@@ -0,0 +1,25 @@
+package com.rin.englishlearning.common.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterRecord {
+    private String topic;
+    private int partition;
+    private long offset;
+    private Instant timestamp;
+    private String key;
+    // Topic gốc mà record sẽ được replay vào
+    private String mainTopic;
+    private String exceptionClass;
+    private String exceptionMessage;
+    private String value;
+}
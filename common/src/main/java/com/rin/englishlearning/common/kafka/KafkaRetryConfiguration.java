@@ -0,0 +1,48 @@
+package com.rin.englishlearning.common.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+
+/**
+ * Retry topic / DLT cho Kafka listener, dùng chung cho mọi service. Service @Import class này và khai báo
+ * 1 bean KafkaRetryTopics; container factory theo từng event vẫn nằm trong config của service.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableKafkaRetryTopic
+@EnableConfigurationProperties(KafkaRetryProperties.class)
+@Import(DeadLetterAdminController.class)
+public class KafkaRetryConfiguration {
+
+    @Bean
+    public KafkaRetryPolicy kafkaRetryPolicy(KafkaRetryProperties properties) {
+        return properties.toPolicy();
+    }
+
+    // Lỗi khi xử lý → topic-retry-0..n (backoff lũy thừa) → topic-dlt, partition chính không bị chặn.
+    // Template riêng không đăng ký bean để KafkaTemplate auto-config của producer vẫn được tạo
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                                           KafkaRetryPolicy kafkaRetryPolicy,
+                                                           KafkaRetryTopics kafkaRetryTopics) {
+        return KafkaRetrySupport.retryTopicConfiguration(
+                KafkaRetrySupport.deadLetterTemplate(bootstrapServers), kafkaRetryPolicy,
+                kafkaRetryTopics.excludedTopics().toArray(String[]::new));
+    }
+
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        return KafkaRetrySupport.retryTopicScheduler();
+    }
+
+    @Bean
+    public DeadLetterInspector deadLetterInspector(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                                   KafkaRetryTopics kafkaRetryTopics) {
+        return new DeadLetterInspector(bootstrapServers, kafkaRetryTopics.mainTopics());
+    }
+}
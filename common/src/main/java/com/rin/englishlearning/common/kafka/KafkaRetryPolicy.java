@@ -0,0 +1,13 @@
+package com.rin.englishlearning.common.kafka;
+
+/**
+ * Backoff cho retry topic: lần thử thứ n (n >= 2) chờ min(initialIntervalMs * multiplier^(n-2), maxIntervalMs).
+ *
+ * @param maxAttempts tổng số lần xử lý, gồm cả lần đầu trên topic chính
+ */
+public record KafkaRetryPolicy(long initialIntervalMs, double multiplier, long maxIntervalMs, int maxAttempts) {
+
+    public static KafkaRetryPolicy defaults() {
+        return new KafkaRetryPolicy(1_000, 4.0, 60_000, 4);
+    }
+}
@@ -0,0 +1,24 @@
+package com.rin.englishlearning.common.kafka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * app.kafka.retry.* của mọi service, mặc định = KafkaRetryPolicy.defaults().
+ * Override qua env: APP_KAFKA_RETRY_INITIAL_INTERVAL_MS, APP_KAFKA_RETRY_MULTIPLIER,
+ * APP_KAFKA_RETRY_MAX_INTERVAL_MS, APP_KAFKA_RETRY_MAX_ATTEMPTS.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.retry")
+public class KafkaRetryProperties {
+
+    private long initialIntervalMs = 1_000;
+    private double multiplier = 4.0;
+    private long maxIntervalMs = 60_000;
+    // Tổng số lần xử lý, gồm cả lần đầu trên topic chính
+    private int maxAttempts = 4;
+
+    public KafkaRetryPolicy toPolicy() {
+        return new KafkaRetryPolicy(initialIntervalMs, multiplier, maxIntervalMs, maxAttempts);
+    }
+}
@@ -0,0 +1,105 @@
+package com.rin.englishlearning.common.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cấu hình dùng chung cho Kafka listener của các service: lỗi khi xử lý không retry tại chỗ (chặn cả partition)
+ * mà chuyển record sang topic retry với backoff lũy thừa, hết lượt thì vào dead-letter topic.
+ * <pre>
+ * topic → topic-retry-0 → topic-retry-1 → … → topic-dlt
+ * </pre>
+ * Payload hỏng (không deserialize được) vào thẳng DLT, giữ nguyên bytes gốc để replay sau khi sửa.
+ */
+public final class KafkaRetrySupport {
+
+    public static final String RETRY_TOPIC_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private KafkaRetrySupport() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Consumer factory với ErrorHandlingDeserializer: record lỗi deserialize được chuyển cho error handler
+     * (→ DLT) thay vì bị đọc lại mãi.
+     */
+    public static <T> ConsumerFactory<String, T> consumerFactory(Map<String, Object> props, Class<T> eventClass) {
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new ErrorHandlingDeserializer<>(new StringDeserializer()),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(eventClass))
+        );
+    }
+
+    /**
+     * Template để chuyển record sang topic retry / DLT: event object → JSON, bytes gốc (record lỗi deserialize) giữ nguyên.
+     */
+    public static KafkaTemplate<String, Object> deadLetterTemplate(String bootstrapServers) {
+        JsonSerializer<Object> json = new JsonSerializer<>();
+        json.setAddTypeInfo(false);
+
+        Map<Class<?>, Serializer<?>> delegates = new LinkedHashMap<>();
+        delegates.put(byte[].class, new ByteArraySerializer());
+        delegates.put(Object.class, json);
+
+        Map<String, Object> props = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new DelegatingByTypeSerializer(delegates, true)));
+    }
+
+    /**
+     * Áp dụng cho mọi @KafkaListener của service, trừ excludedTopics (vd. topic compacted chỉ để dựng state).
+     */
+    public static RetryTopicConfiguration retryTopicConfiguration(KafkaOperations<String, Object> template,
+                                                                  KafkaRetryPolicy policy,
+                                                                  String... excludedTopics) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .excludeTopics(List.of(excludedTopics))
+                .exponentialBackoff(policy.initialIntervalMs(), policy.multiplier(), policy.maxIntervalMs())
+                .maxAttempts(policy.maxAttempts())
+                .retryTopicSuffix(RETRY_TOPIC_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .suffixTopicsWithIndexValues()
+                .create(template);
+    }
+
+    /**
+     * Scheduler riêng cho việc tạm dừng partition retry tới hạn backoff, không đụng tới TaskScheduler của app.
+     */
+    public static RetryTopicSchedulerWrapper retryTopicScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("kafka-retry-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + DLT_SUFFIX;
+    }
+
+    public static String mainTopic(String deadLetterTopic) {
+        return deadLetterTopic.endsWith(DLT_SUFFIX)
+                ? deadLetterTopic.substring(0, deadLetterTopic.length() - DLT_SUFFIX.length())
+                : deadLetterTopic;
+    }
+}
@@ -0,0 +1,20 @@
+package com.rin.englishlearning.common.kafka;
+
+import java.util.List;
+
+/**
+ * Topic của service dùng KafkaRetryConfiguration.
+ *
+ * @param mainTopics     topic mà listener đang nghe, DeadLetterInspector đọc DLT tương ứng
+ * @param excludedTopics topic không retry / không có DLT (vd. topic compacted chỉ để dựng state)
+ */
+public record KafkaRetryTopics(List<String> mainTopics, List<String> excludedTopics) {
+
+    public static KafkaRetryTopics of(String... mainTopics) {
+        return new KafkaRetryTopics(List.of(mainTopics), List.of());
+    }
+
+    public KafkaRetryTopics excluding(String... topics) {
+        return new KafkaRetryTopics(mainTopics, List.of(topics));
+    }
+}
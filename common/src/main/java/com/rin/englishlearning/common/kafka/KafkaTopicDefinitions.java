@@ -0,0 +1,30 @@
+package com.rin.englishlearning.common.kafka;
+
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+/**
+ * Topic cần cấu hình khác mặc định của broker. Producer và consumer cùng khai báo NewTopic bean,
+ * service nào start trước thì KafkaAdmin tạo topic (đã tồn tại thì bỏ qua).
+ */
+public final class KafkaTopicDefinitions {
+
+    private KafkaTopicDefinitions() {
+        /* This utility class should not be instantiated */
+    }
+
+    public static NewTopic lessonProcessingState() {
+        return TopicBuilder.name(KafkaTopics.LESSON_PROCESSING_STATE_TOPIC)
+                .partitions(3)
+                .compact()
+                // Segment nhỏ để compaction chạy sớm, tombstone (lesson bị xóa) giữ 1 ngày rồi dọn
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(Duration.ofDays(1).toMillis()))
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .build();
+    }
+}
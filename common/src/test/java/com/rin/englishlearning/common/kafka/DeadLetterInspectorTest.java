@@ -0,0 +1,117 @@
+package com.rin.englishlearning.common.kafka;
+
+import com.rin.englishlearning.common.exception.BaseErrorCode;
+import com.rin.englishlearning.common.exception.BaseException;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadLetterInspectorTest {
+
+    private static final String TOPIC = "orders";
+    private static final String DLT = "orders-dlt";
+
+    private static EmbeddedKafkaBroker broker;
+    private static DeadLetterInspector inspector;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC, DLT);
+        broker.afterPropertiesSet();
+        inspector = new DeadLetterInspector(broker.getBrokersAsString(), List.of(TOPIC));
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()),
+                new StringSerializer(), new StringSerializer())) {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 3; i++) {
+                ProducerRecord<String, String> record = new ProducerRecord<>(DLT, 0, now + i, "key-" + i,
+                        "{\"id\":" + i + "}");
+                record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, bytes("java.lang.IllegalStateException"));
+                // Sau nhiều lần retry có nhiều header cùng tên, lấy lần gần nhất
+                record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, bytes("first failure"));
+                record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, bytes("failure " + i));
+                record.headers().add("retry_topic-attempts", new byte[]{4});
+                record.headers().add("trace-id", bytes("trace-" + i));
+                producer.send(record).get();
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        inspector.close();
+        broker.destroy();
+    }
+
+    @Test
+    void listsNewestDeadLettersFirstWithFailureDetails() {
+        List<DeadLetterRecord> records = inspector.list(DLT, 2);
+
+        assertThat(records).extracting(DeadLetterRecord::getKey).containsExactly("key-2", "key-1");
+        DeadLetterRecord newest = records.get(0);
+        assertThat(newest.getMainTopic()).isEqualTo(TOPIC);
+        assertThat(newest.getExceptionClass()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(newest.getExceptionMessage()).isEqualTo("failure 2");
+        assertThat(newest.getValue()).isEqualTo("{\"id\":2}");
+        assertThat(inspector.getDeadLetterTopics()).containsExactly(DLT);
+    }
+
+    @Test
+    void replaySendsOriginalRecordBackWithoutRetryHeaders() {
+        DeadLetterRecord replayed = inspector.replay(DLT, 0, 1);
+        assertThat(replayed.getKey()).isEqualTo("key-1");
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "dead-letter-inspector-test",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"),
+                new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(List.of(TOPIC));
+            ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(consumer, TOPIC, Duration.ofSeconds(10));
+
+            assertThat(record.key()).isEqualTo("key-1");
+            assertThat(record.value()).isEqualTo("{\"id\":1}");
+            assertThat(Arrays.stream(record.headers().toArray()).map(Header::key))
+                    .containsExactly("trace-id", DeadLetterInspector.REPLAYED_FROM_HEADER);
+            assertThat(new String(record.headers().lastHeader(DeadLetterInspector.REPLAYED_FROM_HEADER).value(),
+                    StandardCharsets.UTF_8)).isEqualTo("orders-dlt/0@1");
+        }
+    }
+
+    @Test
+    void rejectsTopicsOutsideTheServiceAndMissingOffsets() {
+        assertThatThrownBy(() -> inspector.list("payments-dlt", 10))
+                .isInstanceOfSatisfying(BaseException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(BaseErrorCode.INVALID_REQUEST));
+        assertThatThrownBy(() -> inspector.replay(DLT, 0, 99))
+                .isInstanceOfSatisfying(BaseException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(BaseErrorCode.RESOURCE_NOT_FOUND));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
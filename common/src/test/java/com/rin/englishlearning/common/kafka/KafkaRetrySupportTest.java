@@ -0,0 +1,80 @@
+package com.rin.englishlearning.common.kafka;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaRetrySupportTest {
+
+    record SampleEvent(String id) {
+    }
+
+    @Test
+    void deadLetterTopicNamesRoundTrip() {
+        assertThat(KafkaRetrySupport.deadLetterTopic("orders")).isEqualTo("orders-dlt");
+        assertThat(KafkaRetrySupport.mainTopic("orders-dlt")).isEqualTo("orders");
+        // Không phải DLT thì giữ nguyên
+        assertThat(KafkaRetrySupport.mainTopic("orders-retry-0")).isEqualTo("orders-retry-0");
+    }
+
+    @Test
+    void retryTopicsUseExponentialBackoffAndSkipExcludedTopics() {
+        RetryTopicConfiguration configuration = KafkaRetrySupport.retryTopicConfiguration(
+                KafkaRetrySupport.deadLetterTemplate("localhost:9092"), new KafkaRetryPolicy(1_000, 4.0, 10_000, 4), "state");
+
+        List<DestinationTopic.Properties> topics = configuration.getDestinationTopicProperties();
+        assertThat(topics).extracting(DestinationTopic.Properties::suffix)
+                .containsExactly("", "-retry-0", "-retry-1", "-retry-2", "-dlt");
+        // Lần 2, 3, 4 chờ 1s, 4s, rồi bị chặn ở 10s
+        assertThat(topics).extracting(DestinationTopic.Properties::delay)
+                .containsExactly(0L, 1_000L, 4_000L, 10_000L, 0L);
+
+        assertThat(configuration.hasConfigurationForTopics(new String[]{"orders"})).isTrue();
+        assertThat(configuration.hasConfigurationForTopics(new String[]{"state"})).isFalse();
+    }
+
+    @Test
+    void deadLetterTemplateKeepsRawBytesAndWritesEventsAsPlainJson() {
+        KafkaTemplate<String, Object> template = KafkaRetrySupport.deadLetterTemplate("localhost:9092");
+        @SuppressWarnings("unchecked")
+        Serializer<Object> serializer = (Serializer<Object>) template.getProducerFactory()
+                .getValueSerializerSupplier().get();
+
+        byte[] raw = {(byte) 0xff, 0x00, 0x7b};
+        assertThat(serializer.serialize("orders-dlt", new RecordHeaders(), raw)).isEqualTo(raw);
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = serializer.serialize("orders-retry-0", headers, new SampleEvent("42"));
+        assertThat(new String(json, StandardCharsets.UTF_8)).isEqualTo("{\"id\":\"42\"}");
+        // Không gắn __TypeId__: consumer deserialize theo class của listener
+        assertThat(headers.toArray()).isEmpty();
+    }
+
+    @Test
+    void undeserializablePayloadIsHandedToErrorHandlerInsteadOfThrowing() {
+        @SuppressWarnings("unchecked")
+        Deserializer<SampleEvent> deserializer = (Deserializer<SampleEvent>) KafkaRetrySupport
+                .consumerFactory(Map.of(), SampleEvent.class).getValueDeserializer();
+
+        RecordHeaders headers = new RecordHeaders();
+        SampleEvent event = deserializer.deserialize("orders", headers, "not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(event).isNull();
+        assertThat(headers.lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER)).isNotNull();
+
+        SampleEvent valid = deserializer.deserialize("orders", new RecordHeaders(),
+                "{\"id\":\"42\"}".getBytes(StandardCharsets.UTF_8));
+        assertThat(valid).isEqualTo(new SampleEvent("42"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.rin.dictionaryservice.config;
+
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.kafka.KafkaRetryConfiguration;
+import com.rin.englishlearning.common.kafka.KafkaRetrySupport;
+import com.rin.englishlearning.common.kafka.KafkaRetryTopics;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@Import(KafkaRetryConfiguration.class)
+public class KafkaConsumerConfig {
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    private Map<String, Object> baseProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.rin.englishlearning.common.event");
+        return props;
+    }
+
+    private <T> ConsumerFactory<String, T> consumerFactory(Class<T> eventClass) {
+        return KafkaRetrySupport.consumerFactory(baseProps(), eventClass);
+    }
+
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> containerFactory(Class<T> eventClass) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory(eventClass));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LessonWordsPublishedEvent> lessonWordsPublishedEventContainerFactory() {
+        return containerFactory(LessonWordsPublishedEvent.class);
+    }
+
+    @Bean
+    public KafkaRetryTopics kafkaRetryTopics() {
+        return KafkaRetryTopics.of(KafkaTopics.LESSON_WORDS_PUBLISHED_TOPIC);
+    }
+}
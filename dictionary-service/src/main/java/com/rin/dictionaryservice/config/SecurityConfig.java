@@ -44,6 +44,8 @@ public class SecurityConfig {
         http.csrf(AbstractHttpConfigurer::disable);
 
         http.authorizeHttpRequests(auth -> auth
+                // Admin: quản lý từ điển / vocab và xem, replay dead-letter Kafka (/admin/kafka/dead-letters)
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/vocab/subtopics/*/progress", "/vocab/subtopics/*/progress/**", "/vocab/progress/**").authenticated()
                 .anyRequest().permitAll()
         );
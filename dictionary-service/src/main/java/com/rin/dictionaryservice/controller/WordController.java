@@ -9,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/words")
@@ -23,4 +25,10 @@ public class WordController {
                 wordService.addOrGetWord(TextUtils.canonicalForm(request.getText()), request)
         );
     }
+
+    // Tra cả câu / cả lesson trong 1 request, kết quả theo thứ tự gửi lên
+    @PostMapping("/batch")
+    public ApiResponse<List<WordResponse>> addOrGetWords(@RequestBody List<WordSearchRequest> requests) {
+        return ApiResponse.success(wordService.addOrGetWords(requests));
+    }
 }
@@ -2,6 +2,7 @@ package com.rin.dictionaryservice.controller.internal;
 
 import com.rin.dictionaryservice.dto.WordReadyRequest;
 import com.rin.dictionaryservice.service.VocabService;
+import com.rin.dictionaryservice.service.support.WordLookupCache;
 import com.rin.englishlearning.common.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE, makeFinal = true)
 public class VocabWorkerController {
     VocabService  vocabService;
+    WordLookupCache wordLookupCache;
     // ─── INTERNAL: called by Python worker ───────────────────────────────────
 
     /**
@@ -29,6 +31,8 @@ public class VocabWorkerController {
     @PostMapping("/words-ready")
     public ApiResponse<String> onWordReady(@RequestBody WordReadyRequest req) {
         log.info("[VocabInternal] Word ready: key={}, pos={}", req.getWordKey(), req.getPos());
+        // Bỏ PROCESSING / FALLBACK đang cache để lần tra tiếp theo lấy bản READY
+        wordLookupCache.invalidate(req.getWordKey(), req.getPos());
         vocabService.onWordReady(req.getWordKey(), req.getPos());
         return ApiResponse.<String>builder().result("ok").build();
     }
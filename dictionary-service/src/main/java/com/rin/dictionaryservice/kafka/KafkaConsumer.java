@@ -1,8 +1,12 @@
 package com.rin.dictionaryservice.kafka;
 
+import com.rin.dictionaryservice.service.WordService;
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -10,5 +14,16 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @FieldDefaults(level = lombok.AccessLevel.PRIVATE, makeFinal = true)
 public class KafkaConsumer {
+    WordService wordService;
 
+    @KafkaListener(
+            topics = KafkaTopics.LESSON_WORDS_PUBLISHED_TOPIC,
+            containerFactory = "lessonWordsPublishedEventContainerFactory"
+    )
+    public void handleLessonWordsPublished(LessonWordsPublishedEvent event) {
+        int received = event.getWords() == null ? 0 : event.getWords().size();
+        int created = wordService.prefetchWords(event.getWords());
+        log.info("[Kafka] Prefetch lesson {} ({}/{}): {} words received, {} queued for enrichment",
+                event.getLessonId(), event.getPart() + 1, event.getTotalParts(), received, created);
+    }
 }
@@ -13,6 +13,7 @@ import com.rin.dictionaryservice.repository.VocabTopicRepository;
 import com.rin.dictionaryservice.repository.VocabWordEntryRepository;
 import com.rin.dictionaryservice.repository.WordRepository;
 import com.rin.dictionaryservice.service.support.VocabContextScoringHelper;
+import com.rin.dictionaryservice.service.support.WordLookupCache;
 import com.rin.englishlearning.common.dto.PageResponse;
 import com.rin.englishlearning.common.exception.BaseException;
 import lombok.AccessLevel;
@@ -46,6 +47,7 @@ public class AdminDictionaryService {
     VocabSubTopicRepository subTopicRepository;
     MongoTemplate mongoTemplate;
     VocabContextScoringHelper scoringHelper;
+    WordLookupCache wordLookupCache;
 
     public PageResponse<AdminWordResponse> listWords(
             String q,
@@ -211,6 +213,7 @@ public class AdminDictionaryService {
         if (request.getStatus() != null) word.setStatus(parseWordStatusRequired(request.getStatus()));
 
         wordRepository.save(word);
+        wordLookupCache.invalidate(word.getKey(), word.getPos());
         return buildWordDetailResponse(word, null, true);
     }
 
@@ -226,6 +229,7 @@ public class AdminDictionaryService {
             word.setStatus(WordCreationStatus.READY);
         }
         wordRepository.save(word);
+        wordLookupCache.invalidate(word.getKey(), word.getPos());
 
         WordDefinitionSyncSummary syncSummary = WordDefinitionSyncSummary.builder()
                 .updatedEntryCount(0)
@@ -267,6 +271,7 @@ public class AdminDictionaryService {
             word.setStatus(WordCreationStatus.READY);
         }
         wordRepository.save(word);
+        wordLookupCache.invalidate(word.getKey(), word.getPos());
 
         WordDefinitionSyncSummary syncSummary = WordDefinitionSyncSummary.builder()
                 .updatedEntryCount(0)
@@ -291,6 +296,7 @@ public class AdminDictionaryService {
             );
         }
         wordRepository.deleteById(wordId);
+        wordLookupCache.invalidate(word.getKey(), word.getPos());
     }
 
     public AdminWordDetailResponse regenerateWord(String wordId, RegenerateWordRequest request) {
@@ -300,6 +306,7 @@ public class AdminDictionaryService {
             word.setDefinitions(List.of());
         }
         wordRepository.save(word);
+        wordLookupCache.invalidate(word.getKey(), word.getPos());
         return buildWordDetailResponse(word, null, true);
     }
 
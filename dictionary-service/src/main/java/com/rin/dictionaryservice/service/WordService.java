@@ -7,13 +7,18 @@ import com.rin.dictionaryservice.model.Word;
 import com.rin.dictionaryservice.constant.WordCreationStatus;
 import com.rin.dictionaryservice.repository.WordRepository;
 import com.rin.dictionaryservice.repository.httpclient.DictionaryApiClient;
+import com.rin.dictionaryservice.service.support.WordLookupCache;
 import com.rin.dictionaryservice.utils.TextUtils;
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
 import com.rin.englishlearning.common.exception.BaseErrorCode;
 import com.rin.englishlearning.common.exception.BaseException;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -23,9 +28,14 @@ import org.springframework.stereotype.Service;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @FieldDefaults(makeFinal = true, level = lombok.AccessLevel.PRIVATE)
@@ -38,6 +48,11 @@ public class WordService {
     private static final int MAX_RETRY = 5;
     ObjectMapper objectMapper;
     DictionaryApiClient dictionaryApiClient;
+    WordLookupCache wordLookupCache;
+
+    @NonFinal
+    @Value("${app.word-batch.max-size:300}")
+    int maxBatchSize;
 
     private static final Map<String, List<String>> POS_ALIASES = Map.ofEntries(
             Map.entry("NOUN", List.of("n", "nn", "nns", "noun")),
@@ -177,12 +192,12 @@ public class WordService {
     }
 
 
-    @Cacheable(
-            value = "wordsByWordKey",
-            key = "#key + '_' + #request.posTag",
-            unless = "#result == null || #result.status != T(com.rin.dictionaryservice.dto.WordResponseStatus).READY"
-    )
-    public WordResponse addOrGetWord(
+    // Cache 2 tầng + gộp request trùng key|pos, xem WordLookupCache
+    public WordResponse addOrGetWord(String key, WordSearchRequest request) {
+        return wordLookupCache.get(key, request.getPosTag(), () -> loadOrCreateWord(key, request));
+    }
+
+    private WordResponse loadOrCreateWord(
             String key ,
             WordSearchRequest request
 
@@ -202,16 +217,8 @@ public class WordService {
 
         // ===================== FAILED =====================
         if (existingWord != null && existingWord.getStatus() == WordCreationStatus.FAILED) {
-            return WordResponse.builder()
-                    .word(wordSoft)
-                    .pos(request.getPosTag())
-                    .status(WordResponseStatus.FAILED)
-                    .entityType(request.getEntityType())
-                    .lemma(request.getLemma())
-                    .isPlaceholder(true)
-                    .message("Word processing failed. Please try again later.")
-                    .definitions(List.of())
-                    .build();
+            return placeholderResponse(wordSoft, request, WordResponseStatus.FAILED,
+                    "Word processing failed. Please try again later.");
         }
         if (!isValidWord(wordSoft)) {
             throw new BaseException(BaseErrorCode.INVALID_REQUEST, "Invalid word: " + request.getText());
@@ -219,18 +226,7 @@ public class WordService {
 
         // ===================== CREATE PENDING =====================
         if (existingWord == null) {
-            Word newWord = Word.builder()
-                    .text(wordSoft)
-                    .key(key)
-                    .entityType(request.getEntityType())
-                    .pos(request.getPosTag())
-                    .lemma(request.getLemma())
-                    .context(request.getContext())
-                    .status(WordCreationStatus.PENDING)
-                    .retryCount(0)
-                    .build();
-
-            wordRepository.save(newWord);
+            wordRepository.save(newPendingWord(key, wordSoft, request));
         }
 
         // ===================== FALLBACK =====================
@@ -239,18 +235,168 @@ public class WordService {
         }
 
         // ===================== PROCESSING =====================
+        return placeholderResponse(wordSoft, request, WordResponseStatus.PROCESSING,
+                "Word is being processed. Please check back later for high-quality data.");
+    }
+
+    /**
+     * Tra nhiều từ 1 lần (cả câu / cả lesson), kết quả theo đúng thứ tự request.
+     * Cache đọc bằng 1 MGET, phần miss đọc Mongo bằng 1 query $in, từ chưa có được tạo PENDING bằng 1 bulk insert.
+     * Khác addOrGetWord: không gọi dictionary API fallback (N request ra ngoài) và từ không hợp lệ trả placeholder
+     * FAILED thay vì lỗi cả batch.
+     */
+    public List<WordResponse> addOrGetWords(List<WordSearchRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new BaseException(BaseErrorCode.INVALID_REQUEST,
+                    "Batch must contain between 1 and " + maxBatchSize + " words");
+        }
+
+        // Request đầu tiên của mỗi key|pos quyết định text / context khi tạo Word mới
+        Map<String, WordSearchRequest> byCacheKey = new LinkedHashMap<>();
+        List<String> cacheKeys = new ArrayList<>(requests.size());
+        for (WordSearchRequest request : requests) {
+            String key = TextUtils.canonicalForm(request.getText());
+            String cacheKey = key == null ? null : WordLookupCache.cacheKey(key, request.getPosTag());
+            cacheKeys.add(cacheKey);
+            if (cacheKey != null) byCacheKey.putIfAbsent(cacheKey, request);
+        }
+
+        Map<String, WordResponse> found = wordLookupCache.getAll(byCacheKey.keySet(),
+                missing -> loadOrCreateWords(missing, byCacheKey));
+
+        List<WordResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            WordResponse response = cacheKeys.get(i) == null ? null : found.get(cacheKeys.get(i));
+            responses.add(response != null ? response : invalidWordResponse(requests.get(i)));
+        }
+        return responses;
+    }
+
+    private Map<String, WordResponse> loadOrCreateWords(Set<String> cacheKeys, Map<String, WordSearchRequest> byCacheKey) {
+        Set<String> keys = new HashSet<>();
+        for (String cacheKey : cacheKeys) {
+            keys.add(TextUtils.canonicalForm(byCacheKey.get(cacheKey).getText()));
+        }
+
+        // 1 query $in theo key (prefix của index {key, pos}), mỗi key chỉ vài pos → lọc đúng cặp trong bộ nhớ
+        Map<String, Word> existing = new HashMap<>();
+        for (Word word : mongoTemplate.find(Query.query(Criteria.where("key").in(keys)), Word.class)) {
+            existing.put(WordLookupCache.cacheKey(word.getKey(), word.getPos()), word);
+        }
+
+        Map<String, WordResponse> responses = new HashMap<>();
+        List<Word> created = new ArrayList<>();
+        for (String cacheKey : cacheKeys) {
+            WordSearchRequest request = byCacheKey.get(cacheKey);
+            String wordSoft = TextUtils.normalizeWordSoft(request.getText());
+            Word word = existing.get(cacheKey);
+
+            if (word != null && word.getStatus() == WordCreationStatus.READY) {
+                responses.put(cacheKey, dictionaryMapper.toWordResponse(word));
+            } else if (word != null && word.getStatus() == WordCreationStatus.FAILED) {
+                responses.put(cacheKey, placeholderResponse(wordSoft, request, WordResponseStatus.FAILED,
+                        "Word processing failed. Please try again later."));
+            } else if (!isValidWord(wordSoft)) {
+                responses.put(cacheKey, invalidWordResponse(request));
+            } else {
+                if (word == null) {
+                    created.add(newPendingWord(TextUtils.canonicalForm(request.getText()), wordSoft, request));
+                }
+                responses.put(cacheKey, placeholderResponse(wordSoft, request, WordResponseStatus.PROCESSING,
+                        "Word is being processed. Please check back later for high-quality data."));
+            }
+        }
+
+        if (!created.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Word.class).insert(created).execute();
+            } catch (BulkOperationException e) {
+                // Trùng unique (key, pos) với request khác vừa tạo → Word đã có, vẫn là PROCESSING
+                log.warn("Batch word insert had {} write errors", e.getErrors().size());
+            }
+        }
+        return responses;
+    }
+
+    private Word newPendingWord(String key, String wordSoft, WordSearchRequest request) {
+        return Word.builder()
+                .text(wordSoft)
+                .key(key)
+                .entityType(request.getEntityType())
+                .pos(request.getPosTag())
+                .lemma(request.getLemma())
+                .context(request.getContext())
+                .status(WordCreationStatus.PENDING)
+                .retryCount(0)
+                .build();
+    }
+
+    private WordResponse placeholderResponse(String wordSoft, WordSearchRequest request, WordResponseStatus status,
+                                             String message) {
         return WordResponse.builder()
                 .word(wordSoft)
                 .pos(request.getPosTag())
                 .entityType(request.getEntityType())
                 .lemma(request.getLemma())
-                .status(WordResponseStatus.PROCESSING)
+                .status(status)
                 .isPlaceholder(true)
-                .message("Word is being processed. Please check back later for high-quality data.")
+                .message(message)
                 .definitions(List.of())
                 .build();
     }
 
+    private WordResponse invalidWordResponse(WordSearchRequest request) {
+        String wordSoft = TextUtils.normalizeWordSoft(request.getText());
+        return placeholderResponse(wordSoft != null ? wordSoft : request.getText(), request,
+                WordResponseStatus.FAILED, "Invalid word: " + request.getText());
+    }
+
+    /**
+     * Tạo sẵn Word PENDING cho các từ của lesson vừa publish (worker enrich lấy PENDING theo createdAt),
+     * key / text / pos tính giống addOrGetWord để lần click sau trúng đúng document.
+     * Upsert chỉ ghi khi chưa có (setOnInsert) nên từ đã READY / FAILED / đang xử lý giữ nguyên,
+     * event bị gửi lại cũng không tạo trùng.
+     *
+     * @return số Word mới được tạo
+     */
+    public int prefetchWords(List<LessonWordsPublishedEvent.Word> words) {
+        if (words == null || words.isEmpty()) return 0;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Word.class);
+        Set<String> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (LessonWordsPublishedEvent.Word word : words) {
+            String wordSoft = TextUtils.normalizeWordSoft(word.getWordText());
+            String key = TextUtils.canonicalForm(word.getWordText());
+            String pos = word.getPosTag() == null || word.getPosTag().isBlank() ? "NOUN" : word.getPosTag();
+            if (key == null || !isValidWord(wordSoft) || !seen.add(key + "_" + pos)) continue;
+
+            bulk.upsert(
+                    Query.query(Criteria.where("key").is(key).and("pos").is(pos)),
+                    new Update()
+                            .setOnInsert("text", wordSoft)
+                            .setOnInsert("entityType", word.getEntityType())
+                            .setOnInsert("lemma", word.getLemma())
+                            .setOnInsert("context", word.getContext())
+                            .setOnInsert("status", WordCreationStatus.PENDING)
+                            .setOnInsert("retryCount", 0)
+                            .setOnInsert("isPhrase", false)
+                            .setOnInsert("isValid", true)
+                            .setOnInsert("createdAt", now)
+                            .setOnInsert("updatedAt", now)
+            );
+        }
+        if (seen.isEmpty()) return 0;
+
+        try {
+            return bulk.execute().getUpserts().size();
+        } catch (BulkOperationException e) {
+            // Trùng unique (key, pos) do learner click cùng lúc → document đã có, các upsert khác vẫn chạy (UNORDERED)
+            log.warn("Prefetch upsert had {} write errors", e.getErrors().size());
+            return e.getResult().getUpserts().size();
+        }
+    }
+
     private WordResponse fetchFallbackResponse(String text, String pos, String entityType,  String lemma) {
         try {
             List<DictionaryApiResponse> apiResponses = dictionaryApiClient.getWord(text);
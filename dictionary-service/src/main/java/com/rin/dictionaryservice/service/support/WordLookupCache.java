@@ -0,0 +1,309 @@
+package com.rin.dictionaryservice.service.support;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rin.dictionaryservice.dto.WordResponse;
+import com.rin.dictionaryservice.dto.WordResponseStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache tra từ 2 tầng cho WordService.addOrGetWord:
+ * <ul>
+ *     <li>L1: Caffeine trong từng instance, READY giữ lâu, PROCESSING / FALLBACK / FAILED chỉ giữ vài giây</li>
+ *     <li>L2: Redis (cache "wordsByWordKey"), chỉ kết quả READY</li>
+ * </ul>
+ * Nhiều request cùng key|pos lúc miss chỉ load 1 lần: request đầu tự load, các request sau chờ cùng future.
+ * Tra nhiều từ (getAll) dùng 1 MGET cho L2 và 1 lần gọi loader cho toàn bộ key còn thiếu; kết quả chưa READY
+ * của batch không ở lại L1 vì batch và get đơn trả placeholder khác nhau cho cùng key.
+ * Word READY / bị admin sửa → invalidate L2 và L1 mọi instance qua Redis pub/sub.
+ */
+@Component
+@Slf4j
+public class WordLookupCache {
+
+    public static final String REDIS_CACHE_NAME = "wordsByWordKey";
+    static final String INVALIDATION_CHANNEL = "dictionary:word-lookup:invalidate";
+
+    private final Cache redisCache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AsyncCache<String, WordResponse> local;
+
+    public WordLookupCache(
+            CacheManager cacheManager,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.word-cache.local.max-entries:20000}") long maxEntries,
+            @Value("${app.word-cache.local.ready-ttl-seconds:600}") long readyTtlSeconds,
+            @Value("${app.word-cache.local.pending-ttl-seconds:5}") long pendingTtlSeconds
+    ) {
+        this.redisCache = cacheManager.getCache(REDIS_CACHE_NAME);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new StatusExpiry(Duration.ofSeconds(readyTtlSeconds), Duration.ofSeconds(pendingTtlSeconds)))
+                .buildAsync();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> local.synchronous().invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public static String cacheKey(String key, String pos) {
+        return key + "_" + pos;
+    }
+
+    /**
+     * L1 → L2 → loader. Lỗi của loader (BaseException từ validate) trả nguyên cho mọi request đang chờ, không cache.
+     */
+    public WordResponse get(String key, String pos, Supplier<WordResponse> loader) {
+        if (key == null) return loader.get();
+
+        String cacheKey = cacheKey(key, pos);
+        CompletableFuture<WordResponse> mine = new CompletableFuture<>();
+        CompletableFuture<WordResponse> existing = local.asMap().putIfAbsent(cacheKey, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            WordResponse response = readRedis(cacheKey);
+            if (response == null) {
+                response = loader.get();
+                // Bị invalidate trong lúc load → kết quả có thể đã cũ, không ghi lên L2
+                if (isReady(response) && local.asMap().get(cacheKey) == mine) {
+                    writeRedis(cacheKey, response);
+                }
+            }
+            // Future hoàn thành với null → Caffeine tự bỏ entry
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Bản nhiều key của get: key đang được request khác load thì chờ kết quả đó, còn lại đọc L2 bằng 1 MGET,
+     * phần miss đưa cho loader trong 1 lần gọi.
+     *
+     * @param loader nhận các cache key còn thiếu, trả response theo cache key
+     * @return response theo cache key; key mà request khác load lỗi thì không có trong map
+     */
+    public Map<String, WordResponse> getAll(Collection<String> cacheKeys,
+                                            Function<Set<String>, Map<String, WordResponse>> loader) {
+        Map<String, CompletableFuture<WordResponse>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<WordResponse>> waiting = new LinkedHashMap<>();
+        for (String cacheKey : new LinkedHashSet<>(cacheKeys)) {
+            CompletableFuture<WordResponse> mine = new CompletableFuture<>();
+            CompletableFuture<WordResponse> existing = local.asMap().putIfAbsent(cacheKey, mine);
+            if (existing != null) {
+                waiting.put(cacheKey, existing);
+            } else {
+                owned.put(cacheKey, mine);
+            }
+        }
+
+        Map<String, WordResponse> results = new HashMap<>();
+        try {
+            if (!owned.isEmpty()) {
+                Map<String, WordResponse> fromRedis = readRedis(owned.keySet());
+                fromRedis.forEach((cacheKey, response) -> owned.get(cacheKey).complete(response));
+                results.putAll(fromRedis);
+
+                Set<String> missing = new LinkedHashSet<>(owned.keySet());
+                missing.removeAll(fromRedis.keySet());
+                if (!missing.isEmpty()) {
+                    Map<String, WordResponse> loaded = loader.apply(missing);
+                    Map<String, WordResponse> ready = new LinkedHashMap<>();
+                    for (String cacheKey : missing) {
+                        WordResponse response = loaded.get(cacheKey);
+                        if (isReady(response) && local.asMap().get(cacheKey) == owned.get(cacheKey)) {
+                            ready.put(cacheKey, response);
+                        }
+                        owned.get(cacheKey).complete(response);
+                        // Request đang chờ đã giữ future; get() sau đó phải tự load ra FALLBACK của nó
+                        if (!isReady(response)) local.asMap().remove(cacheKey, owned.get(cacheKey));
+                        if (response != null) results.put(cacheKey, response);
+                    }
+                    writeRedis(ready);
+                }
+            }
+        } catch (RuntimeException e) {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+
+        waiting.forEach((cacheKey, future) -> {
+            try {
+                WordResponse response = join(future);
+                if (response != null) results.put(cacheKey, response);
+            } catch (RuntimeException e) {
+                log.debug("Concurrent lookup of {} failed: {}", cacheKey, e.getMessage());
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Gọi sau khi Word (key, pos) đổi nội dung / trạng thái.
+     */
+    public void invalidate(String key, String pos) {
+        if (key == null) return;
+
+        String cacheKey = cacheKey(key, pos);
+        local.synchronous().invalidate(cacheKey);
+        try {
+            if (redisCache != null) redisCache.evict(cacheKey);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, cacheKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to propagate word cache invalidation for {}: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    private WordResponse readRedis(String cacheKey) {
+        if (redisCache == null) return null;
+        try {
+            return redisCache.get(cacheKey, WordResponse.class);
+        } catch (RuntimeException e) {
+            // Redis lỗi → đọc thẳng Mongo thay vì làm hỏng request
+            log.warn("Word cache read failed for {}: {}", cacheKey, e.getMessage());
+            return null;
+        }
+    }
+
+    // RedisCache không có multi-get → MGET thẳng trên key / serializer của cache
+    private Map<String, WordResponse> readRedis(Collection<String> cacheKeys) {
+        Map<String, WordResponse> found = new HashMap<>();
+        if (!(redisCache instanceof RedisCache cache)) {
+            cacheKeys.forEach(cacheKey -> {
+                WordResponse response = readRedis(cacheKey);
+                if (response != null) found.put(cacheKey, response);
+            });
+            return found;
+        }
+
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        List<String> keys = new ArrayList<>(cacheKeys);
+        byte[][] redisKeys = keys.stream().map(cacheKey -> redisKey(config, cacheKey)).toArray(byte[][]::new);
+        try {
+            List<byte[]> values = redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(redisKeys));
+            if (values == null) return found;
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] value = values.get(i);
+                if (value == null) continue;
+                Object response = config.getValueSerializationPair().read(ByteBuffer.wrap(value));
+                if (response instanceof WordResponse wordResponse) found.put(keys.get(i), wordResponse);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Word cache multi-read failed for {} keys: {}", keys.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    private void writeRedis(Map<String, WordResponse> responses) {
+        if (responses.isEmpty()) return;
+        if (!(redisCache instanceof RedisCache cache)) {
+            responses.forEach(this::writeRedis);
+            return;
+        }
+
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                responses.forEach((cacheKey, response) -> {
+                    ByteBuffer value = config.getValueSerializationPair().write(response);
+                    byte[] bytes = new byte[value.remaining()];
+                    value.get(bytes);
+                    Duration ttl = config.getTtlFunction().getTimeToLive(cacheKey, response);
+                    connection.stringCommands().set(redisKey(config, cacheKey), bytes,
+                            ttl == null || ttl.isZero() || ttl.isNegative()
+                                    ? Expiration.persistent() : Expiration.from(ttl),
+                            RedisStringCommands.SetOption.upsert());
+                });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Word cache multi-write failed for {} keys: {}", responses.size(), e.getMessage());
+        }
+    }
+
+    private byte[] redisKey(RedisCacheConfiguration config, String cacheKey) {
+        return (config.getKeyPrefixFor(REDIS_CACHE_NAME) + cacheKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writeRedis(String cacheKey, WordResponse response) {
+        if (redisCache == null) return;
+        try {
+            redisCache.put(cacheKey, response);
+        } catch (RuntimeException e) {
+            log.warn("Word cache write failed for {}: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    private static WordResponse join(CompletableFuture<WordResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static boolean isReady(WordResponse response) {
+        return response != null && response.getStatus() == WordResponseStatus.READY;
+    }
+
+    private record StatusExpiry(Duration readyTtl, Duration pendingTtl) implements Expiry<String, WordResponse> {
+        @Override
+        public long expireAfterCreate(String key, WordResponse value, long currentTime) {
+            return (isReady(value) ? readyTtl : pendingTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, WordResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, WordResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.rin.dictionaryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.dictionaryservice.constant.WordCreationStatus;
+import com.rin.dictionaryservice.dto.WordResponse;
+import com.rin.dictionaryservice.dto.WordResponseStatus;
+import com.rin.dictionaryservice.dto.WordSearchRequest;
+import com.rin.dictionaryservice.mapper.DictionaryMapper;
+import com.rin.dictionaryservice.model.Word;
+import com.rin.dictionaryservice.repository.WordRepository;
+import com.rin.dictionaryservice.repository.httpclient.DictionaryApiClient;
+import com.rin.dictionaryservice.service.support.WordLookupCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WordServiceBatchTest {
+    @Mock WordRepository wordRepository;
+    @Mock MongoTemplate mongoTemplate;
+    @Mock DictionaryMapper dictionaryMapper;
+    @Mock DictionaryApiClient dictionaryApiClient;
+    @Mock BulkOperations bulkOperations;
+
+    private WordService service;
+
+    @BeforeEach
+    void setUp() {
+        WordLookupCache cache = new WordLookupCache(new ConcurrentMapCacheManager(WordLookupCache.REDIS_CACHE_NAME),
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), 100, 600, 5);
+        service = new WordService(wordRepository, mongoTemplate, dictionaryMapper, new ObjectMapper(),
+                dictionaryApiClient, cache);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 300);
+    }
+
+    @Test
+    void resolvesBatchWithOneQueryAndOneBulkInsertInRequestOrder() {
+        Word ready = Word.builder().key("run").pos("VERB").text("run").status(WordCreationStatus.READY).build();
+        when(mongoTemplate.find(any(Query.class), eq(Word.class))).thenReturn(List.of(ready));
+        when(dictionaryMapper.toWordResponse(ready)).thenReturn(
+                WordResponse.builder().word("run").pos("VERB").status(WordResponseStatus.READY).build());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Word.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        List<WordResponse> responses = service.addOrGetWords(List.of(
+                request("Forest,", "PROPN"),
+                request("run", "VERB"),
+                request("50%", "NUM"),
+                request("Run!", "VERB")));
+
+        assertThat(responses).extracting(WordResponse::getStatus).containsExactly(
+                WordResponseStatus.PROCESSING, WordResponseStatus.READY, WordResponseStatus.FAILED,
+                WordResponseStatus.READY);
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Word.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Word>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(inserted.capture());
+        assertThat(inserted.getValue()).singleElement().satisfies(word -> {
+            assertThat(word.getKey()).isEqualTo("forest");
+            assertThat(word.getText()).isEqualTo("Forest");
+            assertThat(word.getStatus()).isEqualTo(WordCreationStatus.PENDING);
+        });
+
+        // Lần 2 từ READY trúng cache, không query Mongo nữa (PROCESSING không giữ ở L1 → không xét ở đây)
+        service.addOrGetWords(List.of(request("run", "VERB"), request("Run", "VERB")));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Word.class));
+    }
+
+    private static WordSearchRequest request(String text, String pos) {
+        return WordSearchRequest.builder().text(text).posTag(pos).context("Run, Forest, run!").build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.rin.dictionaryservice.service.support;
+
+import com.rin.dictionaryservice.dto.WordResponse;
+import com.rin.dictionaryservice.dto.WordResponseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class WordLookupCacheTest {
+
+    private CacheManager cacheManager;
+    private StringRedisTemplate redisTemplate;
+    private WordLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(WordLookupCache.REDIS_CACHE_NAME);
+        redisTemplate = mock(StringRedisTemplate.class);
+        cache = new WordLookupCache(cacheManager, redisTemplate, mock(RedisMessageListenerContainer.class),
+                100, 600, 60);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = pool.submit(() -> cache.get("run", "VERB", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return response(WordResponseStatus.READY);
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> result : results) {
+                assertThat(((WordResponse) result.get(5, TimeUnit.SECONDS)).getStatus())
+                        .isEqualTo(WordResponseStatus.READY);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cacheManager.getCache(WordLookupCache.REDIS_CACHE_NAME).get("run_VERB")).isNotNull();
+    }
+
+    @Test
+    void pendingStaysLocalUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("run", "VERB", () -> { loads.incrementAndGet(); return response(WordResponseStatus.PROCESSING); });
+        WordResponse cached = cache.get("run", "VERB", () -> { loads.incrementAndGet(); return null; });
+
+        // PROCESSING chỉ nằm ở L1, không ghi lên Redis
+        assertThat(cached.getStatus()).isEqualTo(WordResponseStatus.PROCESSING);
+        assertThat(loads).hasValue(1);
+        assertThat(cacheManager.getCache(WordLookupCache.REDIS_CACHE_NAME).get("run_VERB")).isNull();
+
+        cache.invalidate("run", "VERB");
+        verify(redisTemplate).convertAndSend("dictionary:word-lookup:invalidate", "run_VERB");
+
+        WordResponse ready = cache.get("run", "VERB", () -> { loads.incrementAndGet(); return response(WordResponseStatus.READY); });
+        assertThat(ready.getStatus()).isEqualTo(WordResponseStatus.READY);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void pendingBatchResultIsNotServedToSingleLookup() {
+        Map<String, WordResponse> batch = cache.getAll(List.of("run_VERB"),
+                missing -> Map.of("run_VERB", response(WordResponseStatus.PROCESSING)));
+        assertThat(batch.get("run_VERB").getStatus()).isEqualTo(WordResponseStatus.PROCESSING);
+
+        // POST /words ngay sau đó vẫn nhận FALLBACK của chính nó, không phải placeholder của batch
+        WordResponse single = cache.get("run", "VERB", () -> response(WordResponseStatus.FALLBACK));
+        assertThat(single.getStatus()).isEqualTo(WordResponseStatus.FALLBACK);
+    }
+
+    private static WordResponse response(WordResponseStatus status) {
+        return WordResponse.builder().word("run").pos("VERB").status(status).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
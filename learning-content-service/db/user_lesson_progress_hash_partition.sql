@@ -0,0 +1,88 @@
+-- =====================================================================================
+-- Chuyển user_lesson_progress sang hash partition theo user_id (PostgreSQL 13+).
+--
+-- Chạy 1 lần, lúc bảo trì (service learning-content tắt hoặc chặn ghi progress):
+--   psql -h <host> -U <user> -d learning-content -v partitions=16 -f db/user_lesson_progress_hash_partition.sql
+--
+-- - Bảng cũ được đổi tên thành user_lesson_progress_legacy, dữ liệu copy sang bảng mới trong cùng transaction.
+-- - PK mới là (id, user_id) vì Postgres bắt buộc PK/unique của bảng partition chứa partition key.
+--   Entity vẫn dùng id làm @Id; @PartitionKey trên userId để UPDATE/DELETE kèm user_id → prune.
+-- - id lấy từ sequence riêng (DEFAULT nextval), Hibernate IDENTITY vẫn đọc generated key như cũ.
+-- - Số partition không đổi được sau này nếu không migrate lại → chọn dư (16/32).
+-- - Sau khi kiểm tra xong:  DROP TABLE user_lesson_progress_legacy;
+-- =====================================================================================
+
+\if :{?partitions}
+\else
+\set partitions 16
+\endif
+
+BEGIN;
+
+LOCK TABLE user_lesson_progress IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE user_lesson_progress RENAME TO user_lesson_progress_legacy;
+
+-- Tên constraint / index là duy nhất trong schema → đổi tên các object của bảng cũ trước
+ALTER TABLE user_lesson_progress_legacy RENAME CONSTRAINT user_lesson_progress_pkey TO user_lesson_progress_legacy_pkey;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_user_lesson_progress_user_lesson_mode') THEN
+        ALTER TABLE user_lesson_progress_legacy RENAME CONSTRAINT uk_user_lesson_progress_user_lesson_mode
+            TO uk_user_lesson_progress_legacy_user_lesson_mode;
+    END IF;
+END $$;
+ALTER INDEX IF EXISTS idx_user_lesson_progress_lookup RENAME TO idx_user_lesson_progress_legacy_lookup;
+ALTER INDEX IF EXISTS idx_user_lesson_progress_lesson RENAME TO idx_user_lesson_progress_legacy_lesson;
+
+-- user_lesson_progress_id_seq vẫn thuộc cột identity của bảng cũ → dùng tên khác
+CREATE SEQUENCE user_lesson_progress_part_id_seq AS bigint;
+
+CREATE TABLE user_lesson_progress (
+    id                       bigint       NOT NULL DEFAULT nextval('user_lesson_progress_part_id_seq'),
+    user_id                  varchar(255) NOT NULL,
+    lesson_id                bigint       NOT NULL,
+    mode                     varchar(50)  NOT NULL,
+    status                   varchar(50)  NOT NULL,
+    lesson_version           integer,
+    progress_items           jsonb,
+    retired_items            jsonb,
+    lesson_score             double precision,
+    completed_sentence_count integer,
+    total_sentence_count     integer,
+    completed_at             bigint,
+    revision                 bigint,
+    reset_revision           bigint,
+    updated_at               timestamp(6),
+    CONSTRAINT user_lesson_progress_pkey PRIMARY KEY (id, user_id),
+    CONSTRAINT uk_user_lesson_progress_user_lesson_mode UNIQUE (user_id, lesson_id, mode)
+) PARTITION BY HASH (user_id);
+
+ALTER SEQUENCE user_lesson_progress_part_id_seq OWNED BY user_lesson_progress.id;
+
+SELECT format('CREATE TABLE user_lesson_progress_p%s PARTITION OF user_lesson_progress '
+                  'FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+              lpad(r::text, 2, '0'), :partitions, r)
+FROM generate_series(0, :partitions - 1) AS r
+\gexec
+
+-- Index trên bảng cha được tạo tự động ở mọi partition
+CREATE INDEX idx_user_lesson_progress_lookup ON user_lesson_progress (user_id, lesson_id, mode);
+CREATE INDEX idx_user_lesson_progress_lesson ON user_lesson_progress (lesson_id);
+
+INSERT INTO user_lesson_progress (id, user_id, lesson_id, mode, status, lesson_version, progress_items,
+                                  retired_items, lesson_score, completed_sentence_count, total_sentence_count, completed_at,
+                                  revision, reset_revision, updated_at)
+SELECT id, user_id, lesson_id, mode, status, lesson_version, progress_items,
+       retired_items, lesson_score, completed_sentence_count, total_sentence_count, completed_at,
+       revision, reset_revision, updated_at
+FROM user_lesson_progress_legacy;
+
+SELECT setval('user_lesson_progress_part_id_seq', COALESCE((SELECT MAX(id) FROM user_lesson_progress), 0) + 1, false);
+
+ANALYZE user_lesson_progress;
+
+COMMIT;
+
+-- Kiểm tra pruning: plan chỉ được có 1 partition
+-- EXPLAIN SELECT * FROM user_lesson_progress WHERE user_id = 'some-user' AND lesson_id IN (1, 2, 3);
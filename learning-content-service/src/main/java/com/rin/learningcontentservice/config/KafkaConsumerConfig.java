@@ -1,11 +1,15 @@
 package com.rin.learningcontentservice.config;
 
 import com.rin.englishlearning.common.event.LessonProcessingStepUpdatedEvent;
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.kafka.KafkaRetryConfiguration;
+import com.rin.englishlearning.common.kafka.KafkaRetrySupport;
+import com.rin.englishlearning.common.kafka.KafkaRetryTopics;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -14,6 +18,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Import(KafkaRetryConfiguration.class)
 public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -31,11 +36,7 @@ public class KafkaConsumerConfig {
     @Bean
     public ConsumerFactory<String, LessonProcessingStepUpdatedEvent> lessonProcessingStepUpdatedConsumerFactory() {
         Map<String, Object> props = baseProps();
-        return new org.springframework.kafka.core.DefaultKafkaConsumerFactory<>(
-                props,
-                new StringDeserializer(),
-                new JsonDeserializer<>(LessonProcessingStepUpdatedEvent.class)
-        );
+        return KafkaRetrySupport.consumerFactory(props, LessonProcessingStepUpdatedEvent.class);
     }
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, LessonProcessingStepUpdatedEvent> lessonProcessingStepUpdatedKafkaListenerContainerFactory() {
@@ -43,4 +44,9 @@ public class KafkaConsumerConfig {
         factory.setConsumerFactory(lessonProcessingStepUpdatedConsumerFactory());
         return factory;
     }
+
+    @Bean
+    public KafkaRetryTopics kafkaRetryTopics() {
+        return KafkaRetryTopics.of(KafkaTopics.LESSON_PROCESSING_STEP_UPDATED_TOPIC);
+    }
 }
@@ -0,0 +1,15 @@
+package com.rin.learningcontentservice.config;
+
+import com.rin.englishlearning.common.kafka.KafkaTopicDefinitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic lessonProcessingStateTopic() {
+        return KafkaTopicDefinitions.lessonProcessingState();
+    }
+}
@@ -0,0 +1,107 @@
+package com.rin.learningcontentservice.config;
+
+import com.rin.learningcontentservice.service.ReadYourWritesTracker;
+import com.rin.learningcontentservice.utils.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transaction readOnly trong 1 HTTP request → replica (round-robin các replica có lag trong ngưỡng), còn lại → primary.
+ * Việc hệ thống (Kafka consumer, scheduler, background pool) thường đọc ngay dữ liệu vừa ghi nên luôn đi primary.
+ * Phải được bọc bởi LazyConnectionDataSourceProxy để connection chỉ được lấy sau khi cờ readOnly đã set.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // Đang replay mà còn WAL chưa apply → lag = now - thời điểm transaction cuối được replay; đã bắt kịp → 0
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END
+            """;
+
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile boolean[] healthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker, long maxLagMs) {
+        this.replicas = replicas;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagMs = maxLagMs;
+        this.healthy = new boolean[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.requiresPrimary(SecurityUtils.getCurrentUserId())) {
+            return PRIMARY;
+        }
+
+        boolean[] current = healthy;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, current.length));
+        for (int i = 0; i < current.length; i++) {
+            int index = (start + i) % current.length;
+            if (current[index]) return replicaKey(index);
+        }
+        // Không replica nào đủ mới → fallback primary
+        return PRIMARY;
+    }
+
+    /**
+     * Đo lag của từng replica, replica lỗi kết nối hoặc lag vượt ngưỡng bị loại cho tới lần kiểm tra sau.
+     */
+    public void refreshReplicaHealth() {
+        boolean[] updated = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                double lagMs = rs.next() ? rs.getDouble(1) : Double.MAX_VALUE;
+                updated[i] = lagMs <= maxLagMs;
+                if (!updated[i]) {
+                    log.warn("Replica {} lagging {} ms (> {} ms), routing reads to primary", i, (long) lagMs, maxLagMs);
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} unavailable: {}", i, e.getMessage());
+            }
+        }
+        healthy = updated;
+    }
+
+    private static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
@@ -0,0 +1,79 @@
+package com.rin.learningcontentservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache (JCache + Caffeine, local từng instance) cho Topic và phần scalar của Lesson.
+ * Ghi qua entity thì Hibernate tự cập nhật cache lúc commit; instance khác được báo evict qua Redis
+ * (xem EntityCacheService, LessonCacheEvictionListener), TTL chỉ là lưới an toàn khi message bị mất.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String TOPIC_REGION = "topics";
+    public static final String TOPIC_SLUG_REGION = "topics-by-slug";
+    public static final String LESSON_REGION = "lessons";
+
+    @Value("${app.l2-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.l2-cache.topics-max-entries:1000}")
+    private long topicsMaxEntries;
+
+    @Value("${app.l2-cache.lessons-max-entries:20000}")
+    private long lessonsMaxEntries;
+
+    public Map<String, Long> regionMaxEntries() {
+        return Map.of(
+                TOPIC_REGION, topicsMaxEntries,
+                TOPIC_SLUG_REGION, topicsMaxEntries,
+                LESSON_REGION, lessonsMaxEntries
+        );
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        regionMaxEntries().forEach((region, maxEntries) -> {
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, regionConfiguration(maxEntries));
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            // Cần cho hit ratio trong /admin/cache/stats và metrics hibernate.second.level.cache.*
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -16,6 +16,7 @@ public class SecurityConfig {
 //                .cors(cors-> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                                .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                                 .anyRequest().permitAll()
                 )
                 .oauth2ResourceServer(resource -> resource
@@ -0,0 +1,29 @@
+package com.rin.learningcontentservice.controller;
+
+import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.HomeFeedResponse;
+import com.rin.learningcontentservice.service.HomeFeedService;
+import com.rin.learningcontentservice.utils.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/home")
+public class HomeController {
+
+    private final HomeFeedService homeFeedService;
+
+    /**
+     * Gộp topic active, lesson mới nhất mỗi topic (kèm progress của user) và danh sách học dở trong 1 request
+     */
+    @GetMapping("/feed")
+    public ApiResponse<HomeFeedResponse> getHomeFeed(
+            @RequestParam(defaultValue = "10") int resumeSize) {
+        return ApiResponse.success(homeFeedService.getHomeFeed(
+                SecurityUtils.getCurrentUserId(), Math.min(50, Math.max(1, resumeSize))));
+    }
+}
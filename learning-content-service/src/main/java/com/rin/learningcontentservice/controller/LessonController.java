@@ -1,19 +1,45 @@
 package com.rin.learningcontentservice.controller;
 
 import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.LessonAudioRangesResponse;
 import com.rin.learningcontentservice.dto.response.LessonDetailsResponse;
+import com.rin.learningcontentservice.dto.response.LessonDiffResponse;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyResponse;
+import com.rin.learningcontentservice.dto.response.RecommendedLessonsResponse;
 import com.rin.learningcontentservice.dto.response.HomeLessonResponse;
+import com.rin.learningcontentservice.dto.response.TranscriptSearchHit;
+import com.rin.learningcontentservice.model.TranscriptQueryType;
+import com.rin.learningcontentservice.service.LessonAudioIndexService;
+import com.rin.learningcontentservice.service.LessonPackService;
+import com.rin.learningcontentservice.service.LessonRecommendationService;
 import com.rin.learningcontentservice.service.LessonService;
+import com.rin.learningcontentservice.service.LessonVocabularyService;
+import com.rin.learningcontentservice.service.TranscriptSearchService;
 import com.rin.learningcontentservice.utils.SecurityUtils;
 import com.rin.englishlearning.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.TimeUnit;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/lessons")
 public class LessonController {
     private final LessonService lessonService;
+    private final TranscriptSearchService transcriptSearchService;
+    private final LessonVocabularyService lessonVocabularyService;
+    private final LessonAudioIndexService lessonAudioIndexService;
+    private final LessonPackService lessonPackService;
+    private final LessonRecommendationService lessonRecommendationService;
 
     @GetMapping("/explore")
     public ApiResponse<PageResponse<HomeLessonResponse>> explore(
@@ -31,6 +57,27 @@ public class LessonController {
                 SecurityUtils.getCurrentUserId()));
     }
 
+    /**
+     * Lesson gợi ý cho user hiện tại (tính sẵn theo level, topic đã học, độ mới), xếp hạng giảm dần
+     */
+    @GetMapping("/recommended")
+    public ApiResponse<RecommendedLessonsResponse> getRecommended(@RequestParam(defaultValue = "20") int limit) {
+        return ApiResponse.success(lessonRecommendationService.getRecommended(
+                SecurityUtils.getCurrentUserId(), Math.min(50, Math.max(1, limit))));
+    }
+
+    /**
+     * Tìm lesson (đã publish) có câu chứa cụm từ / cụm lemma, trả về vị trí sentence + audioStartMs
+     */
+    @GetMapping("/transcripts/search")
+    public ApiResponse<PageResponse<TranscriptSearchHit>> searchTranscripts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "PHRASE") TranscriptQueryType type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(transcriptSearchService.search(q, type, true, page, size));
+    }
+
     @GetMapping("/{id}")
     public ApiResponse<LessonDetailsResponse> getLessonDetails(
             @PathVariable Long id
@@ -40,5 +87,48 @@ public class LessonController {
         );
     }
 
+    @GetMapping("/{id}/diff")
+    public ApiResponse<LessonDiffResponse> getLessonDiff(
+            @PathVariable Long id,
+            @RequestParam("from") Integer fromVersion
+    ) {
+        return ApiResponse.success(lessonService.getLessonDiff(id, fromVersion));
+    }
+
+    /**
+     * Danh sách lemma (kèm tần suất, POS, vị trí xuất hiện đầu tiên) của lesson, dùng để prefetch dictionary
+     */
+    @GetMapping("/{id}/vocabulary")
+    public ApiResponse<LessonVocabularyResponse> getLessonVocabulary(@PathVariable Long id) {
+        return ApiResponse.success(lessonVocabularyService.getVocabulary(id));
+    }
 
+    /**
+     * Byte range (HTTP Range) trong file audio của từng sentence active, dùng cho replay từng câu
+     */
+    @GetMapping("/{id}/audio-ranges")
+    public ApiResponse<LessonAudioRangesResponse> getAudioRanges(@PathVariable Long id) {
+        return ApiResponse.success(lessonAudioIndexService.getAudioRanges(id));
+    }
+
+    /**
+     * Gói offline (zip: lesson + vocabulary + audio), stream trực tiếp; client gửi lại ETag để tránh tải lại
+     */
+    @GetMapping("/{id}/pack")
+    public ResponseEntity<StreamingResponseBody> downloadLessonPack(@PathVariable Long id, WebRequest webRequest) {
+        String etag = lessonPackService.packEtag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // Audio được mở ở đây: lỗi trả 502 trước khi gửi 200 + ETag + Cache-Control
+        LessonPackService.LessonPack pack = lessonPackService.preparePack(id);
+        return ResponseEntity.ok()
+                .eTag(pack.etag())
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate())
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(pack.slug() + ".zip").build().toString())
+                .body(out -> lessonPackService.writePack(pack, out));
+    }
 }
@@ -1,9 +1,13 @@
 package com.rin.learningcontentservice.controller;
 
 import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.request.DictationGradeRequest;
 import com.rin.learningcontentservice.dto.request.ProgressBatchRequest;
 import com.rin.learningcontentservice.dto.request.ProgressUpdateRequest;
+import com.rin.learningcontentservice.dto.response.DictationGradeResponse;
 import com.rin.learningcontentservice.dto.response.ProgressUpdateResponse;
+import com.rin.learningcontentservice.dto.response.UserLessonProgressDto;
+import com.rin.learningcontentservice.model.LearningMode;
 import com.rin.learningcontentservice.service.LessonProcessingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -30,4 +34,23 @@ public class LessonProcessingController {
     public ResponseEntity<ApiResponse<ProgressUpdateResponse>> updateBatchProgress(@Valid @RequestBody ProgressBatchRequest request) {
         return ResponseEntity.ok(ApiResponse.success(lessonProcessingService.updateBatchProgress(request)));
     }
+
+    /**
+     * Delta sync tiến độ: chỉ trả các progressItems thay đổi sau sinceRevision
+     */
+    @GetMapping("/progress/sync")
+    public ResponseEntity<ApiResponse<UserLessonProgressDto>> syncProgress(
+            @RequestParam Long lessonId,
+            @RequestParam LearningMode mode,
+            @RequestParam(required = false) Long sinceRevision) {
+        return ResponseEntity.ok(ApiResponse.success(lessonProcessingService.syncProgress(lessonId, mode, sinceRevision)));
+    }
+
+    /**
+     * Chấm dictation phía server và cập nhật tiến độ luôn bằng điểm vừa chấm
+     */
+    @PostMapping("/dictation/grade")
+    public ResponseEntity<ApiResponse<DictationGradeResponse>> gradeDictation(@Valid @RequestBody DictationGradeRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(lessonProcessingService.gradeDictation(request)));
+    }
 }
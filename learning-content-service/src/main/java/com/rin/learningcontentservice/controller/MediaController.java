@@ -0,0 +1,120 @@
+package com.rin.learningcontentservice.controller;
+
+import com.rin.learningcontentservice.service.MediaService;
+import com.rin.learningcontentservice.service.support.HttpByteRange;
+import com.rin.learningcontentservice.service.support.LocalMediaCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stream file media từ local cache: hỗ trợ Range (1 khoảng), If-Range, If-None-Match.
+ * Dùng sendfile của Tomcat khi connector hỗ trợ, không thì FileChannel.transferTo.
+ */
+@RestController
+@RequestMapping("/media")
+@ConditionalOnProperty(prefix = "app.media", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MediaController {
+
+    // Cùng ngưỡng mặc định với DefaultServlet của Tomcat, file nhỏ hơn copy thường còn nhanh hơn
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private final MediaService mediaService;
+
+    @GetMapping("/lessons/{id}/audio")
+    public void getLessonAudio(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(mediaService.getLessonAudio(id), request, response);
+    }
+
+    @GetMapping("/lessons/{id}/thumbnail")
+    public void getLessonThumbnail(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(mediaService.getLessonThumbnail(id), request, response);
+    }
+
+    @GetMapping("/remote")
+    public void getRemote(@RequestParam String url, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(mediaService.getRemote(url), request, response);
+    }
+
+    private void serve(LocalMediaCache.Entry media, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long size = media.getSize();
+        response.setHeader(HttpHeaders.ETAG, media.getEtag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Trình duyệt không được đoán lại kiểu nội dung (chỉ phục vụ audio / ảnh raster)
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), media.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // If-Range lệch ETag → file đã đổi, trả full thay vì ghép khoảng của 2 phiên bản
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        HttpByteRange range = ifRange == null || ifRange.equals(media.getEtag())
+                ? HttpByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+                : null;
+
+        if (range != null && !range.isSatisfiable()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+
+        long start = range == null ? 0 : range.start();
+        long length = range == null ? size : range.length();
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        response.setContentType(media.getContentType());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) return;
+
+        if (length >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat tự gửi file bằng sendfile sau khi handler return (zero-copy kernel → socket)
+            request.setAttribute("org.apache.tomcat.sendfile.filename", media.getFile().toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(media.getFile(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) break;
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals("*") || value.equals(etag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rin.learningcontentservice.controller.admin;
+
+import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.EntityCacheStatsResponse;
+import com.rin.learningcontentservice.service.EntityCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/cache")
+public class AdminCacheController {
+
+    private final EntityCacheService entityCacheService;
+
+    /**
+     * Hit ratio + số entry từng region, kèm số câu SQL kể từ lần reset gần nhất
+     */
+    @GetMapping("/stats")
+    public ApiResponse<EntityCacheStatsResponse> getStats() {
+        return ApiResponse.success(entityCacheService.getStats());
+    }
+
+    @PostMapping("/stats/reset")
+    public ApiResponse<Void> resetStats() {
+        entityCacheService.resetStats();
+        return ApiResponse.success("Cache statistics reset successfully");
+    }
+
+    /**
+     * Dùng sau khi sửa dữ liệu trực tiếp trong DB
+     */
+    @DeleteMapping
+    public ApiResponse<Void> evictAll() {
+        entityCacheService.evictAll();
+        return ApiResponse.success("Second-level cache evicted successfully");
+    }
+
+    @DeleteMapping("/topics/{id}")
+    public ApiResponse<Void> evictTopic(@PathVariable Long id) {
+        entityCacheService.evictTopic(id);
+        return ApiResponse.success("Topic evicted from cache successfully");
+    }
+
+    @DeleteMapping("/lessons/{id}")
+    public ApiResponse<Void> evictLesson(@PathVariable Long id) {
+        entityCacheService.evictLesson(id);
+        return ApiResponse.success("Lesson evicted from cache successfully");
+    }
+}
@@ -1,23 +1,43 @@
 package com.rin.learningcontentservice.controller.admin;
+import com.rin.englishlearning.common.constants.LessonSourceType;
 import com.rin.englishlearning.common.dto.ApiResponse;
 import com.rin.learningcontentservice.dto.request.AddLessonRequest;
+import com.rin.learningcontentservice.dto.request.BulkImportLessonRequest;
 import com.rin.learningcontentservice.dto.request.EditLessonRequest;
 import com.rin.learningcontentservice.dto.request.LessonFilterRequest;
 import com.rin.learningcontentservice.dto.response.LessonDetailsResponse;
+import com.rin.learningcontentservice.dto.response.LessonImportResponse;
+import com.rin.learningcontentservice.dto.response.LessonPipelineTimelineResponse;
 import com.rin.learningcontentservice.dto.response.LessonSummaryResponse;
 import com.rin.learningcontentservice.dto.response.LessonResponse;
+import com.rin.learningcontentservice.dto.response.SentenceDifficultyResponse;
+import com.rin.learningcontentservice.dto.response.TranscriptSearchHit;
+import com.rin.learningcontentservice.model.LearningMode;
+import com.rin.learningcontentservice.model.TranscriptQueryType;
+import com.rin.learningcontentservice.service.LessonImportService;
+import com.rin.learningcontentservice.service.LessonPipelineTimelineService;
 import com.rin.learningcontentservice.service.LessonService;
+import com.rin.learningcontentservice.service.SentenceDifficultyService;
+import com.rin.learningcontentservice.service.TranscriptSearchService;
+import com.rin.englishlearning.common.dto.PageResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
 @RestController
 @RequestMapping("/admin/lessons")
 @RequiredArgsConstructor
 public class AdminLessonController {
 
     private final LessonService lessonService;
+    private final TranscriptSearchService transcriptSearchService;
+    private final SentenceDifficultyService sentenceDifficultyService;
+    private final LessonImportService lessonImportService;
+    private final LessonPipelineTimelineService lessonPipelineTimelineService;
 
     @PostMapping
     public ApiResponse<LessonSummaryResponse> generateLessons(
@@ -25,6 +45,20 @@ public class AdminLessonController {
         return ApiResponse.success(lessonService.addLesson(request));
     }
 
+    /**
+     * Import hàng loạt (list URL và/hoặc YouTube playlist) vào 1 topic, lesson được nhả dần vào pipeline
+     */
+    @PostMapping("/imports")
+    public ApiResponse<LessonImportResponse> importLessons(
+            @RequestBody BulkImportLessonRequest request) {
+        return ApiResponse.success(lessonImportService.importLessons(request));
+    }
+
+    @GetMapping("/imports/{batchId}")
+    public ApiResponse<LessonImportResponse> getImport(@PathVariable Long batchId) {
+        return ApiResponse.success(lessonImportService.getImport(batchId));
+    }
+
     @GetMapping
     public ApiResponse<Page<LessonResponse>> getAllLessons(
             LessonFilterRequest filter,
@@ -86,4 +120,49 @@ public class AdminLessonController {
     ) {
         return ApiResponse.success(lessonService.updateLesson(id, request), "Lesson updated successfully");
     }
-}
\ No newline at end of file
+
+    /**
+     * Thời điểm đạt từng step của lần generate gần nhất
+     */
+    @GetMapping("/{id}/pipeline-timeline")
+    public ApiResponse<LessonPipelineTimelineResponse> getPipelineTimeline(@PathVariable Long id) {
+        return ApiResponse.success(lessonPipelineTimelineService.getTimeline(id));
+    }
+
+    /**
+     * Lesson chạy pipeline lâu nhất trong sinceHours giờ gần nhất (mặc định 7 ngày)
+     */
+    @GetMapping("/pipeline/slowest")
+    public ApiResponse<List<LessonPipelineTimelineResponse>> getSlowestPipelineRuns(
+            @RequestParam(defaultValue = "168") int sinceHours,
+            @RequestParam(required = false) LessonSourceType sourceType,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ApiResponse.success(lessonPipelineTimelineService.getSlowest(sinceHours, sourceType, limit));
+    }
+
+    @GetMapping("/transcripts/search")
+    public ApiResponse<PageResponse<TranscriptSearchHit>> searchTranscripts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "PHRASE") TranscriptQueryType type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(transcriptSearchService.search(q, type, false, page, size));
+    }
+
+    @PostMapping("/transcripts/reindex")
+    public ApiResponse<Integer> rebuildTranscriptIndex() {
+        return ApiResponse.success(transcriptSearchService.rebuild(), "Transcript index rebuilt successfully");
+    }
+
+    /**
+     * Các sentence learner làm kém nhất (điểm trung bình thấp nhất) của lesson theo mode
+     */
+    @GetMapping("/{id}/hardest-sentences")
+    public ApiResponse<List<SentenceDifficultyResponse>> getHardestSentences(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "DICTATION") LearningMode mode,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "5") long minAttempts) {
+        return ApiResponse.success(sentenceDifficultyService.getHardestSentences(id, mode, limit, minAttempts));
+    }
+}
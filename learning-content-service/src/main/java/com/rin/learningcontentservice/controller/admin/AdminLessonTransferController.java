@@ -0,0 +1,50 @@
+package com.rin.learningcontentservice.controller.admin;
+
+import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.LessonTransferImportResponse;
+import com.rin.learningcontentservice.service.LessonTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/lessons/transfer")
+public class AdminLessonTransferController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final LessonTransferService lessonTransferService;
+
+    /**
+     * Export topic + lesson READY (kèm sentence, word) dạng NDJSON, stream trực tiếp từ cursor DB
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLessons(
+            @RequestParam(required = false) String topicSlug,
+            @RequestParam(defaultValue = "false") boolean publishedOnly) {
+        LessonTransferService.ExportRequest request = lessonTransferService.prepareExport(topicSlug, publishedOnly);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("lessons-export.ndjson").build().toString())
+                .body(out -> lessonTransferService.writeExport(request, out));
+    }
+
+    /**
+     * Import file do /export tạo ra (body là NDJSON thô), lesson có nguồn đã tồn tại bị bỏ qua
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ApiResponse<LessonTransferImportResponse> importLessons(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "false") boolean publish) throws IOException {
+        return ApiResponse.success(lessonTransferService.importLessons(request.getInputStream(), publish));
+    }
+}
@@ -0,0 +1,35 @@
+package com.rin.learningcontentservice.controller.admin;
+
+import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.LessonWordMigrationResponse;
+import com.rin.learningcontentservice.dto.response.LessonWordStorageStatsResponse;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.service.LessonWordMigrationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/lesson-words")
+public class AdminLessonWordController {
+
+    private final LessonWordMigrationService lessonWordMigrationService;
+
+    /**
+     * Số dòng, dung lượng bảng, thời gian ghi / đọc word của 2 chế độ lưu
+     */
+    @GetMapping("/stats")
+    public ApiResponse<LessonWordStorageStatsResponse> getStats() {
+        return ApiResponse.success(lessonWordMigrationService.getStats());
+    }
+
+    /**
+     * Chuyển tối đa limit lesson sang target, gọi lại tới khi remainingLessons = 0
+     */
+    @PostMapping("/migrate")
+    public ApiResponse<LessonWordMigrationResponse> migrate(
+            @RequestParam LessonWordStorageMode target,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ApiResponse.success(lessonWordMigrationService.migrate(target, limit));
+    }
+}
@@ -3,6 +3,7 @@ package com.rin.learningcontentservice.dto.request;
 import com.rin.englishlearning.common.constants.CefrLevel;
 import com.rin.englishlearning.common.constants.LessonSourceType;
 import com.rin.englishlearning.common.constants.SourceLicenseType;
+import com.rin.learningcontentservice.model.GenerationPriority;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,4 +26,6 @@ public class AddLessonRequest {
     private SourceLicenseType sourceLicenseType;
     private Boolean enableDictation;
     private Boolean enableShadowing;
+    // Mặc định NORMAL
+    private GenerationPriority priority;
 }
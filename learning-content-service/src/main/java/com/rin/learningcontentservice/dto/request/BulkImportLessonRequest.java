@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.dto.request;
+
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.constants.SourceLicenseType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class BulkImportLessonRequest {
+    private String topicSlug;
+    // Mặc định YOUTUBE
+    private LessonSourceType sourceType;
+    private List<String> urls;
+    // Chỉ với YOUTUBE: expand thành danh sách video, gộp với urls
+    private String playlistId;
+    private SourceLicenseType sourceLicenseType;
+    private Boolean enableDictation;
+    private Boolean enableShadowing;
+}
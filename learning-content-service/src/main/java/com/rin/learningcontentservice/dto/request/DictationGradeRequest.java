@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DictationGradeRequest {
+    @NotNull(message = "Lesson ID cannot be null")
+    private Long lessonId;
+
+    @NotNull(message = "Sentence ID cannot be null")
+    private Long sentenceId;
+
+    @NotNull(message = "Typed text cannot be null")
+    @Size(max = 2000, message = "Typed text must be at most 2000 characters")
+    private String typedText;
+
+    private Long sinceRevision;
+}
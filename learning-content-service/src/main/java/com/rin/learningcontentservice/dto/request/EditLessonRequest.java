@@ -19,4 +19,6 @@ public class EditLessonRequest {
     private String thumbnailUrl;
     private Boolean enableDictation;
     private Boolean enableShadowing;
+    // Chuyển lesson sang topic khác (null = giữ nguyên)
+    private String topicSlug;
 }
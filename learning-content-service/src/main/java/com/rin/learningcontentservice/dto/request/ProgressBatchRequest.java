@@ -19,4 +19,6 @@ public class ProgressBatchRequest {
     private LearningMode mode; // SHADOWING, DICTATION...
 
     private Double score;
+
+    private Long sinceRevision;
 }
\ No newline at end of file
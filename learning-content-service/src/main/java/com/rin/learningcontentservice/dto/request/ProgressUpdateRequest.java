@@ -20,4 +20,7 @@ public class ProgressUpdateRequest {
 
     @NotNull(message = "Score cannot be null")
     private Double score; // Dùng chung: với Shadowing là weightedAccuracy, với Dictation có thể là % đúng
+
+    // Optional: revision client đang giữ, nếu có thì response chỉ trả các progressItems thay đổi sau revision này
+    private Long sinceRevision;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DictationGradeResponse {
+    private Long sentenceId;
+    private double score;
+    private int correctCount;
+    private int missingCount;
+    private int extraCount;
+    private List<DictationWordResult> words;
+    private ProgressUpdateResponse progressUpdate;
+}
@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rin.learningcontentservice.model.DictationWordStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DictationWordResult {
+    private Long wordId;         // null với từ EXTRA
+    private String expected;     // wordNormalized, null với từ EXTRA
+    private String typed;        // null với từ MISSING
+    private DictationWordStatus status;
+}
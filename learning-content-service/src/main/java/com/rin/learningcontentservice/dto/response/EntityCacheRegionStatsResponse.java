@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class EntityCacheRegionStatsResponse {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private Double hitRatio; // null khi chưa có request nào
+    private long entries; // Ước lượng của Caffeine, dùng làm thước đo bộ nhớ chiếm dụng
+    private long maxEntries;
+}
@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class EntityCacheStatsResponse {
+    private Instant since; // Thời điểm bắt đầu đếm (khởi động hoặc lần reset gần nhất)
+    private List<EntityCacheRegionStatsResponse> regions;
+    // Số câu SQL đã gửi xuống DB → reset, gọi 1 trang N lần rồi chia N để biết số round trip mỗi trang
+    private long prepareStatementCount;
+    private long entityLoadCount;
+    private long naturalIdQueryCount;
+}
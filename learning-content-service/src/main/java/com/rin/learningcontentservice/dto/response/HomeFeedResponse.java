@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HomeFeedResponse {
+    private List<HomeFeedTopicResponse> topics;
+    // null với khách chưa đăng nhập
+    private ResumeLearningResponse resume;
+}
@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HomeFeedTopicResponse {
+    private TopicSummaryResponse topic;
+    // Lesson publish mới nhất của topic, mới → cũ
+    private List<HomeLessonResponse> latestLessons;
+}
@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LessonAudioRangesResponse {
+    private Long lessonId;
+    private String audioUrl;
+    // false khi index chưa build xong → client seek cả file như cũ
+    private Boolean ready;
+    private List<SentenceAudioRangeResponse> sentences;
+}
@@ -0,0 +1,25 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LessonDiffResponse {
+    private Long lessonId;
+    private Integer fromVersion;
+    private Integer toVersion;
+
+    // true: lịch sử không đủ (hoặc diff lớn hơn payload) → client thay cache bằng `lesson`
+    private boolean fullPayload;
+    private List<LessonSentenceChangeResponse> changes;
+    private LessonDetailsResponse lesson;
+}
@@ -0,0 +1,28 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonImportResponse {
+    private Long batchId;
+    private Integer requestedCount;
+    private Integer createdCount;
+    private Integer duplicateCount;
+    private Integer invalidCount;
+    // Chỉ có trong response lúc tạo
+    private List<String> duplicateUrls;
+    private List<String> invalidUrls;
+    // Tiến độ hiện tại
+    private Integer queuedCount;
+    private Integer runningCount;
+    private Integer completedCount;
+    private Integer failedCount;
+}
@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonPipelineStepResponse {
+    private LessonProcessingStep step;
+    private Timestamp reachedAt;
+    private Double offsetSeconds; // Tính từ lúc tạo AI job
+    private Double durationSeconds; // Tính từ step trước, null với step đầu tiên
+}
@@ -0,0 +1,29 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonPipelineTimelineResponse {
+    private Long lessonId;
+    private String title;
+    private LessonSourceType sourceType;
+    private String aiJobId;
+    private LessonProcessingStep lastStep;
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+    private Integer audioSeconds;
+    private Double totalSeconds;
+    private Double secondsPerAudioMinute;
+    private List<LessonPipelineStepResponse> steps;
+}
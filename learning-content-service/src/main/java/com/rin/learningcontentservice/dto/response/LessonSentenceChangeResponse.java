@@ -0,0 +1,21 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rin.learningcontentservice.model.LessonChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LessonSentenceChangeResponse {
+    private Long sentenceId;
+    private LessonChangeType changeType;
+    // REORDERED chỉ cần orderIndex mới, ADDED/UPDATED kèm sentence đầy đủ, REMOVED chỉ có sentenceId
+    private Integer orderIndex;
+    private LessonSentenceDetailsResponse sentence;
+}
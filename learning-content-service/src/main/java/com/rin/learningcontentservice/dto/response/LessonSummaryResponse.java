@@ -13,4 +13,7 @@ public class LessonSummaryResponse {
     private Long id;
     private String title;
     private String slug;
+    // Chỉ có khi lesson đang chờ trong hàng đợi generate
+    private Long queuePosition;
+    private Long estimatedWaitSeconds;
 }
@@ -0,0 +1,21 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonTransferImportResponse {
+    private int topicsCreated;
+    private int importedLessons;
+    private int skippedLessons; // Nguồn (video ID / URL) đã có ở môi trường này
+    @Builder.Default
+    private List<String> failedLessons = new ArrayList<>(); // "<nguồn hoặc title>: <lỗi>"
+}
@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LessonVocabularyResponse {
+    private Long lessonId;
+    private Integer lessonVersion;
+    private Integer totalWordCount;
+    private Integer uniqueLemmaCount;
+    private Map<String, Integer> posDistribution;
+    private List<LessonVocabularyWordResponse> words;
+}
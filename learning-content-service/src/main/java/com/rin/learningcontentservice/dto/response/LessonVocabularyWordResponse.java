@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LessonVocabularyWordResponse {
+    private String lemma;
+    private String text;
+    private String posTag;
+    private String entityType;
+    private Integer frequency;
+    private Long firstSentenceId;
+    private Integer firstAudioStartMs;
+}
@@ -0,0 +1,21 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonWordMigrationResponse {
+    private LessonWordStorageMode target;
+    private int migratedLessons;
+    private long migratedWords;
+    private List<Long> failedLessonIds;
+    private long remainingLessons; // Gọi lại tới khi = 0
+}
@@ -0,0 +1,28 @@
+package com.rin.learningcontentservice.dto.response;
+
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class LessonWordStorageStatsResponse {
+    private LessonWordStorageMode mode; // Chế độ dùng cho lesson generate mới
+    private long wordRows;              // Số dòng lesson_words
+    private long embeddedSentences;     // Số câu lưu word dạng jsonb
+    private long embeddedWords;         // Tổng số word trong các mảng jsonb
+    private long lessonsWithWordRows;
+    private long lessonsWithEmbeddedWords;
+    // pg_total_relation_size: bảng + index + TOAST
+    private long lessonWordsBytes;
+    private long lessonSentencesBytes;
+    // Thời gian trung bình từ lúc khởi động, null nếu chưa có mẫu nào
+    private Double rowsIngestMeanMs;
+    private Double embeddedIngestMeanMs;
+    private Double rowsLoadMeanMs;
+    private Double embeddedLoadMeanMs;
+}
@@ -0,0 +1,20 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecommendedLessonsResponse {
+    // Level CEFR ước lượng từ lịch sử học, null khi chưa đủ dữ liệu
+    private String estimatedLevel;
+    private Timestamp computedAt;
+    private List<HomeLessonResponse> lessons;
+}
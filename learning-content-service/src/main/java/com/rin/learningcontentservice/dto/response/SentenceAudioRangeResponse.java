@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SentenceAudioRangeResponse {
+    private Long sentenceId;
+    private Integer audioStartMs;
+    private Integer audioEndMs;
+    private Long byteStart; // inclusive
+    private Long byteEnd;   // inclusive → header "Range: bytes={byteStart}-{byteEnd}"
+}
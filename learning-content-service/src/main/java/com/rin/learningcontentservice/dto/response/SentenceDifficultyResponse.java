@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SentenceDifficultyResponse {
+    private Long sentenceId;
+    private Integer orderIndex;
+    private String textDisplay;
+    private Long attemptCount;
+    private Long learnerCount;
+    private Double meanScore;
+    private Double scoreStdDev;
+    private Double attemptsPerLearner;
+    private int[] bestScoreHistogram;
+}
@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranscriptSearchHit {
+    private Long lessonId;
+    private String lessonTitle;
+    private String lessonSlug;
+    private Long sentenceId;
+    private Integer orderIndex;
+    private Integer audioStartMs;
+    private Integer audioEndMs;
+    private String textDisplay;
+    private Float score;
+}
@@ -17,4 +17,7 @@ public class UserLessonProgressDto {
     private Integer completedSentenceCount;
     private Integer totalSentenceCount;
     private Long completedAt;
+    private Long revision;
+    // true: progressItems là toàn bộ map; false: chỉ các item thay đổi sau sinceRevision
+    private Boolean fullSync;
 }
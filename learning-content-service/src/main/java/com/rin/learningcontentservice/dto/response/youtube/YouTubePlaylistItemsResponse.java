@@ -0,0 +1,32 @@
+package com.rin.learningcontentservice.dto.response.youtube;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Phần cần dùng của response YouTube Data API v3 playlistItems.list (part=contentDetails)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class YouTubePlaylistItemsResponse {
+    private String nextPageToken;
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private ContentDetails contentDetails;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ContentDetails {
+        private String videoId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rin.learningcontentservice.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferHeader implements TransferLine {
+    public static final int CURRENT_VERSION = 1;
+
+    private int version;
+    private Instant exportedAt;
+}
@@ -0,0 +1,41 @@
+package com.rin.learningcontentservice.dto.transfer;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.constants.SourceLicenseType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferLesson implements TransferLine {
+    private String topicSlug;
+
+    private String title;
+    private String description;
+    private String dictationHint;
+    private String thumbnailUrl;
+    private CefrLevel languageLevel;
+    private SourceLicenseType sourceLicenseType;
+
+    // Nguồn: dùng để bỏ qua lesson đã có ở môi trường đích
+    private LessonSourceType sourceType;
+    private String sourceUrl;
+    private String sourceReferenceId;
+    private String sourceLanguage;
+    private String audioUrl;
+    private Integer durationSeconds;
+    private String aiMetadataUrl;
+
+    private Boolean enableDictation;
+    private Boolean enableShadowing;
+    private boolean published;
+
+    private List<TransferSentence> sentences; // Theo orderIndex
+}
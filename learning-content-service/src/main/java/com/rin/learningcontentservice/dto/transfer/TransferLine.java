@@ -0,0 +1,17 @@
+package com.rin.learningcontentservice.dto.transfer;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * 1 dòng trong file NDJSON export / import lesson giữa các môi trường, phân biệt bằng field "type".
+ * Thứ tự trong file: header → topic → lesson (mỗi lesson kèm toàn bộ sentence + word).
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = TransferHeader.class, name = "header"),
+        @JsonSubTypes.Type(value = TransferTopic.class, name = "topic"),
+        @JsonSubTypes.Type(value = TransferLesson.class, name = "lesson")
+})
+public interface TransferLine {
+}
@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.dto.transfer;
+
+import com.rin.learningcontentservice.model.SentenceWord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSentence {
+    private Integer orderIndex;
+    private String textRaw;
+    private String textDisplay;
+    private String translationVi;
+    private String phoneticUs;
+    private Integer audioStartMs;
+    private Integer audioEndMs;
+    private String audioSegmentUrl;
+    private Boolean isActive;
+    private List<SentenceWord> words; // Theo thứ tự đọc, không kèm id (id cấp lại lúc import)
+}
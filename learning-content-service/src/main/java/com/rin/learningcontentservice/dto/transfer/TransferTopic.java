@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.dto.transfer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferTopic implements TransferLine {
+    private String slug; // Khoá để khớp topic ở môi trường đích
+    private String name;
+    private String description;
+    private Boolean isActive;
+    private String color;
+}
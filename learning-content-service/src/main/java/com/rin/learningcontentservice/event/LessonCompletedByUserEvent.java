@@ -0,0 +1,14 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: user vừa hoàn thành 1 lesson (ở 1 mode), gợi ý của user cần tính lại sau commit.
+ */
+@Data
+@AllArgsConstructor
+public class LessonCompletedByUserEvent {
+    private String userId;
+    private Long lessonId;
+}
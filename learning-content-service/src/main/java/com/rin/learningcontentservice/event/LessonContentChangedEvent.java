@@ -0,0 +1,15 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event (không đi qua Kafka): nội dung / trạng thái publish của lesson vừa thay đổi.
+ * Các read-model dẫn xuất (search index, ...) lắng nghe sau khi transaction commit.
+ */
+@Data
+@AllArgsConstructor
+public class LessonContentChangedEvent {
+    private Long lessonId;
+    private boolean deleted;
+}
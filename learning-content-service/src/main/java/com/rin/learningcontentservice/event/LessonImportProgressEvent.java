@@ -0,0 +1,14 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: 1 lesson của đợt import vừa đổi trạng thái trong hàng đợi generate,
+ * LessonImportService đẩy tiến độ tổng của đợt qua kênh LessonProcessingStepNotifyEvent.
+ */
+@Data
+@AllArgsConstructor
+public class LessonImportProgressEvent {
+    private Long importBatchId;
+}
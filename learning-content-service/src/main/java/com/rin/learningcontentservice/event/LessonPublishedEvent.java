@@ -0,0 +1,14 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: lesson vừa chuyển từ chưa publish sang publish, từ vựng của lesson được gửi
+ * sang dictionary-service sau commit để enrich trước khi learner click.
+ */
+@Data
+@AllArgsConstructor
+public class LessonPublishedEvent {
+    private Long lessonId;
+}
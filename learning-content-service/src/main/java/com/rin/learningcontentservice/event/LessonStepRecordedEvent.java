@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.event;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: 1 step của pipeline vừa được ghi vào timeline,
+ * metrics chỉ ghi sau khi transaction commit (Kafka redeliver sau rollback không bị đếm 2 lần).
+ */
+@Data
+@AllArgsConstructor
+public class LessonStepRecordedEvent {
+    private LessonProcessingStep step;
+    private LessonSourceType sourceType;
+    // Thời gian từ step trước được ghi nhận, null nếu không biết step trước
+    private Long stepMillis;
+    // Tổng thời gian từ lúc tạo AI job, chỉ có khi step là COMPLETED / FAILED
+    private Long totalMillis;
+    private Integer audioSeconds;
+}
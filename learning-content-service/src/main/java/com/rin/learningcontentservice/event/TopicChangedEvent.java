@@ -0,0 +1,13 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: topic được thêm / sửa / xoá (topicId null khi xoá theo slug).
+ */
+@Data
+@AllArgsConstructor
+public class TopicChangedEvent {
+    private Long topicId;
+}
@@ -0,0 +1,14 @@
+package com.rin.learningcontentservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Spring application event: total_lesson_count / published_lesson_count của topic vừa đổi bằng bulk UPDATE,
+ * bản Topic trong second-level cache phải bỏ sau khi commit.
+ */
+@Data
+@AllArgsConstructor
+public class TopicCountersChangedEvent {
+    private Long topicId;
+}
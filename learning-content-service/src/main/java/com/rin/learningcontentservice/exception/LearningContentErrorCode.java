@@ -20,7 +20,16 @@ public enum LearningContentErrorCode implements ErrorCode {
 
     WORD_NOT_FOUND(1010, "Word not found with id: %s", HttpStatus.NOT_FOUND),
     SENTENCE_NOT_IN_SAME_LESSON(1011, "Sentences with ids: %s and %s are not in the same lesson", HttpStatus.BAD_REQUEST),
-    LESSON_PROGRESS_NOT_FOUND(1012, "Lesson progress not found for user id: %s and lesson id: %s", HttpStatus.NOT_FOUND)
+    LESSON_PROGRESS_NOT_FOUND(1012, "Lesson progress not found for user id: %s and lesson id: %s", HttpStatus.NOT_FOUND),
+    MEDIA_NOT_FOUND(1013, "Media not found for lesson id: %s", HttpStatus.NOT_FOUND),
+    MEDIA_SOURCE_NOT_ALLOWED(1014, "Media source is not allowed: %s", HttpStatus.FORBIDDEN),
+    MEDIA_FETCH_FAILED(1015, "Failed to fetch media from: %s", HttpStatus.BAD_GATEWAY),
+    INVALID_IMPORT_REQUEST(1016, "Invalid import request: %s", HttpStatus.BAD_REQUEST),
+    IMPORT_NOT_FOUND(1017, "Import batch not found with id: %s", HttpStatus.NOT_FOUND),
+    PLAYLIST_FETCH_FAILED(1018, "Failed to fetch YouTube playlist: %s", HttpStatus.BAD_GATEWAY),
+    PROCESSING_TIMELINE_NOT_FOUND(1019, "Processing timeline not found for lesson id: %s", HttpStatus.NOT_FOUND),
+    MEDIA_TYPE_NOT_ALLOWED(1020, "Media type is not allowed: %s", HttpStatus.FORBIDDEN),
+    DICTATION_INPUT_TOO_LONG(1021, "Typed text has %s words, at most %s allowed for this sentence", HttpStatus.BAD_REQUEST)
     ;
 
 
@@ -5,6 +5,7 @@ import com.rin.englishlearning.common.event.GamificationRewardEvent;
 import com.rin.englishlearning.common.event.LessonGenerationRequestedEvent;
 import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
 import com.rin.englishlearning.common.event.LessonProcessingStepUpdatedEvent;
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -38,7 +39,40 @@ public class KafkaProducer {
                         log.error("❌ Lỗi gửi LessonProcessingStepNotifyEvent: {}", ex.getMessage());
                     }
                 });
+        // Bản mới nhất theo lesson cho UI hydrate ngay khi subscribe (tiến độ import không gắn lessonId → bỏ qua)
+        if (event.getLessonId() != null) {
+            publishLessonProcessingState(event.getLessonId(), event);
+        }
     }
+
+    /**
+     * Tombstone (value = null) để compaction xóa state của lesson đã bị xóa.
+     */
+    public void publishLessonProcessingStateTombstone(Long lessonId) {
+        publishLessonProcessingState(lessonId, null);
+    }
+
+    private void publishLessonProcessingState(Long lessonId, LessonProcessingStepNotifyEvent event) {
+        kafkaTemplate.send(KafkaTopics.LESSON_PROCESSING_STATE_TOPIC, String.valueOf(lessonId), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Lỗi gửi lesson processing state cho lesson {}: {}", lessonId, ex.getMessage());
+                    }
+                });
+    }
+    public void publishLessonWordsPublished(LessonWordsPublishedEvent event) {
+        kafkaTemplate.send(KafkaTopics.LESSON_WORDS_PUBLISHED_TOPIC, String.valueOf(event.getLessonId()), event)
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        log.info("✅ Gửi {} từ của lesson {} ({}/{}) tới topic {}", event.getWords().size(),
+                                event.getLessonId(), event.getPart() + 1, event.getTotalParts(),
+                                KafkaTopics.LESSON_WORDS_PUBLISHED_TOPIC);
+                    } else {
+                        log.error("❌ Lỗi gửi LessonWordsPublishedEvent của lesson {}: {}", event.getLessonId(), ex.getMessage());
+                    }
+                });
+    }
+
     public void publishGamificationRewardEvent(GamificationRewardEvent event) {
         // Bác nhớ khai báo GAMIFICATION_REWARD_TOPIC = "gamification-reward-events" bên KafkaTopics nhé
         kafkaTemplate.send(KafkaTopics.GAMIFICATION_REWARD_TOPIC, event.getUserId(), event)
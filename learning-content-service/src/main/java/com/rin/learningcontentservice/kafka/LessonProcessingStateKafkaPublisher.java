@@ -0,0 +1,21 @@
+package com.rin.learningcontentservice.kafka;
+
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class LessonProcessingStateKafkaPublisher {
+
+    private final KafkaProducer kafkaProducer;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleLessonDeleted(LessonContentChangedEvent event) {
+        if (event.isDeleted()) {
+            kafkaProducer.publishLessonProcessingStateTombstone(event.getLessonId());
+        }
+    }
+}
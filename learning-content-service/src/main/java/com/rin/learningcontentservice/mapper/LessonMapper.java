@@ -4,16 +4,25 @@ package com.rin.learningcontentservice.mapper;
 import com.rin.learningcontentservice.dto.request.AddLessonRequest;
 import com.rin.learningcontentservice.dto.request.EditLessonRequest;
 import com.rin.learningcontentservice.dto.response.*;
+import com.rin.learningcontentservice.model.LearningMode;
 import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
 import com.rin.learningcontentservice.model.ProgressStatus;
+import com.rin.learningcontentservice.model.UserLessonProgress;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.List;
+
 
 @Mapper(componentModel = "spring")
 public interface LessonMapper {
     Lesson toLesson(AddLessonRequest lessonRequest);
 
+    // Thông tin hàng đợi do LessonGenerationQueueService.withQueueInfo gắn sau
+    @Mapping(target = "queuePosition", ignore = true)
+    @Mapping(target = "estimatedWaitSeconds", ignore = true)
     LessonSummaryResponse toLessonSummaryResponse(Lesson lesson);
 
     LessonResponse toLessonResponse(Lesson lesson);
@@ -21,6 +30,10 @@ public interface LessonMapper {
 
     LessonDetailsResponse toLessonDetailsResponse(Lesson lesson);
 
+    // Đọc word qua getOrderedWords để lesson lưu word dạng dòng hay mảng jsonb đều trả cùng một format
+    @Mapping(target = "lessonWords", source = "orderedWords")
+    LessonSentenceDetailsResponse toSentenceDetailsResponse(LessonSentence sentence);
+
     void updateLessonFromRequest(EditLessonRequest lessonRequest, @MappingTarget Lesson lesson);
 
     default int calculatePercent(int completedCount, int totalActive) {
@@ -36,4 +49,20 @@ public interface LessonMapper {
         response.setShadowingProgressPercent(0);
         response.setDictationProgressPercent(0);
     }
+
+    // Bản sao để overlay progress của từng user mà không đụng vào bản dùng chung trong cache
+    HomeLessonResponse copyHomeLesson(HomeLessonResponse source);
+
+    default void applyProgress(HomeLessonResponse response, List<UserLessonProgress> progresses) {
+        int total = response.getActiveSentenceCount() == null ? 0 : response.getActiveSentenceCount();
+        for (UserLessonProgress progress : progresses) {
+            int percent = calculatePercent(
+                    progress.getCompletedSentenceCount() == null ? 0 : progress.getCompletedSentenceCount(), total);
+            if (progress.getMode() == LearningMode.SHADOWING) {
+                response.setShadowingStatus(progress.getStatus().name()); response.setShadowingProgressPercent(percent);
+            } else if (progress.getMode() == LearningMode.DICTATION) {
+                response.setDictationStatus(progress.getStatus().name()); response.setDictationProgressPercent(percent);
+            }
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.rin.learningcontentservice.mapper;
+
+import com.rin.learningcontentservice.dto.transfer.TransferLesson;
+import com.rin.learningcontentservice.dto.transfer.TransferSentence;
+import com.rin.learningcontentservice.dto.transfer.TransferTopic;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.SentenceWord;
+import com.rin.learningcontentservice.model.Topic;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface LessonTransferMapper {
+
+    TransferTopic toTransferTopic(Topic topic);
+
+    // Id, counter và timestamp do môi trường đích tự sinh
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "totalLessonCount", ignore = true)
+    @Mapping(target = "publishedLessonCount", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "lessons", ignore = true)
+    Topic toTopic(TransferTopic topic);
+
+    @Mapping(target = "topicSlug", source = "topic.slug")
+    @Mapping(target = "published", expression = "java(lesson.getPublishedAt() != null)")
+    @Mapping(target = "sentences", ignore = true)
+    TransferLesson toTransferLesson(Lesson lesson);
+
+    @Mapping(target = "words", source = "orderedWords")
+    TransferSentence toTransferSentence(LessonSentence sentence);
+
+    // Id word là của môi trường nguồn → không export
+    default List<SentenceWord> toTransferWords(List<LessonWord> words) {
+        return words.stream()
+                .map(SentenceWord::from)
+                .peek(w -> w.setId(null))
+                .toList();
+    }
+
+    // Trạng thái pipeline / version thuộc về môi trường nguồn, import set lại theo lesson đích
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "diffBaseVersion", ignore = true)
+    @Mapping(target = "topic", ignore = true)
+    @Mapping(target = "sentences", ignore = true)
+    @Mapping(target = "slug", ignore = true)
+    @Mapping(target = "publishedAt", ignore = true)
+    @Mapping(target = "processingStep", ignore = true)
+    @Mapping(target = "totalSentences", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "aiJobId", ignore = true)
+    @Mapping(target = "aiMessage", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Lesson toLesson(TransferLesson lesson);
+}
@@ -9,5 +9,6 @@ import org.mapstruct.Mapping;
 @Mapper(componentModel = "spring")
 public interface SentenceMapper {
     @Mapping(target = "lessonId", source = "lesson.id")
+    @Mapping(target = "lessonWords", source = "orderedWords")
     LessonSentenceDetailsResponse  toDetailsResponse(LessonSentence lessonSentence);
 }
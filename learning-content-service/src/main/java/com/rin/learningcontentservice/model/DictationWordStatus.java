@@ -0,0 +1,7 @@
+package com.rin.learningcontentservice.model;
+
+public enum DictationWordStatus {
+    CORRECT,
+    MISSING,
+    EXTRA
+}
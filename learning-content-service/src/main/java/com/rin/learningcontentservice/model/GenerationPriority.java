@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.model;
+
+import lombok.Getter;
+
+/**
+ * Độ ưu tiên trong hàng đợi generate, rank nhỏ hơn được dispatch trước.
+ */
+@Getter
+public enum GenerationPriority {
+    HIGH(0),    // retry do admin bấm lại
+    NORMAL(1),  // thêm lesson lẻ
+    LOW(2);     // import hàng loạt
+
+    private final int rank;
+
+    GenerationPriority(int rank) {
+        this.rank = rank;
+    }
+
+    public static GenerationPriority fromRank(int rank) {
+        for (GenerationPriority priority : values()) {
+            if (priority.rank == rank) return priority;
+        }
+        return NORMAL;
+    }
+}
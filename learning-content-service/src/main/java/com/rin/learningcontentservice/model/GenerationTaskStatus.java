@@ -0,0 +1,11 @@
+package com.rin.learningcontentservice.model;
+
+public enum GenerationTaskStatus {
+    QUEUED,
+    DISPATCHING,   // đã chiếm slot, đang gọi language-processing tạo AI job
+    RUNNING,       // AI job đã tạo, pipeline đang chạy
+    DONE,
+    FAILED,
+    CANCELLED,
+    EXPIRED        // RUNNING quá lâu không có kết quả → trả slot, lesson chuyển ERROR
+}
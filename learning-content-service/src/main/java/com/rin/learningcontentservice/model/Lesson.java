@@ -1,11 +1,15 @@
     package com.rin.learningcontentservice.model;
 
     import com.rin.englishlearning.common.constants.*;
+    import com.rin.learningcontentservice.config.SecondLevelCacheConfig;
+    import com.rin.learningcontentservice.service.LessonCacheEvictionListener;
     import jakarta.persistence.*;
     import lombok.AllArgsConstructor;
     import lombok.Builder;
     import lombok.Data;
     import lombok.NoArgsConstructor;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
     import org.hibernate.annotations.CreationTimestamp;
     import org.hibernate.annotations.UpdateTimestamp;
 
@@ -22,6 +26,10 @@
     @NoArgsConstructor
     @Builder
     @Data
+    // Chỉ cache phần scalar + topic_id, các collection (sentences, ...) vẫn load từ DB.
+    // Mọi UPDATE / DELETE qua entity được báo evict cho instance khác sau commit
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.LESSON_REGION)
+    @EntityListeners(LessonCacheEvictionListener.class)
     public class Lesson {
 
         @Id
@@ -29,6 +37,9 @@
         private Long id;
         @Column(name = "lesson_version")
         private Integer version = 0;
+        // Version nhỏ nhất mà lesson_change_records còn đủ để tính diff, cũ hơn thì trả full payload
+        @Column(name = "diff_base_version")
+        private Integer diffBaseVersion;
         // ───────────────────────────────────────────
         // Topic reference
         @ManyToOne(fetch = FetchType.LAZY)
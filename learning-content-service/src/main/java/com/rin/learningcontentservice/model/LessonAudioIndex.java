@@ -0,0 +1,47 @@
+package com.rin.learningcontentservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+
+/**
+ * Frame index của file audio (MP3) của lesson, build 1 lần cho mỗi audioUrl.
+ * frameOffsets là offset các frame dạng delta + varint (xem Mp3FrameIndex).
+ */
+@Entity
+@Table(name = "lesson_audio_indexes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonAudioIndex {
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    // audioUrl tại thời điểm build, lesson đổi audio → build lại
+    @Column(name = "audio_url", nullable = false, length = 1000)
+    private String audioUrl;
+
+    @Column(name = "sample_rate", nullable = false)
+    private Integer sampleRate;
+
+    @Column(name = "samples_per_frame", nullable = false)
+    private Integer samplesPerFrame;
+
+    @Column(name = "frame_count", nullable = false)
+    private Integer frameCount;
+
+    @Column(name = "frame_offsets", nullable = false, columnDefinition = "bytea")
+    private byte[] frameOffsets;
+
+    @UpdateTimestamp
+    @Column(name = "indexed_at")
+    private Timestamp indexedAt;
+}
@@ -0,0 +1,46 @@
+package com.rin.learningcontentservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+/**
+ * 1 record = 1 thay đổi ở mức sentence, gắn với lesson version được tạo ra bởi thay đổi đó.
+ * Dùng để trả diff cho client đang cache lesson ở version cũ.
+ */
+@Entity
+@Table(name = "lesson_change_records", indexes = {
+        @Index(name = "idx_lesson_change_records_lesson_version", columnList = "lesson_id, lesson_version")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonChangeRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "lesson_version", nullable = false)
+    private Integer lessonVersion;
+
+    @Column(name = "sentence_id", nullable = false)
+    private Long sentenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private LessonChangeType changeType;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,8 @@
+package com.rin.learningcontentservice.model;
+
+public enum LessonChangeType {
+    ADDED,
+    REMOVED,
+    UPDATED,
+    REORDERED
+}
@@ -0,0 +1,82 @@
+package com.rin.learningcontentservice.model;
+
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * 1 lượt generate của lesson trong hàng đợi (mỗi lesson 1 dòng, retry dùng lại dòng cũ).
+ * Task QUEUED / DISPATCHING / RUNNING chiếm slot concurrency theo sourceType.
+ */
+@Entity
+@Table(
+        name = "lesson_generation_tasks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lesson_generation_tasks_lesson", columnNames = "lesson_id"),
+        indexes = {
+                @Index(name = "idx_lesson_generation_tasks_status_priority", columnList = "status, priority, enqueued_at"),
+                @Index(name = "idx_lesson_generation_tasks_import_batch", columnList = "import_batch_id")
+        }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonGenerationTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", nullable = false, length = 50)
+    private LessonSourceType sourceType;
+
+    // GenerationPriority.rank, lưu số để ORDER BY trực tiếp
+    @Column(name = "priority", nullable = false)
+    private Integer priority;
+
+    // Admin tạo / retry lesson, dùng để chia đều slot giữa các admin
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    // Đợt import hàng loạt tạo ra task này (null nếu thêm lẻ)
+    @Column(name = "import_batch_id")
+    private Long importBatchId;
+
+    @Column(name = "is_restart")
+    private Boolean isRestart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private GenerationTaskStatus status;
+
+    // Số lần gọi tạo AI job thất bại liên tiếp
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "ai_job_id")
+    private String aiJobId;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private Timestamp enqueuedAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    @Column(name = "dispatched_at")
+    private Timestamp dispatchedAt;
+
+    @Column(name = "finished_at")
+    private Timestamp finishedAt;
+}
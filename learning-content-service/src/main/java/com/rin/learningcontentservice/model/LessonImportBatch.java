@@ -0,0 +1,58 @@
+package com.rin.learningcontentservice.model;
+
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+/**
+ * 1 đợt import hàng loạt (list URL hoặc YouTube playlist). Tiến độ tính từ lesson_generation_tasks
+ * có cùng import_batch_id, bảng này chỉ giữ kết quả lúc tạo.
+ */
+@Entity
+@Table(name = "lesson_import_batches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonImportBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "topic_id", nullable = false)
+    private Long topicId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", nullable = false, length = 50)
+    private LessonSourceType sourceType;
+
+    @Column(name = "playlist_id")
+    private String playlistId;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    // Số URL gửi lên (sau khi expand playlist)
+    @Column(name = "requested_count", nullable = false)
+    private Integer requestedCount;
+
+    @Column(name = "created_count", nullable = false)
+    private Integer createdCount;
+
+    @Column(name = "duplicate_count", nullable = false)
+    private Integer duplicateCount;
+
+    @Column(name = "invalid_count", nullable = false)
+    private Integer invalidCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,60 @@
+package com.rin.learningcontentservice.model;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Timeline của lần generate gần nhất, 1 dòng / lesson (retry tạo AI job mới → reset).
+ * stepOffsetsMs[i] = số ms tính từ startedAt tới khi đạt step có order i + 1 (PROCESSING_STARTED … COMPLETED),
+ * -1 nếu step đó không được báo về.
+ */
+@Entity
+@Table(
+        name = "lesson_processing_timelines",
+        indexes = @Index(name = "idx_lesson_processing_timelines_finished", columnList = "finished_at DESC")
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonProcessingTimeline {
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "ai_job_id")
+    private String aiJobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", length = 50)
+    private LessonSourceType sourceType;
+
+    @Column(name = "started_at", nullable = false)
+    private Timestamp startedAt;
+
+    @Column(name = "step_offsets_ms", columnDefinition = "bigint[]")
+    private long[] stepOffsetsMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_step", length = 50)
+    private LessonProcessingStep lastStep;
+
+    // Biết sau SOURCE_FETCHED, dùng để chuẩn hoá latency theo phút audio
+    @Column(name = "audio_seconds")
+    private Integer audioSeconds;
+
+    // COMPLETED hoặc FAILED
+    @Column(name = "finished_at")
+    private Timestamp finishedAt;
+
+    @Column(name = "total_ms")
+    private Long totalMs;
+}
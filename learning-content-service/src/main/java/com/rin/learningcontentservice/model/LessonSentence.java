@@ -3,9 +3,13 @@ package com.rin.learningcontentservice.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Entity
@@ -84,4 +88,32 @@ public class LessonSentence {
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "sentence", fetch = FetchType.LAZY, orphanRemoval = true)
     List<LessonWord> lessonWords;
+
+    // Chế độ EMBEDDED: != null thì đây là nguồn word duy nhất của câu, lessonWords rỗng.
+    // Luôn gán list mới khi sửa để Hibernate thấy thay đổi.
+    @Column(name = "words", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<SentenceWord> words;
+
+    public boolean isWordsEmbedded() {
+        return words != null;
+    }
+
+    /**
+     * Word của câu theo thứ tự đọc, bất kể lưu dạng dòng hay mảng jsonb. Với mảng jsonb, các LessonWord
+     * trả về chỉ là bản sao để đọc, sửa word phải đi qua {@link #words}.
+     */
+    public List<LessonWord> getOrderedWords() {
+        if (words != null) {
+            List<LessonWord> ordered = new ArrayList<>(words.size());
+            for (int i = 0; i < words.size(); i++) {
+                ordered.add(words.get(i).toLessonWord(this, i));
+            }
+            return ordered;
+        }
+        if (lessonWords == null) return List.of();
+        return lessonWords.stream()
+                .sorted(Comparator.comparing(LessonWord::getOrderIndex))
+                .toList();
+    }
 }
@@ -0,0 +1,55 @@
+package com.rin.learningcontentservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vocabulary profile tính sẵn cho 1 lesson (chỉ sentence active), gắn với lesson version lúc tính.
+ * Lệch version với lesson → coi như hết hạn và tính lại.
+ */
+@Entity
+@Table(name = "lesson_vocabulary_profiles")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonVocabularyProfile {
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "lesson_version", nullable = false)
+    private Integer lessonVersion;
+
+    @Column(name = "total_word_count", nullable = false)
+    private Integer totalWordCount;
+
+    @Column(name = "unique_lemma_count", nullable = false)
+    private Integer uniqueLemmaCount;
+
+    // POS → số lần xuất hiện
+    @Builder.Default
+    @Column(name = "pos_distribution", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Integer> posDistribution = new HashMap<>();
+
+    // Sắp xếp sẵn theo frequency giảm dần, cùng frequency thì xuất hiện trước đứng trước
+    @Builder.Default
+    @Column(name = "entries", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<VocabularyEntry> entries = new ArrayList<>();
+
+    @UpdateTimestamp
+    @Column(name = "computed_at")
+    private Timestamp computedAt;
+}
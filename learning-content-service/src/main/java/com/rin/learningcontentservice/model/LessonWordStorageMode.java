@@ -0,0 +1,6 @@
+package com.rin.learningcontentservice.model;
+
+public enum LessonWordStorageMode {
+    ROWS,     // 1 dòng lesson_words cho mỗi word
+    EMBEDDED  // toàn bộ word của câu trong cột jsonb lesson_sentences.words
+}
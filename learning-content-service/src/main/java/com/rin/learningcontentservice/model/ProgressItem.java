@@ -15,4 +15,5 @@ public class ProgressItem {
     private Integer attemptCount;
     private Long firstCompletedAt;
     private Long lastPracticedAt;
+    private Long revision; // revision của UserLessonProgress lúc item này thay đổi lần cuối
 }
@@ -0,0 +1,64 @@
+package com.rin.learningcontentservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Rollup cộng dồn theo (lesson, sentence, mode), cập nhật cùng transaction với progress của learner.
+ * Ghi bằng upsert native trong SentenceDifficultyStatsRepository, entity chỉ dùng để đọc.
+ */
+@Entity
+@Table(
+        name = "sentence_difficulty_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_sentence_difficulty_stats",
+                columnNames = {"lesson_id", "sentence_id", "mode"}),
+        indexes = @Index(name = "idx_sentence_difficulty_stats_lesson_mode", columnList = "lesson_id, mode")
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SentenceDifficultyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "sentence_id", nullable = false)
+    private Long sentenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mode", nullable = false, length = 50)
+    private LearningMode mode;
+
+    // Tổng số lần làm (mọi learner)
+    @Column(name = "attempt_count", nullable = false)
+    private Long attemptCount;
+
+    // Số learner đã làm câu này ít nhất 1 lần
+    @Column(name = "learner_count", nullable = false)
+    private Long learnerCount;
+
+    // Tổng điểm và tổng bình phương điểm của mọi lần làm → mean / stddev
+    @Column(name = "score_sum", nullable = false)
+    private Double scoreSum;
+
+    @Column(name = "score_sq_sum", nullable = false)
+    private Double scoreSqSum;
+
+    // Phân bố best score của từng learner, bucket i = [i*10, i*10+10), bucket cuối gồm cả 100
+    @Column(name = "best_score_histogram", columnDefinition = "integer[]")
+    private int[] bestScoreHistogram;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+}
@@ -0,0 +1,84 @@
+package com.rin.learningcontentservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 1 phần tử trong cột lesson_sentences.words (chế độ lưu EMBEDDED), thứ tự = vị trí trong mảng.
+ * Key JSON rút gọn để cột nhỏ; nếu đổi key phải sửa cả câu migrate SQL trong LessonSentenceRepository / LessonWordRepository.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SentenceWord {
+    @JsonProperty("id")
+    private Long id; // lấy từ sequence của lesson_words → id word không đổi khi chuyển qua lại 2 chế độ
+
+    @JsonProperty("t")
+    private String text;
+
+    @JsonProperty("n")
+    private String normalized;
+
+    @JsonProperty("l")
+    private String lemma;
+
+    @JsonProperty("pos")
+    private String posTag;
+
+    @JsonProperty("ent")
+    private String entityType;
+
+    @JsonProperty("s")
+    private Integer audioStartMs;
+
+    @JsonProperty("e")
+    private Integer audioEndMs;
+
+    @JsonProperty("p")
+    private Boolean hasPunctuation;
+
+    @JsonProperty("c")
+    private Boolean isClickable;
+
+    public static SentenceWord from(LessonWord word) {
+        return SentenceWord.builder()
+                .id(word.getId())
+                .text(word.getWordText())
+                .normalized(word.getWordNormalized())
+                .lemma(word.getLemma())
+                .posTag(word.getPosTag())
+                .entityType(word.getEntityType())
+                .audioStartMs(word.getAudioStartMs())
+                .audioEndMs(word.getAudioEndMs())
+                .hasPunctuation(word.getHasPunctuation())
+                .isClickable(word.getIsClickable())
+                .build();
+    }
+
+    /**
+     * View dạng LessonWord (không được Hibernate quản lý) để code đọc word không phải biết câu đang lưu kiểu nào.
+     */
+    public LessonWord toLessonWord(LessonSentence sentence, int orderIndex) {
+        return LessonWord.builder()
+                .id(id)
+                .sentence(sentence)
+                .orderIndex(orderIndex)
+                .wordText(text)
+                .wordNormalized(normalized)
+                .lemma(lemma)
+                .posTag(posTag)
+                .entityType(entityType)
+                .audioStartMs(audioStartMs)
+                .audioEndMs(audioEndMs)
+                .hasPunctuation(hasPunctuation != null ? hasPunctuation : false)
+                .isClickable(isClickable != null ? isClickable : true)
+                .build();
+    }
+}
@@ -1,22 +1,32 @@
 package com.rin.learningcontentservice.model;
 
+import com.rin.learningcontentservice.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name="topics")
+@Table(name="topics", indexes = {
+        @Index(name = "idx_topics_active_updated", columnList = "is_active, updated_at DESC"),
+        @Index(name = "idx_topics_created", columnList = "created_at DESC")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TOPIC_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.TOPIC_SLUG_REGION)
 public class Topic {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +35,8 @@ public class Topic {
     @Column(nullable = false)
     private String name;
 
+    // Slug đổi theo tên khi admin sửa topic → natural id mutable (TopicRepository.findCachedBySlug)
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String slug;
     @Column(columnDefinition = "TEXT")
@@ -35,6 +47,17 @@ public class Topic {
 
     String color; // Highlight topic
 
+    // Đếm sẵn, chỉ ghi bằng UPDATE cộng dồn trong TopicLessonCounterService (entity không insert/update 2 cột này)
+    @Builder.Default
+    @Column(name = "total_lesson_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private Long totalLessonCount = 0L;
+
+    @Builder.Default
+    @Column(name = "published_lesson_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private Long publishedLessonCount = 0L;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
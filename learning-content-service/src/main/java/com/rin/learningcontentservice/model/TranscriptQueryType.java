@@ -0,0 +1,6 @@
+package com.rin.learningcontentservice.model;
+
+public enum TranscriptQueryType {
+    PHRASE, // khớp đúng cụm từ trong textDisplay
+    LEMMA   // khớp cụm lemma, VD: "go home" khớp "went home"
+}
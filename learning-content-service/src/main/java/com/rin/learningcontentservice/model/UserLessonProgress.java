@@ -4,6 +4,7 @@ package com.rin.learningcontentservice.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
@@ -11,13 +12,21 @@ import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Trên Postgres bảng này được hash-partition theo user_id (xem db/user_lesson_progress_hash_partition.sql):
+ * mọi query theo 1 user chỉ chạm 1 partition, PK thật trong DB là (id, user_id).
+ */
 @Entity
 @Table(
         name = "user_lesson_progress",
         uniqueConstraints = {
-                @UniqueConstraint(columnNames = {"user_id", "lesson_id", "mode"})
+                @UniqueConstraint(name = "uk_user_lesson_progress_user_lesson_mode", columnNames = {"user_id", "lesson_id", "mode"})
         },
-        indexes = @Index(name = "idx_user_lesson_progress_lookup", columnList = "user_id, lesson_id, mode")
+        indexes = {
+                @Index(name = "idx_user_lesson_progress_lookup", columnList = "user_id, lesson_id, mode"),
+                // Xoá progress theo lesson phải quét mọi partition → cần index lesson_id ở từng partition
+                @Index(name = "idx_user_lesson_progress_lesson", columnList = "lesson_id")
+        }
 )
 @Data
 @Builder
@@ -29,6 +38,8 @@ public class UserLessonProgress {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Hibernate thêm user_id vào WHERE của UPDATE / DELETE theo id → Postgres prune về đúng 1 partition
+    @PartitionKey
     @Column(name = "user_id", nullable = false)
     private String userId;
 
@@ -54,6 +65,12 @@ public class UserLessonProgress {
     @JdbcTypeCode(SqlTypes.JSON)
     private Map<Long, ProgressItem> progressItems = new HashMap<>();
 
+    // Item của câu bị tắt khi lesson đổi version: giữ lại để lần luyện sau khi câu bật lại không bị tính là learner mới
+    @Builder.Default
+    @Column(name = "retired_items", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<Long, ProgressItem> retiredItems = new HashMap<>();
+
     @Column(name = "lesson_score")
     private Double lessonScore;
 
@@ -68,6 +85,16 @@ public class UserLessonProgress {
     @Column(name = "completed_at")
     private Long completedAt;
 
+    // Tăng dần mỗi lần progressItems thay đổi, client dùng để sync delta
+    @Builder.Default
+    @Column(name = "revision")
+    private Long revision = 0L;
+
+    // Revision tại thời điểm progressItems bị cắt bớt (lesson đổi version) → client cũ phải full sync
+    @Builder.Default
+    @Column(name = "reset_revision")
+    private Long resetRevision = 0L;
+
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Timestamp updatedAt;
@@ -0,0 +1,40 @@
+package com.rin.learningcontentservice.model;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Top-N lesson gợi ý đã tính sẵn cho 1 user (xếp hạng giảm dần), đọc bằng 1 lookup theo PK.
+ */
+@Entity
+@Table(
+        name = "user_lesson_recommendations",
+        indexes = @Index(name = "idx_user_lesson_recommendations_computed", columnList = "computed_at")
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLessonRecommendation {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "lesson_ids", columnDefinition = "bigint[]", nullable = false)
+    private long[] lessonIds;
+
+    // null khi user chưa học lesson nào có level
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estimated_level", length = 10)
+    private CefrLevel estimatedLevel;
+
+    @Column(name = "computed_at", nullable = false)
+    private Timestamp computedAt;
+}
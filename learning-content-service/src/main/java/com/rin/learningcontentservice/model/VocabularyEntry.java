@@ -0,0 +1,31 @@
+package com.rin.learningcontentservice.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 1 lemma trong vocabulary profile của lesson. Lưu trong jsonb nên dùng key ngắn cho gọn.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VocabularyEntry {
+    @JsonProperty("l")
+    private String lemma;
+    @JsonProperty("w")
+    private String text;             // wordNormalized ở lần xuất hiện đầu tiên (key tra dictionary)
+    @JsonProperty("p")
+    private String posTag;
+    @JsonProperty("e")
+    private String entityType;
+    @JsonProperty("n")
+    private Integer frequency;
+    @JsonProperty("s")
+    private Long firstSentenceId;
+    @JsonProperty("t")
+    private Integer firstAudioStartMs;
+}
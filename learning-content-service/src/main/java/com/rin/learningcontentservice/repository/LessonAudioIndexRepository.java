@@ -0,0 +1,7 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.LessonAudioIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LessonAudioIndexRepository extends JpaRepository<LessonAudioIndex, Long> {
+}
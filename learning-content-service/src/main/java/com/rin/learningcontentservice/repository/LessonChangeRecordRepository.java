@@ -0,0 +1,18 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.LessonChangeRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.util.List;
+
+public interface LessonChangeRecordRepository extends JpaRepository<LessonChangeRecord, Long> {
+
+    List<LessonChangeRecord> findByLessonIdAndLessonVersionGreaterThanOrderByIdAsc(Long lessonId, Integer lessonVersion);
+
+    @Modifying
+    void deleteByLessonIdAndLessonVersionLessThanEqual(Long lessonId, Integer lessonVersion);
+
+    @Modifying
+    void deleteByLessonId(Long lessonId);
+}
@@ -0,0 +1,108 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.learningcontentservice.model.GenerationTaskStatus;
+import com.rin.learningcontentservice.model.LessonGenerationTask;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LessonGenerationTaskRepository extends JpaRepository<LessonGenerationTask, Long> {
+
+    Optional<LessonGenerationTask> findByLessonId(Long lessonId);
+
+    @Query("""
+            SELECT t FROM LessonGenerationTask t
+            WHERE t.status = :status AND t.nextAttemptAt <= :now
+            ORDER BY t.priority, t.enqueuedAt
+            """)
+    List<LessonGenerationTask> findDispatchable(@Param("status") GenerationTaskStatus status,
+                                                @Param("now") Timestamp now,
+                                                Pageable pageable);
+
+    @Query("""
+            SELECT t.sourceType, COUNT(t) FROM LessonGenerationTask t
+            WHERE t.status IN :statuses
+            GROUP BY t.sourceType
+            """)
+    List<Object[]> countBySourceType(@Param("statuses") Collection<GenerationTaskStatus> statuses);
+
+    @Query("""
+            SELECT t.requestedBy, COUNT(t) FROM LessonGenerationTask t
+            WHERE t.status IN :statuses AND t.requestedBy IS NOT NULL
+            GROUP BY t.requestedBy
+            """)
+    List<Object[]> countByRequester(@Param("statuses") Collection<GenerationTaskStatus> statuses);
+
+    // Số task cùng sourceType đứng trước (ưu tiên cao hơn, hoặc cùng ưu tiên nhưng vào hàng sớm hơn)
+    @Query("""
+            SELECT COUNT(t) FROM LessonGenerationTask t
+            WHERE t.status = :status AND t.sourceType = :sourceType
+              AND (t.priority < :priority OR (t.priority = :priority AND t.enqueuedAt < :enqueuedAt))
+            """)
+    long countAhead(@Param("status") GenerationTaskStatus status,
+                    @Param("sourceType") LessonSourceType sourceType,
+                    @Param("priority") Integer priority,
+                    @Param("enqueuedAt") Timestamp enqueuedAt);
+
+    // Thời gian chạy trung bình (giây) của 50 task xong gần nhất → ước lượng thời gian chờ
+    @Query(value = """
+            SELECT AVG(EXTRACT(EPOCH FROM (finished_at - dispatched_at))) FROM (
+                SELECT finished_at, dispatched_at FROM lesson_generation_tasks
+                WHERE status = 'DONE' AND source_type = :sourceType AND dispatched_at IS NOT NULL
+                ORDER BY finished_at DESC
+                LIMIT 50
+            ) recent
+            """, nativeQuery = true)
+    Double averageRunSeconds(@Param("sourceType") String sourceType);
+
+    // Task giữ slot quá lâu (kẹt lúc gọi tạo AI job, hoặc pipeline không báo kết quả)
+    @Query("""
+            SELECT t FROM LessonGenerationTask t
+            WHERE t.status IN :statuses AND t.dispatchedAt < :cutoff
+            """)
+    List<LessonGenerationTask> findStale(@Param("statuses") Collection<GenerationTaskStatus> statuses,
+                                         @Param("cutoff") Timestamp cutoff);
+
+    @Query("""
+            SELECT t.status, COUNT(t) FROM LessonGenerationTask t
+            WHERE t.importBatchId = :importBatchId
+            GROUP BY t.status
+            """)
+    List<Object[]> countByStatusForImport(@Param("importBatchId") Long importBatchId);
+
+    /**
+     * Task cho cả đợt import trong 1 câu INSERT, task thứ i được phép dispatch sau i * releaseIntervalMs
+     * để đợt lớn nhả dần vào pipeline thay vì chiếm hết slot cùng lúc.
+     * Khai báo bảng bị ghi (native spaces) để Hibernate không xoá toàn bộ second-level cache sau câu lệnh.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_generation_tasks"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO lesson_generation_tasks (lesson_id, source_type, priority, requested_by, import_batch_id,
+                                                 status, attempts, enqueued_at, next_attempt_at)
+            SELECT t.lesson_id, :sourceType, :priority, :requestedBy, :importBatchId,
+                   'QUEUED', 0, now(), now() + (t.ord - 1) * :releaseIntervalMs * interval '1 millisecond'
+            FROM unnest(CAST(:lessonIds AS bigint[])) WITH ORDINALITY AS t(lesson_id, ord)
+            """, nativeQuery = true)
+    int insertImportTasks(@Param("lessonIds") Long[] lessonIds,
+                          @Param("sourceType") String sourceType,
+                          @Param("priority") int priority,
+                          @Param("requestedBy") String requestedBy,
+                          @Param("importBatchId") Long importBatchId,
+                          @Param("releaseIntervalMs") long releaseIntervalMs);
+
+    // Chỉ 1 instance chọn task tại 1 thời điểm, lock tự nhả khi transaction kết thúc
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryDispatchLock(@Param("key") long key);
+}
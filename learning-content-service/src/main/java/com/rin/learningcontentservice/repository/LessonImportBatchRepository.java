@@ -0,0 +1,7 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.LessonImportBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LessonImportBatchRepository extends JpaRepository<LessonImportBatch, Long> {
+}
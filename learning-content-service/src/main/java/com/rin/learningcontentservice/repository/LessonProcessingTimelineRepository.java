@@ -0,0 +1,24 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.learningcontentservice.model.LessonProcessingTimeline;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface LessonProcessingTimelineRepository extends JpaRepository<LessonProcessingTimeline, Long> {
+
+    @Query("""
+            SELECT t FROM LessonProcessingTimeline t
+            WHERE t.finishedAt >= :since
+              AND (:sourceType IS NULL OR t.sourceType = :sourceType)
+            ORDER BY t.totalMs DESC
+            """)
+    List<LessonProcessingTimeline> findSlowestFinishedSince(@Param("since") Timestamp since,
+                                                           @Param("sourceType") LessonSourceType sourceType,
+                                                           Pageable pageable);
+}
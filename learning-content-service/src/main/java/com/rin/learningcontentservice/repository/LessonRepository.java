@@ -1,14 +1,108 @@
 package com.rin.learningcontentservice.repository;
 
+import com.rin.englishlearning.common.constants.LessonStatus;
 import com.rin.learningcontentservice.model.Lesson;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LessonRepository extends JpaRepository<Lesson, Long>, JpaSpecificationExecutor<Lesson> {
 
 
 
     Optional<Lesson> findByAiJobId(String aiJobId);
+
+    long countByTopic_Id(Long topicId);
+
+    long countByTopic_IdAndPublishedAtIsNotNull(Long topicId);
+
+    // Id của tối đa :perTopic lesson publish mới nhất trong mỗi topic đang active (home feed)
+    @Query(value = """
+            SELECT ranked.id FROM (
+                SELECT l.id, row_number() OVER (PARTITION BY l.topic_id ORDER BY l.published_at DESC, l.id DESC) AS rn
+                FROM lessons l
+                JOIN topics t ON t.id = l.topic_id
+                WHERE l.published_at IS NOT NULL AND t.is_active = true
+            ) ranked
+            WHERE ranked.rn <= :perTopic
+            """, nativeQuery = true)
+    List<Long> findLatestPublishedIdsPerTopic(@Param("perTopic") int perTopic);
+
+    // Ứng viên gợi ý: [id, topicId, languageLevel, publishedAt] của lesson đã publish trong topic active
+    @Query("""
+            SELECT l.id, l.topic.id, l.languageLevel, l.publishedAt FROM Lesson l
+            WHERE l.publishedAt IS NOT NULL AND l.topic.isActive = true
+            """)
+    List<Object[]> findRecommendationCandidates();
+
+    @Query("SELECT l FROM Lesson l JOIN FETCH l.topic WHERE l.id IN :ids")
+    List<Lesson> findAllWithTopicByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Dedup import: trả về [sourceReferenceId, sourceUrl] của lesson đã có cùng nguồn
+    @Query("""
+            SELECT l.sourceReferenceId, l.sourceUrl FROM Lesson l
+            WHERE l.sourceReferenceId IN :referenceIds OR l.sourceUrl IN :urls
+            """)
+    List<Object[]> findExistingSources(@Param("referenceIds") Collection<String> referenceIds,
+                                       @Param("urls") Collection<String> urls);
+
+    /**
+     * Tạo toàn bộ lesson của 1 đợt import bằng 1 câu INSERT nhiều dòng (IDENTITY không batch được qua JPA).
+     * Trả về [id, source_url].
+     */
+    @Query(value = """
+            INSERT INTO lessons (lesson_version, topic_id, title, slug, source_license_type, processing_step,
+                                 source_type, source_url, source_reference_id, status, ai_message,
+                                 enable_dictation, enable_shadowing, created_at, updated_at)
+            SELECT 0, :topicId, :title, t.slug, :licenseType, 'NONE',
+                   :sourceType, t.url, t.ref, 'PROCESSING', 'Queued for generation',
+                   :enableDictation, :enableShadowing, now(), now()
+            FROM unnest(CAST(:urls AS text[]), CAST(:refs AS text[]), CAST(:slugs AS text[])) AS t(url, ref, slug)
+            RETURNING id, source_url
+            """, nativeQuery = true)
+    List<Object[]> insertImportedLessons(@Param("topicId") Long topicId,
+                                         @Param("title") String title,
+                                         @Param("licenseType") String licenseType,
+                                         @Param("sourceType") String sourceType,
+                                         @Param("enableDictation") boolean enableDictation,
+                                         @Param("enableShadowing") boolean enableShadowing,
+                                         @Param("urls") String[] urls,
+                                         @Param("refs") String[] refs,
+                                         @Param("slugs") String[] slugs);
+
+    /**
+     * Cursor Postgres (fetch size) cho export NDJSON: đọc dần theo id, không đưa vào second-level cache.
+     * Phải dùng trong transaction và đóng Stream sau khi dùng.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("""
+            SELECT l FROM Lesson l JOIN FETCH l.topic
+            WHERE l.status = :status
+              AND (:topicId IS NULL OR l.topic.id = :topicId)
+              AND (:publishedOnly = false OR l.publishedAt IS NOT NULL)
+            ORDER BY l.id
+            """)
+    Stream<Lesson> streamForExport(@Param("status") LessonStatus status,
+                                   @Param("topicId") Long topicId,
+                                   @Param("publishedOnly") boolean publishedOnly);
+
+    /**
+     * Khoá dòng lesson và đọc version đã commit: các transaction cùng sửa 1 lesson (kể cả ở instance khác)
+     * tăng version lần lượt, không cấp trùng số.
+     */
+    @Query(value = "SELECT lesson_version FROM lessons WHERE id = :lessonId FOR UPDATE", nativeQuery = true)
+    Integer lockVersionById(@Param("lessonId") Long lessonId);
 }
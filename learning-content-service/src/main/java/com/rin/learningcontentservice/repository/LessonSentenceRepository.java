@@ -1,11 +1,111 @@
 package com.rin.learningcontentservice.repository;
 
 import com.rin.learningcontentservice.model.LessonSentence;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LessonSentenceRepository extends JpaRepository<LessonSentence,Long> {
 
     List<LessonSentence> findByLessonIdAndOrderIndexGreaterThan(Long lessonId, int orderIndex);
+
+    /**
+     * Load toàn bộ sentence + words của 1 lesson trong 1 query (tránh N+1 khi duyệt lessonWords).
+     */
+    @Query("""
+        SELECT DISTINCT s FROM LessonSentence s
+        LEFT JOIN FETCH s.lessonWords
+        WHERE s.lesson.id = :lessonId
+        ORDER BY s.orderIndex
+        """)
+    List<LessonSentence> findWithWordsByLessonId(@Param("lessonId") Long lessonId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT DISTINCT s FROM LessonSentence s
+        LEFT JOIN FETCH s.lessonWords
+        WHERE s.lesson.id IN :lessonIds
+        ORDER BY s.lesson.id, s.orderIndex
+        """)
+    List<LessonSentence> findWithWordsByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
+
+    /**
+     * Tạo toàn bộ sentence của 1 lesson bằng 1 câu INSERT nhiều dòng, word đi kèm dạng mảng jsonb (id đã cấp sẵn).
+     * Ở chế độ ROWS, gọi tiếp LessonWordRepository.insertFromEmbeddedWords + clearEmbeddedWords.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_sentences"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO lesson_sentences (lesson_id, order_index, text_raw, text_display, translation_vi, phonetic_us,
+                                          audio_start_ms, audio_end_ms, audio_segment_url, is_active, words,
+                                          created_at, updated_at)
+            SELECT :lessonId, t.order_index, t.text_raw, t.text_display, t.translation_vi, t.phonetic_us,
+                   t.audio_start_ms, t.audio_end_ms, t.audio_segment_url, t.is_active, CAST(t.words AS jsonb),
+                   now(), now()
+            FROM unnest(CAST(:orderIndexes AS int[]), CAST(:textRaws AS text[]), CAST(:textDisplays AS text[]),
+                        CAST(:translations AS text[]), CAST(:phonetics AS text[]), CAST(:audioStarts AS int[]),
+                        CAST(:audioEnds AS int[]), CAST(:segmentUrls AS text[]), CAST(:actives AS boolean[]),
+                        CAST(:words AS text[]))
+                 AS t(order_index, text_raw, text_display, translation_vi, phonetic_us, audio_start_ms, audio_end_ms,
+                      audio_segment_url, is_active, words)
+            """, nativeQuery = true)
+    int insertImportedSentences(@Param("lessonId") Long lessonId,
+                                @Param("orderIndexes") Integer[] orderIndexes,
+                                @Param("textRaws") String[] textRaws,
+                                @Param("textDisplays") String[] textDisplays,
+                                @Param("translations") String[] translations,
+                                @Param("phonetics") String[] phonetics,
+                                @Param("audioStarts") Integer[] audioStarts,
+                                @Param("audioEnds") Integer[] audioEnds,
+                                @Param("segmentUrls") String[] segmentUrls,
+                                @Param("actives") Boolean[] actives,
+                                @Param("words") String[] words);
+
+    @Query("SELECT DISTINCT s.lesson.id FROM LessonSentence s WHERE s.words IS NOT NULL")
+    List<Long> findLessonIdsWithEmbeddedWords(Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT s.lesson.id) FROM LessonSentence s WHERE s.words IS NOT NULL")
+    long countLessonsWithEmbeddedWords();
+
+    /**
+     * Gom lesson_words của 1 lesson vào cột words (theo order_index), câu không có word thành mảng rỗng.
+     * Key JSON phải khớp SentenceWord.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_sentences"))
+    @Modifying
+    @Query(value = """
+            UPDATE lesson_sentences s
+            SET words = COALESCE((
+                SELECT jsonb_agg(jsonb_strip_nulls(jsonb_build_object(
+                           'id', w.id, 't', w.word_text, 'n', w.word_normalized, 'l', w.lemma,
+                           'pos', w.pos_tag, 'ent', w.entity_type, 's', w.audio_start_ms, 'e', w.audio_end_ms,
+                           'p', w.has_punctuation, 'c', w.is_clickable))
+                       ORDER BY w.order_index, w.id)
+                FROM lesson_words w
+                WHERE w.sentence_id = s.id), '[]'::jsonb)
+            WHERE s.lesson_id = :lessonId AND s.words IS NULL
+            """, nativeQuery = true)
+    int embedWordRows(@Param("lessonId") Long lessonId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_sentences"))
+    @Modifying
+    @Query(value = "UPDATE lesson_sentences SET words = NULL WHERE lesson_id = :lessonId AND words IS NOT NULL",
+            nativeQuery = true)
+    int clearEmbeddedWords(@Param("lessonId") Long lessonId);
+
+    // [số câu đang lưu word dạng jsonb, tổng số word trong các mảng đó]
+    @Query(value = """
+            SELECT COUNT(*), COALESCE(SUM(jsonb_array_length(words)), 0)
+            FROM lesson_sentences
+            WHERE words IS NOT NULL
+            """, nativeQuery = true)
+    List<Object[]> countEmbeddedWords();
 }
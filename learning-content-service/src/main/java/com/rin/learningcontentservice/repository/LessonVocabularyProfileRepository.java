@@ -0,0 +1,40 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.LessonVocabularyProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface LessonVocabularyProfileRepository extends JpaRepository<LessonVocabularyProfile, Long> {
+
+    /**
+     * Ghi profile vừa tính. 2 request cùng tính cho 1 lesson không còn đụng PK: bên đến sau không làm gì,
+     * profile cũ chỉ bị ghi đè bởi version mới hơn.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_vocabulary_profiles"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO lesson_vocabulary_profiles AS p
+            (lesson_id, lesson_version, total_word_count, unique_lemma_count, pos_distribution, entries, computed_at)
+        VALUES (:lessonId, :version, :totalWords, :uniqueLemmas, CAST(:posDistribution AS jsonb),
+                CAST(:entries AS jsonb), now())
+        ON CONFLICT (lesson_id) DO UPDATE SET
+            lesson_version = EXCLUDED.lesson_version,
+            total_word_count = EXCLUDED.total_word_count,
+            unique_lemma_count = EXCLUDED.unique_lemma_count,
+            pos_distribution = EXCLUDED.pos_distribution,
+            entries = EXCLUDED.entries,
+            computed_at = EXCLUDED.computed_at
+        WHERE p.lesson_version < EXCLUDED.lesson_version
+        """, nativeQuery = true)
+    int upsertIfNewer(@Param("lessonId") Long lessonId,
+                      @Param("version") int version,
+                      @Param("totalWords") int totalWords,
+                      @Param("uniqueLemmas") int uniqueLemmas,
+                      @Param("posDistribution") String posDistribution,
+                      @Param("entries") String entries);
+}
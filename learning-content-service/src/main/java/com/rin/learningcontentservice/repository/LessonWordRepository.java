@@ -1,7 +1,65 @@
 package com.rin.learningcontentservice.repository;
 
 import com.rin.learningcontentservice.model.LessonWord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface LessonWordRepository extends JpaRepository<LessonWord, Long> {
+
+    /**
+     * Cấp trước count id từ sequence của lesson_words cho word lưu dạng jsonb, 1 round-trip cho cả lesson.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_words"))
+    @Query(value = "SELECT nextval(pg_get_serial_sequence('lesson_words', 'id')) FROM generate_series(1, :count)",
+            nativeQuery = true)
+    List<Long> allocateIds(@Param("count") int count);
+
+    @Query("SELECT DISTINCT w.sentence.lesson.id FROM LessonWord w")
+    List<Long> findLessonIdsWithWordRows(Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT w.sentence.lesson.id) FROM LessonWord w")
+    long countLessonsWithWordRows();
+
+    /**
+     * Bung mảng lesson_sentences.words của 1 lesson ra lại lesson_words, giữ nguyên id word.
+     * Key JSON phải khớp SentenceWord.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_words"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO lesson_words (id, sentence_id, order_index, word_text, word_normalized, lemma, pos_tag,
+                                      entity_type, audio_start_ms, audio_end_ms, has_punctuation, is_clickable,
+                                      created_at, updated_at)
+            SELECT (w.value ->> 'id')::bigint, s.id, w.ord - 1, w.value ->> 't', w.value ->> 'n', w.value ->> 'l',
+                   w.value ->> 'pos', w.value ->> 'ent', (w.value ->> 's')::int, (w.value ->> 'e')::int,
+                   COALESCE((w.value ->> 'p')::boolean, false), COALESCE((w.value ->> 'c')::boolean, true),
+                   now(), now()
+            FROM lesson_sentences s
+            CROSS JOIN LATERAL jsonb_array_elements(s.words) WITH ORDINALITY AS w(value, ord)
+            WHERE s.lesson_id = :lessonId AND s.words IS NOT NULL
+            """, nativeQuery = true)
+    int insertFromEmbeddedWords(@Param("lessonId") Long lessonId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lesson_words"))
+    @Modifying
+    @Query(value = """
+            DELETE FROM lesson_words w
+            USING lesson_sentences s
+            WHERE w.sentence_id = s.id AND s.lesson_id = :lessonId
+            """, nativeQuery = true)
+    int deleteByLessonId(@Param("lessonId") Long lessonId);
+
+    /**
+     * Dung lượng bảng + index + TOAST, dùng để so sánh 2 chế độ lưu.
+     */
+    @Query(value = "SELECT pg_total_relation_size(CAST(:table AS regclass))", nativeQuery = true)
+    long totalRelationSize(@Param("table") String table);
 }
@@ -0,0 +1,70 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.LearningMode;
+import com.rin.learningcontentservice.model.SentenceDifficultyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SentenceDifficultyStatsRepository extends JpaRepository<SentenceDifficultyStats, Long> {
+
+    /**
+     * Cộng delta vào rollup trong 1 câu lệnh (an toàn khi nhiều learner ghi đồng thời).
+     * Histogram được cộng theo từng phần tử.
+     * Khai báo bảng bị ghi (native spaces) để Hibernate không xoá toàn bộ second-level cache sau câu lệnh.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sentence_difficulty_stats"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO sentence_difficulty_stats AS s
+            (lesson_id, sentence_id, mode, attempt_count, learner_count, score_sum, score_sq_sum, best_score_histogram, updated_at)
+        VALUES (:lessonId, :sentenceId, :mode, :attempts, :learners, :scoreSum, :scoreSqSum,
+                CAST(:histogram AS integer[]), now())
+        ON CONFLICT (lesson_id, sentence_id, mode) DO UPDATE SET
+            attempt_count = s.attempt_count + EXCLUDED.attempt_count,
+            learner_count = s.learner_count + EXCLUDED.learner_count,
+            score_sum = s.score_sum + EXCLUDED.score_sum,
+            score_sq_sum = s.score_sq_sum + EXCLUDED.score_sq_sum,
+            best_score_histogram = ARRAY(
+                SELECT COALESCE(h.a, 0) + COALESCE(h.b, 0)
+                FROM unnest(s.best_score_histogram, EXCLUDED.best_score_histogram) WITH ORDINALITY AS h(a, b, i)
+                ORDER BY h.i),
+            updated_at = now()
+        """, nativeQuery = true)
+    void upsertDelta(@Param("lessonId") Long lessonId,
+                     @Param("sentenceId") Long sentenceId,
+                     @Param("mode") String mode,
+                     @Param("attempts") long attempts,
+                     @Param("learners") long learners,
+                     @Param("scoreSum") double scoreSum,
+                     @Param("scoreSqSum") double scoreSqSum,
+                     @Param("histogram") String histogram);
+
+    /**
+     * Sentence (còn active) có điểm trung bình thấp nhất của 1 lesson theo mode.
+     * Trả về [SentenceDifficultyStats, LessonSentence].
+     */
+    @Query("""
+        SELECT s, ls FROM SentenceDifficultyStats s
+        JOIN LessonSentence ls ON ls.id = s.sentenceId
+        WHERE s.lessonId = :lessonId
+          AND s.mode = :mode
+          AND s.attemptCount >= :minAttempts
+          AND ls.isActive = true
+        ORDER BY s.scoreSum / s.attemptCount ASC, s.attemptCount DESC
+        """)
+    List<Object[]> findHardestSentences(@Param("lessonId") Long lessonId,
+                                        @Param("mode") LearningMode mode,
+                                        @Param("minAttempts") long minAttempts,
+                                        Pageable pageable);
+
+    @Modifying
+    void deleteByLessonId(Long lessonId);
+}
@@ -4,15 +4,23 @@ import com.rin.learningcontentservice.dto.response.TopicSummaryResponse;
 import com.rin.learningcontentservice.dto.response.TopicOptionResponse;
 import com.rin.learningcontentservice.dto.response.TopicResponseWithLessonCount;
 import com.rin.learningcontentservice.model.Topic;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface TopicRepository extends JpaRepository<Topic,Long> {
+public interface TopicRepository extends JpaRepository<Topic,Long>, TopicSlugLookup {
+
+    // Query space của counter, không trùng bảng của entity nào nên không kéo theo xoá region topic
+    String TOPIC_COUNTER_SPACE = "topic_lesson_counters";
+
     Optional<Topic> findBySlug(String slug);
 
     @Query("""
@@ -25,11 +33,9 @@ public interface TopicRepository extends JpaRepository<Topic,Long> {
                         t.color,
                         t.createdAt,
                         t.updatedAt,
-                        COUNT(DISTINCT l.id)
+                        t.totalLessonCount
                 )
                  FROM Topic t
-                 LEFT JOIN Lesson l ON l.topic.id = t.id
-                 GROUP BY t.id
                  ORDER BY t.createdAt DESC
         """)
     List<TopicResponseWithLessonCount> findAdminTopics();
@@ -52,18 +58,51 @@ public interface TopicRepository extends JpaRepository<Topic,Long> {
             t.slug,
             t.color,
             t.updatedAt,
-            COUNT(DISTINCT l.id)
+            t.publishedLessonCount
     )
     FROM Topic t
-    LEFT JOIN Lesson l ON l.topic.id = t.id
     WHERE t.isActive = true
-    GROUP BY t.id, t.name, t.slug, t.color, t.updatedAt
     ORDER BY t.updatedAt DESC
 """)
     List<TopicSummaryResponse> findActiveTopics();
 
 
 
+    /**
+     * Counter chỉ ghi bằng câu UPDATE này (cột không updatable qua entity). Bulk UPDATE qua JPQL / native
+     * không khai báo space làm Hibernate xoá cả region topic, nên khai báo space riêng cho counter và
+     * TopicLessonCounterService evict đúng topic vừa đổi sau khi commit.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TOPIC_COUNTER_SPACE))
+    @Modifying
+    @Query(value = """
+        UPDATE topics
+        SET total_lesson_count = total_lesson_count + :totalDelta,
+            published_lesson_count = published_lesson_count + :publishedDelta
+        WHERE id = :topicId
+    """, nativeQuery = true)
+    int adjustLessonCounts(@Param("topicId") Long topicId,
+                           @Param("totalDelta") long totalDelta,
+                           @Param("publishedDelta") long publishedDelta);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TOPIC_COUNTER_SPACE))
+    @Modifying
+    @Query(value = """
+        UPDATE topics
+        SET total_lesson_count = :total, published_lesson_count = :published
+        WHERE id = :topicId AND (total_lesson_count <> :total OR published_lesson_count <> :published)
+    """, nativeQuery = true)
+    int setLessonCounts(@Param("topicId") Long topicId,
+                        @Param("total") long total,
+                        @Param("published") long published);
+
+    // Khoá dòng topic: mọi thay đổi counter đều UPDATE dòng này nên repair đếm xong mới nhả là không lệch
+    @Query(value = "SELECT id FROM topics WHERE id = :topicId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("topicId") Long topicId);
+
+    @Query("SELECT t.id FROM Topic t")
+    List<Long> findAllIds();
+
     @Transactional
     @Modifying
     @Query("DELETE FROM Topic t WHERE t.slug = :slug")
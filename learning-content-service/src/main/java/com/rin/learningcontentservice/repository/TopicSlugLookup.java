@@ -0,0 +1,16 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.Topic;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface TopicSlugLookup {
+
+    /**
+     * Tìm topic theo slug qua natural-id cache (slug → id) rồi entity cache (id → Topic),
+     * cache nóng thì không chạm DB.
+     */
+    @Transactional(readOnly = true)
+    Optional<Topic> findCachedBySlug(String slug);
+}
@@ -0,0 +1,22 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.Topic;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class TopicSlugLookupImpl implements TopicSlugLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Topic> findCachedBySlug(String slug) {
+        if (slug == null) return Optional.empty();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Topic.class)
+                .loadOptional(slug);
+    }
+}
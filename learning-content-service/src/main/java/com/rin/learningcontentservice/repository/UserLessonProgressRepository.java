@@ -10,14 +10,20 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserLessonProgressRepository extends JpaRepository<UserLessonProgress,Long> {
     Optional<UserLessonProgress> findByUserIdAndLessonIdAndMode(String userId, Long lessonId, LearningMode mode);
     List<UserLessonProgress> findByUserIdAndLessonId(String userId, Long lessonId);
+    /**
+     * 1 câu DELETE duy nhất (derived delete sẽ load từng entity rồi xoá theo id),
+     * trên bảng partition Postgres dùng idx_user_lesson_progress_lesson của từng partition.
+     */
     @Modifying
-    void deleteByLessonId(Long lessonId);
+    @Query("DELETE FROM UserLessonProgress ulp WHERE ulp.lessonId = :lessonId")
+    void deleteByLessonId(@Param("lessonId") Long lessonId);
 
     List<UserLessonProgress> findByUserIdAndLessonIdIn(String userId, List<Long> lessonIds);
 
@@ -55,4 +61,11 @@ public interface UserLessonProgressRepository extends JpaRepository<UserLessonPr
             @Param("userId") String userId,
             @Param("lessonIds") List<Long> lessonIds,
             @Param("status") ProgressStatus status);
+
+    // [lessonId, status, lessonScore, completedAt] mọi mode, không load progress_items (jsonb)
+    @Query("SELECT ulp.lessonId, ulp.status, ulp.lessonScore, ulp.completedAt FROM UserLessonProgress ulp WHERE ulp.userId = :userId")
+    List<Object[]> findHistoryByUserId(@Param("userId") String userId);
+
+    @Query("SELECT DISTINCT ulp.userId FROM UserLessonProgress ulp WHERE ulp.updatedAt >= :since")
+    List<String> findActiveUserIdsSince(@Param("since") Timestamp since);
 }
@@ -0,0 +1,39 @@
+package com.rin.learningcontentservice.repository;
+
+import com.rin.learningcontentservice.model.UserLessonRecommendation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+
+public interface UserLessonRecommendationRepository extends JpaRepository<UserLessonRecommendation, String> {
+
+    /**
+     * Ghi kết quả tính lại. Request đầu tiên của user mới và listener có thể cùng tính nên không INSERT thẳng;
+     * bản tính sau (computedAt lớn hơn) thắng.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_lesson_recommendations"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_lesson_recommendations AS r (user_id, lesson_ids, estimated_level, computed_at)
+        VALUES (:userId, CAST(:lessonIds AS bigint[]), CAST(:estimatedLevel AS varchar), :computedAt)
+        ON CONFLICT (user_id) DO UPDATE SET
+            lesson_ids = EXCLUDED.lesson_ids,
+            estimated_level = EXCLUDED.estimated_level,
+            computed_at = EXCLUDED.computed_at
+        WHERE r.computed_at <= EXCLUDED.computed_at
+        """, nativeQuery = true)
+    void upsert(@Param("userId") String userId,
+                @Param("lessonIds") String lessonIds,
+                @Param("estimatedLevel") String estimatedLevel,
+                @Param("computedAt") Timestamp computedAt);
+
+    @Modifying
+    @Query("DELETE FROM UserLessonRecommendation r WHERE r.computedAt < :before")
+    int deleteComputedBefore(@Param("before") Timestamp before);
+}
@@ -0,0 +1,17 @@
+package com.rin.learningcontentservice.repository.httpclient;
+
+import com.rin.learningcontentservice.dto.response.youtube.YouTubePlaylistItemsResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "youtube-data-client", url = "${app.youtube.api-url:https://www.googleapis.com/youtube/v3}")
+public interface YouTubeDataClient {
+
+    @GetMapping("/playlistItems")
+    YouTubePlaylistItemsResponse listPlaylistItems(@RequestParam("part") String part,
+                                                   @RequestParam("playlistId") String playlistId,
+                                                   @RequestParam("maxResults") int maxResults,
+                                                   @RequestParam(value = "pageToken", required = false) String pageToken,
+                                                   @RequestParam("key") String apiKey);
+}
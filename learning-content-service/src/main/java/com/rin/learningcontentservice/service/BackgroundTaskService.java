@@ -0,0 +1,84 @@
+package com.rin.learningcontentservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool riêng cho việc nền có I/O chặn (tải audio, rebuild index, repair counter, tính lại gợi ý),
+ * thay cho ForkJoinPool.commonPool() vốn ít thread và dùng chung với parallel stream.
+ * Số thread và hàng đợi bị chặn; mỗi việc có key, việc trùng key đang chờ / đang chạy không được xếp thêm.
+ */
+@Service
+@Slf4j
+public class BackgroundTaskService {
+
+    @Value("${app.background-tasks.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.background-tasks.queue-capacity:200}")
+    private int queueCapacity;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("lcs-background-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Chạy task nếu chưa có task cùng key đang chờ hoặc đang chạy (VD: quét audio 1 lesson).
+     *
+     * @return false nếu bị bỏ qua vì trùng key hoặc hàng đợi đã đầy
+     */
+    public boolean runOnce(String key, Runnable task) {
+        return submit(key, task, false);
+    }
+
+    /**
+     * Như runOnce nhưng key được nhả ngay khi task bắt đầu: yêu cầu đến trong lúc task đang chạy
+     * sẽ được xếp thêm 1 lượt, để kết quả cuối cùng phản ánh dữ liệu mới nhất (VD: tính lại gợi ý của user).
+     */
+    public boolean runLatest(String key, Runnable task) {
+        return submit(key, task, true);
+    }
+
+    private boolean submit(String key, Runnable task, boolean releaseOnStart) {
+        if (!pending.add(key)) return false;
+        try {
+            executor.execute(() -> {
+                if (releaseOnStart) pending.remove(key);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Background task {} failed: {}", key, e.getMessage());
+                } finally {
+                    if (!releaseOnStart) pending.remove(key);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            pending.remove(key);
+            log.warn("Background queue full, dropped task {}", key);
+            return false;
+        }
+    }
+}
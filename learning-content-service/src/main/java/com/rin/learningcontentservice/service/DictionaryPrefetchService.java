@@ -0,0 +1,98 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
+import com.rin.learningcontentservice.event.LessonPublishedEvent;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Gửi từ vựng của lesson vừa publish sang dictionary-service (LESSON_WORDS_PUBLISHED_TOPIC) để Word được tạo
+ * PENDING và enrich trước, learner click vào là đã READY thay vì phải chờ fallback.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DictionaryPrefetchService {
+
+    // learner-web gửi posTag || "NOUN" khi tra từ → dùng cùng mặc định để trùng key (key, pos) bên dictionary
+    static final String DEFAULT_POS = "NOUN";
+
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final KafkaProducer kafkaProducer;
+
+    @Value("${app.dictionary-prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dictionary-prefetch.batch-size:500}")
+    private int batchSize;
+
+    // Không readOnly: sentence có thể vừa được insert cùng commit publish (import NDJSON), replica chưa có
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onLessonPublished(LessonPublishedEvent event) {
+        if (!enabled) return;
+
+        List<LessonWordsPublishedEvent.Word> words =
+                collectWords(lessonSentenceRepository.findWithWordsByLessonId(event.getLessonId()));
+        if (words.isEmpty()) return;
+
+        int size = Math.max(1, batchSize);
+        int totalParts = (words.size() + size - 1) / size;
+        for (int part = 0; part < totalParts; part++) {
+            kafkaProducer.publishLessonWordsPublished(LessonWordsPublishedEvent.builder()
+                    .lessonId(event.getLessonId())
+                    .part(part)
+                    .totalParts(totalParts)
+                    .words(words.subList(part * size, Math.min(words.size(), (part + 1) * size)))
+                    .build());
+        }
+        log.info("Requested dictionary prefetch of {} words for lesson {}", words.size(), event.getLessonId());
+    }
+
+    /**
+     * Các từ click được của câu đang active, không trùng theo (wordNormalized, posTag), giữ thứ tự xuất hiện.
+     * Context là câu chứa lần xuất hiện đầu tiên, giống context learner-web gửi khi click.
+     */
+    static List<LessonWordsPublishedEvent.Word> collectWords(List<LessonSentence> sentences) {
+        Map<String, LessonWordsPublishedEvent.Word> unique = new LinkedHashMap<>();
+        for (LessonSentence sentence : sentences) {
+            if (!Boolean.TRUE.equals(sentence.getIsActive())) continue;
+
+            for (LessonWord word : sentence.getOrderedWords()) {
+                if (!Boolean.TRUE.equals(word.getIsClickable())) continue;
+                String text = word.getWordText() != null && !word.getWordText().isBlank()
+                        ? word.getWordText() : word.getWordNormalized();
+                if (text == null || text.isBlank()) continue;
+
+                String normalized = word.getWordNormalized() != null ? word.getWordNormalized() : text;
+                String pos = word.getPosTag() != null && !word.getPosTag().isBlank() ? word.getPosTag() : DEFAULT_POS;
+                unique.putIfAbsent(normalized.trim().toLowerCase(Locale.ROOT) + "|" + pos,
+                        LessonWordsPublishedEvent.Word.builder()
+                                .wordText(text.trim())
+                                .wordNormalized(normalized)
+                                .posTag(pos)
+                                .lemma(word.getLemma())
+                                .entityType(word.getEntityType())
+                                .context(sentence.getTextDisplay() != null
+                                        ? sentence.getTextDisplay() : sentence.getTextRaw())
+                                .build());
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+}
@@ -0,0 +1,203 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.config.SecondLevelCacheConfig;
+import com.rin.learningcontentservice.dto.response.EntityCacheRegionStatsResponse;
+import com.rin.learningcontentservice.dto.response.EntityCacheStatsResponse;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.event.TopicChangedEvent;
+import com.rin.learningcontentservice.event.TopicCountersChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.Topic;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.CacheManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Eviction chủ động + thống kê cho second-level cache (xem SecondLevelCacheConfig).
+ * Sửa qua entity thì Hibernate chỉ cập nhật cache của instance đang ghi; evict sau commit ở đây được phát
+ * qua Redis pub/sub cho mọi instance, kể cả các đường ghi đi vòng entity (bulk UPDATE counter,
+ * sửa tay trong DB rồi gọi DELETE /admin/cache).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheService {
+
+    static final String EVICTION_CHANNEL = "learning-content:l2-cache:evict";
+    private static final String EVICT_ALL = "all";
+    private static final String EVICT_TOPIC = "topic:";
+    private static final String EVICT_TOPIC_ENTRY = "topic-entry:";
+    private static final String EVICT_LESSON = "lesson:";
+    private static final String ANY_ID = "*";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager hibernateCacheManager;
+    private final SecondLevelCacheConfig cacheConfig;
+    private final MeterRegistry meterRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocally(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVICTION_CHANNEL));
+
+        // Hit / miss / put đã có sẵn ở hibernate.second.level.cache.* (hibernate-micrometer), ở đây thêm kích thước
+        cacheConfig.regionMaxEntries().keySet().forEach(region ->
+                Gauge.builder("hibernate.second.level.cache.entries", () -> estimatedEntries(region))
+                        .tag("region", region)
+                        .description("Estimated number of entries held by the region")
+                        .register(meterRegistry));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicChanged(TopicChangedEvent event) {
+        evictTopic(event.getTopicId());
+    }
+
+    // Chỉ counter đổi: slug không đổi nên giữ nguyên natural-id cache, chỉ bỏ đúng 1 entry topic
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicCountersChanged(TopicCountersChangedEvent event) {
+        if (event.getTopicId() == null) return;
+        evictEverywhere(EVICT_TOPIC_ENTRY + event.getTopicId());
+    }
+
+    // Sửa sentence / publish đi qua event này kể cả khi dòng lesson không đổi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        evictLesson(event.getLessonId());
+    }
+
+    public void evictLesson(Long lessonId) {
+        if (lessonId == null) return;
+        evictEverywhere(EVICT_LESSON + lessonId);
+    }
+
+    /**
+     * Gọi từ LessonCacheEvictionListener lúc flush: chưa commit thì instance khác có thể nạp lại bản cũ ngay sau
+     * khi evict, nên chờ commit rồi mới phát.
+     */
+    public void evictLessonAfterCommit(Long lessonId) {
+        if (lessonId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLesson(lessonId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLesson(lessonId);
+            }
+        });
+    }
+
+    /**
+     * @param topicId null → evict cả region topic (xoá theo slug không biết id)
+     */
+    public void evictTopic(Long topicId) {
+        evictEverywhere(EVICT_TOPIC + (topicId == null ? ANY_ID : topicId));
+    }
+
+    public void evictAll() {
+        evictEverywhere(EVICT_ALL);
+    }
+
+    private void evictEverywhere(String message) {
+        evictLocally(message);
+        try {
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            // Instance khác vẫn hết hạn theo TTL
+            log.warn("Failed to propagate second-level cache eviction {}: {}", message, e.getMessage());
+        }
+    }
+
+    void evictLocally(String message) {
+        Cache cache = sessionFactory().getCache();
+        if (EVICT_ALL.equals(message)) {
+            cache.evictAllRegions();
+            log.info("Second-level cache evicted (all regions)");
+        } else if (message.startsWith(EVICT_LESSON)) {
+            cache.evictEntityData(Lesson.class, Long.valueOf(message.substring(EVICT_LESSON.length())));
+        } else if (message.startsWith(EVICT_TOPIC_ENTRY)) {
+            cache.evictEntityData(Topic.class, Long.valueOf(message.substring(EVICT_TOPIC_ENTRY.length())));
+        } else if (message.startsWith(EVICT_TOPIC)) {
+            String id = message.substring(EVICT_TOPIC.length());
+            if (ANY_ID.equals(id)) {
+                cache.evictEntityData(Topic.class);
+            } else {
+                cache.evictEntityData(Topic.class, Long.valueOf(id));
+            }
+            // Slug có thể vừa đổi, mapping slug → id cũ phải bỏ
+            cache.evictNaturalIdData(Topic.class);
+        } else {
+            log.warn("Ignoring unknown second-level cache eviction message: {}", message);
+        }
+    }
+
+    public EntityCacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Long> maxEntries = new TreeMap<>(cacheConfig.regionMaxEntries());
+
+        List<EntityCacheRegionStatsResponse> regions = maxEntries.entrySet().stream()
+                .map(entry -> {
+                    CacheRegionStatistics region = statistics.getCacheRegionStatistics(entry.getKey());
+                    long hits = region == null ? 0 : region.getHitCount();
+                    long misses = region == null ? 0 : region.getMissCount();
+                    return EntityCacheRegionStatsResponse.builder()
+                            .region(entry.getKey())
+                            .hitCount(hits)
+                            .missCount(misses)
+                            .putCount(region == null ? 0 : region.getPutCount())
+                            .hitRatio(hits + misses == 0 ? null : (double) hits / (hits + misses))
+                            .entries(estimatedEntries(entry.getKey()))
+                            .maxEntries(entry.getValue())
+                            .build();
+                })
+                .toList();
+
+        return EntityCacheStatsResponse.builder()
+                .since(statistics.getStart())
+                .regions(regions)
+                .prepareStatementCount(statistics.getPrepareStatementCount())
+                .entityLoadCount(statistics.getEntityLoadCount())
+                .naturalIdQueryCount(statistics.getNaturalIdQueryExecutionCount())
+                .build();
+    }
+
+    public void resetStats() {
+        sessionFactory().getStatistics().clear();
+    }
+
+    private long estimatedEntries(String region) {
+        javax.cache.Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        if (cache == null) return 0;
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
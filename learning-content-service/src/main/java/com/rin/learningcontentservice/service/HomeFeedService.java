@@ -0,0 +1,181 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.dto.response.HomeFeedResponse;
+import com.rin.learningcontentservice.dto.response.HomeFeedTopicResponse;
+import com.rin.learningcontentservice.dto.response.HomeLessonResponse;
+import com.rin.learningcontentservice.dto.response.TopicSummaryResponse;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.event.TopicChangedEvent;
+import com.rin.learningcontentservice.mapper.LessonMapper;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.UserLessonProgress;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Home feed = lớp dùng chung (topic active + số lesson + lesson mới nhất mỗi topic) cache trong RAM,
+ * cộng lớp riêng của user (progress overlay bằng 1 query findByUserIdAndLessonIdIn + resume).
+ * Khách chưa đăng nhập không chạm DB khi cache còn nóng.
+ * Cache bị xoá khi lesson / topic đổi (event sau commit), lệnh xoá được phát qua Redis pub/sub cho mọi instance;
+ * TTL chỉ là lưới an toàn khi message bị mất.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HomeFeedService {
+
+    static final String INVALIDATION_CHANNEL = "learning-content:home-feed:invalidate";
+
+    private final TopicRepository topicRepository;
+    private final LessonRepository lessonRepository;
+    private final UserLessonProgressRepository userLessonProgressRepository;
+    private final LessonService lessonService;
+    private final TopicService topicService;
+    private final LessonMapper lessonMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.home-feed.lessons-per-topic:8}")
+    private int lessonsPerTopic;
+
+    @Value("${app.home-feed.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private record SharedLayer(List<HomeFeedTopicResponse> topics, List<Long> lessonIds, long builtAtMillis) {
+    }
+
+    private volatile SharedLayer cached;
+    // Tăng mỗi lần invalidate, layer build xong mà generation đã đổi thì không được ghi vào cache
+    private final AtomicLong generation = new AtomicLong();
+    private final Object buildLock = new Object();
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> invalidateLocally(),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public HomeFeedResponse getHomeFeed(String userId, int resumeSize) {
+        SharedLayer layer = sharedLayer();
+        if (userId == null) {
+            return HomeFeedResponse.builder().topics(layer.topics()).build();
+        }
+
+        Map<Long, List<UserLessonProgress>> progressByLesson = layer.lessonIds().isEmpty()
+                ? Map.of()
+                : userLessonProgressRepository.findByUserIdAndLessonIdIn(userId, layer.lessonIds()).stream()
+                .collect(Collectors.groupingBy(UserLessonProgress::getLessonId));
+
+        List<HomeFeedTopicResponse> topics = layer.topics();
+        if (!progressByLesson.isEmpty()) {
+            // Chỉ copy lesson user đã học, còn lại dùng chung bản trong cache (mặc định NOT_STARTED)
+            topics = layer.topics().stream()
+                    .map(topic -> HomeFeedTopicResponse.builder()
+                            .topic(topic.getTopic())
+                            .latestLessons(topic.getLatestLessons().stream()
+                                    .map(lesson -> overlay(lesson, progressByLesson.get(lesson.getId())))
+                                    .toList())
+                            .build())
+                    .toList();
+        }
+
+        return HomeFeedResponse.builder()
+                .topics(topics)
+                .resume(topicService.getResumeLearningPaginated(userId, 0, resumeSize))
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicChanged(TopicChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        invalidateLocally();
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, "all");
+        } catch (RuntimeException e) {
+            // Instance khác vẫn hết hạn theo TTL
+            log.warn("Failed to propagate home feed invalidation: {}", e.getMessage());
+        }
+    }
+
+    void invalidateLocally() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private HomeLessonResponse overlay(HomeLessonResponse shared, List<UserLessonProgress> progresses) {
+        if (progresses == null || progresses.isEmpty()) return shared;
+        HomeLessonResponse copy = lessonMapper.copyHomeLesson(shared);
+        lessonMapper.applyProgress(copy, progresses);
+        return copy;
+    }
+
+    private SharedLayer sharedLayer() {
+        SharedLayer layer = cached;
+        if (isFresh(layer)) return layer;
+
+        // Single-flight: cache nguội thì chỉ 1 thread build, các request khác chờ kết quả
+        synchronized (buildLock) {
+            layer = cached;
+            if (isFresh(layer)) return layer;
+
+            long startGeneration = generation.get();
+            SharedLayer built = buildSharedLayer();
+            if (generation.get() == startGeneration) {
+                cached = built;
+            }
+            return built;
+        }
+    }
+
+    private boolean isFresh(SharedLayer layer) {
+        return layer != null && System.currentTimeMillis() - layer.builtAtMillis() < ttlSeconds * 1000;
+    }
+
+    private SharedLayer buildSharedLayer() {
+        long startedAt = System.currentTimeMillis();
+        List<TopicSummaryResponse> topics = topicRepository.findActiveTopics();
+
+        List<Long> ids = lessonRepository.findLatestPublishedIdsPerTopic(lessonsPerTopic);
+        Map<Long, List<HomeLessonResponse>> lessonsByTopic = ids.isEmpty()
+                ? Map.of()
+                : lessonRepository.findAllWithTopicByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Lesson::getPublishedAt, Comparator.nullsLast(Comparator.<Timestamp>reverseOrder()))
+                        .thenComparing(Lesson::getId, Comparator.reverseOrder()))
+                .map(lesson -> lessonService.toExploreResponse(lesson, List.of()))
+                .collect(Collectors.groupingBy(HomeLessonResponse::getTopicId, LinkedHashMap::new, Collectors.toList()));
+
+        List<HomeFeedTopicResponse> feedTopics = topics.stream()
+                .map(topic -> HomeFeedTopicResponse.builder()
+                        .topic(topic)
+                        .latestLessons(List.copyOf(lessonsByTopic.getOrDefault(topic.getId(), List.of())))
+                        .build())
+                .toList();
+
+        log.info("Home feed shared layer rebuilt: {} topics, {} lessons in {} ms",
+                feedTopics.size(), ids.size(), System.currentTimeMillis() - startedAt);
+        return new SharedLayer(feedTopics, List.copyOf(ids), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,165 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonAudioRangesResponse;
+import com.rin.learningcontentservice.dto.response.SentenceAudioRangeResponse;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonAudioIndex;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.repository.LessonAudioIndexRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.service.support.Mp3FrameIndex;
+import com.rin.learningcontentservice.service.support.Mp3FrameScanner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Build frame index cho audio của lesson (1 lần / audioUrl) và tính byte range cho từng sentence,
+ * để player request "Range: bytes=..." thay vì tải / seek cả file.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonAudioIndexService {
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+
+    private final LessonRepository lessonRepository;
+    private final LessonAudioIndexRepository lessonAudioIndexRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BackgroundTaskService backgroundTasks;
+
+    /**
+     * Lesson vừa generate xong / đổi audio → quét lại ở background. Sửa sentence không cần quét lại
+     * vì byte range được tính từ index lúc đọc.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        if (event.isDeleted()) {
+            lessonAudioIndexRepository.findById(event.getLessonId()).ifPresent(lessonAudioIndexRepository::delete);
+            return;
+        }
+        lessonRepository.findById(event.getLessonId()).ifPresent(lesson -> {
+            if (lesson.getStatus() == LessonStatus.READY && isStale(lesson)) {
+                scheduleBuild(lesson.getId(), lesson.getAudioUrl());
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public LessonAudioRangesResponse getAudioRanges(Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                        LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
+        );
+
+        LessonAudioIndex stored = lessonAudioIndexRepository.findById(lessonId)
+                .filter(i -> Objects.equals(i.getAudioUrl(), lesson.getAudioUrl()))
+                .orElse(null);
+        if (stored == null) {
+            // Lesson cũ chưa có index → build lazy, lần gọi sau sẽ có
+            if (lesson.getStatus() == LessonStatus.READY && lesson.getAudioUrl() != null) {
+                scheduleBuild(lessonId, lesson.getAudioUrl());
+            }
+            return LessonAudioRangesResponse.builder()
+                    .lessonId(lessonId).audioUrl(lesson.getAudioUrl()).ready(false).sentences(List.of())
+                    .build();
+        }
+
+        Mp3FrameIndex index = Mp3FrameIndex.decode(stored.getSampleRate(), stored.getSamplesPerFrame(),
+                stored.getFrameCount(), stored.getFrameOffsets());
+
+        List<SentenceAudioRangeResponse> sentences = lesson.getSentences().stream()
+                .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
+                .sorted(Comparator.comparing(LessonSentence::getOrderIndex))
+                .map(s -> toRange(s, index))
+                .toList();
+
+        return LessonAudioRangesResponse.builder()
+                .lessonId(lessonId)
+                .audioUrl(lesson.getAudioUrl())
+                .ready(index.frameCount() > 0)
+                .sentences(sentences)
+                .build();
+    }
+
+    private SentenceAudioRangeResponse toRange(LessonSentence sentence, Mp3FrameIndex index) {
+        long[] range = sentence.getAudioStartMs() == null || sentence.getAudioEndMs() == null
+                ? null
+                : index.byteRange(sentence.getAudioStartMs(), sentence.getAudioEndMs());
+        return SentenceAudioRangeResponse.builder()
+                .sentenceId(sentence.getId())
+                .audioStartMs(sentence.getAudioStartMs())
+                .audioEndMs(sentence.getAudioEndMs())
+                .byteStart(range == null ? null : range[0])
+                .byteEnd(range == null ? null : range[1])
+                .build();
+    }
+
+    private boolean isStale(Lesson lesson) {
+        if (lesson.getAudioUrl() == null) return false;
+        return lessonAudioIndexRepository.findById(lesson.getId())
+                .map(i -> !Objects.equals(i.getAudioUrl(), lesson.getAudioUrl()))
+                .orElse(true);
+    }
+
+    // Mỗi lesson chỉ 1 lượt quét đang chờ / đang chạy, tránh tải cùng 1 file nhiều lần song song
+    private void scheduleBuild(Long lessonId, String audioUrl) {
+        backgroundTasks.runOnce("audio-index:" + lessonId, () -> build(lessonId, audioUrl));
+    }
+
+    private void build(Long lessonId, String audioUrl) {
+        long start = System.currentTimeMillis();
+        Mp3FrameIndex index;
+        try {
+            URLConnection connection = URI.create(audioUrl).toURL().openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            try (InputStream in = connection.getInputStream()) {
+                index = Mp3FrameScanner.scan(in);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read audio " + audioUrl + ": " + e.getMessage(), e);
+        }
+
+        // Không phải MP3 → vẫn lưu index rỗng để không quét lại liên tục
+        if (index.frameCount() == 0) {
+            log.warn("No MPEG audio frames found for lesson {} ({})", lessonId, audioUrl);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Lesson lesson = lessonRepository.findById(lessonId).orElse(null);
+            // Lesson bị xoá / đổi audio trong lúc đang quét → bỏ kết quả
+            if (lesson == null || !Objects.equals(lesson.getAudioUrl(), audioUrl)) return;
+
+            lessonAudioIndexRepository.save(LessonAudioIndex.builder()
+                    .lessonId(lessonId)
+                    .audioUrl(audioUrl)
+                    .sampleRate(index.getSampleRate())
+                    .samplesPerFrame(index.getSamplesPerFrame())
+                    .frameCount(index.frameCount())
+                    .frameOffsets(index.encodeOffsets())
+                    .build());
+        });
+        log.info("Indexed audio of lesson {}: {} frames in {} ms", lessonId, index.frameCount(),
+                System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.model.Lesson;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener của Lesson: version, processing step, trạng thái publish đổi ở bất kỳ instance nào
+ * thì bản Lesson trong second-level cache của các instance khác bị evict sau commit.
+ * EntityCacheService lấy lazy vì listener được Hibernate tạo lúc dựng EntityManagerFactory.
+ */
+@Component
+@RequiredArgsConstructor
+public class LessonCacheEvictionListener {
+
+    private final ObjectProvider<EntityCacheService> entityCacheService;
+
+    @PostUpdate
+    @PostRemove
+    void onLessonChanged(Lesson lesson) {
+        entityCacheService.getObject().evictLessonAfterCommit(lesson.getId());
+    }
+}
@@ -0,0 +1,135 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonChangeRecord;
+import com.rin.learningcontentservice.model.LessonChangeType;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.repository.LessonChangeRecordRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ghi lại thay đổi ở mức sentence mỗi khi lesson bị chỉnh sửa (version tăng).
+ * Chỉ giữ lịch sử của MAX_HISTORY_VERSIONS version gần nhất, client cũ hơn sẽ nhận full payload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LessonChangeTracker {
+
+    static final int MAX_HISTORY_VERSIONS = 50;
+
+    private final LessonChangeRecordRepository lessonChangeRecordRepository;
+    private final LessonRepository lessonRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Tăng version của lesson và lưu các thay đổi (sentenceId → loại thay đổi) gắn với version mới.
+     */
+    public int recordChanges(Lesson lesson, Map<Long, LessonChangeType> changes) {
+        int version = bumpVersion(lesson);
+
+        List<LessonChangeRecord> records = changes.entrySet().stream()
+                .map(e -> LessonChangeRecord.builder()
+                        .lessonId(lesson.getId())
+                        .lessonVersion(version)
+                        .sentenceId(e.getKey())
+                        .changeType(e.getValue())
+                        .build())
+                .toList();
+        lessonChangeRecordRepository.saveAll(records);
+
+        // Cắt lịch sử quá cũ
+        int oldestKept = version - MAX_HISTORY_VERSIONS;
+        int base = lesson.getDiffBaseVersion() == null ? 0 : lesson.getDiffBaseVersion();
+        if (oldestKept > base) {
+            lessonChangeRecordRepository.deleteByLessonIdAndLessonVersionLessThanEqual(lesson.getId(), oldestKept);
+            lesson.setDiffBaseVersion(oldestKept);
+        }
+
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lesson.getId(), false));
+        log.info("Recorded {} sentence changes for lesson {} at version {}", records.size(), lesson.getId(), version);
+        return version;
+    }
+
+    /**
+     * Nội dung lesson bị thay mới hoàn toàn (generate lại) → xoá lịch sử, mọi client phải tải full.
+     */
+    public void reset(Lesson lesson) {
+        int version = bumpVersion(lesson);
+        lessonChangeRecordRepository.deleteByLessonId(lesson.getId());
+        lesson.setDiffBaseVersion(version);
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lesson.getId(), false));
+    }
+
+    /**
+     * Nội dung vừa generate giống hệt nội dung đang có (cùng thứ tự, text, timestamp, word) → không cần reset.
+     * Sentence đã bị sửa / tắt sau lần generate trước thì coi là khác.
+     */
+    static boolean sameContent(List<LessonSentence> current, List<LessonSentence> rebuilt) {
+        if (current == null || current.isEmpty() || current.size() != rebuilt.size()) return false;
+        List<LessonSentence> ordered = current.stream()
+                .sorted(Comparator.comparing(LessonSentence::getOrderIndex))
+                .toList();
+        for (int i = 0; i < ordered.size(); i++) {
+            LessonSentence a = ordered.get(i);
+            LessonSentence b = rebuilt.get(i);
+            if (!Boolean.TRUE.equals(a.getIsActive())
+                    || !Objects.equals(a.getOrderIndex(), b.getOrderIndex())
+                    || !Objects.equals(a.getTextRaw(), b.getTextRaw())
+                    || !Objects.equals(a.getTextDisplay(), b.getTextDisplay())
+                    || !Objects.equals(a.getTranslationVi(), b.getTranslationVi())
+                    || !Objects.equals(a.getPhoneticUs(), b.getPhoneticUs())
+                    || !Objects.equals(a.getAudioStartMs(), b.getAudioStartMs())
+                    || !Objects.equals(a.getAudioEndMs(), b.getAudioEndMs())
+                    || !sameWords(a.getOrderedWords(), b.getOrderedWords())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameWords(List<LessonWord> a, List<LessonWord> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            LessonWord x = a.get(i);
+            LessonWord y = b.get(i);
+            if (!Objects.equals(x.getWordText(), y.getWordText())
+                    || !Objects.equals(x.getWordNormalized(), y.getWordNormalized())
+                    || !Objects.equals(x.getLemma(), y.getLemma())
+                    || !Objects.equals(x.getPosTag(), y.getPosTag())
+                    || !Objects.equals(x.getEntityType(), y.getEntityType())
+                    || !Objects.equals(x.getAudioStartMs(), y.getAudioStartMs())
+                    || !Objects.equals(x.getAudioEndMs(), y.getAudioEndMs())
+                    || !Objects.equals(x.getHasPunctuation(), y.getHasPunctuation())
+                    || !Objects.equals(x.getIsClickable(), y.getIsClickable())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void deleteHistory(Long lessonId) {
+        lessonChangeRecordRepository.deleteByLessonId(lessonId);
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId, true));
+    }
+
+    // Tăng từ version đã commit (dưới row lock) chứ không từ bản entity đang giữ, vốn có thể đã cũ
+    private int bumpVersion(Lesson lesson) {
+        Integer committed = lesson.getId() == null ? null : lessonRepository.lockVersionById(lesson.getId());
+        int current = Math.max(lesson.getVersion() == null ? 0 : lesson.getVersion(), committed == null ? 0 : committed);
+        int version = current + 1;
+        lesson.setVersion(version);
+        return version;
+    }
+}
@@ -0,0 +1,351 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.event.LessonGenerationRequestedEvent;
+import com.rin.learningcontentservice.dto.response.AIJobResponse;
+import com.rin.learningcontentservice.dto.response.LessonSummaryResponse;
+import com.rin.learningcontentservice.event.LessonImportProgressEvent;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.model.GenerationPriority;
+import com.rin.learningcontentservice.model.GenerationTaskStatus;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonGenerationTask;
+import com.rin.learningcontentservice.repository.LessonGenerationTaskRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.httpclient.LanguageProcessingClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Hàng đợi generate lesson lưu trong DB: addLesson / retry chỉ enqueue, scheduler mới gọi tạo AI job
+ * và đẩy LessonGenerationRequestedEvent, giới hạn số lesson chạy song song theo sourceType.
+ * Thứ tự chọn: priority → admin đang chiếm ít slot nhất (chia đều giữa các admin) → vào hàng sớm nhất.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonGenerationQueueService {
+
+    private static final List<GenerationTaskStatus> ACTIVE = List.of(GenerationTaskStatus.DISPATCHING, GenerationTaskStatus.RUNNING);
+    private static final long DISPATCH_LOCK_KEY = 0x4c47454e51L; // "LGENQ"
+    private static final int CANDIDATE_LIMIT = 200;
+    private static final long DEFAULT_RUN_SECONDS = 300;
+    private static final long MAX_BACKOFF_MS = 10 * 60_000L;
+
+    private final LessonGenerationTaskRepository taskRepository;
+    private final LessonRepository lessonRepository;
+    private final LanguageProcessingClient languageProcessingClient;
+    private final KafkaProducer kafkaProducer;
+    private final LessonPipelineTimelineService pipelineTimeline;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.generation.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.generation.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${app.generation.running-timeout-minutes:180}")
+    private long runningTimeoutMinutes;
+
+    @Value("${app.generation.dispatch-timeout-minutes:10}")
+    private long dispatchTimeoutMinutes;
+
+    /**
+     * Đưa lesson vào hàng đợi (hoặc đưa lại nếu đã có task cũ). Lesson chuyển sang PROCESSING / NONE
+     * để UI hiển thị "đang chờ" và cancel vẫn dùng được.
+     */
+    @Transactional
+    public LessonGenerationTask enqueue(Lesson lesson, GenerationPriority priority, String requestedBy, Boolean isRestart) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        LessonGenerationTask task = taskRepository.findByLessonId(lesson.getId())
+                .orElseGet(() -> LessonGenerationTask.builder().lessonId(lesson.getId()).build());
+        task.setSourceType(lesson.getSourceType());
+        task.setPriority((priority == null ? GenerationPriority.NORMAL : priority).getRank());
+        task.setRequestedBy(requestedBy);
+        task.setIsRestart(isRestart);
+        task.setStatus(GenerationTaskStatus.QUEUED);
+        task.setAttempts(0);
+        task.setLastError(null);
+        task.setAiJobId(null);
+        task.setEnqueuedAt(now);
+        task.setNextAttemptAt(now);
+        task.setDispatchedAt(null);
+        task.setFinishedAt(null);
+
+        lesson.setStatus(LessonStatus.PROCESSING);
+        lesson.setProcessingStep(LessonProcessingStep.NONE);
+        lesson.setAiMessage("Queued for generation");
+        lessonRepository.save(lesson);
+
+        log.info("Lesson {} queued for generation (priority {}, requested by {})", lesson.getId(), priority, requestedBy);
+        return taskRepository.save(task);
+    }
+
+    /**
+     * Pipeline báo COMPLETED / FAILED → trả slot.
+     */
+    @Transactional
+    public void markFinished(Long lessonId, boolean success) {
+        taskRepository.findByLessonId(lessonId)
+                .filter(t -> ACTIVE.contains(t.getStatus()))
+                .ifPresent(t -> {
+                    t.setStatus(success ? GenerationTaskStatus.DONE : GenerationTaskStatus.FAILED);
+                    t.setFinishedAt(new Timestamp(System.currentTimeMillis()));
+                    taskRepository.save(t);
+                    publishImportProgress(t);
+                });
+    }
+
+    /**
+     * @return AI job của task đang RUNNING bị huỷ; empty nếu task còn trong hàng / đang dispatch (chưa có job nào chạy)
+     */
+    @Transactional
+    public Optional<String> cancel(Long lessonId) {
+        return taskRepository.findByLessonId(lessonId)
+                .filter(t -> t.getStatus() == GenerationTaskStatus.QUEUED || ACTIVE.contains(t.getStatus()))
+                .flatMap(t -> {
+                    String runningJobId = t.getStatus() == GenerationTaskStatus.RUNNING ? t.getAiJobId() : null;
+                    t.setStatus(GenerationTaskStatus.CANCELLED);
+                    t.setFinishedAt(new Timestamp(System.currentTimeMillis()));
+                    taskRepository.save(t);
+                    publishImportProgress(t);
+                    return Optional.ofNullable(runningJobId);
+                });
+    }
+
+    @Transactional
+    public void delete(Long lessonId) {
+        taskRepository.findByLessonId(lessonId).ifPresent(taskRepository::delete);
+    }
+
+    /**
+     * Gắn vị trí trong hàng (1 = lượt kế tiếp của sourceType đó) và thời gian chờ ước lượng vào response.
+     * Lesson không còn QUEUED → để null.
+     */
+    @Transactional
+    public LessonSummaryResponse withQueueInfo(LessonSummaryResponse response) {
+        taskRepository.findByLessonId(response.getId())
+                .filter(t -> t.getStatus() == GenerationTaskStatus.QUEUED)
+                .ifPresent(t -> {
+                    long position = taskRepository.countAhead(GenerationTaskStatus.QUEUED, t.getSourceType(),
+                            t.getPriority(), t.getEnqueuedAt()) + 1;
+                    int slots = maxRunning(t.getSourceType());
+                    Double avg = taskRepository.averageRunSeconds(t.getSourceType().name());
+                    long runSeconds = avg == null ? DEFAULT_RUN_SECONDS : Math.round(avg);
+                    // Mỗi "lượt" giải phóng đủ slot cho 1 nhóm task, task của mình nằm ở lượt thứ ceil(position / slots)
+                    response.setQueuePosition(position);
+                    response.setEstimatedWaitSeconds(((position + slots - 1) / slots) * runSeconds);
+                });
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.generation.dispatch-interval-ms:2000}")
+    public void dispatch() {
+        List<LessonGenerationTask> claimed = transactionTemplate.execute(status -> claimTasks());
+        if (claimed == null) return;
+        for (LessonGenerationTask task : claimed) {
+            startJob(task);
+        }
+    }
+
+    private List<LessonGenerationTask> claimTasks() {
+        if (!taskRepository.tryDispatchLock(DISPATCH_LOCK_KEY)) return List.of();
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        releaseStale(now);
+
+        List<LessonGenerationTask> candidates = new ArrayList<>(taskRepository.findDispatchable(
+                GenerationTaskStatus.QUEUED, now, PageRequest.of(0, CANDIDATE_LIMIT)));
+        if (candidates.isEmpty()) return List.of();
+
+        Map<LessonSourceType, Long> runningBySource = new EnumMap<>(LessonSourceType.class);
+        for (Object[] row : taskRepository.countBySourceType(ACTIVE)) {
+            runningBySource.put((LessonSourceType) row[0], (Long) row[1]);
+        }
+        Map<String, Long> runningByRequester = new HashMap<>();
+        for (Object[] row : taskRepository.countByRequester(ACTIVE)) {
+            runningByRequester.put((String) row[0], (Long) row[1]);
+        }
+
+        List<LessonGenerationTask> claimed = new ArrayList<>();
+        while (true) {
+            LessonGenerationTask next = null;
+            for (LessonGenerationTask candidate : candidates) {
+                if (runningBySource.getOrDefault(candidate.getSourceType(), 0L) >= maxRunning(candidate.getSourceType())) {
+                    continue;
+                }
+                // candidates đã sort theo (priority, enqueuedAt) nên chỉ cần so số slot admin đang giữ
+                if (next == null
+                        || candidate.getPriority() < next.getPriority()
+                        || (candidate.getPriority().equals(next.getPriority())
+                            && runningOf(runningByRequester, candidate) < runningOf(runningByRequester, next))) {
+                    next = candidate;
+                }
+            }
+            if (next == null) break;
+
+            candidates.remove(next);
+            next.setStatus(GenerationTaskStatus.DISPATCHING);
+            next.setDispatchedAt(now);
+            runningBySource.merge(next.getSourceType(), 1L, Long::sum);
+            if (next.getRequestedBy() != null) runningByRequester.merge(next.getRequestedBy(), 1L, Long::sum);
+            claimed.add(next);
+        }
+        return taskRepository.saveAll(claimed);
+    }
+
+    /**
+     * Trả slot của task kẹt quá lâu.
+     * DISPATCHING: chưa tạo được AI job (instance chết giữa lúc gọi) → xếp lại như 1 lần thử lỗi.
+     * RUNNING: pipeline không báo kết quả → task EXPIRED, lesson chuyển ERROR để admin retry thay vì PROCESSING mãi.
+     */
+    private void releaseStale(Timestamp now) {
+        List<LessonGenerationTask> dispatching = taskRepository.findStale(List.of(GenerationTaskStatus.DISPATCHING),
+                new Timestamp(now.getTime() - dispatchTimeoutMinutes * 60_000));
+        for (LessonGenerationTask task : dispatching) {
+            log.warn("Generation task for lesson {} stuck dispatching for over {} minutes, re-queue",
+                    task.getLessonId(), dispatchTimeoutMinutes);
+            retryOrFail(task, "AI job creation did not finish within " + dispatchTimeoutMinutes + " minutes");
+        }
+
+        List<LessonGenerationTask> running = taskRepository.findStale(List.of(GenerationTaskStatus.RUNNING),
+                new Timestamp(now.getTime() - runningTimeoutMinutes * 60_000));
+        for (LessonGenerationTask task : running) {
+            task.setStatus(GenerationTaskStatus.EXPIRED);
+            task.setFinishedAt(now);
+            lessonRepository.findById(task.getLessonId())
+                    .filter(lesson -> lesson.getStatus() == LessonStatus.PROCESSING)
+                    .ifPresent(lesson -> {
+                        lesson.setStatus(LessonStatus.ERROR);
+                        lesson.setProcessingStep(LessonProcessingStep.FAILED);
+                        lesson.setAiMessage("Generation timed out after " + runningTimeoutMinutes + " minutes");
+                        lessonRepository.save(lesson);
+                    });
+            publishImportProgress(task);
+        }
+        if (!running.isEmpty()) {
+            log.warn("Expired {} generation tasks running longer than {} minutes", running.size(), runningTimeoutMinutes);
+        }
+
+        if (!dispatching.isEmpty() || !running.isEmpty()) {
+            List<LessonGenerationTask> released = new ArrayList<>(dispatching);
+            released.addAll(running);
+            taskRepository.saveAll(released);
+        }
+    }
+
+    // Gọi HTTP ngoài transaction, chỉ ghi kết quả trong transaction ngắn
+    private void startJob(LessonGenerationTask task) {
+        try {
+            AIJobResponse aiJob = languageProcessingClient.createAIJob().getResult();
+            transactionTemplate.executeWithoutResult(status -> onJobCreated(task.getId(), aiJob.getId()));
+        } catch (RuntimeException e) {
+            log.error("Failed to create AI job for lesson {} (attempt {}): {}",
+                    task.getLessonId(), task.getAttempts() + 1, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> onJobFailed(task.getId(), e));
+        }
+    }
+
+    private void onJobCreated(Long taskId, String aiJobId) {
+        LessonGenerationTask task = taskRepository.findById(taskId).orElse(null);
+        if (task == null || task.getStatus() != GenerationTaskStatus.DISPATCHING) {
+            // Bị cancel / enqueue lại trong lúc đang gọi → bỏ job vừa tạo
+            log.info("Generation task {} changed while creating AI job {}, skip", taskId, aiJobId);
+            return;
+        }
+        Lesson lesson = lessonRepository.findById(task.getLessonId()).orElse(null);
+        if (lesson == null) {
+            taskRepository.delete(task);
+            return;
+        }
+
+        lesson.setAiJobId(aiJobId);
+        lesson.setAiMessage("AI job created with ID: " + aiJobId);
+        lesson.setProcessingStep(LessonProcessingStep.PROCESSING_STARTED);
+        lesson.setStatus(LessonStatus.PROCESSING);
+        lessonRepository.save(lesson);
+        pipelineTimeline.start(lesson, aiJobId);
+
+        task.setStatus(GenerationTaskStatus.RUNNING);
+        task.setAiJobId(aiJobId);
+        taskRepository.save(task);
+        publishImportProgress(task);
+
+        log.info("Lesson {} dispatched to processing pipeline, AI job {}", lesson.getId(), aiJobId);
+        kafkaProducer.publishLessonGenerationRequested(LessonGenerationRequestedEvent.builder()
+                .sourceType(lesson.getSourceType())
+                .sourceUrl(lesson.getSourceUrl())
+                .aiJobId(aiJobId)
+                .aiMetadataUrl(lesson.getAiMetadataUrl())
+                .lessonId(lesson.getId())
+                .sourceLicenseType(lesson.getSourceLicenseType())
+                .title(LessonService.canReplaceGeneratedTitle(lesson) ? null : lesson.getTitle())
+                .description(lesson.getDescription() == null || lesson.getDescription().isBlank() ? null : lesson.getDescription().trim())
+                .isRestart(task.getIsRestart())
+                .build());
+    }
+
+    private void onJobFailed(Long taskId, RuntimeException error) {
+        LessonGenerationTask task = taskRepository.findById(taskId).orElse(null);
+        if (task == null || task.getStatus() != GenerationTaskStatus.DISPATCHING) return;
+
+        retryOrFail(task, error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage());
+        taskRepository.save(task);
+    }
+
+    private void retryOrFail(LessonGenerationTask task, String message) {
+        int attempts = task.getAttempts() + 1;
+        task.setAttempts(attempts);
+        task.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        task.setDispatchedAt(null);
+
+        if (attempts >= maxAttempts) {
+            task.setStatus(GenerationTaskStatus.FAILED);
+            task.setFinishedAt(new Timestamp(System.currentTimeMillis()));
+            lessonRepository.findById(task.getLessonId()).ifPresent(lesson -> {
+                lesson.setStatus(LessonStatus.ERROR);
+                lesson.setProcessingStep(LessonProcessingStep.FAILED);
+                lesson.setAiMessage("Failed to create AI job after " + attempts + " attempts: " + task.getLastError());
+                lessonRepository.save(lesson);
+            });
+            publishImportProgress(task);
+        } else {
+            // Trả về hàng đợi, giữ nguyên vị trí (enqueuedAt), thử lại sau backoff lũy thừa
+            long backoff = Math.min(MAX_BACKOFF_MS, retryBackoffMs << Math.min(attempts - 1, 20));
+            task.setStatus(GenerationTaskStatus.QUEUED);
+            task.setNextAttemptAt(new Timestamp(System.currentTimeMillis() + backoff));
+        }
+    }
+
+    private void publishImportProgress(LessonGenerationTask task) {
+        if (task.getImportBatchId() != null) {
+            eventPublisher.publishEvent(new LessonImportProgressEvent(task.getImportBatchId()));
+        }
+    }
+
+    private int maxRunning(LessonSourceType sourceType) {
+        String key = "app.generation.max-running." + sourceType.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        return Math.max(1, environment.getProperty(key, Integer.class,
+                environment.getProperty("app.generation.max-running.default", Integer.class, 2)));
+    }
+
+    private static long runningOf(Map<String, Long> runningByRequester, LessonGenerationTask task) {
+        return task.getRequestedBy() == null ? 0 : runningByRequester.getOrDefault(task.getRequestedBy(), 0L);
+    }
+}
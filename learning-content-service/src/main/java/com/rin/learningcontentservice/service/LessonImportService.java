@@ -0,0 +1,291 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.constants.SourceLicenseType;
+import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.request.BulkImportLessonRequest;
+import com.rin.learningcontentservice.dto.response.LessonImportResponse;
+import com.rin.learningcontentservice.dto.response.youtube.YouTubePlaylistItemsResponse;
+import com.rin.learningcontentservice.event.LessonImportProgressEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.model.GenerationPriority;
+import com.rin.learningcontentservice.model.GenerationTaskStatus;
+import com.rin.learningcontentservice.model.LessonImportBatch;
+import com.rin.learningcontentservice.model.Topic;
+import com.rin.learningcontentservice.repository.LessonGenerationTaskRepository;
+import com.rin.learningcontentservice.repository.LessonImportBatchRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import com.rin.learningcontentservice.repository.httpclient.YouTubeDataClient;
+import com.rin.learningcontentservice.utils.SecurityUtils;
+import com.rin.learningcontentservice.utils.TextUtils;
+import com.rin.learningcontentservice.utils.YouTubeUrls;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Import hàng loạt lesson cho 1 topic từ list URL / YouTube playlist: dedup với nguồn đã có,
+ * tạo lesson + task hàng đợi bằng INSERT nhiều dòng, rồi để LessonGenerationQueueService nhả dần
+ * vào pipeline (priority LOW, mỗi task cách nhau release-interval-ms).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonImportService {
+
+    private static final String PLACEHOLDER_TITLE = "Generating lesson";
+    private static final int PLAYLIST_PAGE_SIZE = 50;
+
+    private final TopicRepository topicRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonGenerationTaskRepository taskRepository;
+    private final LessonImportBatchRepository importBatchRepository;
+    private final YouTubeDataClient youTubeDataClient;
+    private final KafkaProducer kafkaProducer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TopicLessonCounterService topicLessonCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.lesson-import.max-urls:500}")
+    private int maxUrls;
+
+    @Value("${app.lesson-import.release-interval-ms:15000}")
+    private long releaseIntervalMs;
+
+    @Value("${app.youtube.api-key:}")
+    private String youTubeApiKey;
+
+    /**
+     * Không bọc transaction: gọi YouTube Data API (tối đa maxUrls / 50 trang playlist) trước, chỉ phần
+     * dedup + INSERT chạy trong transaction để không giữ connection trong lúc chờ HTTP.
+     */
+    public LessonImportResponse importLessons(BulkImportLessonRequest request) {
+        Topic topic = topicRepository.findCachedBySlug(request.getTopicSlug()).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.TOPIC_NOT_FOUND,
+                        LearningContentErrorCode.TOPIC_NOT_FOUND.formatMessage(request.getTopicSlug()))
+        );
+        LessonSourceType sourceType = request.getSourceType() == null ? LessonSourceType.YOUTUBE : request.getSourceType();
+        boolean hasPlaylist = request.getPlaylistId() != null && !request.getPlaylistId().isBlank();
+        if (hasPlaylist && sourceType != LessonSourceType.YOUTUBE) {
+            throw invalid("playlistId is only supported for YOUTUBE");
+        }
+
+        List<String> rawUrls = new ArrayList<>();
+        if (request.getUrls() != null) rawUrls.addAll(request.getUrls());
+        if (hasPlaylist) rawUrls.addAll(fetchPlaylistUrls(request.getPlaylistId().trim()));
+        if (rawUrls.isEmpty()) throw invalid("no urls or playlistId given");
+        if (rawUrls.size() > maxUrls) throw invalid("at most " + maxUrls + " urls per import, got " + rawUrls.size());
+
+        return transactionTemplate.execute(status -> insertImport(request, topic, sourceType, hasPlaylist, rawUrls));
+    }
+
+    private LessonImportResponse insertImport(BulkImportLessonRequest request, Topic topic, LessonSourceType sourceType,
+                                              boolean hasPlaylist, List<String> rawUrls) {
+        // key dedup (video ID với YouTube, URL với audio) → URL chuẩn hoá sẽ lưu vào lesson
+        Map<String, String> candidates = new LinkedHashMap<>();
+        Map<String, String> rawByKey = new HashMap<>();
+        List<String> invalidUrls = new ArrayList<>();
+        List<String> duplicateUrls = new ArrayList<>();
+        for (String raw : rawUrls) {
+            String key = sourceKey(sourceType, raw);
+            if (key == null) {
+                invalidUrls.add(raw);
+            } else if (candidates.containsKey(key)) {
+                duplicateUrls.add(raw);
+            } else {
+                candidates.put(key, sourceType == LessonSourceType.YOUTUBE ? YouTubeUrls.watchUrl(key) : key);
+                rawByKey.put(key, raw.trim());
+            }
+        }
+
+        removeExisting(sourceType, candidates, rawByKey, duplicateUrls);
+
+        String requestedBy = SecurityUtils.getCurrentUserId();
+        LessonImportBatch batch = importBatchRepository.save(LessonImportBatch.builder()
+                .topicId(topic.getId())
+                .sourceType(sourceType)
+                .playlistId(hasPlaylist ? request.getPlaylistId().trim() : null)
+                .requestedBy(requestedBy)
+                .requestedCount(rawUrls.size())
+                .createdCount(candidates.size())
+                .duplicateCount(duplicateUrls.size())
+                .invalidCount(invalidUrls.size())
+                .build());
+
+        if (!candidates.isEmpty()) {
+            int n = candidates.size();
+            String[] urls = new String[n];
+            String[] refs = new String[n];
+            String[] slugs = new String[n];
+            int i = 0;
+            for (Map.Entry<String, String> candidate : candidates.entrySet()) {
+                urls[i] = candidate.getValue();
+                refs[i] = sourceType == LessonSourceType.YOUTUBE ? candidate.getKey() : null;
+                slugs[i] = TextUtils.createSlug(PLACEHOLDER_TITLE + "-" + UUID.randomUUID().toString().substring(0, 8));
+                i++;
+            }
+
+            SourceLicenseType licenseType = request.getSourceLicenseType() == null
+                    ? SourceLicenseType.UNKNOWN : request.getSourceLicenseType();
+            Map<String, Long> idByUrl = new HashMap<>();
+            for (Object[] row : lessonRepository.insertImportedLessons(topic.getId(), PLACEHOLDER_TITLE,
+                    licenseType.name(), sourceType.name(),
+                    !Boolean.FALSE.equals(request.getEnableDictation()),
+                    !Boolean.FALSE.equals(request.getEnableShadowing()),
+                    urls, refs, slugs)) {
+                idByUrl.put((String) row[1], ((Number) row[0]).longValue());
+            }
+            // Giữ đúng thứ tự gửi lên → thứ tự nhả vào pipeline
+            Long[] lessonIds = Arrays.stream(urls).map(idByUrl::get).toArray(Long[]::new);
+            topicLessonCounters.adjust(topic.getId(), lessonIds.length, 0);
+            taskRepository.insertImportTasks(lessonIds, sourceType.name(), GenerationPriority.LOW.getRank(),
+                    requestedBy, batch.getId(), releaseIntervalMs);
+        }
+
+        log.info("Import batch {} for topic {}: {} created, {} duplicate, {} invalid",
+                batch.getId(), topic.getSlug(), batch.getCreatedCount(), batch.getDuplicateCount(), batch.getInvalidCount());
+        eventPublisher.publishEvent(new LessonImportProgressEvent(batch.getId()));
+
+        LessonImportResponse response = toResponse(batch);
+        response.setDuplicateUrls(duplicateUrls);
+        response.setInvalidUrls(invalidUrls);
+        return response;
+    }
+
+    @Transactional
+    public LessonImportResponse getImport(Long batchId) {
+        return toResponse(importBatchRepository.findById(batchId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.IMPORT_NOT_FOUND,
+                        LearningContentErrorCode.IMPORT_NOT_FOUND.formatMessage(batchId))
+        ));
+    }
+
+    /**
+     * Tiến độ tổng của đợt đi chung kênh LessonProcessingStepNotifyEvent (lessonId = null),
+     * notification-service route theo importBatchId.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onImportProgress(LessonImportProgressEvent event) {
+        importBatchRepository.findById(event.getImportBatchId()).ifPresent(batch -> {
+            LessonImportResponse progress = toResponse(batch);
+            boolean finished = progress.getQueuedCount() == 0 && progress.getRunningCount() == 0;
+            kafkaProducer.publishLessonProcessingStepNotify(LessonProcessingStepNotifyEvent.builder()
+                    .processingStep(finished ? LessonProcessingStep.COMPLETED : null)
+                    .aiMessage(String.format("Import %d: %d/%d completed, %d failed",
+                            batch.getId(), progress.getCompletedCount(), batch.getCreatedCount(), progress.getFailedCount()))
+                    .importBatchId(batch.getId())
+                    .importTotal(batch.getCreatedCount())
+                    .importQueued(progress.getQueuedCount())
+                    .importRunning(progress.getRunningCount())
+                    .importCompleted(progress.getCompletedCount())
+                    .importFailed(progress.getFailedCount())
+                    .build());
+        });
+    }
+
+    private LessonImportResponse toResponse(LessonImportBatch batch) {
+        Map<GenerationTaskStatus, Integer> counts = new EnumMap<>(GenerationTaskStatus.class);
+        for (Object[] row : taskRepository.countByStatusForImport(batch.getId())) {
+            counts.put((GenerationTaskStatus) row[0], ((Number) row[1]).intValue());
+        }
+        return LessonImportResponse.builder()
+                .batchId(batch.getId())
+                .requestedCount(batch.getRequestedCount())
+                .createdCount(batch.getCreatedCount())
+                .duplicateCount(batch.getDuplicateCount())
+                .invalidCount(batch.getInvalidCount())
+                .queuedCount(counts.getOrDefault(GenerationTaskStatus.QUEUED, 0))
+                .runningCount(counts.getOrDefault(GenerationTaskStatus.DISPATCHING, 0)
+                        + counts.getOrDefault(GenerationTaskStatus.RUNNING, 0))
+                .completedCount(counts.getOrDefault(GenerationTaskStatus.DONE, 0))
+                // Huỷ / quá hạn cũng tính là không thành công
+                .failedCount(counts.getOrDefault(GenerationTaskStatus.FAILED, 0)
+                        + counts.getOrDefault(GenerationTaskStatus.CANCELLED, 0)
+                        + counts.getOrDefault(GenerationTaskStatus.EXPIRED, 0))
+                .build();
+    }
+
+    private void removeExisting(LessonSourceType sourceType, Map<String, String> candidates,
+                                Map<String, String> rawByKey, List<String> duplicateUrls) {
+        if (candidates.isEmpty()) return;
+        Set<String> urls = new HashSet<>(candidates.values());
+        urls.addAll(rawByKey.values());
+        Set<String> refs = sourceType == LessonSourceType.YOUTUBE ? candidates.keySet() : Set.of("");
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : lessonRepository.findExistingSources(refs, urls)) {
+            if (row[0] != null) existing.add((String) row[0]);
+            if (row[1] != null) {
+                String key = sourceKey(sourceType, (String) row[1]);
+                if (key != null) existing.add(key);
+            }
+        }
+        candidates.keySet().removeIf(key -> {
+            if (!existing.contains(key)) return false;
+            duplicateUrls.add(rawByKey.get(key));
+            return true;
+        });
+    }
+
+    private List<String> fetchPlaylistUrls(String playlistId) {
+        if (youTubeApiKey == null || youTubeApiKey.isBlank()) {
+            throw new BaseException(LearningContentErrorCode.PLAYLIST_FETCH_FAILED,
+                    LearningContentErrorCode.PLAYLIST_FETCH_FAILED.formatMessage("YouTube API key is not configured"));
+        }
+        List<String> urls = new ArrayList<>();
+        String pageToken = null;
+        try {
+            do {
+                YouTubePlaylistItemsResponse page = youTubeDataClient.listPlaylistItems(
+                        "contentDetails", playlistId, PLAYLIST_PAGE_SIZE, pageToken, youTubeApiKey);
+                if (page.getItems() != null) {
+                    for (YouTubePlaylistItemsResponse.Item item : page.getItems()) {
+                        if (item.getContentDetails() != null && item.getContentDetails().getVideoId() != null) {
+                            urls.add(YouTubeUrls.watchUrl(item.getContentDetails().getVideoId()));
+                        }
+                    }
+                }
+                pageToken = page.getNextPageToken();
+                // Vượt giới hạn thì dừng sớm, importLessons sẽ báo lỗi
+            } while (pageToken != null && urls.size() <= maxUrls);
+        } catch (FeignException e) {
+            log.error("Failed to fetch playlist {}: {}", playlistId, e.getMessage());
+            throw new BaseException(LearningContentErrorCode.PLAYLIST_FETCH_FAILED,
+                    LearningContentErrorCode.PLAYLIST_FETCH_FAILED.formatMessage(playlistId));
+        }
+        return urls;
+    }
+
+    private static String sourceKey(LessonSourceType sourceType, String url) {
+        if (url == null || url.isBlank()) return null;
+        if (sourceType == LessonSourceType.YOUTUBE) return YouTubeUrls.extractVideoId(url);
+        try {
+            URI uri = URI.create(url.trim());
+            String scheme = uri.getScheme();
+            return ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) && uri.getHost() != null
+                    ? url.trim() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static BaseException invalid(String reason) {
+        return new BaseException(LearningContentErrorCode.INVALID_IMPORT_REQUEST,
+                LearningContentErrorCode.INVALID_IMPORT_REQUEST.formatMessage(reason));
+    }
+}
@@ -0,0 +1,176 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonDetailsResponse;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyResponse;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Gói offline của 1 lesson: 1 file zip gồm manifest, lesson payload, vocabulary và audio,
+ * ghi thẳng ra response stream (không file tạm, không buffer cả gói trong RAM).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonPackService {
+
+    static final int PACK_FORMAT_VERSION = 1;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+
+    private final LessonRepository lessonRepository;
+    private final LessonService lessonService;
+    private final LessonVocabularyService lessonVocabularyService;
+    private final ObjectMapper objectMapper;
+    // Chỉ có khi app.media.enabled=true → đọc audio từ local cache thay vì remote store
+    private final ObjectProvider<MediaService> mediaService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param audio đã mở sẵn (null nếu lesson không có audio), writePack đọc hết rồi đóng
+     */
+    public record LessonPack(Long lessonId, String slug, String etag, String audioUrl, InputStream audio,
+                             LessonDetailsResponse lesson, LessonVocabularyResponse vocabulary) {
+    }
+
+    /**
+     * ETag của gói, đổi khi lesson đổi version (sentence) hoặc thông tin lesson được cập nhật.
+     */
+    public String packEtag(Long lessonId) {
+        return etagOf(getReadyLesson(lessonId));
+    }
+
+    /**
+     * Load toàn bộ dữ liệu DB (open-in-view tắt, stream chạy ngoài transaction) rồi mở audio, tất cả trước khi
+     * controller trả 200 + ETag: audio lỗi thì client nhận mã lỗi thay vì 1 file zip cụt được cache lại.
+     */
+    public LessonPack preparePack(Long lessonId) {
+        LessonPack pack = transactionTemplate.execute(status -> {
+            Lesson lesson = getReadyLesson(lessonId);
+
+            LessonDetailsResponse details = lessonService.getLessonDetails(lessonId);
+            details.setSentences(details.getSentences().stream()
+                    .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
+                    .toList());
+            details.setAiMetadataUrl(null);
+
+            return new LessonPack(lessonId, lesson.getSlug(), etagOf(lesson), lesson.getAudioUrl(), null,
+                    details, lessonVocabularyService.getVocabulary(lessonId));
+        });
+        if (pack.audioUrl() == null) return pack;
+
+        // Mở ngoài transaction: tải remote có thể mất tới READ_TIMEOUT_MS
+        InputStream audio;
+        try {
+            audio = openAudio(lessonId, pack.audioUrl());
+        } catch (IOException e) {
+            log.warn("Failed to open audio of lesson {} for pack: {}", lessonId, e.getMessage());
+            throw new BaseException(LearningContentErrorCode.MEDIA_FETCH_FAILED,
+                    LearningContentErrorCode.MEDIA_FETCH_FAILED.formatMessage(pack.audioUrl()));
+        }
+        return new LessonPack(pack.lessonId(), pack.slug(), pack.etag(), pack.audioUrl(), audio,
+                pack.lesson(), pack.vocabulary());
+    }
+
+    public void writePack(LessonPack pack, OutputStream out) throws IOException {
+        try (InputStream audio = pack.audio()) {
+            writePack(pack, audio, out);
+        }
+    }
+
+    private void writePack(LessonPack pack, InputStream audio, OutputStream out) throws IOException {
+        String audioEntry = audio == null ? null : "audio" + audioExtension(pack.audioUrl());
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("formatVersion", PACK_FORMAT_VERSION);
+        manifest.put("lessonId", pack.lessonId());
+        manifest.put("lessonVersion", pack.lesson().getVersion());
+        manifest.put("etag", pack.etag());
+        manifest.put("audio", audioEntry);
+
+        writeJson(zip, "manifest.json", manifest);
+        writeJson(zip, "lesson.json", pack.lesson());
+        writeJson(zip, "vocabulary.json", pack.vocabulary());
+
+        if (audioEntry != null) {
+            // Audio đã nén sẵn, deflate thêm chỉ tốn CPU
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(audioEntry));
+            audio.transferTo(zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeJson(ZipOutputStream zip, String name, Object value) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        // Không để Jackson đóng ZipOutputStream sau khi ghi xong entry
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(zip, value);
+        zip.closeEntry();
+    }
+
+    private InputStream openAudio(Long lessonId, String audioUrl) throws IOException {
+        MediaService localMedia = mediaService.getIfAvailable();
+        if (localMedia != null) {
+            return Files.newInputStream(localMedia.getLessonAudio(lessonId).getFile());
+        }
+        URLConnection connection = URI.create(audioUrl).toURL().openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection.getInputStream();
+    }
+
+    private Lesson getReadyLesson(Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                        LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
+        );
+        if (lesson.getStatus() != LessonStatus.READY) {
+            throw new BaseException(LearningContentErrorCode.INVALID_STATE,
+                    LearningContentErrorCode.INVALID_STATE.formatMessage(lessonId, "READY"));
+        }
+        return lesson;
+    }
+
+    private static String etagOf(Lesson lesson) {
+        long updatedAt = lesson.getUpdatedAt() == null ? 0 : lesson.getUpdatedAt().getTime();
+        return "\"pack-" + lesson.getId() + "-v" + (lesson.getVersion() == null ? 0 : lesson.getVersion())
+                + "-" + updatedAt + "\"";
+    }
+
+    private static String audioExtension(String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = null;
+        }
+        int dot = path == null ? -1 : path.lastIndexOf('.');
+        if (dot < 0 || path.length() - dot > 5 || path.indexOf('/', dot) >= 0) return ".mp3";
+        return path.substring(dot).toLowerCase();
+    }
+}
@@ -0,0 +1,247 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonPipelineStepResponse;
+import com.rin.learningcontentservice.dto.response.LessonPipelineTimelineResponse;
+import com.rin.learningcontentservice.event.LessonStepRecordedEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonProcessingTimeline;
+import com.rin.learningcontentservice.repository.LessonProcessingTimelineRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ghi timeline từng lần generate (PROCESSING_STARTED → … → COMPLETED / FAILED) và đẩy latency lên Micrometer:
+ * <ul>
+ *     <li>lesson.pipeline.step.duration: thời gian từ step trước tới step này, tag step + source_type</li>
+ *     <li>lesson.pipeline.step.seconds.per.audio.minute: như trên nhưng chia cho số phút audio</li>
+ *     <li>lesson.pipeline.total.duration / lesson.pipeline.total.seconds.per.audio.minute: cả lần chạy, tag outcome</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonPipelineTimelineService {
+
+    // 1 slot cho mỗi step có order 1 (PROCESSING_STARTED) … 5 (COMPLETED)
+    private static final int TRACKED_STEPS = LessonProcessingStep.COMPLETED.getOrder();
+    private static final int MAX_SLOWEST_LIMIT = 100;
+
+    private final LessonProcessingTimelineRepository timelineRepository;
+    private final LessonRepository lessonRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Gọi khi AI job vừa được tạo, lần generate trước (nếu có) bị ghi đè.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void start(Lesson lesson, String aiJobId) {
+        LessonProcessingTimeline timeline = newTimeline(lesson, aiJobId, System.currentTimeMillis());
+        timeline.getStepOffsetsMs()[slot(LessonProcessingStep.PROCESSING_STARTED)] = 0;
+        timeline.setLastStep(LessonProcessingStep.PROCESSING_STARTED);
+        timelineRepository.save(timeline);
+    }
+
+    /**
+     * Ghi step vừa nhận từ pipeline (đã qua idempotency check của LessonService).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStep(Lesson lesson, LessonProcessingStep step, Integer audioSeconds) {
+        if (step == null || step == LessonProcessingStep.NONE) return;
+        long now = System.currentTimeMillis();
+        LessonProcessingTimeline timeline = timelineRepository.findById(lesson.getId())
+                .filter(t -> Objects.equals(t.getAiJobId(), lesson.getAiJobId()))
+                // Lesson đang chạy từ trước khi có timeline → đo từ step này, step đầu không có duration
+                .orElseGet(() -> newTimeline(lesson, lesson.getAiJobId(), now));
+
+        long[] offsets = timeline.getStepOffsetsMs();
+        long offset = now - timeline.getStartedAt().getTime();
+        long previousOffset = Arrays.stream(offsets).max().orElse(-1);
+        Long stepMillis = previousOffset < 0 ? null : Math.max(0, offset - previousOffset);
+
+        if (step != LessonProcessingStep.FAILED) {
+            offsets[slot(step)] = offset;
+        }
+        if (audioSeconds != null && audioSeconds > 0) {
+            timeline.setAudioSeconds(audioSeconds);
+        }
+        timeline.setLastStep(step);
+
+        Long totalMillis = null;
+        if (step == LessonProcessingStep.COMPLETED || step == LessonProcessingStep.FAILED) {
+            timeline.setFinishedAt(new Timestamp(now));
+            timeline.setTotalMs(offset);
+            // Chỉ tính tổng khi biết thời điểm bắt đầu thật
+            if (offsets[slot(LessonProcessingStep.PROCESSING_STARTED)] == 0) totalMillis = offset;
+        }
+        timelineRepository.save(timeline);
+
+        eventPublisher.publishEvent(new LessonStepRecordedEvent(step, timeline.getSourceType(), stepMillis,
+                totalMillis, timeline.getAudioSeconds()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Long lessonId) {
+        timelineRepository.deleteById(lessonId);
+    }
+
+    @TransactionalEventListener
+    public void onStepRecorded(LessonStepRecordedEvent event) {
+        String sourceType = event.getSourceType() == null ? "UNKNOWN" : event.getSourceType().name();
+        Integer audioSeconds = event.getAudioSeconds();
+
+        if (event.getStepMillis() != null) {
+            String step = event.getStep().name();
+            Timer.builder("lesson.pipeline.step.duration")
+                    .description("Time from the previous pipeline step to this step")
+                    .tags("step", step, "source_type", sourceType)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofSeconds(1))
+                    .maximumExpectedValue(Duration.ofHours(3))
+                    .register(meterRegistry)
+                    .record(Duration.ofMillis(event.getStepMillis()));
+            recordPerAudioMinute("lesson.pipeline.step.seconds.per.audio.minute",
+                    event.getStepMillis(), audioSeconds, "step", step, sourceType);
+        }
+
+        if (event.getTotalMillis() != null) {
+            String outcome = event.getStep() == LessonProcessingStep.COMPLETED ? "completed" : "failed";
+            Timer.builder("lesson.pipeline.total.duration")
+                    .description("Time from AI job creation to COMPLETED / FAILED")
+                    .tags("outcome", outcome, "source_type", sourceType)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofSeconds(1))
+                    .maximumExpectedValue(Duration.ofHours(3))
+                    .register(meterRegistry)
+                    .record(Duration.ofMillis(event.getTotalMillis()));
+            recordPerAudioMinute("lesson.pipeline.total.seconds.per.audio.minute",
+                    event.getTotalMillis(), audioSeconds, "outcome", outcome, sourceType);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public LessonPipelineTimelineResponse getTimeline(Long lessonId) {
+        LessonProcessingTimeline timeline = timelineRepository.findById(lessonId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.PROCESSING_TIMELINE_NOT_FOUND,
+                        LearningContentErrorCode.PROCESSING_TIMELINE_NOT_FOUND.formatMessage(lessonId))
+        );
+        String title = lessonRepository.findById(lessonId).map(Lesson::getTitle).orElse(null);
+        return toResponse(timeline, title);
+    }
+
+    /**
+     * Lesson chạy xong (COMPLETED / FAILED) trong sinceHours giờ gần nhất, lâu nhất trước.
+     */
+    @Transactional(readOnly = true)
+    public List<LessonPipelineTimelineResponse> getSlowest(int sinceHours, LessonSourceType sourceType, int limit) {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - Duration.ofHours(Math.max(1, sinceHours)).toMillis());
+        List<LessonProcessingTimeline> timelines = timelineRepository.findSlowestFinishedSince(since, sourceType,
+                PageRequest.of(0, Math.min(Math.max(1, limit), MAX_SLOWEST_LIMIT)));
+        if (timelines.isEmpty()) return List.of();
+
+        Map<Long, String> titles = lessonRepository.findAllById(timelines.stream()
+                        .map(LessonProcessingTimeline::getLessonId)
+                        .toList()).stream()
+                .collect(Collectors.toMap(Lesson::getId, Lesson::getTitle, (a, b) -> a));
+        return timelines.stream()
+                .map(t -> toResponse(t, titles.get(t.getLessonId())))
+                .toList();
+    }
+
+    private void recordPerAudioMinute(String name, long millis, Integer audioSeconds,
+                                      String tagKey, String tagValue, String sourceType) {
+        if (audioSeconds == null || audioSeconds <= 0) return;
+        DistributionSummary.builder(name)
+                .description("Processing seconds per minute of source audio")
+                .baseUnit("seconds")
+                .tags(tagKey, tagValue, "source_type", sourceType)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(perAudioMinute(millis, audioSeconds));
+    }
+
+    private LessonPipelineTimelineResponse toResponse(LessonProcessingTimeline timeline, String title) {
+        long startedAt = timeline.getStartedAt().getTime();
+        long[] offsets = timeline.getStepOffsetsMs();
+        Map<Integer, LessonProcessingStep> stepsByOrder = Arrays.stream(LessonProcessingStep.values())
+                .collect(Collectors.toMap(LessonProcessingStep::getOrder, Function.identity()));
+
+        List<LessonPipelineStepResponse> steps = new ArrayList<>();
+        long previous = -1;
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] < 0) continue;
+            steps.add(LessonPipelineStepResponse.builder()
+                    .step(stepsByOrder.get(i + 1))
+                    .reachedAt(new Timestamp(startedAt + offsets[i]))
+                    .offsetSeconds(offsets[i] / 1000.0)
+                    .durationSeconds(previous < 0 ? null : (offsets[i] - previous) / 1000.0)
+                    .build());
+            previous = offsets[i];
+        }
+        if (timeline.getLastStep() == LessonProcessingStep.FAILED && timeline.getTotalMs() != null) {
+            steps.add(LessonPipelineStepResponse.builder()
+                    .step(LessonProcessingStep.FAILED)
+                    .reachedAt(timeline.getFinishedAt())
+                    .offsetSeconds(timeline.getTotalMs() / 1000.0)
+                    .durationSeconds(previous < 0 ? null : (timeline.getTotalMs() - previous) / 1000.0)
+                    .build());
+        }
+
+        Integer audioSeconds = timeline.getAudioSeconds();
+        return LessonPipelineTimelineResponse.builder()
+                .lessonId(timeline.getLessonId())
+                .title(title)
+                .sourceType(timeline.getSourceType())
+                .aiJobId(timeline.getAiJobId())
+                .lastStep(timeline.getLastStep())
+                .startedAt(timeline.getStartedAt())
+                .finishedAt(timeline.getFinishedAt())
+                .audioSeconds(audioSeconds)
+                .totalSeconds(timeline.getTotalMs() == null ? null : timeline.getTotalMs() / 1000.0)
+                .secondsPerAudioMinute(timeline.getTotalMs() == null || audioSeconds == null || audioSeconds <= 0
+                        ? null : perAudioMinute(timeline.getTotalMs(), audioSeconds))
+                .steps(steps)
+                .build();
+    }
+
+    private static LessonProcessingTimeline newTimeline(Lesson lesson, String aiJobId, long startedAt) {
+        long[] offsets = new long[TRACKED_STEPS];
+        Arrays.fill(offsets, -1);
+        return LessonProcessingTimeline.builder()
+                .lessonId(lesson.getId())
+                .aiJobId(aiJobId)
+                .sourceType(lesson.getSourceType())
+                .startedAt(new Timestamp(startedAt))
+                .stepOffsetsMs(offsets)
+                .audioSeconds(lesson.getDurationSeconds())
+                .build();
+    }
+
+    private static int slot(LessonProcessingStep step) {
+        return step.getOrder() - 1;
+    }
+
+    private static double perAudioMinute(long millis, int audioSeconds) {
+        return (millis / 1000.0) / (audioSeconds / 60.0);
+    }
+}
@@ -6,19 +6,26 @@ import com.rin.englishlearning.common.event.GamificationRewardEvent;
 import com.rin.englishlearning.common.exception.BaseErrorCode;
 import com.rin.englishlearning.common.exception.BaseException;
 import com.rin.englishlearning.common.utils.GamificationUtils;
+import com.rin.learningcontentservice.dto.request.DictationGradeRequest;
 import com.rin.learningcontentservice.dto.request.ProgressBatchRequest;
 import com.rin.learningcontentservice.dto.request.ProgressUpdateRequest;
+import com.rin.learningcontentservice.dto.response.DictationGradeResponse;
+import com.rin.learningcontentservice.dto.response.DictationWordResult;
 import com.rin.learningcontentservice.dto.response.ProgressUpdateResponse;
 import com.rin.learningcontentservice.dto.response.UserLessonProgressDto;
+import com.rin.learningcontentservice.event.LessonCompletedByUserEvent;
 import com.rin.learningcontentservice.exception.LearningContentErrorCode;
 import com.rin.learningcontentservice.kafka.KafkaProducer;
 import com.rin.learningcontentservice.model.*;
 import com.rin.learningcontentservice.repository.LessonRepository;
 import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import com.rin.learningcontentservice.service.support.DictationAligner;
+import com.rin.learningcontentservice.service.support.SentenceStatsDelta;
 import com.rin.learningcontentservice.utils.SecurityUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -34,6 +41,9 @@ public class LessonProcessingService {
     private final LessonRepository lessonRepository;
     private final UserLessonProgressRepository userLessonProgressRepository;
     private final KafkaProducer kafkaProducer;
+    private final SentenceDifficultyService sentenceDifficultyService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * TỐI ƯU 1: Xử lý Batch chỉ với 1 lần gọi DB (Tránh lỗi N+1 Query)
@@ -43,8 +53,10 @@ public class LessonProcessingService {
         String userId = requireValidUserId();
         Lesson lesson = getLessonOrThrow(request.getLessonId());
         UserLessonProgress progress = getOrCreateProgress(userId, request.getLessonId(), request.getMode(), lesson);
+        nextRevision(progress);
 
         List<GamificationRewardEvent> pendingEvents = new ArrayList<>();
+        Map<Long, SentenceStatsDelta> statsDeltas = new HashMap<>();
 
         // Gom nhóm các Active Sentences để tra cứu O(1)
         Set<Long> activeSentenceIds = lesson.getSentences().stream()
@@ -55,15 +67,19 @@ public class LessonProcessingService {
         // Lặp xử lý trên RAM, không gọi xuống DB
         boolean justCompletedLesson = false;
         for (Long sentenceId : request.getSentenceIds()) {
-            justCompletedLesson |= processSingleSentenceLogic(userId, lesson, progress, sentenceId, request.getScore(), request.getMode(), activeSentenceIds, pendingEvents);
+            justCompletedLesson |= processSingleSentenceLogic(userId, lesson, progress, sentenceId, request.getScore(), request.getMode(), activeSentenceIds, pendingEvents, statsDeltas);
         }
 
         // Lưu DB đúng 1 lần cho cả Batch
         userLessonProgressRepository.save(progress);
+        sentenceDifficultyService.applyDeltas(lesson.getId(), request.getMode(), statsDeltas);
+        // Các lần đọc progress ngay sau đó của user này đi primary (replica có thể chưa replay kịp)
+        readYourWritesTracker.markWrite(userId);
 
         // Bắn toàn bộ sự kiện qua Kafka (An toàn sau khi Commit)
         publishEventsAfterCommit(pendingEvents);
-        return buildResponse(progress, justCompletedLesson);
+        if (justCompletedLesson) eventPublisher.publishEvent(new LessonCompletedByUserEvent(userId, lesson.getId()));
+        return buildResponse(progress, justCompletedLesson, request.getSinceRevision());
     }
 
     /**
@@ -73,20 +89,120 @@ public class LessonProcessingService {
     public ProgressUpdateResponse updateProgress(ProgressUpdateRequest request) {
         String userId = requireValidUserId();
         Lesson lesson = getLessonOrThrow(request.getLessonId());
-        UserLessonProgress progress = getOrCreateProgress(userId, request.getLessonId(), request.getMode(), lesson);
+        return applySingleSentenceProgress(userId, lesson, request.getSentenceId(), request.getScore(),
+                request.getMode(), request.getSinceRevision());
+    }
+
+    /**
+     * Chấm dictation phía server: căn chỉnh câu learner gõ với wordNormalized của sentence,
+     * điểm tính được đi thẳng vào processSingleSentenceLogic (client không tự gửi score).
+     */
+    @Transactional
+    public DictationGradeResponse gradeDictation(DictationGradeRequest request) {
+        String userId = requireValidUserId();
+        Lesson lesson = getLessonOrThrow(request.getLessonId());
+
+        LessonSentence sentence = lesson.getSentences().stream()
+                .filter(s -> s.getId().equals(request.getSentenceId()) && Boolean.TRUE.equals(s.getIsActive()))
+                .findFirst()
+                .orElseThrow(() -> new BaseException(LearningContentErrorCode.SENTENCE_NOT_FOUND,
+                        LearningContentErrorCode.SENTENCE_NOT_FOUND.formatMessage(request.getSentenceId())));
+
+        // Expected phải đi qua cùng bước chuẩn hoá với câu gõ (nháy cong, dấu câu, hoa/thường)
+        List<LessonWord> words = new ArrayList<>();
+        List<String> expectedTokens = new ArrayList<>();
+        for (LessonWord w : sentence.getOrderedWords()) {
+            String token = DictationAligner.normalizeToken(w.getWordNormalized());
+            if (token == null) continue;
+            words.add(w);
+            expectedTokens.add(token);
+        }
+        String[] expected = expectedTokens.toArray(new String[0]);
+        String[] typed = DictationAligner.tokenize(request.getTypedText());
+        // align tốn O(D²) bộ nhớ, D ≈ số từ gõ thừa → chặn câu gõ dài bất thường trước khi căn chỉnh
+        int maxTyped = DictationAligner.maxTypedTokens(expected.length);
+        if (typed.length > maxTyped) {
+            throw new BaseException(LearningContentErrorCode.DICTATION_INPUT_TOO_LONG,
+                    LearningContentErrorCode.DICTATION_INPUT_TOO_LONG.formatMessage(typed.length, maxTyped));
+        }
+
+        byte[] ops = DictationAligner.align(expected, typed);
+        List<DictationWordResult> results = new ArrayList<>(ops.length);
+        int x = 0, y = 0, correct = 0, missing = 0, extra = 0;
+        for (byte op : ops) {
+            switch (op) {
+                case DictationAligner.MATCH -> {
+                    results.add(DictationWordResult.builder().wordId(words.get(x).getId())
+                            .expected(words.get(x).getWordNormalized()).typed(typed[y]).status(DictationWordStatus.CORRECT).build());
+                    x++; y++; correct++;
+                }
+                case DictationAligner.MISSING -> {
+                    results.add(DictationWordResult.builder().wordId(words.get(x).getId())
+                            .expected(words.get(x).getWordNormalized()).status(DictationWordStatus.MISSING).build());
+                    x++; missing++;
+                }
+                default -> {
+                    results.add(DictationWordResult.builder().typed(typed[y]).status(DictationWordStatus.EXTRA).build());
+                    y++; extra++;
+                }
+            }
+        }
+        double score = DictationAligner.score(correct, expected.length, typed.length);
+
+        ProgressUpdateResponse progressUpdate = applySingleSentenceProgress(userId, lesson, sentence.getId(), score,
+                LearningMode.DICTATION, request.getSinceRevision());
+
+        return DictationGradeResponse.builder()
+                .sentenceId(sentence.getId()).score(score)
+                .correctCount(correct).missingCount(missing).extraCount(extra)
+                .words(results).progressUpdate(progressUpdate)
+                .build();
+    }
+
+    private ProgressUpdateResponse applySingleSentenceProgress(String userId, Lesson lesson, Long sentenceId, Double score,
+                                                               LearningMode mode, Long sinceRevision) {
+        UserLessonProgress progress = getOrCreateProgress(userId, lesson.getId(), mode, lesson);
+        nextRevision(progress);
 
         List<GamificationRewardEvent> pendingEvents = new ArrayList<>();
+        Map<Long, SentenceStatsDelta> statsDeltas = new HashMap<>();
 
         Set<Long> activeSentenceIds = lesson.getSentences().stream()
                 .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
                 .map(LessonSentence::getId)
                 .collect(Collectors.toSet());
 
-        boolean justCompletedLesson = processSingleSentenceLogic(userId, lesson, progress, request.getSentenceId(), request.getScore(), request.getMode(), activeSentenceIds, pendingEvents);
+        boolean justCompletedLesson = processSingleSentenceLogic(userId, lesson, progress, sentenceId, score, mode, activeSentenceIds, pendingEvents, statsDeltas);
 
         userLessonProgressRepository.save(progress);
+        sentenceDifficultyService.applyDeltas(lesson.getId(), mode, statsDeltas);
+        readYourWritesTracker.markWrite(userId);
         publishEventsAfterCommit(pendingEvents);
-        return buildResponse(progress, justCompletedLesson);
+        if (justCompletedLesson) eventPublisher.publishEvent(new LessonCompletedByUserEvent(userId, lesson.getId()));
+        return buildResponse(progress, justCompletedLesson, sinceRevision);
+    }
+
+    /**
+     * Delta sync: client gửi revision cuối cùng đã thấy, chỉ nhận lại các ProgressItem thay đổi sau đó.
+     * Nếu revision của client quá cũ (progress đã bị recompute) thì trả full map kèm fullSync = true.
+     * Lesson đổi version từ lần ghi progress cuối thì recompute ngay tại đây, không để client nhận item của câu đã xoá.
+     */
+    @Transactional
+    public UserLessonProgressDto syncProgress(Long lessonId, LearningMode mode, Long sinceRevision) {
+        String userId = requireValidUserId();
+        return userLessonProgressRepository.findByUserIdAndLessonIdAndMode(userId, lessonId, mode)
+                .map(progress -> {
+                    if (syncLessonVersion(progress, getLessonOrThrow(lessonId))) {
+                        userLessonProgressRepository.save(progress);
+                    }
+                    return toProgressDto(progress, sinceRevision);
+                })
+                .orElseGet(() -> UserLessonProgressDto.builder()
+                        .mode(mode.name()).status(ProgressStatus.IN_PROGRESS)
+                        .progressItems(new HashMap<>())
+                        .completedSentenceCount(0).totalSentenceCount(0)
+                        .revision(0L).fullSync(true)
+                        .build());
     }
 
     /**
@@ -94,7 +210,8 @@ public class LessonProcessingService {
      */
     private boolean processSingleSentenceLogic(String userId, Lesson lesson, UserLessonProgress progress,
                                             Long sentenceId, Double rawScore, LearningMode mode,
-                                            Set<Long> activeSentenceIds, List<GamificationRewardEvent> pendingEvents) {
+                                            Set<Long> activeSentenceIds, List<GamificationRewardEvent> pendingEvents,
+                                            Map<Long, SentenceStatsDelta> statsDeltas) {
 
         // Check 5: SentenceId phải thuộc Lesson này (Ngăn chặn hack từ Client)
         if (!activeSentenceIds.contains(sentenceId)) {
@@ -105,7 +222,15 @@ public class LessonProcessingService {
         double currentScore = rawScore != null ? rawScore : 0.0;
         long now = System.currentTimeMillis();
         ProgressItem item = progress.getProgressItems().get(sentenceId);
+        // Câu từng bị tắt rồi bật lại: item cũ nằm ở retiredItems → không phải lần đầu của learner
+        ProgressItem retired = item == null && progress.getRetiredItems() != null
+                ? progress.getRetiredItems().remove(sentenceId) : null;
+        if (retired != null) {
+            item = retired;
+            progress.getProgressItems().put(sentenceId, item);
+        }
         double previousHighScore = item != null && item.getBestScore() != null ? item.getBestScore() : 0.0;
+        boolean isFirstAttempt = item == null;
 
         if (item == null) {
             item = ProgressItem.builder()
@@ -122,6 +247,11 @@ public class LessonProcessingService {
             item.setLastPracticedAt(now);
             if (currentScore > previousHighScore) item.setBestScore(currentScore);
         }
+        item.setRevision(progress.getRevision());
+
+        // Rollup độ khó sentence (lần đầu của learner → previousBest = null)
+        statsDeltas.computeIfAbsent(sentenceId, id -> new SentenceStatsDelta())
+                .addAttempt(currentScore, isFirstAttempt ? null : previousHighScore, item.getBestScore());
 
         // Xử lý tạo Event phần thưởng
         if (currentScore > previousHighScore) {
@@ -206,13 +336,18 @@ public class LessonProcessingService {
                         .build());
 
         if (progress.getProgressItems() == null) progress.setProgressItems(new HashMap<>());
+        syncLessonVersion(progress, lesson);
+        return progress;
+    }
 
+    /**
+     * @return true nếu progress được recompute theo version mới của lesson
+     */
+    private boolean syncLessonVersion(UserLessonProgress progress, Lesson lesson) {
         Integer currentVersion = lesson.getVersion() == null ? 0 : lesson.getVersion();
-        if (!currentVersion.equals(progress.getLessonVersion())) {
-            recomputeProgress(progress, lesson, currentVersion);
-        }
-
-        return progress;
+        if (currentVersion.equals(progress.getLessonVersion())) return false;
+        recomputeProgress(progress, lesson, currentVersion);
+        return true;
     }
 
     private DifficultyLevel extractDifficulty(Lesson lesson) {
@@ -242,8 +377,20 @@ public class LessonProcessingService {
                 .filter(s -> Boolean.TRUE.equals(s.getIsActive()))
                 .map(LessonSentence::getId).collect(Collectors.toSet());
 
+        Set<Long> sentenceIds = lesson.getSentences().stream().map(LessonSentence::getId).collect(Collectors.toSet());
+
         if (progress.getProgressItems() == null) progress.setProgressItems(new HashMap<>());
-        progress.getProgressItems().keySet().retainAll(activeSentenceIds);
+        if (progress.getRetiredItems() == null) progress.setRetiredItems(new HashMap<>());
+        Map<Long, ProgressItem> pruned = new HashMap<>(progress.getProgressItems());
+        pruned.keySet().removeAll(activeSentenceIds);
+        if (!pruned.isEmpty()) {
+            progress.getProgressItems().keySet().removeAll(pruned.keySet());
+            progress.getRetiredItems().putAll(pruned);
+            // Item bị xoá không thể biểu diễn bằng delta → client có revision cũ hơn phải full sync
+            progress.setResetRevision(nextRevision(progress));
+        }
+        // Câu đã bị xoá hẳn khỏi lesson (generate lại ra id mới) thì không còn bật lại được
+        progress.getRetiredItems().keySet().retainAll(sentenceIds);
         int completedCount = (int) activeSentenceIds.stream().filter(progress.getProgressItems()::containsKey).count();
         progress.setLessonVersion(lessonVersion);
         progress.setCompletedSentenceCount(completedCount);
@@ -267,13 +414,38 @@ public class LessonProcessingService {
                 .average().orElse(0.0);
     }
 
-    private ProgressUpdateResponse buildResponse(UserLessonProgress progress, boolean justCompletedLesson) {
-        UserLessonProgressDto dto = UserLessonProgressDto.builder()
+    private long nextRevision(UserLessonProgress progress) {
+        long revision = (progress.getRevision() == null ? 0L : progress.getRevision()) + 1;
+        progress.setRevision(revision);
+        return revision;
+    }
+
+    private ProgressUpdateResponse buildResponse(UserLessonProgress progress, boolean justCompletedLesson, Long sinceRevision) {
+        UserLessonProgressDto dto = toProgressDto(progress, sinceRevision);
+        return ProgressUpdateResponse.builder().progress(dto).justCompletedLesson(justCompletedLesson).build();
+    }
+
+    private UserLessonProgressDto toProgressDto(UserLessonProgress progress, Long sinceRevision) {
+        long revision = progress.getRevision() == null ? 0L : progress.getRevision();
+        long resetRevision = progress.getResetRevision() == null ? 0L : progress.getResetRevision();
+        Map<Long, ProgressItem> items = progress.getProgressItems() != null ? progress.getProgressItems() : new HashMap<>();
+
+        boolean fullSync = sinceRevision == null || sinceRevision <= 0
+                || sinceRevision < resetRevision || sinceRevision > revision;
+        if (!fullSync) {
+            Map<Long, ProgressItem> changed = new HashMap<>();
+            items.forEach((sentenceId, item) -> {
+                if (item.getRevision() != null && item.getRevision() > sinceRevision) changed.put(sentenceId, item);
+            });
+            items = changed;
+        }
+
+        return UserLessonProgressDto.builder()
                 .mode(progress.getMode().name()).status(progress.getStatus())
-                .progressItems(progress.getProgressItems()).lessonScore(progress.getLessonScore())
+                .progressItems(items).lessonScore(progress.getLessonScore())
                 .completedSentenceCount(progress.getCompletedSentenceCount())
                 .totalSentenceCount(progress.getTotalSentenceCount()).completedAt(progress.getCompletedAt())
+                .revision(revision).fullSync(fullSync)
                 .build();
-        return ProgressUpdateResponse.builder().progress(dto).justCompletedLesson(justCompletedLesson).build();
     }
 }
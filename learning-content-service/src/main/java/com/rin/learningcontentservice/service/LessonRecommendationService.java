@@ -0,0 +1,221 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+import com.rin.englishlearning.common.exception.BaseErrorCode;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.HomeLessonResponse;
+import com.rin.learningcontentservice.dto.response.RecommendedLessonsResponse;
+import com.rin.learningcontentservice.event.LessonCompletedByUserEvent;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.event.TopicChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.ProgressStatus;
+import com.rin.learningcontentservice.model.UserLessonRecommendation;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import com.rin.learningcontentservice.repository.UserLessonRecommendationRepository;
+import com.rin.learningcontentservice.service.support.LessonRecommender;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Gợi ý lesson theo từng user, tính sẵn và lưu 1 dòng / user (user_lesson_recommendations):
+ * <ul>
+ *     <li>job định kỳ tính lại cho user có progress trong activeDays ngày gần nhất</li>
+ *     <li>user vừa hoàn thành lesson → chỉ tính lại user đó sau commit, ở background</li>
+ *     <li>user chưa có dòng nào (mới / lâu không vào) → tính ngay lần đầu gọi API</li>
+ * </ul>
+ * Danh sách lesson ứng viên (id, topic, level, publishedAt) cache trong RAM. Lesson / topic đổi thì build lại
+ * ở background, trong lúc đó vẫn dùng bản cũ (lesson đã unpublish bị lọc lúc đọc) để request không phải chờ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonRecommendationService {
+
+    private final UserLessonRecommendationRepository recommendationRepository;
+    private final UserLessonProgressRepository userLessonProgressRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonService lessonService;
+    private final TransactionTemplate transactionTemplate;
+    private final BackgroundTaskService backgroundTasks;
+
+    @Value("${app.recommendations.size:20}")
+    private int size;
+
+    @Value("${app.recommendations.max-per-topic:4}")
+    private int maxPerTopic;
+
+    @Value("${app.recommendations.active-days:30}")
+    private int activeDays;
+
+    @Value("${app.recommendations.catalog-ttl-seconds:600}")
+    private long catalogTtlSeconds;
+
+    private record Catalog(List<LessonRecommender.Candidate> candidates, long builtAtMillis, long generation) {
+    }
+
+    private volatile Catalog catalog;
+    // Tăng mỗi lần lesson / topic đổi; catalog có generation cũ hơn là đã lỗi thời
+    private final AtomicLong catalogGeneration = new AtomicLong();
+
+    /**
+     * 1 lookup theo PK lấy danh sách id, sau đó load lesson (bỏ lesson đã unpublish / xoá từ lần tính trước).
+     * Lesson trong danh sách đều là lesson user chưa bắt đầu nên không cần overlay progress.
+     */
+    @Transactional
+    public RecommendedLessonsResponse getRecommended(String userId, int limit) {
+        if (userId == null) throw new BaseException(BaseErrorCode.UNAUTHORIZED);
+        UserLessonRecommendation recommendation = recommendationRepository.findById(userId)
+                .orElseGet(() -> recompute(userId));
+
+        long[] ids = recommendation.getLessonIds();
+        List<Long> wanted = Arrays.stream(ids).limit(Math.max(1, limit)).boxed().toList();
+        Map<Long, Lesson> lessons = wanted.isEmpty()
+                ? Map.of()
+                : lessonRepository.findAllWithTopicByIdIn(wanted).stream()
+                .filter(lesson -> lesson.getPublishedAt() != null && Boolean.TRUE.equals(lesson.getTopic().getIsActive()))
+                .collect(Collectors.toMap(Lesson::getId, Function.identity()));
+
+        List<HomeLessonResponse> items = wanted.stream()
+                .map(lessons::get)
+                .filter(Objects::nonNull)
+                .map(lesson -> lessonService.toExploreResponse(lesson, List.of()))
+                .toList();
+        return RecommendedLessonsResponse.builder()
+                .estimatedLevel(recommendation.getEstimatedLevel() == null ? null : recommendation.getEstimatedLevel().name())
+                .computedAt(recommendation.getComputedAt())
+                .lessons(items)
+                .build();
+    }
+
+    // Không chạy trên thread của request vừa commit progress
+    @TransactionalEventListener
+    public void onLessonCompleted(LessonCompletedByUserEvent event) {
+        String userId = event.getUserId();
+        backgroundTasks.runLatest("recommendations:" + userId,
+                () -> transactionTemplate.executeWithoutResult(status -> recompute(userId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        invalidateCatalog();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicChanged(TopicChangedEvent event) {
+        invalidateCatalog();
+    }
+
+    @Scheduled(cron = "${app.recommendations.rebuild-cron:0 0 4 * * *}")
+    public void rebuildActiveUsers() {
+        long startedAt = System.currentTimeMillis();
+        // Bản catalog mới cho cả lượt chạy
+        refreshCatalog();
+        Timestamp since = new Timestamp(startedAt - Duration.ofDays(activeDays).toMillis());
+        List<String> userIds = userLessonProgressRepository.findActiveUserIdsSince(since);
+
+        int failed = 0;
+        for (String userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> recompute(userId));
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Recompute recommendations for user {} failed: {}", userId, e.getMessage());
+            }
+        }
+        // User không hoạt động lâu: bỏ dòng cũ, lần sau gọi API sẽ tính lại
+        Timestamp expiredBefore = new Timestamp(startedAt - Duration.ofDays(activeDays * 2L).toMillis());
+        Integer removed = transactionTemplate.execute(status -> recommendationRepository.deleteComputedBefore(expiredBefore));
+
+        log.info("Recommendations rebuilt for {} active users ({} failed, {} stale removed) in {} ms",
+                userIds.size(), failed, removed, System.currentTimeMillis() - startedAt);
+    }
+
+    private UserLessonRecommendation recompute(String userId) {
+        List<LessonRecommender.HistoryEntry> history = userLessonProgressRepository.findHistoryByUserId(userId).stream()
+                .map(row -> new LessonRecommender.HistoryEntry(
+                        (Long) row[0],
+                        row[1] == ProgressStatus.COMPLETED,
+                        (Double) row[2],
+                        (Long) row[3]))
+                .toList();
+
+        long now = System.currentTimeMillis();
+        LessonRecommender.Result result = LessonRecommender.recommend(catalog().candidates(), history, size, maxPerTopic, now);
+        UserLessonRecommendation recommendation = UserLessonRecommendation.builder()
+                .userId(userId)
+                .lessonIds(result.lessonIds())
+                .estimatedLevel(result.estimatedLevel())
+                .computedAt(new Timestamp(now))
+                .build();
+        recommendationRepository.upsert(userId,
+                Arrays.stream(result.lessonIds()).mapToObj(String::valueOf).collect(Collectors.joining(",", "{", "}")),
+                result.estimatedLevel() == null ? null : result.estimatedLevel().name(),
+                recommendation.getComputedAt());
+        return recommendation;
+    }
+
+    private void invalidateCatalog() {
+        catalogGeneration.incrementAndGet();
+        scheduleCatalogRefresh();
+    }
+
+    // Chỉ lần đầu (chưa có catalog) mới build trên thread gọi; lỗi thời / hết TTL thì build lại ở background
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            return refreshCatalog();
+        }
+        if (!isFresh(current)) {
+            scheduleCatalogRefresh();
+        }
+        return current;
+    }
+
+    // Lượt đang chờ có thể thừa (bản mới đã được build trong lúc chờ) → kiểm tra lại trước khi query
+    private void scheduleCatalogRefresh() {
+        backgroundTasks.runLatest("recommendations:catalog", () -> {
+            if (!isFresh(catalog)) refreshCatalog();
+        });
+    }
+
+    private boolean isFresh(Catalog current) {
+        return current != null
+                && current.generation() == catalogGeneration.get()
+                && System.currentTimeMillis() - current.builtAtMillis() < catalogTtlSeconds * 1000;
+    }
+
+    private Catalog refreshCatalog() {
+        long startGeneration = catalogGeneration.get();
+        List<LessonRecommender.Candidate> candidates = lessonRepository.findRecommendationCandidates().stream()
+                .map(row -> new LessonRecommender.Candidate(
+                        (Long) row[0],
+                        (Long) row[1],
+                        (CefrLevel) row[2],
+                        ((Timestamp) row[3]).getTime()))
+                .toList();
+        Catalog built = new Catalog(candidates, System.currentTimeMillis(), startGeneration);
+        synchronized (this) {
+            // Không ghi đè bản đã build từ generation mới hơn
+            Catalog current = catalog;
+            if (current == null || current.generation() <= startGeneration) {
+                catalog = built;
+            }
+        }
+        return built;
+    }
+}
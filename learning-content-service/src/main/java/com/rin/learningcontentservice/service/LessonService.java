@@ -5,7 +5,6 @@ import com.rin.englishlearning.common.constants.LessonProcessingStep;
 import com.rin.englishlearning.common.constants.LessonStatus;
 import com.rin.englishlearning.common.constants.LessonSourceType;
 import com.rin.englishlearning.common.constants.SourceLicenseType;
-import com.rin.englishlearning.common.event.LessonGenerationRequestedEvent;
 import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
 import com.rin.englishlearning.common.event.LessonProcessingStepUpdatedEvent;
 import com.rin.englishlearning.common.exception.BaseException;
@@ -14,14 +13,19 @@ import com.rin.learningcontentservice.dto.request.AddLessonRequest;
 import com.rin.learningcontentservice.dto.request.EditLessonRequest;
 import com.rin.learningcontentservice.dto.request.LessonFilterRequest;
 import com.rin.learningcontentservice.dto.response.*;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.event.LessonPublishedEvent;
 import com.rin.learningcontentservice.exception.LearningContentErrorCode;
 import com.rin.learningcontentservice.kafka.KafkaProducer;
 import com.rin.learningcontentservice.mapper.LessonMapper;
 import com.rin.learningcontentservice.model.*;
+import com.rin.learningcontentservice.mapper.SentenceMapper;
+import com.rin.learningcontentservice.repository.LessonChangeRecordRepository;
 import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.SentenceDifficultyStatsRepository;
 import com.rin.learningcontentservice.repository.TopicRepository;
 import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
-import com.rin.learningcontentservice.repository.httpclient.LanguageProcessingClient;
 import com.rin.learningcontentservice.repository.specification.LessonSpecifications;
 import com.rin.learningcontentservice.utils.SecurityUtils;
 import com.rin.learningcontentservice.utils.TextUtils;
@@ -59,9 +63,17 @@ public class LessonService {
     private final TopicRepository topicRepository;
     private final LessonMapper lessonMapper;
     private final KafkaProducer kafkaProducer;
-    private final LanguageProcessingClient languageProcessingClient;
+    private final LessonGenerationQueueService generationQueue;
+    private final TopicLessonCounterService topicLessonCounters;
+    private final LessonPipelineTimelineService pipelineTimeline;
     private final RedisTemplate<String, Object> redisTemplate;
     private final UserLessonProgressRepository userLessonProgressRepository;
+    private final LessonChangeRecordRepository lessonChangeRecordRepository;
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final SentenceMapper sentenceMapper;
+    private final LessonChangeTracker lessonChangeTracker;
+    private final SentenceDifficultyStatsRepository sentenceDifficultyStatsRepository;
+    private final LessonWordStorageService lessonWordStorage;
     //
     private final ApplicationEventPublisher eventPublisher;
 
@@ -131,7 +143,7 @@ public class LessonService {
                 .hasNext(result.hasNext()).hasPrevious(result.hasPrevious()).build();
     }
 
-    private HomeLessonResponse toExploreResponse(Lesson lesson, List<UserLessonProgress> progresses) {
+    HomeLessonResponse toExploreResponse(Lesson lesson, List<UserLessonProgress> progresses) {
         HomeLessonResponse response = HomeLessonResponse.builder()
                 .id(lesson.getId()).topicId(lesson.getTopic().getId()).topicName(lesson.getTopic().getName())
                 .topicSlug(lesson.getTopic().getSlug()).title(lesson.getTitle()).slug(lesson.getSlug())
@@ -142,23 +154,15 @@ public class LessonService {
                 .enableShadowing(lesson.getEnableShadowing()).activeSentenceCount(lesson.getTotalSentences())
                 .publishedAt(lesson.getPublishedAt()).build();
         lessonMapper.initializeDefaultProgress(response);
-        int total = lesson.getTotalSentences() == null ? 0 : lesson.getTotalSentences();
-        for (UserLessonProgress progress : progresses) {
-            int percent = lessonMapper.calculatePercent(
-                    progress.getCompletedSentenceCount() == null ? 0 : progress.getCompletedSentenceCount(), total);
-            if (progress.getMode() == LearningMode.SHADOWING) {
-                response.setShadowingStatus(progress.getStatus().name()); response.setShadowingProgressPercent(percent);
-            } else if (progress.getMode() == LearningMode.DICTATION) {
-                response.setDictationStatus(progress.getStatus().name()); response.setDictationProgressPercent(percent);
-            }
-        }
+        lessonMapper.applyProgress(response, progresses);
         return response;
     }
 
 
+    @Transactional
     public LessonSummaryResponse addLesson(AddLessonRequest request) {
 
-        Topic topic = topicRepository.findBySlug(request.getTopicSlug()).orElseThrow(
+        Topic topic = topicRepository.findCachedBySlug(request.getTopicSlug()).orElseThrow(
                 () -> new BaseException(LearningContentErrorCode.TOPIC_NOT_FOUND,
                         LearningContentErrorCode.TOPIC_NOT_FOUND.formatMessage(request.getTopicSlug()))
         );
@@ -179,22 +183,15 @@ public class LessonService {
         lesson.setThumbnailUrl(blankToNull(request.getThumbnailUrl()));
         lesson.setSlug(TextUtils.createSlug(lesson.getTitle() + "-" + UUID.randomUUID().toString().substring(0, 8)));
 
-        createAiJob(lesson);
-
-        // Push to message queue for processing
-        log.info("Lesson {} is AI_ASSISTED, pushing to processing queue", lesson.getId());
-        var event = LessonGenerationRequestedEvent.builder()
-                .sourceType(lesson.getSourceType())
-                .sourceUrl(lesson.getSourceUrl())
-                .aiJobId(lesson.getAiJobId())
-                .lessonId(lesson.getId())
-                .sourceLicenseType(lesson.getSourceLicenseType())
-                .title(providedTitleForEvent(lesson))
-                .description(blankToNull(lesson.getDescription()))
-                .build();
-        kafkaProducer.publishLessonGenerationRequested(event);
+        lesson = lessonRepository.save(lesson);
+        topicLessonCounters.adjust(topic.getId(), 1, 0);
 
-        return lessonMapper.toLessonSummaryResponse(lesson);
+        // Không gọi tạo AI job ngay, scheduler của hàng đợi dispatch khi còn slot
+        generationQueue.enqueue(lesson,
+                request.getPriority() == null ? GenerationPriority.NORMAL : request.getPriority(),
+                SecurityUtils.getCurrentUserId(), null);
+
+        return generationQueue.withQueueInfo(lessonMapper.toLessonSummaryResponse(lesson));
     }
 
     private String blankToNull(String value) {
@@ -205,50 +202,17 @@ public class LessonService {
         return value == null || value.isBlank() ? fallback : value.trim();
     }
 
-    private String providedTitleForEvent(Lesson lesson) {
-        return canReplaceGeneratedTitle(lesson) ? null : lesson.getTitle();
-    }
-
     // Re try
     public LessonSummaryResponse retryLessonGeneration(Long lessonId, Boolean isRestart) {
         Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
                 () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
                         LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
         );
-        createAiJob(lesson);
-
-
-        // Push to message queue for processing
+        // Retry do admin bấm → ưu tiên cao, chen trước lesson thêm mới / import hàng loạt
         log.info("Retrying lesson generation for Lesson {}", lesson.getId());
-        var event = LessonGenerationRequestedEvent.builder()
-                .sourceType(lesson.getSourceType())
-                .sourceUrl(lesson.getSourceUrl())
-                .aiJobId(lesson.getAiJobId())
-                .aiMetadataUrl(lesson.getAiMetadataUrl())
-                .lessonId(lesson.getId())
-                .sourceLicenseType(lesson.getSourceLicenseType())
-                .title(providedTitleForEvent(lesson))
-                .description(blankToNull(lesson.getDescription()))
-                .isRestart(isRestart)
-                .build();
-        kafkaProducer.publishLessonGenerationRequested(event);
-
-        return lessonMapper.toLessonSummaryResponse(lesson);
-    }
+        generationQueue.enqueue(lesson, GenerationPriority.HIGH, SecurityUtils.getCurrentUserId(), isRestart);
 
-    private void createAiJob(Lesson lesson) {
-        try {
-            AIJobResponse aiJobResponse = languageProcessingClient.createAIJob().getResult();
-            lesson.setAiJobId(aiJobResponse.getId());
-            lesson.setAiMessage("AI job created with ID: " + aiJobResponse.getId());
-            lesson.setProcessingStep(LessonProcessingStep.PROCESSING_STARTED);
-            lesson.setStatus(LessonStatus.PROCESSING);
-            lessonRepository.save(lesson);
-        } catch (BaseException e) {
-            log.error("Failed to create AI job for lesson {}: {}", lesson.getId(), e.getMessage());
-            throw new BaseException(LearningContentErrorCode.AI_JOB_CREATION_FAILED,
-                    LearningContentErrorCode.AI_JOB_CREATION_FAILED.formatMessage(e.getMessage()));
-        }
+        return generationQueue.withQueueInfo(lessonMapper.toLessonSummaryResponse(lesson));
     }
 
     @Transactional
@@ -271,7 +235,7 @@ public class LessonService {
                 )
         );
 
-        var ld = lessonMapper.toLessonDetailsResponse(lesson);
+        var ld = lessonWordStorage.timeLoad(lesson, () -> lessonMapper.toLessonDetailsResponse(lesson));
 
         // sort sentences theo orderIndex
         ld.setSentences(
@@ -298,6 +262,71 @@ public class LessonService {
         return ld;
     }
 
+    /**
+     * Diff nội dung lesson từ version `fromVersion` tới version hiện tại (góc nhìn learner: chỉ sentence active).
+     * Mỗi sentence chỉ xuất hiện 1 lần với trạng thái cuối cùng; fallback full payload khi lịch sử không đủ.
+     */
+    @Transactional
+    public LessonDiffResponse getLessonDiff(Long id, Integer fromVersion) {
+        Lesson lesson = lessonRepository.findById(id).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                        LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(id))
+        );
+        int currentVersion = lesson.getVersion() == null ? 0 : lesson.getVersion();
+        int baseVersion = lesson.getDiffBaseVersion() == null ? 0 : lesson.getDiffBaseVersion();
+
+        LessonDiffResponse.LessonDiffResponseBuilder response = LessonDiffResponse.builder()
+                .lessonId(id).fromVersion(fromVersion).toVersion(currentVersion);
+
+        if (fromVersion == null || fromVersion < baseVersion || fromVersion > currentVersion) {
+            return response.fullPayload(true).lesson(getLessonDetailsWithoutInActivateSentences(id)).build();
+        }
+        if (fromVersion == currentVersion) {
+            return response.fullPayload(false).changes(List.of()).build();
+        }
+
+        // Gộp các record theo sentence, giữ thứ tự xuất hiện
+        Map<Long, EnumSet<LessonChangeType>> typesBySentence = new LinkedHashMap<>();
+        for (LessonChangeRecord record : lessonChangeRecordRepository
+                .findByLessonIdAndLessonVersionGreaterThanOrderByIdAsc(id, fromVersion)) {
+            typesBySentence.computeIfAbsent(record.getSentenceId(), k -> EnumSet.noneOf(LessonChangeType.class))
+                    .add(record.getChangeType());
+        }
+
+        int totalSentences = lesson.getTotalSentences() == null ? 0 : lesson.getTotalSentences();
+        if (typesBySentence.size() > totalSentences) {
+            return response.fullPayload(true).lesson(getLessonDetailsWithoutInActivateSentences(id)).build();
+        }
+
+        Map<Long, LessonSentence> currentSentences = lessonSentenceRepository.findAllById(typesBySentence.keySet()).stream()
+                .collect(Collectors.toMap(LessonSentence::getId, s -> s));
+
+        List<LessonSentenceChangeResponse> changes = typesBySentence.entrySet().stream()
+                .map(e -> toSentenceChange(e.getKey(), e.getValue(), currentSentences.get(e.getKey())))
+                .sorted(Comparator.comparing(LessonSentenceChangeResponse::getOrderIndex,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+
+        return response.fullPayload(false).changes(changes).build();
+    }
+
+    // Trạng thái hiện tại của sentence quyết định loại thay đổi trả về cho client
+    private LessonSentenceChangeResponse toSentenceChange(Long sentenceId, EnumSet<LessonChangeType> types, LessonSentence current) {
+        if (current == null || !Boolean.TRUE.equals(current.getIsActive())) {
+            return LessonSentenceChangeResponse.builder()
+                    .sentenceId(sentenceId).changeType(LessonChangeType.REMOVED).build();
+        }
+        LessonChangeType changeType = types.contains(LessonChangeType.ADDED) ? LessonChangeType.ADDED
+                : types.contains(LessonChangeType.UPDATED) ? LessonChangeType.UPDATED
+                : LessonChangeType.REORDERED;
+        return LessonSentenceChangeResponse.builder()
+                .sentenceId(sentenceId)
+                .changeType(changeType)
+                .orderIndex(current.getOrderIndex())
+                .sentence(changeType == LessonChangeType.REORDERED ? null : sentenceMapper.toDetailsResponse(current))
+                .build();
+    }
+
     private void attachProgressOverview(LessonDetailsResponse ld) {
         // 1. Luôn khởi tạo 2 DTO mặc định (rỗng) ngay từ đầu
         UserLessonProgressDto shadowingDto = buildEmptyProgressDto("SHADOWING");
@@ -340,6 +369,8 @@ public class LessonService {
                 .completedSentenceCount(progress.getCompletedSentenceCount())
                 .totalSentenceCount(progress.getTotalSentenceCount())
                 .completedAt(progress.getCompletedAt())
+                .revision(progress.getRevision() != null ? progress.getRevision() : 0L)
+                .fullSync(true)
                 .build();
     }
 
@@ -350,9 +381,12 @@ public class LessonService {
                 .progressItems(new java.util.HashMap<>())
                 .completedSentenceCount(0)
                 .totalSentenceCount(0)
+                .revision(0L)
+                .fullSync(true)
                 .build();
     }
 
+    @Transactional
     public LessonSummaryResponse cancelLessonGeneration(Long lessonId) {
         Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
                 () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
@@ -363,14 +397,20 @@ public class LessonService {
             throw new BaseException(LearningContentErrorCode.INVALID_STATE,
                     LearningContentErrorCode.INVALID_STATE.formatMessage(lessonId, "PROCESSING"));
         }
-        // 2. Set Redis TRƯỚC khi update DB
-        redisTemplate.opsForValue().set(
-                "aiJobStatus:" + lesson.getAiJobId(),
+        // Còn trong hàng đợi thì rút ra luôn, chưa có AI job nào để huỷ
+        Optional<String> runningJobId = generationQueue.cancel(lessonId);
+
+        // 2. Set Redis TRƯỚC khi update DB (chỉ khi có job đang chạy: aiJobId của lesson có thể là job lần trước)
+        runningJobId.ifPresent(jobId -> redisTemplate.opsForValue().set(
+                "aiJobStatus:" + jobId,
                 "CANCELLED",
                 12, TimeUnit.HOURS
-        );
+        ));
 
         // 3. Update DB sau (aiMessage có thể thêm timestamp)
+        if (lesson.getPublishedAt() != null) {
+            topicLessonCounters.adjust(lesson.getTopic().getId(), 0, -1);
+        }
         lesson.setStatus(LessonStatus.DRAFT);
         lesson.setPublishedAt(null);
         lesson.setAiMessage(String.format(
@@ -378,6 +418,8 @@ public class LessonService {
                 LocalDateTime.now()
         ));
         lessonRepository.save(lesson);
+        // Lesson đã publish đang generate lại → về DRAFT: home feed / transcript index phải bỏ nó
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId, false));
 
         // 4. Audit log (optional)
         log.info("Lesson {} cancelled by user, AI job {}", lessonId, lesson.getAiJobId());
@@ -388,6 +430,7 @@ public class LessonService {
     private void removeUserProcessIfExists(Lesson lesson) {
         // Đổi sang Repo mới
         userLessonProgressRepository.deleteByLessonId(lesson.getId());
+        sentenceDifficultyStatsRepository.deleteByLessonId(lesson.getId());
     }
     @Transactional
     public void completeLessonWithMetadata(Long lessonId, String aiMetadataUrl) {
@@ -399,8 +442,6 @@ public class LessonService {
                 )
         );
 
-        removeUserProcessIfExists(lesson);
-
         AiMetadataDto metadata = fetchMetadataFromUrl(aiMetadataUrl);
         if (metadata == null) {
             throw new BaseException(
@@ -413,12 +454,26 @@ public class LessonService {
         updateLessonFromAiMetadata(lesson, metadata);
 
         List<LessonSentence> sentences = buildSentences(lesson, metadata);
+        if (LessonChangeTracker.sameContent(lesson.getSentences(), sentences)) {
+            // Retry ra đúng nội dung cũ → giữ sentence (id), progress và version, client không phải tải lại
+            log.info("Lesson {} regenerated with unchanged content, keep version {}", lessonId, lesson.getVersion());
+            finalizeLesson(lesson, aiMetadataUrl);
+            lessonRepository.saveAndFlush(lesson);
+        } else {
+            removeUserProcessIfExists(lesson);
 
-        attachSentencesToLesson(lesson, sentences);
+            // Trước khi gắn vào lesson: query cấp id (EMBEDDED) không được flush các sentence mới ra dạng dòng
+            lessonWordStorage.store(sentences);
 
-        finalizeLesson(lesson, aiMetadataUrl);
+            attachSentencesToLesson(lesson, sentences);
 
-        lessonRepository.save(lesson);
+            finalizeLesson(lesson, aiMetadataUrl);
+
+            // Toàn bộ sentence được tạo mới → cache/diff của client không còn dùng được
+            lessonChangeTracker.reset(lesson);
+
+            lessonWordStorage.timeIngest(() -> lessonRepository.saveAndFlush(lesson));
+        }
 
         var completedNotify = new LessonProcessingStepNotifyEvent();
         completedNotify.setLessonId(lesson.getId());
@@ -635,6 +690,11 @@ public class LessonService {
         );
         // Đổi sang Repo mới
         userLessonProgressRepository.deleteByLessonId(lessonId);
+        sentenceDifficultyStatsRepository.deleteByLessonId(lessonId);
+        lessonChangeTracker.deleteHistory(lessonId);
+        generationQueue.delete(lessonId);
+        pipelineTimeline.delete(lessonId);
+        topicLessonCounters.adjust(lesson.getTopic().getId(), -1, lesson.getPublishedAt() != null ? -1 : 0);
         lessonRepository.delete(lesson);
     }
 
@@ -645,22 +705,41 @@ public class LessonService {
                         LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(id))
         );
         lessonMapper.updateLessonFromRequest(request, lesson);
+        if (request.getTopicSlug() != null && !request.getTopicSlug().equals(lesson.getTopic().getSlug())) {
+            Topic target = topicRepository.findCachedBySlug(request.getTopicSlug()).orElseThrow(
+                    () -> new BaseException(LearningContentErrorCode.TOPIC_NOT_FOUND,
+                            LearningContentErrorCode.TOPIC_NOT_FOUND.formatMessage(request.getTopicSlug()))
+            );
+            topicLessonCounters.move(lesson.getTopic().getId(), target.getId(), lesson.getPublishedAt() != null);
+            lesson.setTopic(target);
+        }
         lesson.setDictationHint(blankToNull(request.getDictationHint()));
         lesson.setSlug(TextUtils.createSlug(lesson.getSlug()));
+        // Title / thumbnail đổi → home feed, search index cần cập nhật
+        eventPublisher.publishEvent(new LessonContentChangedEvent(id, false));
         return lessonMapper.toLessonResponse(lesson);
     }
 
+    @Transactional
     public void publishOrUnpublishLesson(Long lessonId, Boolean publish) {
         Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
                 () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
                         LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
         );
+        boolean wasPublished = lesson.getPublishedAt() != null;
+        if (wasPublished != Boolean.TRUE.equals(publish)) {
+            topicLessonCounters.adjust(lesson.getTopic().getId(), 0, wasPublished ? -1 : 1);
+        }
         if (Boolean.TRUE.equals(publish)) {
             lesson.setPublishedAt(Timestamp.valueOf(LocalDateTime.now()));
         } else {
             lesson.setPublishedAt(null);
         }
         lessonRepository.save(lesson);
+        eventPublisher.publishEvent(new LessonContentChangedEvent(lessonId, false));
+        if (!wasPublished && Boolean.TRUE.equals(publish)) {
+            eventPublisher.publishEvent(new LessonPublishedEvent(lessonId));
+        }
     }
 
 
@@ -680,6 +759,8 @@ public class LessonService {
         }
 
         log.info("🔄 Processing step {} for lesson {}", incomingStep, lesson.getId());
+        pipelineTimeline.recordStep(lesson, incomingStep,
+                event.getDurationSeconds() != null ? event.getDurationSeconds() : lesson.getDurationSeconds());
 
         switch (incomingStep) {
 
@@ -689,10 +770,14 @@ public class LessonService {
 
             case COMPLETED -> {
                 completeLessonWithMetadata(lesson.getId(), event.getAiMetadataUrl());
+                generationQueue.markFinished(lesson.getId(), true);
                 return;
             }
 
-            case FAILED -> failLesson(lesson, event);
+            case FAILED -> {
+                failLesson(lesson, event);
+                generationQueue.markFinished(lesson.getId(), false);
+            }
 
             default -> {
                 log.warn("⚠️ Unknown processing step: {}", incomingStep);
@@ -760,7 +845,7 @@ public class LessonService {
         }
     }
 
-    private boolean canReplaceGeneratedTitle(Lesson lesson) {
+    static boolean canReplaceGeneratedTitle(Lesson lesson) {
         return lesson.getTitle() == null
                 || lesson.getTitle().isBlank()
                 || lesson.getTitle().startsWith("Generating lesson");
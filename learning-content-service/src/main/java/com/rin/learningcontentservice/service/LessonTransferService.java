@@ -0,0 +1,326 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.constants.SourceLicenseType;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonTransferImportResponse;
+import com.rin.learningcontentservice.dto.transfer.*;
+import com.rin.learningcontentservice.event.LessonPublishedEvent;
+import com.rin.learningcontentservice.event.TopicChangedEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.mapper.LessonTransferMapper;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.model.SentenceWord;
+import com.rin.learningcontentservice.model.Topic;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.LessonWordRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import com.rin.learningcontentservice.utils.TextUtils;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chuyển lesson đã generate giữa các môi trường (staging → production) qua file NDJSON, không chạy lại AI pipeline.
+ * <ul>
+ *     <li>Export: đọc lesson bằng cursor, mỗi lần CHUNK_SIZE lesson thì load sentence + word, ghi ra rồi clear
+ *     persistence context → bộ nhớ không phụ thuộc số lesson</li>
+ *     <li>Import: đọc từng dòng, bỏ qua lesson có nguồn đã tồn tại, mỗi lesson 1 transaction với sentence / word
+ *     được INSERT nhiều dòng</li>
+ * </ul>
+ * File chỉ chứa URL audio / thumbnail, không copy file media.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonTransferService {
+
+    private static final int CHUNK_SIZE = 50;
+
+    private final LessonRepository lessonRepository;
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final LessonWordRepository lessonWordRepository;
+    private final TopicRepository topicRepository;
+    private final LessonTransferMapper lessonTransferMapper;
+    private final LessonWordStorageService lessonWordStorage;
+    private final TopicLessonCounterService topicLessonCounters;
+    private final LessonChangeTracker lessonChangeTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public record ExportRequest(Long topicId, boolean publishedOnly) {
+    }
+
+    /**
+     * Kiểm tra tham số trước khi bắt đầu stream (lỗi sau khi đã gửi header không trả về client được).
+     */
+    @Transactional(readOnly = true)
+    public ExportRequest prepareExport(String topicSlug, boolean publishedOnly) {
+        if (topicSlug == null || topicSlug.isBlank()) return new ExportRequest(null, publishedOnly);
+        Topic topic = topicRepository.findCachedBySlug(topicSlug).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.TOPIC_NOT_FOUND,
+                        LearningContentErrorCode.TOPIC_NOT_FOUND.formatMessage(topicSlug))
+        );
+        return new ExportRequest(topic.getId(), publishedOnly);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeExport(ExportRequest request, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out);
+        // Không để Jackson đóng stream sau mỗi dòng
+        ObjectWriter writer = objectMapper.writerFor(TransferLine.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        writeLine(writer, buffered, TransferHeader.builder()
+                .version(TransferHeader.CURRENT_VERSION)
+                .exportedAt(Instant.now())
+                .build());
+
+        List<Topic> topics = request.topicId() == null
+                ? topicRepository.findAll(Sort.by("id"))
+                : topicRepository.findAllById(List.of(request.topicId()));
+        for (Topic topic : topics) {
+            writeLine(writer, buffered, lessonTransferMapper.toTransferTopic(topic));
+        }
+
+        int exported = 0;
+        List<Lesson> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Lesson> lessons = lessonRepository.streamForExport(LessonStatus.READY, request.topicId(),
+                request.publishedOnly())) {
+            Iterator<Lesson> it = lessons.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == CHUNK_SIZE || !it.hasNext()) {
+                    writeLessons(writer, buffered, chunk);
+                    exported += chunk.size();
+                    chunk.clear();
+                    buffered.flush();
+                    // Bỏ các entity vừa ghi khỏi persistence context, cursor vẫn đọc tiếp được
+                    entityManager.clear();
+                }
+            }
+        }
+        buffered.flush();
+        log.info("Exported {} lessons and {} topics", exported, topics.size());
+    }
+
+    /**
+     * Import file NDJSON do writeExport tạo ra. Lesson chỉ được publish khi publish = true và đã publish ở nguồn.
+     */
+    public LessonTransferImportResponse importLessons(InputStream in, boolean publish) throws IOException {
+        LessonTransferImportResponse response = new LessonTransferImportResponse();
+        Map<String, Long> topicIds = new HashMap<>();
+        List<TransferLesson> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            TransferLine record;
+            try {
+                record = objectMapper.readValue(line, TransferLine.class);
+            } catch (JsonProcessingException e) {
+                throw invalid("line " + lineNo + ": " + e.getOriginalMessage());
+            }
+
+            if (record instanceof TransferHeader header) {
+                if (header.getVersion() > TransferHeader.CURRENT_VERSION) {
+                    throw invalid("unsupported export version " + header.getVersion());
+                }
+            } else if (record instanceof TransferTopic topic) {
+                topicIds.put(topic.getSlug(), resolveTopic(topic, response));
+            } else if (record instanceof TransferLesson lesson) {
+                chunk.add(lesson);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, topicIds, publish, response);
+                    chunk.clear();
+                }
+            }
+        }
+        importChunk(chunk, topicIds, publish, response);
+
+        log.info("Imported {} lessons ({} skipped, {} failed), created {} topics", response.getImportedLessons(),
+                response.getSkippedLessons(), response.getFailedLessons().size(), response.getTopicsCreated());
+        return response;
+    }
+
+    private void writeLessons(ObjectWriter writer, OutputStream out, List<Lesson> lessons) throws IOException {
+        Map<Long, List<LessonSentence>> sentencesByLesson = lessonSentenceRepository
+                .findWithWordsByLessonIdIn(lessons.stream().map(Lesson::getId).toList()).stream()
+                .collect(Collectors.groupingBy(s -> s.getLesson().getId()));
+
+        for (Lesson lesson : lessons) {
+            TransferLesson record = lessonTransferMapper.toTransferLesson(lesson);
+            record.setSentences(sentencesByLesson.getOrDefault(lesson.getId(), List.of()).stream()
+                    .map(lessonTransferMapper::toTransferSentence)
+                    .toList());
+            writeLine(writer, out, record);
+        }
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream out, TransferLine line) throws IOException {
+        writer.writeValue(out, line);
+        out.write('\n');
+    }
+
+    // Topic khớp theo slug, chưa có thì tạo mới
+    private Long resolveTopic(TransferTopic record, LessonTransferImportResponse response) {
+        if (record.getSlug() == null || record.getSlug().isBlank()) throw invalid("topic without slug");
+        return transactionTemplate.execute(status -> topicRepository.findBySlug(record.getSlug())
+                .map(Topic::getId)
+                .orElseGet(() -> {
+                    Topic topic = topicRepository.save(lessonTransferMapper.toTopic(record));
+                    eventPublisher.publishEvent(new TopicChangedEvent(topic.getId()));
+                    response.setTopicsCreated(response.getTopicsCreated() + 1);
+                    return topic.getId();
+                }));
+    }
+
+    private void importChunk(List<TransferLesson> chunk, Map<String, Long> topicIds, boolean publish,
+                             LessonTransferImportResponse response) {
+        if (chunk.isEmpty()) return;
+
+        // Lesson đã commit ở chunk trước cũng nằm trong DB → query này dedup được cả trong file
+        Set<String> refs = new HashSet<>();
+        Set<String> urls = new HashSet<>();
+        for (TransferLesson lesson : chunk) {
+            if (lesson.getSourceReferenceId() != null) refs.add(lesson.getSourceReferenceId());
+            if (lesson.getSourceUrl() != null) urls.add(lesson.getSourceUrl());
+        }
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : lessonRepository.findExistingSources(refs.isEmpty() ? Set.of("") : refs,
+                urls.isEmpty() ? Set.of("") : urls)) {
+            if (row[0] != null) existing.add((String) row[0]);
+            if (row[1] != null) existing.add((String) row[1]);
+        }
+
+        for (TransferLesson lesson : chunk) {
+            String ref = lesson.getSourceReferenceId();
+            String url = lesson.getSourceUrl();
+            if ((ref != null && existing.contains(ref)) || (url != null && existing.contains(url))) {
+                response.setSkippedLessons(response.getSkippedLessons() + 1);
+                continue;
+            }
+            if (ref != null) existing.add(ref);
+            if (url != null) existing.add(url);
+
+            String label = url != null ? url : ref != null ? ref : lesson.getTitle();
+            Long topicId = lesson.getTopicSlug() == null ? null : topicIds.computeIfAbsent(lesson.getTopicSlug(),
+                    slug -> topicRepository.findCachedBySlug(slug).map(Topic::getId).orElse(null));
+            if (topicId == null) {
+                response.getFailedLessons().add(label + ": unknown topic " + lesson.getTopicSlug());
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertLesson(lesson, topicId, publish));
+                response.setImportedLessons(response.getImportedLessons() + 1);
+            } catch (Exception e) {
+                log.error("Failed to import lesson {}", label, e);
+                response.getFailedLessons().add(label + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void insertLesson(TransferLesson record, Long topicId, boolean publish) {
+        List<TransferSentence> sentences = record.getSentences() == null ? List.of() : record.getSentences();
+        boolean published = publish && record.isPublished();
+
+        Lesson lesson = lessonTransferMapper.toLesson(record);
+        lesson.setTopic(topicRepository.getReferenceById(topicId));
+        lesson.setSlug(TextUtils.createSlug(record.getTitle() + "-" + UUID.randomUUID().toString().substring(0, 8)));
+        lesson.setVersion(0);
+        lesson.setStatus(LessonStatus.READY);
+        lesson.setProcessingStep(LessonProcessingStep.COMPLETED);
+        lesson.setAiMessage("Imported from NDJSON export.");
+        lesson.setTotalSentences(sentences.size());
+        if (lesson.getSourceLicenseType() == null) lesson.setSourceLicenseType(SourceLicenseType.UNKNOWN);
+        if (lesson.getEnableDictation() == null) lesson.setEnableDictation(true);
+        if (lesson.getEnableShadowing() == null) lesson.setEnableShadowing(true);
+        if (published) lesson.setPublishedAt(new Timestamp(System.currentTimeMillis()));
+        lesson = lessonRepository.save(lesson);
+
+        insertSentences(lesson.getId(), sentences);
+
+        topicLessonCounters.adjust(topicId, 1, published ? 1 : 0);
+        // Version mới + LessonContentChangedEvent → search index, vocabulary, audio index, home feed cập nhật
+        lessonChangeTracker.reset(lesson);
+        if (published) eventPublisher.publishEvent(new LessonPublishedEvent(lesson.getId()));
+    }
+
+    private void insertSentences(Long lessonId, List<TransferSentence> sentences) {
+        if (sentences.isEmpty()) return;
+
+        int totalWords = sentences.stream().mapToInt(s -> s.getWords() == null ? 0 : s.getWords().size()).sum();
+        Iterator<Long> wordIds = totalWords == 0 ? null : lessonWordRepository.allocateIds(totalWords).iterator();
+
+        int n = sentences.size();
+        Integer[] orderIndexes = new Integer[n];
+        String[] textRaws = new String[n];
+        String[] textDisplays = new String[n];
+        String[] translations = new String[n];
+        String[] phonetics = new String[n];
+        Integer[] audioStarts = new Integer[n];
+        Integer[] audioEnds = new Integer[n];
+        String[] segmentUrls = new String[n];
+        Boolean[] actives = new Boolean[n];
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            TransferSentence s = sentences.get(i);
+            orderIndexes[i] = s.getOrderIndex() != null ? s.getOrderIndex() : i;
+            textRaws[i] = s.getTextRaw() != null ? s.getTextRaw() : "";
+            textDisplays[i] = s.getTextDisplay();
+            translations[i] = s.getTranslationVi();
+            phonetics[i] = s.getPhoneticUs();
+            audioStarts[i] = s.getAudioStartMs();
+            audioEnds[i] = s.getAudioEndMs();
+            segmentUrls[i] = s.getAudioSegmentUrl();
+            actives[i] = !Boolean.FALSE.equals(s.getIsActive());
+
+            List<SentenceWord> sentenceWords = s.getWords() == null ? List.of() : s.getWords();
+            for (SentenceWord word : sentenceWords) {
+                word.setId(wordIds.next());
+            }
+            try {
+                words[i] = objectMapper.writeValueAsString(sentenceWords);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        lessonSentenceRepository.insertImportedSentences(lessonId, orderIndexes, textRaws, textDisplays, translations,
+                phonetics, audioStarts, audioEnds, segmentUrls, actives, words);
+
+        if (lessonWordStorage.getMode() == LessonWordStorageMode.ROWS) {
+            lessonWordRepository.insertFromEmbeddedWords(lessonId);
+            lessonSentenceRepository.clearEmbeddedWords(lessonId);
+        }
+    }
+
+    private static BaseException invalid(String reason) {
+        return new BaseException(LearningContentErrorCode.INVALID_IMPORT_REQUEST,
+                LearningContentErrorCode.INVALID_IMPORT_REQUEST.formatMessage(reason));
+    }
+}
@@ -0,0 +1,162 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyResponse;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyWordResponse;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.*;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.LessonVocabularyProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Vocabulary profile của lesson: tính 1 lần khi lesson READY / đổi version, đọc ra bằng 1 query theo PK.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonVocabularyService {
+
+    private final LessonRepository lessonRepository;
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final LessonVocabularyProfileRepository profileRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Tính lại profile sau khi transaction chỉnh sửa lesson commit; lesson chưa READY thì chỉ xoá profile cũ.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        Lesson lesson = event.isDeleted() ? null : lessonRepository.findById(event.getLessonId()).orElse(null);
+        if (lesson == null || lesson.getStatus() != LessonStatus.READY) {
+            profileRepository.findById(event.getLessonId()).ifPresent(profileRepository::delete);
+            return;
+        }
+        refreshIfStale(lesson);
+    }
+
+    @Transactional
+    public LessonVocabularyResponse getVocabulary(Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                        LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
+        );
+        if (lesson.getStatus() != LessonStatus.READY) {
+            throw new BaseException(LearningContentErrorCode.INVALID_STATE,
+                    LearningContentErrorCode.INVALID_STATE.formatMessage(lessonId, "READY"));
+        }
+        return toResponse(refreshIfStale(lesson));
+    }
+
+    // Profile thiếu hoặc lệch version (listener lỗi / dữ liệu cũ) → tính lại tại chỗ.
+    // GET song song và listener có thể cùng tính 1 lesson nên ghi bằng upsert thay vì save (INSERT đụng PK)
+    private LessonVocabularyProfile refreshIfStale(Lesson lesson) {
+        int version = lesson.getVersion() == null ? 0 : lesson.getVersion();
+        LessonVocabularyProfile existing = profileRepository.findById(lesson.getId()).orElse(null);
+        if (existing != null && existing.getLessonVersion() == version) {
+            return existing;
+        }
+
+        LessonVocabularyProfile profile = buildProfile(lesson.getId(), version,
+                lessonSentenceRepository.findWithWordsByLessonId(lesson.getId()));
+        log.info("Computed vocabulary profile for lesson {} v{}: {} lemmas / {} words",
+                lesson.getId(), version, profile.getUniqueLemmaCount(), profile.getTotalWordCount());
+        try {
+            profileRepository.upsertIfNewer(profile.getLessonId(), version, profile.getTotalWordCount(),
+                    profile.getUniqueLemmaCount(), objectMapper.writeValueAsString(profile.getPosDistribution()),
+                    objectMapper.writeValueAsString(profile.getEntries()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return profile;
+    }
+
+    static LessonVocabularyProfile buildProfile(Long lessonId, int version, List<LessonSentence> sentences) {
+        // LinkedHashMap giữ thứ tự xuất hiện đầu tiên, dùng làm tie-break khi sort
+        Map<String, VocabularyEntry> byLemma = new LinkedHashMap<>();
+        Map<String, Integer> posDistribution = new TreeMap<>();
+        int totalWords = 0;
+
+        for (LessonSentence sentence : sentences) {
+            if (!Boolean.TRUE.equals(sentence.getIsActive())) continue;
+
+            for (LessonWord word : sentence.getOrderedWords()) {
+                String lemma = lemmaKey(word);
+                if (lemma == null || !Boolean.TRUE.equals(word.getIsClickable())) continue;
+
+                totalWords++;
+                if (word.getPosTag() != null) {
+                    posDistribution.merge(word.getPosTag(), 1, Integer::sum);
+                }
+                VocabularyEntry entry = byLemma.get(lemma);
+                if (entry == null) {
+                    byLemma.put(lemma, VocabularyEntry.builder()
+                            .lemma(lemma)
+                            .text(word.getWordNormalized())
+                            .posTag(word.getPosTag())
+                            .entityType(word.getEntityType())
+                            .frequency(1)
+                            .firstSentenceId(sentence.getId())
+                            .firstAudioStartMs(word.getAudioStartMs() != null
+                                    ? word.getAudioStartMs() : sentence.getAudioStartMs())
+                            .build());
+                } else {
+                    entry.setFrequency(entry.getFrequency() + 1);
+                }
+            }
+        }
+
+        // List.sort là stable → cùng frequency vẫn giữ thứ tự xuất hiện
+        List<VocabularyEntry> entries = new ArrayList<>(byLemma.values());
+        entries.sort(Comparator.comparing(VocabularyEntry::getFrequency).reversed());
+
+        return LessonVocabularyProfile.builder()
+                .lessonId(lessonId)
+                .lessonVersion(version)
+                .totalWordCount(totalWords)
+                .uniqueLemmaCount(entries.size())
+                .posDistribution(posDistribution)
+                .entries(entries)
+                .build();
+    }
+
+    private static String lemmaKey(LessonWord word) {
+        String key = word.getLemma() != null && !word.getLemma().isBlank() ? word.getLemma() : word.getWordNormalized();
+        return key == null || key.isBlank() ? null : key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private LessonVocabularyResponse toResponse(LessonVocabularyProfile profile) {
+        return LessonVocabularyResponse.builder()
+                .lessonId(profile.getLessonId())
+                .lessonVersion(profile.getLessonVersion())
+                .totalWordCount(profile.getTotalWordCount())
+                .uniqueLemmaCount(profile.getUniqueLemmaCount())
+                .posDistribution(profile.getPosDistribution())
+                .words(profile.getEntries().stream()
+                        .map(e -> LessonVocabularyWordResponse.builder()
+                                .lemma(e.getLemma())
+                                .text(e.getText())
+                                .posTag(e.getPosTag())
+                                .entityType(e.getEntityType())
+                                .frequency(e.getFrequency())
+                                .firstSentenceId(e.getFirstSentenceId())
+                                .firstAudioStartMs(e.getFirstAudioStartMs())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.dto.response.LessonWordMigrationResponse;
+import com.rin.learningcontentservice.dto.response.LessonWordStorageStatsResponse;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.LessonWordRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chuyển word đã lưu giữa lesson_words (ROWS) và lesson_sentences.words (EMBEDDED), mỗi lesson 1 transaction,
+ * toàn bộ bằng SQL nên không load entity. Id word giữ nguyên theo cả 2 chiều.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonWordMigrationService {
+
+    private static final int MAX_LESSONS_PER_CALL = 500;
+
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final LessonWordRepository lessonWordRepository;
+    private final LessonWordStorageService lessonWordStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Chuyển tối đa limit lesson còn lưu word theo kiểu cũ sang target.
+     */
+    public LessonWordMigrationResponse migrate(LessonWordStorageMode target, int limit) {
+        PageRequest page = PageRequest.of(0, Math.min(Math.max(1, limit), MAX_LESSONS_PER_CALL));
+        List<Long> lessonIds = target == LessonWordStorageMode.EMBEDDED
+                ? lessonWordRepository.findLessonIdsWithWordRows(page)
+                : lessonSentenceRepository.findLessonIdsWithEmbeddedWords(page);
+
+        int migrated = 0;
+        long words = 0;
+        List<Long> failed = new ArrayList<>();
+        for (Long lessonId : lessonIds) {
+            try {
+                Long moved = transactionTemplate.execute(status -> migrateLesson(lessonId, target));
+                words += moved == null ? 0 : moved;
+                migrated++;
+            } catch (Exception e) {
+                log.error("Failed to migrate words of lesson {} to {}", lessonId, target, e);
+                failed.add(lessonId);
+            }
+        }
+        log.info("Migrated words of {} lessons ({} words) to {}, {} failed", migrated, words, target, failed.size());
+
+        return LessonWordMigrationResponse.builder()
+                .target(target)
+                .migratedLessons(migrated)
+                .migratedWords(words)
+                .failedLessonIds(failed)
+                .remainingLessons(target == LessonWordStorageMode.EMBEDDED
+                        ? lessonWordRepository.countLessonsWithWordRows()
+                        : lessonSentenceRepository.countLessonsWithEmbeddedWords())
+                .build();
+    }
+
+    private long migrateLesson(Long lessonId, LessonWordStorageMode target) {
+        if (target == LessonWordStorageMode.EMBEDDED) {
+            lessonSentenceRepository.embedWordRows(lessonId);
+            return lessonWordRepository.deleteByLessonId(lessonId);
+        }
+        long inserted = lessonWordRepository.insertFromEmbeddedWords(lessonId);
+        lessonSentenceRepository.clearEmbeddedWords(lessonId);
+        return inserted;
+    }
+
+    /**
+     * Số liệu để so sánh 2 chế độ: số dòng, dung lượng bảng và thời gian ghi / đọc word.
+     */
+    @Transactional(readOnly = true)
+    public LessonWordStorageStatsResponse getStats() {
+        List<Object[]> embedded = lessonSentenceRepository.countEmbeddedWords();
+        Object[] counts = embedded.isEmpty() ? new Object[]{0L, 0L} : embedded.get(0);
+
+        return LessonWordStorageStatsResponse.builder()
+                .mode(lessonWordStorage.getMode())
+                .wordRows(lessonWordRepository.count())
+                .embeddedSentences(((Number) counts[0]).longValue())
+                .embeddedWords(((Number) counts[1]).longValue())
+                .lessonsWithWordRows(lessonWordRepository.countLessonsWithWordRows())
+                .lessonsWithEmbeddedWords(lessonSentenceRepository.countLessonsWithEmbeddedWords())
+                .lessonWordsBytes(lessonWordRepository.totalRelationSize("lesson_words"))
+                .lessonSentencesBytes(lessonWordRepository.totalRelationSize("lesson_sentences"))
+                .rowsIngestMeanMs(meanMs("lesson.words.ingest.duration", LessonWordStorageMode.ROWS))
+                .embeddedIngestMeanMs(meanMs("lesson.words.ingest.duration", LessonWordStorageMode.EMBEDDED))
+                .rowsLoadMeanMs(meanMs("lesson.words.load.duration", LessonWordStorageMode.ROWS))
+                .embeddedLoadMeanMs(meanMs("lesson.words.load.duration", LessonWordStorageMode.EMBEDDED))
+                .build();
+    }
+
+    private Double meanMs(String name, LessonWordStorageMode storage) {
+        Timer timer = lessonWordStorage.findTimer(name, storage);
+        return timer == null || timer.count() == 0 ? null : timer.mean(TimeUnit.MILLISECONDS);
+    }
+}
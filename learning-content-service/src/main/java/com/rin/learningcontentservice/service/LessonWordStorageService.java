@@ -0,0 +1,117 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.model.SentenceWord;
+import com.rin.learningcontentservice.repository.LessonWordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Chọn cách lưu word của câu theo app.lesson-words.storage:
+ * <ul>
+ *     <li>ROWS: 1 dòng lesson_words / word (mặc định)</li>
+ *     <li>EMBEDDED: mảng jsonb lesson_sentences.words, id word vẫn lấy từ sequence của lesson_words</li>
+ * </ul>
+ * Chế độ chỉ áp dụng cho dữ liệu ghi mới, dữ liệu cũ chuyển bằng LessonWordMigrationService.
+ * Thời gian ghi / đọc word được đo theo từng chế độ để so sánh (lesson.words.ingest.duration, lesson.words.load.duration).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonWordStorageService {
+
+    private final LessonWordRepository lessonWordRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.lesson-words.storage:ROWS}")
+    private LessonWordStorageMode mode;
+
+    public LessonWordStorageMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gọi ngay sau khi build sentence mới (trước khi gắn vào lesson). Ở chế độ EMBEDDED chuyển word của mọi câu
+     * sang mảng jsonb, cấp id cho cả lesson trong 1 query.
+     */
+    public void store(List<LessonSentence> sentences) {
+        if (mode != LessonWordStorageMode.EMBEDDED) return;
+
+        int total = sentences.stream()
+                .mapToInt(s -> s.getLessonWords() == null ? 0 : s.getLessonWords().size())
+                .sum();
+        Iterator<Long> ids = total == 0 ? null : lessonWordRepository.allocateIds(total).iterator();
+
+        for (LessonSentence sentence : sentences) {
+            List<SentenceWord> words = new ArrayList<>();
+            for (LessonWord word : sentence.getOrderedWords()) {
+                SentenceWord embedded = SentenceWord.from(word);
+                embedded.setId(ids.next());
+                words.add(embedded);
+            }
+            sentence.setWords(words);
+            sentence.setLessonWords(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Chuyển 1 câu đang lưu dạng dòng sang mảng jsonb (giữ id word), dòng cũ bị xoá qua orphanRemoval.
+     * Dùng khi split / merge gặp 2 câu lưu khác kiểu.
+     */
+    public void embed(LessonSentence sentence) {
+        if (sentence.isWordsEmbedded()) return;
+        sentence.setWords(new ArrayList<>(sentence.getOrderedWords().stream().map(SentenceWord::from).toList()));
+        if (sentence.getLessonWords() != null) {
+            sentence.getLessonWords().clear();
+        }
+    }
+
+    public <T> T timeIngest(Supplier<T> ingest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result = ingest.get();
+        sample.stop(timer("lesson.words.ingest.duration", "Time to flush a generated lesson's sentences and words",
+                mode));
+        return result;
+    }
+
+    /**
+     * Đo thời gian load sentence + word của 1 lesson, tag theo cách lưu thực tế của lesson đó
+     * (trong lúc migrate 2 chế độ cùng tồn tại).
+     */
+    public <T> T timeLoad(Lesson lesson, Supplier<T> load) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result = load.get();
+        boolean embedded = lesson.getSentences() != null
+                && lesson.getSentences().stream().anyMatch(LessonSentence::isWordsEmbedded);
+        sample.stop(timer("lesson.words.load.duration", "Time to load and map a lesson's sentences and words",
+                embedded ? LessonWordStorageMode.EMBEDDED : LessonWordStorageMode.ROWS));
+        return result;
+    }
+
+    public Timer findTimer(String name, LessonWordStorageMode storage) {
+        return meterRegistry.find(name).tag("storage", storage.name()).timer();
+    }
+
+    private Timer timer(String name, String description, LessonWordStorageMode storage) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("storage", storage.name())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+}
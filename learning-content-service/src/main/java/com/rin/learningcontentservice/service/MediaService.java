@@ -0,0 +1,129 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.service.support.LocalMediaCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Phục vụ audio / thumbnail / TTS từ local disk thay vì để client tải thẳng từ remote store.
+ * Bật bằng app.media.enabled=true. /media/remote chỉ proxy URL http(s) dưới https://{remote-host}/{cloud-name}/
+ * (tenant Cloudinary của project, host dùng chung cho mọi tenant nên check host là chưa đủ).
+ * Chỉ lưu / phục vụ audio/* và image/* (trừ SVG) để file upload lên store không thành HTML/script trên domain API.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.media", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MediaService {
+
+    private final LessonRepository lessonRepository;
+
+    @Value("${app.media.cache-dir:./data/media-cache}")
+    private String cacheDir;
+
+    @Value("${app.media.max-cache-size-mb:2048}")
+    private long maxCacheSizeMb;
+
+    @Value("${app.media.remote-host:res.cloudinary.com}")
+    private String remoteHost;
+
+    // Trống → tắt /media/remote
+    @Value("${app.media.cloud-name:}")
+    private String cloudName;
+
+    private LocalMediaCache cache;
+
+    @PostConstruct
+    void open() throws IOException {
+        cache = new LocalMediaCache(Path.of(cacheDir), maxCacheSizeMb * 1024 * 1024, MediaService::isServableType);
+        cache.open();
+    }
+
+    public LocalMediaCache.Entry getLessonAudio(Long lessonId) {
+        return getLessonMedia(lessonId, Lesson::getAudioUrl);
+    }
+
+    public LocalMediaCache.Entry getLessonThumbnail(Long lessonId) {
+        return getLessonMedia(lessonId, Lesson::getThumbnailUrl);
+    }
+
+    /**
+     * Media trên remote store của project (VD: audio TTS của dictionary).
+     */
+    public LocalMediaCache.Entry getRemote(String url) {
+        if (!isAllowedRemote(url, remoteHost, cloudName)) {
+            throw new BaseException(LearningContentErrorCode.MEDIA_SOURCE_NOT_ALLOWED,
+                    LearningContentErrorCode.MEDIA_SOURCE_NOT_ALLOWED.formatMessage(url));
+        }
+        return fetch(url);
+    }
+
+    static boolean isAllowedRemote(String url, String host, String cloudName) {
+        if (url == null || cloudName == null || cloudName.isBlank()) return false;
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String path = uri.getRawPath();
+        return (scheme.equals("https") || scheme.equals("http"))
+                && uri.getRawUserInfo() == null
+                && uri.getPort() == -1
+                && host.equalsIgnoreCase(uri.getHost())
+                && path != null
+                && path.startsWith("/" + cloudName + "/")
+                // Chặn ../ và dạng encode để không thoát khỏi prefix của tenant
+                && !path.contains("..") && !path.contains("%");
+    }
+
+    static boolean isServableType(String contentType) {
+        String type = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return type.startsWith("audio/") || (type.startsWith("image/") && !type.startsWith("image/svg"));
+    }
+
+    private LocalMediaCache.Entry getLessonMedia(Long lessonId, Function<Lesson, String> urlOf) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(
+                () -> new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                        LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId))
+        );
+        String url = urlOf.apply(lesson);
+        if (url == null || url.isBlank()) {
+            throw new BaseException(LearningContentErrorCode.MEDIA_NOT_FOUND,
+                    LearningContentErrorCode.MEDIA_NOT_FOUND.formatMessage(lessonId));
+        }
+        // URL của lesson do hệ thống ghi nên không cần check allowed-hosts
+        return fetch(url);
+    }
+
+    private LocalMediaCache.Entry fetch(String url) {
+        try {
+            return cache.get(url);
+        } catch (LocalMediaCache.ContentTypeRejectedException e) {
+            log.warn("Rejected media {}: {}", url, e.getMessage());
+            throw new BaseException(LearningContentErrorCode.MEDIA_TYPE_NOT_ALLOWED,
+                    LearningContentErrorCode.MEDIA_TYPE_NOT_ALLOWED.formatMessage(url));
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            log.error("Failed to fetch media {}: {}", url, e.getMessage());
+            throw new BaseException(LearningContentErrorCode.MEDIA_FETCH_FAILED,
+                    LearningContentErrorCode.MEDIA_FETCH_FAILED.formatMessage(url));
+        }
+    }
+}
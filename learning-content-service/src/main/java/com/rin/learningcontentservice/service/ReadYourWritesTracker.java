@@ -0,0 +1,62 @@
+package com.rin.learningcontentservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi nhớ user vừa ghi progress để các transaction read-only của user đó đọc từ primary trong 1 khoảng ngắn,
+ * tránh replica chưa kịp replay làm "mất" điểm vừa nộp.
+ * Lưu cả local (nhanh) lẫn Redis (request kế tiếp có thể rơi vào instance khác).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String KEY_PREFIX = "learning:ryw:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${app.datasource.replica.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.datasource.replica.read-your-writes-ms:10000}")
+    private long windowMs;
+
+    // userId → thời điểm (epoch ms) hết cửa sổ đọc từ primary
+    private final Map<String, Long> localWindows = new ConcurrentHashMap<>();
+
+    public void markWrite(String userId) {
+        if (!enabled || userId == null) return;
+        long until = System.currentTimeMillis() + windowMs;
+        localWindows.put(userId, until);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, until, Duration.ofMillis(windowMs));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record read-your-writes window for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public boolean requiresPrimary(String userId) {
+        if (!enabled || userId == null) return false;
+
+        Long until = localWindows.get(userId);
+        if (until != null) {
+            if (until > System.currentTimeMillis()) return true;
+            localWindows.remove(userId, until);
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + userId));
+        } catch (RuntimeException e) {
+            // Không chắc chắn → đọc primary cho an toàn
+            return true;
+        }
+    }
+}
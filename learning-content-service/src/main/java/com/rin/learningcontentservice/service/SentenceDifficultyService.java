@@ -0,0 +1,81 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.SentenceDifficultyResponse;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.LearningMode;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.SentenceDifficultyStats;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.SentenceDifficultyStatsRepository;
+import com.rin.learningcontentservice.service.support.SentenceStatsDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thống kê độ khó từng sentence, cộng dồn từ mỗi lần learner cập nhật progress (không quét progress_items).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SentenceDifficultyService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SentenceDifficultyStatsRepository statsRepository;
+    private final LessonRepository lessonRepository;
+
+    /**
+     * Gọi trong transaction của progress → rollup và progress commit / rollback cùng nhau.
+     */
+    public void applyDeltas(Long lessonId, LearningMode mode, Map<Long, SentenceStatsDelta> deltas) {
+        deltas.forEach((sentenceId, delta) -> statsRepository.upsertDelta(
+                lessonId, sentenceId, mode.name(),
+                delta.getAttempts(), delta.getLearners(),
+                delta.getScoreSum(), delta.getScoreSqSum(),
+                delta.histogramLiteral()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SentenceDifficultyResponse> getHardestSentences(Long lessonId, LearningMode mode, int limit, long minAttempts) {
+        if (!lessonRepository.existsById(lessonId)) {
+            throw new BaseException(LearningContentErrorCode.LESSON_NOT_FOUND,
+                    LearningContentErrorCode.LESSON_NOT_FOUND.formatMessage(lessonId));
+        }
+        int safeLimit = Math.min(MAX_LIMIT, Math.max(1, limit));
+
+        return statsRepository.findHardestSentences(lessonId, mode, Math.max(1, minAttempts), PageRequest.of(0, safeLimit))
+                .stream()
+                .map(row -> toResponse((SentenceDifficultyStats) row[0], (LessonSentence) row[1]))
+                .toList();
+    }
+
+    private SentenceDifficultyResponse toResponse(SentenceDifficultyStats stats, LessonSentence sentence) {
+        long n = stats.getAttemptCount();
+        double mean = stats.getScoreSum() / n;
+        // Var = E[x²] - E[x]², chặn âm do sai số làm tròn
+        double variance = Math.max(0.0, stats.getScoreSqSum() / n - mean * mean);
+
+        return SentenceDifficultyResponse.builder()
+                .sentenceId(stats.getSentenceId())
+                .orderIndex(sentence.getOrderIndex())
+                .textDisplay(sentence.getTextDisplay())
+                .attemptCount(n)
+                .learnerCount(stats.getLearnerCount())
+                .meanScore(round1(mean))
+                .scoreStdDev(round1(Math.sqrt(variance)))
+                .attemptsPerLearner(stats.getLearnerCount() > 0 ? round1((double) n / stats.getLearnerCount()) : null)
+                .bestScoreHistogram(stats.getBestScoreHistogram())
+                .build();
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
@@ -7,8 +7,10 @@ import com.rin.learningcontentservice.dto.response.LessonSentenceDetailsResponse
 import com.rin.learningcontentservice.exception.LearningContentErrorCode;
 import com.rin.learningcontentservice.mapper.SentenceMapper;
 import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonChangeType;
 import com.rin.learningcontentservice.model.LessonSentence;
 import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.SentenceWord;
 import com.rin.learningcontentservice.repository.LessonRepository;
 import com.rin.learningcontentservice.repository.LessonSentenceRepository;
 import com.rin.learningcontentservice.repository.LessonWordRepository;
@@ -19,7 +21,9 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +33,9 @@ public class SentenceService {
     private final LessonRepository lessonRepository;
     private final SentenceMapper lessonSentenceMapper;
     private final LessonWordRepository lessonWordRepository;
+    private final LessonChangeTracker lessonChangeTracker;
+    private final LessonWordStorageService lessonWordStorage;
+
     @Transactional
     public void markSentenceActiveOrInactive(Long sentenceId, Boolean active) {
         LessonSentence sentence = lessonSentenceRepository.findById(sentenceId)
@@ -36,7 +43,8 @@ public class SentenceService {
                         LearningContentErrorCode.SENTENCE_NOT_FOUND.formatMessage(sentenceId)));
         sentence.setIsActive(active);
         var lesson = sentence.getLesson();
-        lesson.setVersion(lesson.getVersion() == null ? 0 : lesson.getVersion() + 1);
+        lessonChangeTracker.recordChanges(lesson, Map.of(sentence.getId(),
+                Boolean.TRUE.equals(active) ? LessonChangeType.ADDED : LessonChangeType.REMOVED));
         lessonRepository.save(lesson);
         lessonSentenceRepository.save(sentence);
     }
@@ -47,7 +55,8 @@ public class SentenceService {
         LessonSentence sentence = lessonSentenceRepository.findById(sentenceId)
                 .orElseThrow(() -> new RuntimeException("Sentence not found"));
 
-        LessonWord splitAfterWord = sentence.getLessonWords().stream()
+        List<LessonWord> orderedWords = sentence.getOrderedWords();
+        LessonWord splitAfterWord = orderedWords.stream()
                 .filter(w -> w.getId().equals(request.getSplitAfterWordId()))
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Word not found"));
@@ -61,9 +70,9 @@ public class SentenceService {
         sentencesAfter.forEach(s -> s.setOrderIndex(s.getOrderIndex() + 1));
 
         // Tìm word đầu tiên của câu 2 trước khi move
-        LessonWord firstWordOfSentence2 = sentence.getLessonWords().stream()
+        LessonWord firstWordOfSentence2 = orderedWords.stream()
                 .filter(w -> w.getOrderIndex() > splitAfterWord.getOrderIndex())
-                .min(Comparator.comparing(LessonWord::getOrderIndex))
+                .findFirst()
                 .orElseThrow();
 
         // Tạo sentence2
@@ -82,18 +91,26 @@ public class SentenceService {
 
         LessonSentence savedSentence2 = lessonSentenceRepository.save(sentence2);
 
-        List<LessonWord> wordsToMove = sentence.getLessonWords().stream()
-                .filter(w -> w.getOrderIndex() > splitAfterWord.getOrderIndex())
-                .sorted(Comparator.comparing(LessonWord::getOrderIndex))
-                .toList();
-
-        sentence.getLessonWords().removeAll(wordsToMove);
-
-        int newIndex = 0;
-        for (LessonWord w : wordsToMove) {
-            w.setSentence(savedSentence2);
-            w.setOrderIndex(newIndex++);
-            savedSentence2.getLessonWords().add(w);
+        if (sentence.isWordsEmbedded()) {
+            // Cắt mảng jsonb, id word giữ nguyên
+            List<SentenceWord> words = sentence.getWords();
+            int cut = splitAfterWord.getOrderIndex() + 1;
+            savedSentence2.setWords(new ArrayList<>(words.subList(cut, words.size())));
+            sentence.setWords(new ArrayList<>(words.subList(0, cut)));
+        } else {
+            List<LessonWord> wordsToMove = sentence.getLessonWords().stream()
+                    .filter(w -> w.getOrderIndex() > splitAfterWord.getOrderIndex())
+                    .sorted(Comparator.comparing(LessonWord::getOrderIndex))
+                    .toList();
+
+            sentence.getLessonWords().removeAll(wordsToMove);
+
+            int newIndex = 0;
+            for (LessonWord w : wordsToMove) {
+                w.setSentence(savedSentence2);
+                w.setOrderIndex(newIndex++);
+                savedSentence2.getLessonWords().add(w);
+            }
         }
 
         // Update sentence1
@@ -108,7 +125,12 @@ public class SentenceService {
 
         Lesson lesson = sentence.getLesson();
         lesson.setTotalSentences((lesson.getTotalSentences() != null ? lesson.getTotalSentences() : 0) + 1);
-        lesson.setVersion(lesson.getVersion() == null ? 1 : lesson.getVersion());
+
+        Map<Long, LessonChangeType> changes = new LinkedHashMap<>();
+        changes.put(sentence.getId(), LessonChangeType.UPDATED);
+        changes.put(savedSentence2.getId(), LessonChangeType.ADDED);
+        sentencesAfter.forEach(s -> changes.put(s.getId(), LessonChangeType.REORDERED));
+        lessonChangeTracker.recordChanges(lesson, changes);
         lessonRepository.save(lesson);
         lessonSentenceRepository.flush();
 
@@ -139,17 +161,26 @@ public class SentenceService {
                     LearningContentErrorCode.INVALID_STATE.formatMessage(sentence1.getLesson().getId(), "orderIndex of sentence2 should be exactly 1 greater than sentence1"));
         }
 
-        // Sort words sentence2
-        List<LessonWord> wordsToMove = sentence2.getLessonWords().stream()
-                .sorted(Comparator.comparing(LessonWord::getOrderIndex))
-                .toList();
-
-        // Move words từ sentence2 → sentence1
-        int baseIndex = sentence1.getLessonWords().size();
-        for (LessonWord w : wordsToMove) {
-            w.setSentence(sentence1);
-            w.setOrderIndex(baseIndex++);
-            sentence1.getLessonWords().add(w);
+        if (sentence1.isWordsEmbedded() || sentence2.isWordsEmbedded()) {
+            // Ít nhất 1 câu lưu dạng jsonb → đưa cả 2 về jsonb rồi nối mảng
+            lessonWordStorage.embed(sentence1);
+            lessonWordStorage.embed(sentence2);
+            List<SentenceWord> merged = new ArrayList<>(sentence1.getWords());
+            merged.addAll(sentence2.getWords());
+            sentence1.setWords(merged);
+        } else {
+            // Sort words sentence2
+            List<LessonWord> wordsToMove = sentence2.getLessonWords().stream()
+                    .sorted(Comparator.comparing(LessonWord::getOrderIndex))
+                    .toList();
+
+            // Move words từ sentence2 → sentence1
+            int baseIndex = sentence1.getLessonWords().size();
+            for (LessonWord w : wordsToMove) {
+                w.setSentence(sentence1);
+                w.setOrderIndex(baseIndex++);
+                sentence1.getLessonWords().add(w);
+            }
         }
 
         // Auto merge text
@@ -196,7 +227,11 @@ public class SentenceService {
                 (lesson.getTotalSentences() != null ? lesson.getTotalSentences() : 0) - 1
         );
 
-        lesson.setVersion(lesson.getVersion() == null ? 1 : lesson.getVersion());
+        Map<Long, LessonChangeType> changes = new LinkedHashMap<>();
+        changes.put(sentence1.getId(), LessonChangeType.UPDATED);
+        changes.put(sentence2.getId(), LessonChangeType.REMOVED);
+        sentencesAfter.forEach(s -> changes.put(s.getId(), LessonChangeType.REORDERED));
+        lessonChangeTracker.recordChanges(lesson, changes);
         lessonRepository.save(lesson);
 
         lessonSentenceRepository.flush();
@@ -0,0 +1,86 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.event.TopicCountersChangedEvent;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * total_lesson_count / published_lesson_count của topic: cộng dồn trong cùng transaction với thao tác lesson,
+ * repair đếm lại định kỳ (và lúc khởi động) để sửa lệch do ghi tay vào DB hoặc code path cũ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TopicLessonCounterService {
+
+    private final TopicRepository topicRepository;
+    private final LessonRepository lessonRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BackgroundTaskService backgroundTasks;
+
+    /**
+     * Phải chạy trong transaction đang ghi lesson, không có thì báo lỗi thay vì lặng lẽ lệch số.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long topicId, long totalDelta, long publishedDelta) {
+        if (topicId == null || (totalDelta == 0 && publishedDelta == 0)) return;
+        if (topicRepository.adjustLessonCounts(topicId, totalDelta, publishedDelta) > 0) {
+            eventPublisher.publishEvent(new TopicCountersChangedEvent(topicId));
+        }
+    }
+
+    /**
+     * Chuyển lesson sang topic khác. Cập nhật theo thứ tự id để 2 lần chuyển ngược chiều không deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(Long fromTopicId, Long toTopicId, boolean published) {
+        if (fromTopicId == null || fromTopicId.equals(toTopicId)) return;
+        long publishedDelta = published ? 1 : 0;
+        if (fromTopicId < toTopicId) {
+            adjust(fromTopicId, -1, -publishedDelta);
+            adjust(toTopicId, 1, publishedDelta);
+        } else {
+            adjust(toTopicId, 1, publishedDelta);
+            adjust(fromTopicId, -1, -publishedDelta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        backgroundTasks.runOnce("topic-counters:repair", this::repairAll);
+    }
+
+    @Scheduled(cron = "${app.topic-counters.repair-cron:0 30 3 * * *}")
+    public void repairAll() {
+        int repaired = 0;
+        for (Long topicId : topicRepository.findAllIds()) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> repair(topicId)))) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            log.warn("Repaired lesson counters of {} topics", repaired);
+        }
+    }
+
+    // Khoá dòng topic trước rồi mới đếm: transaction nào đã thêm lesson mà chưa cộng counter sẽ phải chờ repair xong
+    private boolean repair(Long topicId) {
+        if (topicRepository.lockById(topicId) == null) return false;
+        long total = lessonRepository.countByTopic_Id(topicId);
+        long published = lessonRepository.countByTopic_IdAndPublishedAtIsNotNull(topicId);
+        if (topicRepository.setLessonCounts(topicId, total, published) == 0) return false;
+        eventPublisher.publishEvent(new TopicCountersChangedEvent(topicId));
+        return true;
+    }
+}
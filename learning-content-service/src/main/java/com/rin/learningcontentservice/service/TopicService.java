@@ -3,6 +3,7 @@ package com.rin.learningcontentservice.service;
 import com.rin.englishlearning.common.exception.BaseException;
 import com.rin.learningcontentservice.dto.request.AddEditTopicRequest;
 import com.rin.learningcontentservice.dto.response.*;
+import com.rin.learningcontentservice.event.TopicChangedEvent;
 import com.rin.learningcontentservice.exception.LearningContentErrorCode;
 import com.rin.learningcontentservice.mapper.LessonMapper;
 import com.rin.learningcontentservice.mapper.TopicMapper;
@@ -15,6 +16,7 @@ import com.rin.learningcontentservice.repository.TopicRepository;
 import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
 import com.rin.learningcontentservice.utils.TextUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ public class TopicService {
     private final LessonRepository lessonRepository;
     private final LessonMapper lessonMapper;
     private final UserLessonProgressRepository userLessonProgressRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<TopicSummaryResponse> getActiveTopics() {
@@ -49,6 +52,7 @@ public class TopicService {
         newTopic.setSlug(slug);
 
         topicRepository.save(newTopic);
+        eventPublisher.publishEvent(new TopicChangedEvent(newTopic.getId()));
 
         return topicMapper.toTopicResponse(newTopic);
     }
@@ -63,15 +67,17 @@ public class TopicService {
 
     public void deleteTopicBySlug(String slug) {
         topicRepository.deleteBySlug(slug);
+        eventPublisher.publishEvent(new TopicChangedEvent(null));
     }
 
+    @Transactional
     public TopicResponseWithLessonCount editTopic(String slug, AddEditTopicRequest topicRequest) {
-        Topic existingTopic = topicRepository.findBySlug(slug)
+        Topic existingTopic = topicRepository.findCachedBySlug(slug)
                 .orElseThrow(() -> new BaseException(LearningContentErrorCode.TOPIC_NOT_FOUND,
                         LearningContentErrorCode.TOPIC_NOT_FOUND.formatMessage(slug)));
 
         String newSlug = TextUtils.createSlug(topicRequest.getName());
-        if(!newSlug.equals(slug) && topicRepository.findBySlug(newSlug).isPresent()) {
+        if(!newSlug.equals(slug) && topicRepository.findCachedBySlug(newSlug).isPresent()) {
             throw new BaseException(LearningContentErrorCode.TOPIC_WITH_NAME_EXISTS,
                     LearningContentErrorCode.TOPIC_WITH_NAME_EXISTS.formatMessage(topicRequest.getName()));
         }
@@ -83,6 +89,7 @@ public class TopicService {
         existingTopic.setSlug(newSlug);
 
         topicRepository.save(existingTopic);
+        eventPublisher.publishEvent(new TopicChangedEvent(existingTopic.getId()));
 
         return topicMapper.toTopicResponse(existingTopic);
     }
@@ -0,0 +1,374 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.dto.PageResponse;
+import com.rin.learningcontentservice.dto.response.TranscriptSearchHit;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.TranscriptQueryType;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index (Lucene, lưu trên local disk) cho transcript của toàn bộ lesson.
+ * 1 document = 1 sentence active: textDisplay cho phrase query, chuỗi lemma cho lemma query.
+ * Postgres là nguồn dữ liệu gốc, index có thể rebuild bất cứ lúc nào.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranscriptSearchService {
+
+    private static final String F_LESSON_ID = "lessonId";
+    private static final String F_SENTENCE_ID = "sentenceId";
+    private static final String F_ORDER_INDEX = "orderIndex";
+    private static final String F_START_MS = "startMs";
+    private static final String F_END_MS = "endMs";
+    private static final String F_PUBLISHED = "published";
+    private static final String F_TEXT = "text";
+    private static final String F_LEMMAS = "lemmas";
+    // Cặp "dạng từ|lemma" lấy từ chính transcript, dùng để lemmatize query của LEMMA search
+    private static final String F_FORM_LEMMA = "formLemma";
+    private static final char FORM_LEMMA_SEPARATOR = '|';
+
+    private static final int REBUILD_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 50;
+    // Lucene phải giữ top (offset + size) hit trong heap nên giới hạn độ sâu phân trang
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final LessonRepository lessonRepository;
+    private final LessonSentenceRepository lessonSentenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BackgroundTaskService backgroundTasks;
+
+    @Value("${app.search.transcript-index-dir:./data/transcript-index}")
+    private String indexDir;
+
+    // Không bỏ stop word để phrase như "to be or not to be" vẫn tìm được
+    private final Analyzer analyzer = new StandardAnalyzer(CharArraySet.EMPTY_SET);
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Rebuild giữ lock suốt quá trình; event cập nhật lesson trong lúc đó chỉ được ghi nhận vào pending
+    // (lessonId → deleted) và được áp dụng sau khi rebuild xong, tránh commit/refresh index đang dở dang
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Map<Long, Boolean> pendingLessons = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Transcript index opened at {} ({} docs)", indexDir, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            backgroundTasks.runOnce("transcript-index:rebuild", this::rebuild);
+        }
+    }
+
+    /**
+     * Cập nhật index sau khi transaction chỉnh sửa lesson commit (generate xong, sửa sentence, publish/unpublish, xoá).
+     * Không readOnly: phải đọc từ primary, replica có thể chưa có bản vừa commit và index sẽ giữ bản cũ.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onLessonContentChanged(LessonContentChangedEvent event) {
+        pendingLessons.merge(event.getLessonId(), event.isDeleted(), (previous, deleted) -> deleted);
+        applyPendingChanges();
+    }
+
+    /**
+     * Áp dụng các lesson đang chờ nếu không có rebuild nào giữ lock. Thread giữ lock luôn kiểm tra lại
+     * pending sau khi nhả lock nên thay đổi ghi nhận trong lúc bị chặn không bị bỏ sót.
+     */
+    private void applyPendingChanges() {
+        while (!pendingLessons.isEmpty() && indexLock.tryLock()) {
+            try {
+                writePending();
+                writer.commit();
+                searcherManager.maybeRefresh();
+            } catch (IOException | RuntimeException e) {
+                // Index chỉ là read-model, lỗi không được làm hỏng luồng nghiệp vụ chính → rebuild sau
+                log.error("Failed to update transcript index: {}", e.getMessage());
+                return;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+    }
+
+    // Gọi khi đang giữ indexLock
+    private void writePending() throws IOException {
+        for (Long lessonId : new ArrayList<>(pendingLessons.keySet())) {
+            Boolean deleted = pendingLessons.remove(lessonId);
+            if (Boolean.TRUE.equals(deleted)) {
+                writer.deleteDocuments(new Term(F_LESSON_ID, String.valueOf(lessonId)));
+            } else {
+                transactionTemplate.executeWithoutResult(status ->
+                        lessonRepository.findById(lessonId).ifPresent(this::writeLesson));
+            }
+        }
+    }
+
+    /**
+     * Xoá index và build lại từ Postgres, từng trang lesson trong 1 transaction read-only riêng.
+     * Searcher vẫn phục vụ bản index cũ cho tới lần refresh cuối cùng.
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        int indexed = 0;
+        indexLock.lock();
+        try {
+            writer.deleteAll();
+            int page = 0;
+            boolean hasNext = true;
+            while (hasNext) {
+                int currentPage = page++;
+                Page<Lesson> lessons = transactionTemplate.execute(status -> {
+                    Page<Lesson> p = lessonRepository.findAll(PageRequest.of(currentPage, REBUILD_PAGE_SIZE, Sort.by("id")));
+                    p.forEach(this::writeLesson);
+                    return p;
+                });
+                indexed += lessons.getNumberOfElements();
+                hasNext = lessons.hasNext();
+            }
+            writePending();
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            indexLock.unlock();
+        }
+        applyPendingChanges();
+        log.info("Transcript index rebuilt: {} lessons in {} ms", indexed, System.currentTimeMillis() - start);
+        return indexed;
+    }
+
+    public PageResponse<TranscriptSearchHit> search(String q, TranscriptQueryType type, boolean publishedOnly,
+                                                    int page, int size) {
+        int safePage = Math.max(0, page);
+        int safeSize = Math.min(MAX_PAGE_SIZE, Math.max(1, size));
+        long offset = (long) safePage * safeSize;
+        if (offset >= MAX_RESULT_WINDOW) return emptyPage(safePage, safeSize);
+        String field = type == TranscriptQueryType.LEMMA ? F_LEMMAS : F_TEXT;
+        List<String> terms = analyze(field, q);
+        if (terms.isEmpty()) return emptyPage(safePage, safeSize);
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            if (type == TranscriptQueryType.LEMMA) terms = lemmatize(searcher, terms);
+
+            Query textQuery = terms.size() == 1
+                    ? new TermQuery(new Term(field, terms.get(0)))
+                    : new PhraseQuery(field, terms.toArray(new String[0]));
+            BooleanQuery.Builder query = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+            if (publishedOnly) {
+                query.add(new TermQuery(new Term(F_PUBLISHED, "true")), BooleanClause.Occur.FILTER);
+            }
+
+            TopDocs topDocs = searcher.search(query.build(), (int) offset + safeSize);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            StoredFields storedFields = searcher.storedFields();
+
+            List<TranscriptSearchHit> hits = new ArrayList<>();
+            for (int i = (int) offset; i < scoreDocs.length; i++) {
+                Document doc = storedFields.document(scoreDocs[i].doc);
+                hits.add(TranscriptSearchHit.builder()
+                        .lessonId(Long.parseLong(doc.get(F_LESSON_ID)))
+                        .sentenceId(doc.getField(F_SENTENCE_ID).numericValue().longValue())
+                        .orderIndex(intOrNull(doc, F_ORDER_INDEX))
+                        .audioStartMs(intOrNull(doc, F_START_MS))
+                        .audioEndMs(intOrNull(doc, F_END_MS))
+                        .textDisplay(doc.get(F_TEXT))
+                        .score(scoreDocs[i].score)
+                        .build());
+            }
+            attachLessonInfo(hits);
+
+            long total = topDocs.totalHits.value;
+            // Chỉ báo số trang nằm trong result window để client không đi tới trang bị chặn
+            long reachable = Math.min(total, MAX_RESULT_WINDOW);
+            int totalPages = (int) ((reachable + safeSize - 1) / safeSize);
+            return PageResponse.<TranscriptSearchHit>builder().data(hits).page(safePage).size(safeSize)
+                    .totalElements(total).totalPages(totalPages)
+                    .hasNext(safePage + 1 < totalPages).hasPrevious(safePage > 0).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release transcript searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Ghi lại toàn bộ document của 1 lesson (xoá cũ + thêm mới trong 1 lần updateDocuments)
+    private void writeLesson(Lesson lesson) {
+        String lessonId = String.valueOf(lesson.getId());
+        String published = String.valueOf(lesson.getPublishedAt() != null);
+        List<Document> docs = new ArrayList<>();
+
+        for (LessonSentence sentence : lessonSentenceRepository.findWithWordsByLessonId(lesson.getId())) {
+            if (!Boolean.TRUE.equals(sentence.getIsActive())) continue;
+
+            Document doc = new Document();
+            doc.add(new StringField(F_LESSON_ID, lessonId, Field.Store.YES));
+            doc.add(new StoredField(F_SENTENCE_ID, sentence.getId()));
+            doc.add(new StringField(F_PUBLISHED, published, Field.Store.NO));
+            if (sentence.getOrderIndex() != null) doc.add(new StoredField(F_ORDER_INDEX, sentence.getOrderIndex()));
+            if (sentence.getAudioStartMs() != null) doc.add(new StoredField(F_START_MS, sentence.getAudioStartMs()));
+            if (sentence.getAudioEndMs() != null) doc.add(new StoredField(F_END_MS, sentence.getAudioEndMs()));
+            doc.add(new TextField(F_TEXT, sentence.getTextDisplay() != null ? sentence.getTextDisplay() : "", Field.Store.YES));
+            doc.add(new TextField(F_LEMMAS, lemmaText(sentence), Field.Store.NO));
+            for (String formLemma : formLemmaPairs(sentence)) {
+                doc.add(new StringField(F_FORM_LEMMA, formLemma, Field.Store.NO));
+            }
+            docs.add(doc);
+        }
+
+        try {
+            writer.updateDocuments(new Term(F_LESSON_ID, lessonId), docs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String lemmaText(LessonSentence sentence) {
+        return sentence.getOrderedWords().stream()
+                .map(w -> w.getLemma() != null && !w.getLemma().isBlank() ? w.getLemma() : w.getWordNormalized())
+                .filter(v -> v != null && !v.isBlank())
+                .collect(Collectors.joining(" "));
+    }
+
+    private Set<String> formLemmaPairs(LessonSentence sentence) {
+        Set<String> pairs = new HashSet<>();
+        for (LessonWord w : sentence.getOrderedWords()) {
+            if (w.getWordNormalized() == null || w.getLemma() == null || w.getLemma().isBlank()) continue;
+            String form = w.getWordNormalized().toLowerCase(Locale.ROOT);
+            String lemma = w.getLemma().toLowerCase(Locale.ROOT);
+            if (!form.equals(lemma)) pairs.add(form + FORM_LEMMA_SEPARATOR + lemma);
+        }
+        return pairs;
+    }
+
+    /**
+     * Đổi từng term của query về lemma theo cặp dạng từ → lemma đã gặp trong transcript
+     * (lemma phổ biến nhất nếu 1 dạng từ có nhiều lemma). Term chưa gặp giữ nguyên vì có thể đã là lemma.
+     */
+    private List<String> lemmatize(IndexSearcher searcher, List<String> terms) throws IOException {
+        Terms formLemmas = MultiTerms.getTerms(searcher.getIndexReader(), F_FORM_LEMMA);
+        if (formLemmas == null) return terms;
+
+        List<String> lemmas = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            String prefix = term + FORM_LEMMA_SEPARATOR;
+            TermsEnum it = formLemmas.iterator();
+            String best = term;
+            int bestCount = 0;
+            if (it.seekCeil(new BytesRef(prefix)) != TermsEnum.SeekStatus.END) {
+                for (BytesRef t = it.term(); t != null; t = it.next()) {
+                    String pair = t.utf8ToString();
+                    if (!pair.startsWith(prefix)) break;
+                    // Term của document đã xoá vẫn còn tới khi merge → đếm trên doc còn sống
+                    int count = searcher.count(new TermQuery(new Term(F_FORM_LEMMA, pair)));
+                    if (count > bestCount) {
+                        best = pair.substring(prefix.length());
+                        bestCount = count;
+                    }
+                }
+            }
+            lemmas.add(best);
+        }
+        return lemmas;
+    }
+
+    private void attachLessonInfo(List<TranscriptSearchHit> hits) {
+        if (hits.isEmpty()) return;
+        Set<Long> lessonIds = hits.stream().map(TranscriptSearchHit::getLessonId).collect(Collectors.toSet());
+        Map<Long, Lesson> lessons = lessonRepository.findAllById(lessonIds).stream()
+                .collect(Collectors.toMap(Lesson::getId, l -> l));
+        for (TranscriptSearchHit hit : hits) {
+            Lesson lesson = lessons.get(hit.getLessonId());
+            if (lesson != null) {
+                hit.setLessonTitle(lesson.getTitle());
+                hit.setLessonSlug(lesson.getSlug());
+            }
+        }
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) return terms;
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) terms.add(term.toString());
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Integer intOrNull(Document doc, String field) {
+        IndexableField f = doc.getField(field);
+        return f == null ? null : f.numericValue().intValue();
+    }
+
+    private PageResponse<TranscriptSearchHit> emptyPage(int page, int size) {
+        return PageResponse.<TranscriptSearchHit>builder().data(List.of()).page(page).size(size)
+                .totalElements(0).totalPages(0).hasNext(false).hasPrevious(page > 0).build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.rin.learningcontentservice.service.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Căn chỉnh câu learner gõ với chuỗi wordNormalized của sentence bằng thuật toán diff O(ND) của Myers.
+ * D = số từ sai (thiếu + thừa) nên với câu gõ gần đúng chi phí gần như tuyến tính theo độ dài câu.
+ * Không dùng regex, không boxing: chỉ cấp phát mảng token và vết V (tổng O(D²) int).
+ */
+public final class DictationAligner {
+
+    public static final byte MATCH = 0;
+    public static final byte MISSING = 1; // có trong câu gốc, learner không gõ
+    public static final byte EXTRA = 2;   // learner gõ thừa
+
+    // Câu rất ngắn vẫn cho gõ thừa vài từ
+    private static final int TYPED_TOKEN_SLACK = 10;
+
+    private DictationAligner() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Tách câu learner gõ thành token, mỗi token chuẩn hoá bằng {@link #normalizeToken(String)}.
+     * Token rỗng sau chuẩn hoá bị bỏ qua.
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) return new String[0];
+
+        List<String> tokens = new ArrayList<>();
+        char[] buf = new char[text.length()];
+        int len = text.length();
+        int i = 0;
+        while (i < len) {
+            while (i < len && Character.isWhitespace(text.charAt(i))) i++;
+            int start = i;
+            while (i < len && !Character.isWhitespace(text.charAt(i))) i++;
+            String token = normalize(text, start, i, buf);
+            if (token != null) tokens.add(token);
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Chuẩn hoá 1 token (expected hoặc typed) về cùng dạng so sánh: đổi nháy cong thành ',
+     * bỏ ký tự ngoài [a-zA-Z'-] ở 2 đầu, lowercase. Trả về null nếu token rỗng sau chuẩn hoá.
+     * wordNormalized trong DB có thể còn nháy cong nên phía expected cũng phải qua hàm này.
+     */
+    public static String normalizeToken(String token) {
+        if (token == null || token.isEmpty()) return null;
+        return normalize(token, 0, token.length(), new char[token.length()]);
+    }
+
+    private static String normalize(String text, int start, int end, char[] buf) {
+        while (start < end && !isWordChar(normalizeChar(text.charAt(start)))) start++;
+        while (end > start && !isWordChar(normalizeChar(text.charAt(end - 1)))) end--;
+        if (start == end) return null;
+
+        for (int j = start; j < end; j++) {
+            buf[j - start] = Character.toLowerCase(normalizeChar(text.charAt(j)));
+        }
+        return new String(buf, 0, end - start);
+    }
+
+    /**
+     * Số token gõ tối đa được chấm cho câu có expectedCount token: vết V của align tăng theo bình phương số từ thừa.
+     */
+    public static int maxTypedTokens(int expectedCount) {
+        return 2 * expectedCount + TYPED_TOKEN_SLACK;
+    }
+
+    /**
+     * Trả về edit script theo thứ tự câu: MATCH/MISSING tiêu thụ 1 token expected, MATCH/EXTRA tiêu thụ 1 token typed.
+     */
+    public static byte[] align(String[] expected, String[] typed) {
+        int n = expected.length;
+        int m = typed.length;
+        int max = n + m;
+        if (max == 0) return new byte[0];
+        if (Arrays.equals(expected, typed)) return new byte[n]; // toàn MATCH
+
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        int[][] trace = new int[max + 1][];
+
+        int d = 0;
+        search:
+        for (; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && expected[x].equals(typed[y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) break search;
+            }
+            // Chỉ lưu đoạn k ∈ [-d, d], đủ cho bước backtrack của d + 1
+            trace[d] = Arrays.copyOfRange(v, offset - d, offset + d + 1);
+        }
+
+        byte[] ops = new byte[max];
+        int p = max;
+        int x = n;
+        int y = m;
+        for (int dd = d; dd > 0; dd--) {
+            int[] prev = trace[dd - 1];
+            int base = dd - 1;
+            int k = x - y;
+            int prevK = (k == -dd || (k != dd && prev[k - 1 + base] < prev[k + 1 + base])) ? k + 1 : k - 1;
+            int prevX = prev[prevK + base];
+            int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                ops[--p] = MATCH;
+                x--;
+                y--;
+            }
+            if (x == prevX) {
+                ops[--p] = EXTRA;
+                y--;
+            } else {
+                ops[--p] = MISSING;
+                x--;
+            }
+        }
+        while (x > 0 && y > 0) {
+            ops[--p] = MATCH;
+            x--;
+            y--;
+        }
+        return Arrays.copyOfRange(ops, p, max);
+    }
+
+    /**
+     * Điểm 0–100: mỗi từ thiếu và mỗi từ thừa đều bị trừ, gõ đúng hết mới được 100.
+     */
+    public static double score(int matched, int expectedCount, int typedCount) {
+        int extra = typedCount - matched;
+        int denominator = expectedCount + extra;
+        if (denominator <= 0) return 0.0;
+        return Math.round(1000.0 * matched / denominator) / 10.0;
+    }
+
+    private static char normalizeChar(char c) {
+        return c == '’' || c == '‘' ? '\'' : c; // dấu nháy cong từ bàn phím mobile
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'' || c == '-';
+    }
+}
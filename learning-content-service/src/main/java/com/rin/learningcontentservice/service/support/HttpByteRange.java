@@ -0,0 +1,51 @@
+package com.rin.learningcontentservice.service.support;
+
+/**
+ * 1 khoảng byte [start, end] (inclusive) lấy từ header Range.
+ * Chỉ hỗ trợ 1 khoảng; nhiều khoảng ("bytes=0-1,5-9") được bỏ qua → trả full 200 (RFC 9110 cho phép).
+ */
+public record HttpByteRange(long start, long end) {
+
+    public static final HttpByteRange UNSATISFIABLE = new HttpByteRange(-1, -1);
+
+    public boolean isSatisfiable() {
+        return start >= 0;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return null nếu không có Range / Range sai cú pháp / nhiều khoảng (→ trả toàn bộ file),
+     * UNSATISFIABLE nếu khoảng nằm ngoài file (→ 416)
+     */
+    public static HttpByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.isEmpty() || spec.indexOf(',') >= 0) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+
+        try {
+            if (first.isEmpty()) {
+                // "bytes=-N": N byte cuối
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) return UNSATISFIABLE;
+                return new HttpByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) return null;
+            if (start >= size) return UNSATISFIABLE;
+            return new HttpByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
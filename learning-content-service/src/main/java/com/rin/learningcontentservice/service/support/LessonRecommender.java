@@ -0,0 +1,131 @@
+package com.rin.learningcontentservice.service.support;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+
+import java.util.*;
+
+/**
+ * Xếp hạng lesson cho 1 user từ lịch sử progress, không đụng DB:
+ * <pre>
+ * score = 0.5 * levelFit + 0.35 * topicAffinity + 0.15 * recency
+ * </pre>
+ * <ul>
+ *     <li>levelFit: 1 khi đúng level ước lượng, giảm 0.5 mỗi bậc CEFR lệch</li>
+ *     <li>topicAffinity: số lesson user đã học trong topic (hoàn thành = 1, đang học = 0.5) / topic học nhiều nhất</li>
+ *     <li>recency: e^(-tuổi / 60 ngày) theo publishedAt</li>
+ * </ul>
+ * Lesson user đã bắt đầu (bất kỳ mode) bị loại, mỗi topic tối đa maxPerTopic lesson để list không bị 1 topic chiếm hết.
+ */
+public final class LessonRecommender {
+
+    private static final double LEVEL_WEIGHT = 0.5;
+    private static final double TOPIC_WEIGHT = 0.35;
+    private static final double RECENCY_WEIGHT = 0.15;
+    // Lesson chưa gán level: coi như lệch ~1.5 bậc
+    private static final double UNKNOWN_LEVEL_FIT = 0.25;
+    private static final double RECENCY_HALF_SCALE_DAYS = 60.0;
+    // Điểm trung bình các lesson hoàn thành gần đây từ mức này trở lên → đẩy level mục tiêu lên nửa bậc
+    private static final double LEVEL_UP_SCORE = 85.0;
+    private static final int LEVEL_UP_WINDOW = 5;
+
+    private LessonRecommender() {
+        /* This utility class should not be instantiated */
+    }
+
+    /**
+     * Lesson đã publish, topic đang active.
+     */
+    public record Candidate(long lessonId, long topicId, CefrLevel level, long publishedAtMillis) {
+    }
+
+    /**
+     * 1 dòng progress của user, completedAt = null khi đang học.
+     */
+    public record HistoryEntry(long lessonId, boolean completed, Double score, Long completedAt) {
+    }
+
+    public record Result(long[] lessonIds, CefrLevel estimatedLevel) {
+    }
+
+    public static Result recommend(Collection<Candidate> catalog, Collection<HistoryEntry> history,
+                                   int size, int maxPerTopic, long nowMillis) {
+        Map<Long, Candidate> byId = new HashMap<>(catalog.size() * 2);
+        for (Candidate candidate : catalog) byId.put(candidate.lessonId(), candidate);
+
+        Set<Long> seen = new HashSet<>();
+        Map<Long, Double> topicWeights = new HashMap<>();
+        for (HistoryEntry entry : history) {
+            seen.add(entry.lessonId());
+            Candidate lesson = byId.get(entry.lessonId());
+            if (lesson != null) {
+                topicWeights.merge(lesson.topicId(), entry.completed() ? 1.0 : 0.5, Double::sum);
+            }
+        }
+        // Nhiều mode của cùng lesson đã được cộng nhiều lần, chuẩn hoá về [0, 1] nên không sao
+        double maxTopicWeight = topicWeights.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        Double targetLevel = estimateLevel(history, byId);
+
+        List<Map.Entry<Candidate, Double>> scored = new ArrayList<>();
+        for (Candidate candidate : catalog) {
+            if (seen.contains(candidate.lessonId())) continue;
+            double levelFit = targetLevel == null
+                    ? 0.5
+                    : candidate.level() == null
+                    ? UNKNOWN_LEVEL_FIT
+                    : Math.max(0, 1 - Math.abs(candidate.level().ordinal() - targetLevel) / 2);
+            double affinity = maxTopicWeight == 0 ? 0 : topicWeights.getOrDefault(candidate.topicId(), 0.0) / maxTopicWeight;
+            double ageDays = Math.max(0, nowMillis - candidate.publishedAtMillis()) / 86_400_000.0;
+            double recency = Math.exp(-ageDays / RECENCY_HALF_SCALE_DAYS);
+            scored.add(Map.entry(candidate, LEVEL_WEIGHT * levelFit + TOPIC_WEIGHT * affinity + RECENCY_WEIGHT * recency));
+        }
+        scored.sort(Map.Entry.<Candidate, Double>comparingByValue().reversed()
+                .thenComparing(e -> e.getKey().lessonId(), Comparator.reverseOrder()));
+
+        long[] picked = new long[Math.min(size, scored.size())];
+        int count = 0;
+        Map<Long, Integer> perTopic = new HashMap<>();
+        for (Map.Entry<Candidate, Double> entry : scored) {
+            if (count == picked.length) break;
+            Candidate candidate = entry.getKey();
+            if (perTopic.merge(candidate.topicId(), 1, Integer::sum) > maxPerTopic) continue;
+            picked[count++] = candidate.lessonId();
+        }
+        CefrLevel estimated = targetLevel == null ? null : CefrLevel.values()[(int) Math.round(targetLevel)];
+        return new Result(Arrays.copyOf(picked, count), estimated);
+    }
+
+    /**
+     * Trung bình bậc CEFR của lesson đã hoàn thành, trọng số theo điểm; chưa hoàn thành lesson nào thì
+     * lấy trung bình lesson đang học. Không có lesson nào có level → null.
+     */
+    static Double estimateLevel(Collection<HistoryEntry> history, Map<Long, Candidate> byId) {
+        double weighted = 0, weights = 0;
+        double inProgressSum = 0;
+        int inProgressCount = 0;
+        List<HistoryEntry> completed = new ArrayList<>();
+        for (HistoryEntry entry : history) {
+            Candidate lesson = byId.get(entry.lessonId());
+            if (lesson == null || lesson.level() == null) continue;
+            if (entry.completed()) {
+                double weight = entry.score() == null ? 0.5 : Math.max(0.1, entry.score() / 100.0);
+                weighted += lesson.level().ordinal() * weight;
+                weights += weight;
+                completed.add(entry);
+            } else {
+                inProgressSum += lesson.level().ordinal();
+                inProgressCount++;
+            }
+        }
+        if (weights == 0) {
+            return inProgressCount == 0 ? null : inProgressSum / inProgressCount;
+        }
+
+        double level = weighted / weights;
+        completed.sort(Comparator.comparing(HistoryEntry::completedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        double recentScore = completed.stream().limit(LEVEL_UP_WINDOW)
+                .mapToDouble(e -> e.score() == null ? 0 : e.score())
+                .average().orElse(0);
+        if (recentScore >= LEVEL_UP_SCORE) level += 0.5;
+        return Math.min(level, CefrLevel.C2.ordinal());
+    }
+}
@@ -0,0 +1,256 @@
+package com.rin.learningcontentservice.service.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cache file media (audio, ảnh, TTS) trên local disk đứng trước remote store (Cloudinary/S3).
+ * Key = SHA-256 của URL; ETag = SHA-256 nội dung, tính 1 lần lúc tải về và lưu trong file .meta.
+ * Tổng dung lượng bị chặn bởi maxBytes, vượt thì xoá file ít được dùng gần đây nhất (LRU).
+ * Chỉ lưu file có Content-Type qua acceptContentType, kiểm tra trước khi tải body.
+ */
+@Slf4j
+public class LocalMediaCache {
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+    // Entry vừa được trả cho request không bị evict trong khoảng này: xem evictIfNeeded
+    private static final long SERVE_GRACE_NANOS = Duration.ofSeconds(60).toNanos();
+
+    private final Path dir;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Single-flight: nhiều request cùng 1 URL chưa có trong cache chỉ tải 1 lần
+    private final Map<String, CompletableFuture<Entry>> downloads = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Predicate<String> acceptContentType;
+
+    public LocalMediaCache(Path dir, long maxBytes, Predicate<String> acceptContentType) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.acceptContentType = acceptContentType;
+    }
+
+    /**
+     * Remote trả Content-Type không được phép phục vụ (VD: text/html, SVG).
+     */
+    public static class ContentTypeRejectedException extends RuntimeException {
+        public ContentTypeRejectedException(String contentType) {
+            super("Content type not allowed: " + contentType);
+        }
+    }
+
+    @Getter
+    public static final class Entry {
+        private final String key;
+        private final Path file;
+        private final long size;
+        private final String etag;
+        private final String contentType;
+        private volatile long lastAccess;
+
+        Entry(String key, Path file, long size, String etag, String contentType) {
+            this.key = key;
+            this.file = file;
+            this.size = size;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * Nạp lại các file đã cache từ lần chạy trước, dọn file tải dở.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(path);
+                } else if (name.endsWith(".meta")) {
+                    loadEntry(name.substring(0, name.length() - ".meta".length()));
+                }
+            }
+        }
+        log.info("Media cache opened at {} ({} files, {} MB)", dir, entries.size(), totalBytes.get() / (1024 * 1024));
+    }
+
+    public Entry get(String url) {
+        String key = sha256Hex(url.getBytes(StandardCharsets.UTF_8));
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            // Ghi lastAccess trước, kiểm tra map sau: evictIfNeeded làm ngược lại nên không thể cùng bỏ lỡ nhau
+            if (entries.get(key) == entry && Files.exists(entry.file)) return entry;
+        }
+
+        // Request đầu tiên tự tải trên thread của nó (số tải song song bị chặn bởi thread pool của web server),
+        // các request cùng URL chờ kết quả đó
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = downloads.putIfAbsent(key, mine);
+        if (inFlight == null) {
+            try {
+                Entry downloaded = download(url, key);
+                mine.complete(downloaded);
+                return downloaded;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                downloads.remove(key, mine);
+            }
+        }
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private Entry download(String url, String key) {
+        Path tmp = dir.resolve(key + "." + UUID.randomUUID() + ".tmp");
+        try {
+            URLConnection connection = URI.create(url).toURL().openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            // Không theo redirect: URL đã được kiểm tra prefix, redirect có thể dẫn ra ngoài
+            if (connection instanceof HttpURLConnection http) {
+                http.setInstanceFollowRedirects(false);
+                if (http.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Unexpected HTTP status " + http.getResponseCode());
+                }
+            }
+            String contentType = connection.getContentType() != null
+                    ? connection.getContentType()
+                    : URLConnection.guessContentTypeFromName(url);
+            if (contentType == null || !acceptContentType.test(contentType)) {
+                if (connection instanceof HttpURLConnection http) http.disconnect();
+                throw new ContentTypeRejectedException(contentType);
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(connection.getInputStream(), digest)) {
+                size = Files.copy(in, tmp);
+            }
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest()).substring(0, 32) + "\"";
+
+            Path file = dir.resolve(key + ".bin");
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(key, url, size, etag, contentType);
+
+            Entry entry = new Entry(key, file, size, etag, contentType == null ? "application/octet-stream" : contentType);
+            Entry previous = entries.put(key, entry);
+            totalBytes.addAndGet(size - (previous == null ? 0 : previous.size));
+            evictIfNeeded(key);
+            log.info("Cached media {} ({} bytes)", url, size);
+            return entry;
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Controller mở file theo đường dẫn sau khi get() trả về: tự mở FileChannel, hoặc với sendfile thì Tomcat
+     * mở theo tên file sau khi handler return. Xoá file trước lúc đó sẽ làm request lỗi, nên entry được
+     * get() trong SERVE_GRACE_NANOS gần nhất không bị evict (tạm vượt maxBytes nếu mọi entry đều đang được dùng).
+     * Khi fd đã mở thì xoá file không ảnh hưởng phần còn lại của response (POSIX unlink).
+     */
+    private void evictIfNeeded(String keep) {
+        if (totalBytes.get() <= maxBytes) return;
+        long now = System.nanoTime();
+        // Chụp lastAccess trước khi sort: giá trị đổi giữa lúc sort làm comparator không nhất quán
+        record Candidate(Entry entry, long lastAccess) {
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (Entry e : entries.values()) candidates.add(new Candidate(e, e.lastAccess));
+        candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+        for (Candidate candidate : candidates) {
+            if (totalBytes.get() <= maxBytes) break;
+            if (now - candidate.lastAccess() < SERVE_GRACE_NANOS) break; // phần còn lại đều mới hơn
+            Entry victim = candidate.entry();
+            if (victim.key.equals(keep) || !entries.remove(victim.key, victim)) continue;
+            // get() vừa lấy entry này trong lúc đang xét (nó ghi lastAccess rồi mới kiểm tra map) → trả lại
+            if (System.nanoTime() - victim.lastAccess < SERVE_GRACE_NANOS) {
+                // Đã có bản tải lại thay chỗ (cùng file) thì chỉ trừ dung lượng của bản cũ
+                if (entries.putIfAbsent(victim.key, victim) != null) totalBytes.addAndGet(-victim.size);
+                continue;
+            }
+            totalBytes.addAndGet(-victim.size);
+            deleteQuietly(victim.file);
+            deleteQuietly(dir.resolve(victim.key + ".meta"));
+        }
+    }
+
+    private void writeMeta(String key, String url, long size, String etag, String contentType) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("url", url);
+        meta.setProperty("size", String.valueOf(size));
+        meta.setProperty("etag", etag);
+        if (contentType != null) meta.setProperty("contentType", contentType);
+        try (OutputStream out = Files.newOutputStream(dir.resolve(key + ".meta"))) {
+            meta.store(out, null);
+        }
+    }
+
+    private void loadEntry(String key) throws IOException {
+        Path metaFile = dir.resolve(key + ".meta");
+        Path file = dir.resolve(key + ".bin");
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            meta.load(in);
+        }
+        long size = Long.parseLong(meta.getProperty("size", "-1"));
+        String contentType = meta.getProperty("contentType", "application/octet-stream");
+        if (!Files.exists(file) || Files.size(file) != size || meta.getProperty("etag") == null
+                || !acceptContentType.test(contentType)) {
+            deleteQuietly(file);
+            deleteQuietly(metaFile);
+            return;
+        }
+        entries.put(key, new Entry(key, file, size, meta.getProperty("etag"), contentType));
+        totalBytes.addAndGet(size);
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.rin.learningcontentservice.service.support;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Bảng offset byte của từng frame audio trong file MP3 (frame nào cũng dài samplesPerFrame sample).
+ * Thời gian → frame → byte offset, để client chỉ cần request HTTP Range đúng đoạn của 1 sentence.
+ */
+@Getter
+public final class Mp3FrameIndex {
+
+    // Bit reservoir: frame đầu tiên có thể cần tới dữ liệu của ~2 frame trước nó để decode đúng
+    static final int RESERVOIR_PADDING_FRAMES = 2;
+
+    private final int sampleRate;
+    private final int samplesPerFrame;
+    private final long[] frameOffsets;
+    private final long dataEnd; // byte ngay sau frame cuối cùng
+
+    public Mp3FrameIndex(int sampleRate, int samplesPerFrame, long[] frameOffsets, long dataEnd) {
+        this.sampleRate = sampleRate;
+        this.samplesPerFrame = samplesPerFrame;
+        this.frameOffsets = frameOffsets;
+        this.dataEnd = dataEnd;
+    }
+
+    public int frameCount() {
+        return frameOffsets.length;
+    }
+
+    public double frameDurationMs() {
+        return samplesPerFrame * 1000.0 / sampleRate;
+    }
+
+    /**
+     * Khoảng byte [start, end] (end inclusive, đúng format header Range) phủ đoạn audio [startMs, endMs].
+     * Trả về null nếu index rỗng hoặc đoạn thời gian không hợp lệ.
+     */
+    public long[] byteRange(int startMs, int endMs) {
+        if (frameOffsets.length == 0 || endMs <= startMs || startMs < 0) return null;
+
+        double frameMs = frameDurationMs();
+        int first = (int) Math.floor(startMs / frameMs) - RESERVOIR_PADDING_FRAMES;
+        int last = (int) Math.ceil(endMs / frameMs);
+        first = Math.max(0, first);
+        last = Math.min(frameOffsets.length - 1, last);
+        if (first > last) return null;
+
+        long end = last + 1 < frameOffsets.length ? frameOffsets[last + 1] : dataEnd;
+        return new long[]{frameOffsets[first], end - 1};
+    }
+
+    /**
+     * Offset frame đầu tiên + độ dài từng frame dạng varint (đa số frame < 16KB → 2 byte/frame).
+     */
+    public byte[] encodeOffsets() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(frameOffsets.length * 2 + 16);
+        long previous = 0;
+        for (long offset : frameOffsets) {
+            writeVarLong(out, offset - previous);
+            previous = offset;
+        }
+        writeVarLong(out, dataEnd - previous);
+        return out.toByteArray();
+    }
+
+    public static Mp3FrameIndex decode(int sampleRate, int samplesPerFrame, int frameCount, byte[] encoded) {
+        long[] offsets = new long[frameCount];
+        int[] pos = {0};
+        long current = 0;
+        for (int i = 0; i < frameCount; i++) {
+            current += readVarLong(encoded, pos);
+            offsets[i] = current;
+        }
+        long dataEnd = current + readVarLong(encoded, pos);
+        return new Mp3FrameIndex(sampleRate, samplesPerFrame, offsets, dataEnd);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
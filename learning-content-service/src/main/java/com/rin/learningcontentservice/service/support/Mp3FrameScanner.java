@@ -0,0 +1,145 @@
+package com.rin.learningcontentservice.service.support;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Quét header từng frame MPEG audio Layer III trong 1 lượt đọc tuần tự (không decode audio).
+ * Bỏ qua ID3v2 tag, frame Xing/Info/VBRI (không chứa audio) và rác giữa các frame.
+ */
+public final class Mp3FrameScanner {
+
+    private static final int[] BITRATES_V1 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] BITRATES_V2 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            null,                   // reserved
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}   // MPEG 1
+    };
+    private static final int VERSION_1 = 3;
+    private static final int LAYER_3 = 1;
+
+    private Mp3FrameScanner() {
+        /* This utility class should not be instantiated */
+    }
+
+    public static Mp3FrameIndex scan(InputStream source) throws IOException {
+        BufferedInputStream in = source instanceof BufferedInputStream b ? b : new BufferedInputStream(source, 64 * 1024);
+        long pos = skipId3v2(in);
+
+        long[] offsets = new long[4096];
+        int count = 0;
+        int sampleRate = 0;
+        int samplesPerFrame = 0;
+        long dataEnd = pos;
+        byte[] header = new byte[4];
+
+        while (true) {
+            in.mark(4);
+            if (in.readNBytes(header, 0, 4) < 4) break;
+
+            FrameHeader h = parseHeader(header);
+            // Toàn bộ file phải cùng sample rate / số sample mỗi frame, khác thì coi như rác
+            if (h == null || (count > 0 && (h.sampleRate != sampleRate || h.samplesPerFrame != samplesPerFrame))) {
+                in.reset();
+                if (in.skip(1) < 1) break;
+                pos++;
+                continue;
+            }
+
+            boolean infoFrame = false;
+            if (count == 0) {
+                byte[] body = in.readNBytes(h.length - 4);
+                if (body.length < h.length - 4) break;
+                infoFrame = isInfoFrame(body, h.sideInfoLength);
+            } else if (!skipFully(in, h.length - 4)) {
+                break; // frame cuối bị cắt cụt
+            }
+
+            if (!infoFrame) {
+                if (count == 0) {
+                    sampleRate = h.sampleRate;
+                    samplesPerFrame = h.samplesPerFrame;
+                }
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = pos;
+                dataEnd = pos + h.length;
+            }
+            pos += h.length;
+        }
+
+        return new Mp3FrameIndex(sampleRate, samplesPerFrame, Arrays.copyOf(offsets, count), dataEnd);
+    }
+
+    static FrameHeader parseHeader(byte[] b) {
+        if ((b[0] & 0xFF) != 0xFF || (b[1] & 0xE0) != 0xE0) return null;
+
+        int version = (b[1] >> 3) & 0x03;
+        int layer = (b[1] >> 1) & 0x03;
+        int bitrateIndex = (b[2] >> 4) & 0x0F;
+        int sampleRateIndex = (b[2] >> 2) & 0x03;
+        int padding = (b[2] >> 1) & 0x01;
+        boolean mono = ((b[3] >> 6) & 0x03) == 3;
+
+        if (SAMPLE_RATES[version] == null || layer != LAYER_3
+                || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return null;
+        }
+
+        boolean v1 = version == VERSION_1;
+        int bitrate = (v1 ? BITRATES_V1 : BITRATES_V2)[bitrateIndex] * 1000;
+        int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+        int length = (v1 ? 144 : 72) * bitrate / sampleRate + padding;
+        int sideInfo = v1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+
+        return new FrameHeader(sampleRate, v1 ? 1152 : 576, length, sideInfo);
+    }
+
+    // Frame đầu của file VBR thường là frame "Xing"/"Info" (LAME) hoặc "VBRI" (Fraunhofer) chỉ chứa metadata
+    private static boolean isInfoFrame(byte[] body, int sideInfoLength) {
+        return matches(body, sideInfoLength, "Xing") || matches(body, sideInfoLength, "Info")
+                || matches(body, 32, "VBRI");
+    }
+
+    private static boolean matches(byte[] body, int offset, String tag) {
+        if (body.length < offset + tag.length()) return false;
+        for (int i = 0; i < tag.length(); i++) {
+            if (body[offset + i] != tag.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static long skipId3v2(BufferedInputStream in) throws IOException {
+        in.mark(10);
+        byte[] tag = in.readNBytes(10);
+        if (tag.length < 10 || tag[0] != 'I' || tag[1] != 'D' || tag[2] != '3') {
+            in.reset();
+            return 0;
+        }
+        // Size dạng syncsafe: 4 byte x 7 bit
+        int size = ((tag[6] & 0x7F) << 21) | ((tag[7] & 0x7F) << 14) | ((tag[8] & 0x7F) << 7) | (tag[9] & 0x7F);
+        if ((tag[5] & 0x10) != 0) size += 10; // footer
+        skipFully(in, size);
+        return 10L + size;
+    }
+
+    private static boolean skipFully(InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0) return false;
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+        return true;
+    }
+
+    record FrameHeader(int sampleRate, int samplesPerFrame, int length, int sideInfoLength) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.rin.learningcontentservice.service.support;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Phần thay đổi của 1 sentence trong 1 request progress, gom lại rồi upsert vào sentence_difficulty_stats 1 lần.
+ */
+@Getter
+public class SentenceStatsDelta {
+
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    private long attempts;
+    private long learners;
+    private double scoreSum;
+    private double scoreSqSum;
+    private final int[] histogram = new int[HISTOGRAM_BUCKETS];
+
+    /**
+     * @param previousBest best score trước lần làm này, null nếu là lần đầu learner làm câu này
+     * @param newBest      best score sau lần làm này
+     */
+    public void addAttempt(double score, Double previousBest, double newBest) {
+        attempts++;
+        scoreSum += score;
+        scoreSqSum += score * score;
+
+        if (previousBest == null) {
+            learners++;
+            histogram[bucketOf(newBest)]++;
+        } else if (bucketOf(previousBest) != bucketOf(newBest)) {
+            // Best score của learner chuyển bucket
+            histogram[bucketOf(previousBest)]--;
+            histogram[bucketOf(newBest)]++;
+        }
+    }
+
+    // Dạng literal mảng Postgres, VD "{0,1,0,...}" để CAST sang integer[] trong query native
+    public String histogramLiteral() {
+        return Arrays.stream(histogram).mapToObj(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    public static int bucketOf(double score) {
+        int bucket = (int) Math.floor(score / (100.0 / HISTOGRAM_BUCKETS));
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+}
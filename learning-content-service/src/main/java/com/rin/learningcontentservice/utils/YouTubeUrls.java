@@ -0,0 +1,62 @@
+package com.rin.learningcontentservice.utils;
+
+import java.net.URI;
+import java.util.regex.Pattern;
+
+public class YouTubeUrls {
+    private YouTubeUrls() {
+        /* This utility class should not be instantiated */
+    }
+
+    private static final Pattern VIDEO_ID = Pattern.compile("[A-Za-z0-9_-]{11}");
+
+    /**
+     * Lấy video ID từ các dạng link phổ biến: watch?v=, youtu.be/, shorts/, embed/, live/, hoặc chính ID.
+     * Không nhận ra → null.
+     */
+    public static String extractVideoId(String url) {
+        if (url == null) return null;
+        String value = url.trim();
+        if (VIDEO_ID.matcher(value).matches()) return value;
+
+        URI uri;
+        try {
+            uri = URI.create(value.contains("://") ? value : "https://" + value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase();
+        String path = uri.getPath() == null ? "" : uri.getPath();
+
+        String candidate = null;
+        if (host.equals("youtu.be")) {
+            candidate = firstSegment(path);
+        } else if (host.equals("youtube.com") || host.endsWith(".youtube.com")) {
+            if (path.equals("/watch")) {
+                candidate = queryParam(uri.getRawQuery(), "v");
+            } else if (path.startsWith("/shorts/") || path.startsWith("/embed/") || path.startsWith("/live/")) {
+                candidate = firstSegment(path.substring(path.indexOf('/', 1)));
+            }
+        }
+        return candidate != null && VIDEO_ID.matcher(candidate).matches() ? candidate : null;
+    }
+
+    public static String watchUrl(String videoId) {
+        return "https://www.youtube.com/watch?v=" + videoId;
+    }
+
+    private static String firstSegment(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        int slash = trimmed.indexOf('/');
+        return slash < 0 ? trimmed : trimmed.substring(0, slash);
+    }
+
+    private static String queryParam(String query, String name) {
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) return pair.substring(eq + 1);
+        }
+        return null;
+    }
+}
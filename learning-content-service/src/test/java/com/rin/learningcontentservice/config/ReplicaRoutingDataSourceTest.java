@@ -0,0 +1,67 @@
+package com.rin.learningcontentservice.config;
+
+import com.rin.learningcontentservice.service.ReadYourWritesTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ResultSet lag = mock(ResultSet.class);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenReturn(0.0);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(lag);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(connection);
+
+        ReadYourWritesTracker tracker = mock(ReadYourWritesTracker.class);
+        when(tracker.requiresPrimary(any())).thenReturn(false);
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), List.of(replica), tracker, 5000);
+        routing.refreshReplicaHealth();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyRequestTransactionGoesToReplica() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void readOnlyTransactionOutsideRequestGoesToPrimary() {
+        // Kafka consumer / scheduler / background pool: thường đọc ngay dữ liệu vừa ghi
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+}
@@ -0,0 +1,85 @@
+package com.rin.learningcontentservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackgroundTaskServiceTest {
+
+    private final BackgroundTaskService service = new BackgroundTaskService();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "poolSize", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.stop();
+    }
+
+    @Test
+    void runOnceSkipsKeyWhileQueuedOrRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(service.runOnce("a", () -> block(started, runs))).isTrue();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.runOnce("a", runs::incrementAndGet)).isFalse();
+
+        release.countDown();
+        awaitIdle();
+        assertThat(runs.get()).isEqualTo(1);
+        // Xong rồi thì key được chạy lại
+        assertThat(service.runOnce("a", runs::incrementAndGet)).isTrue();
+    }
+
+    @Test
+    void runLatestQueuesOneMoreRunWhileRunningAndDropsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(service.runLatest("user-1", () -> block(started, runs))).isTrue();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // Đang chạy → được xếp 1 lượt nữa, lượt thứ 3 trùng key đang chờ thì bỏ
+        assertThat(service.runLatest("user-1", runs::incrementAndGet)).isTrue();
+        assertThat(service.runLatest("user-1", runs::incrementAndGet)).isFalse();
+        // 1 thread đang bận + hàng đợi 1 chỗ đã đầy
+        assertThat(service.runLatest("user-2", runs::incrementAndGet)).isFalse();
+
+        release.countDown();
+        awaitIdle();
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(service.runLatest("user-2", runs::incrementAndGet)).isTrue();
+    }
+
+    private void block(CountDownLatch started, AtomicInteger runs) {
+        runs.incrementAndGet();
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Probe chạy sau cùng trên pool 1 thread → các task trước đã xong
+    private void awaitIdle() throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        while (!service.runOnce("idle-probe", idle::countDown)) {
+            Thread.sleep(10);
+        }
+        assertThat(idle.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.event.LessonWordsPublishedEvent;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictionaryPrefetchServiceTest {
+
+    @Test
+    void collectsDistinctClickableWordsWithFirstSentenceAsContext() {
+        LessonSentence first = sentence("Run, Forest, run!", true,
+                word("Run", "run", "VERB", "run", true),
+                word(",", ",", "PUNCT", ",", false),
+                word("Forest", "forest", "PROPN", "Forest", true),
+                word("run", "run", "VERB", "run", true));
+        LessonSentence second = sentence("A long run.", true,
+                word("A", "a", "DET", "a", true),
+                word("run", "run", "NOUN", "run", true),
+                word("long", "long", null, "long", true));
+        LessonSentence inactive = sentence("Hidden words.", false,
+                word("Hidden", "hidden", "ADJ", "hidden", true));
+
+        List<LessonWordsPublishedEvent.Word> words =
+                DictionaryPrefetchService.collectWords(List.of(first, second, inactive));
+
+        // "run" VERB chỉ giữ lần đầu, "run" NOUN là entry riêng, posTag null → NOUN như learner-web
+        assertThat(words).extracting(LessonWordsPublishedEvent.Word::getWordText)
+                .containsExactly("Run", "Forest", "A", "run", "long");
+        assertThat(words).extracting(LessonWordsPublishedEvent.Word::getPosTag)
+                .containsExactly("VERB", "PROPN", "DET", "NOUN", DictionaryPrefetchService.DEFAULT_POS);
+        assertThat(words.get(0).getContext()).isEqualTo("Run, Forest, run!");
+        assertThat(words.get(3).getContext()).isEqualTo("A long run.");
+    }
+
+    private static LessonSentence sentence(String text, boolean active, LessonWord... words) {
+        LessonSentence sentence = LessonSentence.builder().textDisplay(text).textRaw(text).isActive(active).build();
+        List<LessonWord> list = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            words[i].setOrderIndex(i);
+            words[i].setSentence(sentence);
+            list.add(words[i]);
+        }
+        sentence.setLessonWords(list);
+        return sentence;
+    }
+
+    private static LessonWord word(String text, String normalized, String pos, String lemma, boolean clickable) {
+        return LessonWord.builder().wordText(text).wordNormalized(normalized).posTag(pos).lemma(lemma)
+                .isClickable(clickable).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.config.SecondLevelCacheConfig;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.CacheManager;
+
+import static org.mockito.Mockito.*;
+
+class EntityCacheServiceTest {
+
+    private final Cache cache = mock(Cache.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private EntityCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        service = new EntityCacheService(entityManagerFactory, mock(CacheManager.class),
+                mock(SecondLevelCacheConfig.class), new SimpleMeterRegistry(), redisTemplate,
+                mock(RedisMessageListenerContainer.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lessonContentChangeIsEvictedOnEveryInstance() {
+        service.onLessonContentChanged(new LessonContentChangedEvent(7L, false));
+
+        verify(cache).evictEntityData(Lesson.class, 7L);
+        verify(redisTemplate).convertAndSend("learning-content:l2-cache:evict", "lesson:7");
+
+        // Instance nhận message chỉ evict local
+        service.evictLocally("lesson:8");
+        verify(cache).evictEntityData(Lesson.class, 8L);
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    void entityUpdateIsBroadcastOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.evictLessonAfterCommit(7L);
+        verifyNoInteractions(cache, redisTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(cache).evictEntityData(Lesson.class, 7L);
+        verify(redisTemplate).convertAndSend("learning-content:l2-cache:evict", "lesson:7");
+    }
+}
@@ -0,0 +1,74 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.mapper.LessonMapper;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class HomeFeedServiceTest {
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+    private HomeFeedService service;
+    private MessageListener listener;
+
+    @BeforeEach
+    void setUp() {
+        service = new HomeFeedService(topicRepository, lessonRepository, mock(UserLessonProgressRepository.class),
+                mock(LessonService.class), mock(TopicService.class), mock(LessonMapper.class),
+                redisTemplate, listenerContainer);
+        ReflectionTestUtils.setField(service, "lessonsPerTopic", 8);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        service.subscribe();
+        ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(captor.capture(), any(Topic.class));
+        listener = captor.getValue();
+
+        when(topicRepository.findActiveTopics()).thenReturn(List.of());
+        when(lessonRepository.findLatestPublishedIdsPerTopic(anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void localChangeIsBroadcastToOtherInstances() {
+        service.getHomeFeed(null, 5);
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+
+        verify(redisTemplate).convertAndSend(HomeFeedService.INVALIDATION_CHANNEL, "all");
+        service.getHomeFeed(null, 5);
+        verify(topicRepository, times(2)).findActiveTopics();
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceDropsCachedLayer() {
+        service.getHomeFeed(null, 5);
+        service.getHomeFeed(null, 5);
+        verify(topicRepository, times(1)).findActiveTopics();
+
+        listener.onMessage(new DefaultMessage(HomeFeedService.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "all".getBytes(StandardCharsets.UTF_8)), null);
+
+        service.getHomeFeed(null, 5);
+        verify(topicRepository, times(2)).findActiveTopics();
+        // Chỉ nhận, không phát lại → không lặp message giữa các instance
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -0,0 +1,131 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonChangeRecord;
+import com.rin.learningcontentservice.model.LessonChangeType;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.SentenceWord;
+import com.rin.learningcontentservice.repository.LessonChangeRecordRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonChangeTrackerTest {
+
+    private final LessonChangeRecordRepository recordRepository = mock(LessonChangeRecordRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final LessonChangeTracker tracker = new LessonChangeTracker(recordRepository, lessonRepository, eventPublisher);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesAreRecordedAgainstVersionAfterCommittedOne() {
+        // Entity đang giữ version 3 nhưng DB đã lên 5 (sửa đồng thời) → version mới là 6
+        Lesson lesson = Lesson.builder().id(7L).version(3).diffBaseVersion(0).build();
+        when(lessonRepository.lockVersionById(7L)).thenReturn(5);
+
+        int version = tracker.recordChanges(lesson, Map.of(11L, LessonChangeType.UPDATED));
+
+        assertThat(version).isEqualTo(6);
+        assertThat(lesson.getVersion()).isEqualTo(6);
+        ArgumentCaptor<List<LessonChangeRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(recordRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement().satisfies(r -> {
+            assertThat(r.getLessonVersion()).isEqualTo(6);
+            assertThat(r.getSentenceId()).isEqualTo(11L);
+            assertThat(r.getChangeType()).isEqualTo(LessonChangeType.UPDATED);
+        });
+        verify(eventPublisher).publishEvent(new LessonContentChangedEvent(7L, false));
+        // Chưa đủ MAX_HISTORY_VERSIONS → không cắt
+        verify(recordRepository, never()).deleteByLessonIdAndLessonVersionLessThanEqual(anyLong(), anyInt());
+        assertThat(lesson.getDiffBaseVersion()).isZero();
+    }
+
+    @Test
+    void historyOlderThanMaxVersionsIsPrunedAndBaseMovesForward() {
+        Lesson lesson = Lesson.builder().id(7L).version(LessonChangeTracker.MAX_HISTORY_VERSIONS).diffBaseVersion(0).build();
+        when(lessonRepository.lockVersionById(7L)).thenAnswer(inv -> lesson.getVersion());
+
+        tracker.recordChanges(lesson, Map.of(11L, LessonChangeType.UPDATED));
+        verify(recordRepository).deleteByLessonIdAndLessonVersionLessThanEqual(7L, 1);
+        assertThat(lesson.getDiffBaseVersion()).isEqualTo(1);
+
+        tracker.recordChanges(lesson, Map.of(12L, LessonChangeType.ADDED));
+        verify(recordRepository).deleteByLessonIdAndLessonVersionLessThanEqual(7L, 2);
+        assertThat(lesson.getDiffBaseVersion()).isEqualTo(2);
+        assertThat(lesson.getVersion()).isEqualTo(LessonChangeTracker.MAX_HISTORY_VERSIONS + 2);
+    }
+
+    @Test
+    void pruningIsSkippedWhileHistoryStillStartsAfterReset() {
+        // Reset ở version 40 → base 40, version 60 vẫn còn trong cửa sổ 50 version
+        Lesson lesson = Lesson.builder().id(7L).version(60).diffBaseVersion(40).build();
+
+        tracker.recordChanges(lesson, Map.of(11L, LessonChangeType.REORDERED));
+
+        verify(recordRepository, never()).deleteByLessonIdAndLessonVersionLessThanEqual(anyLong(), anyInt());
+        assertThat(lesson.getDiffBaseVersion()).isEqualTo(40);
+    }
+
+    @Test
+    void resetDropsHistoryAndForcesFullPayload() {
+        Lesson lesson = Lesson.builder().id(7L).version(9).diffBaseVersion(3).build();
+
+        tracker.reset(lesson);
+
+        assertThat(lesson.getVersion()).isEqualTo(10);
+        assertThat(lesson.getDiffBaseVersion()).isEqualTo(10);
+        verify(recordRepository).deleteByLessonId(7L);
+    }
+
+    @Test
+    void regeneratedContentIsComparedSentenceBySentence() {
+        // Bản đang lưu dạng jsonb, bản vừa build dạng dòng: vẫn so được qua getOrderedWords
+        LessonSentence stored = sentence(0, "Hello world.", word("Hello", "hello"), word("world.", "world"));
+        stored.setWords(new ArrayList<>(stored.getOrderedWords().stream().map(SentenceWord::from).toList()));
+        stored.setLessonWords(new ArrayList<>());
+        List<LessonSentence> current = List.of(sentence(1, "Bye."), stored);
+
+        assertThat(LessonChangeTracker.sameContent(current,
+                List.of(sentence(0, "Hello world.", word("Hello", "hello"), word("world.", "world")), sentence(1, "Bye."))))
+                .isTrue();
+        assertThat(LessonChangeTracker.sameContent(current,
+                List.of(sentence(0, "Hello world.", word("Hello", "hello"), word("world.", "worlds")), sentence(1, "Bye."))))
+                .isFalse();
+        assertThat(LessonChangeTracker.sameContent(current, List.of(sentence(0, "Hello world."))))
+                .isFalse();
+
+        // Admin đã tắt câu sau lần generate trước → nội dung generate lại là khác
+        LessonSentence disabled = sentence(1, "Bye.");
+        disabled.setIsActive(false);
+        assertThat(LessonChangeTracker.sameContent(List.of(sentence(0, "Hi."), disabled),
+                List.of(sentence(0, "Hi."), sentence(1, "Bye.")))).isFalse();
+        assertThat(LessonChangeTracker.sameContent(List.of(), List.of())).isFalse();
+    }
+
+    private static LessonSentence sentence(int orderIndex, String text, LessonWord... words) {
+        List<LessonWord> ordered = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            words[i].setOrderIndex(i);
+            ordered.add(words[i]);
+        }
+        return LessonSentence.builder().orderIndex(orderIndex).textRaw(text).textDisplay(text)
+                .audioStartMs(orderIndex * 1000).audioEndMs(orderIndex * 1000 + 900).lessonWords(ordered).build();
+    }
+
+    private static LessonWord word(String text, String lemma) {
+        return LessonWord.builder().wordText(text).wordNormalized(text.toLowerCase().replace(".", "")).lemma(lemma)
+                .hasPunctuation(text.endsWith(".")).isClickable(true).build();
+    }
+}
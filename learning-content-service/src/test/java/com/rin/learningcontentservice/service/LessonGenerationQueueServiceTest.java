@@ -0,0 +1,216 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.dto.ApiResponse;
+import com.rin.learningcontentservice.dto.response.AIJobResponse;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.model.GenerationTaskStatus;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonGenerationTask;
+import com.rin.learningcontentservice.repository.LessonGenerationTaskRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.httpclient.LanguageProcessingClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonGenerationQueueServiceTest {
+
+    private final LessonGenerationTaskRepository taskRepository = mock(LessonGenerationTaskRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LanguageProcessingClient languageProcessingClient = mock(LanguageProcessingClient.class);
+    private final KafkaProducer kafkaProducer = mock(KafkaProducer.class);
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.generation.max-running.default", "2");
+    private final Map<Long, LessonGenerationTask> tasks = new HashMap<>();
+    private final Map<Long, Lesson> lessons = new HashMap<>();
+    private final List<LessonGenerationTask> queued = new ArrayList<>();
+    private LessonGenerationQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonGenerationQueueService(taskRepository, lessonRepository, languageProcessingClient,
+                kafkaProducer, mock(LessonPipelineTimelineService.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), environment,
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 5000L);
+        ReflectionTestUtils.setField(service, "runningTimeoutMinutes", 180L);
+        ReflectionTestUtils.setField(service, "dispatchTimeoutMinutes", 10L);
+
+        when(taskRepository.tryDispatchLock(anyLong())).thenReturn(true);
+        when(taskRepository.findStale(any(), any())).thenReturn(List.of());
+        when(taskRepository.findDispatchable(eq(GenerationTaskStatus.QUEUED), any(), any()))
+                .thenAnswer(inv -> queued.stream()
+                        .filter(t -> t.getStatus() == GenerationTaskStatus.QUEUED)
+                        .filter(t -> !t.getNextAttemptAt().after(inv.getArgument(1)))
+                        .toList());
+        when(taskRepository.countBySourceType(any())).thenReturn(List.of());
+        when(taskRepository.countByRequester(any())).thenReturn(List.of());
+        when(taskRepository.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<LessonGenerationTask> saved = new ArrayList<>();
+            ((Iterable<LessonGenerationTask>) inv.getArgument(0)).forEach(saved::add);
+            return saved;
+        });
+        when(taskRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(tasks.get(inv.<Long>getArgument(0))));
+        when(lessonRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(lessons.get(inv.<Long>getArgument(0))));
+        when(languageProcessingClient.createAIJob())
+                .thenAnswer(inv -> ApiResponse.success(AIJobResponse.builder().id("job-" + System.nanoTime()).build()));
+    }
+
+    @Test
+    void slotsAreSharedAcrossRequestersBeforeQueueOrder() {
+        LessonGenerationTask a1 = queue(1L, LessonSourceType.YOUTUBE, "admin-a");
+        LessonGenerationTask a2 = queue(2L, LessonSourceType.YOUTUBE, "admin-a");
+        LessonGenerationTask b1 = queue(3L, LessonSourceType.YOUTUBE, "admin-b");
+
+        service.dispatch();
+
+        // admin-a vào hàng trước nhưng chỉ được 1 trong 2 slot
+        assertThat(a1.getStatus()).isEqualTo(GenerationTaskStatus.RUNNING);
+        assertThat(b1.getStatus()).isEqualTo(GenerationTaskStatus.RUNNING);
+        assertThat(a2.getStatus()).isEqualTo(GenerationTaskStatus.QUEUED);
+        verify(kafkaProducer, times(2)).publishLessonGenerationRequested(any());
+    }
+
+    @Test
+    void eachSourceTypeIsCappedSeparately() {
+        environment.setProperty("app.generation.max-running.youtube", "2");
+        environment.setProperty("app.generation.max-running.audio-file", "1");
+        when(taskRepository.countBySourceType(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{LessonSourceType.YOUTUBE, 1L}));
+        LessonGenerationTask y1 = queue(1L, LessonSourceType.YOUTUBE, null);
+        LessonGenerationTask y2 = queue(2L, LessonSourceType.YOUTUBE, null);
+        LessonGenerationTask a1 = queue(3L, LessonSourceType.AUDIO_FILE, null);
+        LessonGenerationTask a2 = queue(4L, LessonSourceType.AUDIO_FILE, null);
+
+        service.dispatch();
+
+        assertThat(y1.getStatus()).isEqualTo(GenerationTaskStatus.RUNNING);
+        assertThat(y2.getStatus()).isEqualTo(GenerationTaskStatus.QUEUED);
+        assertThat(a1.getStatus()).isEqualTo(GenerationTaskStatus.RUNNING);
+        assertThat(a2.getStatus()).isEqualTo(GenerationTaskStatus.QUEUED);
+    }
+
+    @Test
+    void failedJobCreationBacksOffExponentiallyThenFailsLesson() {
+        when(languageProcessingClient.createAIJob()).thenThrow(new IllegalStateException("language-processing down"));
+        LessonGenerationTask task = queue(1L, LessonSourceType.YOUTUBE, null);
+
+        long before = System.currentTimeMillis();
+        service.dispatch();
+        assertThat(task.getStatus()).isEqualTo(GenerationTaskStatus.QUEUED);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getNextAttemptAt().getTime() - before).isBetween(5000L, 6000L);
+        // Chưa hết backoff → không dispatch lại
+        service.dispatch();
+        assertThat(task.getAttempts()).isEqualTo(1);
+
+        task.setNextAttemptAt(new Timestamp(before));
+        service.dispatch();
+        assertThat(task.getAttempts()).isEqualTo(2);
+        assertThat(task.getNextAttemptAt().getTime() - before).isBetween(10_000L, 11_000L);
+
+        task.setNextAttemptAt(new Timestamp(before));
+        service.dispatch();
+        assertThat(task.getStatus()).isEqualTo(GenerationTaskStatus.FAILED);
+        assertThat(lessons.get(1L).getStatus()).isEqualTo(LessonStatus.ERROR);
+        assertThat(lessons.get(1L).getAiMessage()).contains("after 3 attempts", "language-processing down");
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    @Test
+    void taskCancelledWhileCreatingJobIsNotStarted() {
+        LessonGenerationTask task = queue(1L, LessonSourceType.YOUTUBE, null);
+        // Admin cancel đúng lúc đang gọi language-processing
+        when(languageProcessingClient.createAIJob()).thenAnswer(inv -> {
+            service.cancel(1L);
+            return ApiResponse.success(AIJobResponse.builder().id("job-1").build());
+        });
+        when(taskRepository.findByLessonId(1L)).thenReturn(Optional.of(task));
+
+        service.dispatch();
+
+        assertThat(task.getStatus()).isEqualTo(GenerationTaskStatus.CANCELLED);
+        assertThat(task.getAiJobId()).isNull();
+        assertThat(lessons.get(1L).getAiJobId()).isNull();
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    @Test
+    void cancelReportsJobOnlyForRunningTask() {
+        LessonGenerationTask queuedTask = queue(1L, LessonSourceType.YOUTUBE, null);
+        LessonGenerationTask runningTask = queue(2L, LessonSourceType.YOUTUBE, null);
+        runningTask.setStatus(GenerationTaskStatus.RUNNING);
+        runningTask.setAiJobId("job-2");
+        when(taskRepository.findByLessonId(1L)).thenReturn(Optional.of(queuedTask));
+        when(taskRepository.findByLessonId(2L)).thenReturn(Optional.of(runningTask));
+
+        assertThat(service.cancel(1L)).isEmpty();
+        assertThat(service.cancel(2L)).contains("job-2");
+        assertThat(queuedTask.getStatus()).isEqualTo(GenerationTaskStatus.CANCELLED);
+        assertThat(runningTask.getStatus()).isEqualTo(GenerationTaskStatus.CANCELLED);
+        // Đã huỷ rồi thì không còn job nào để báo
+        assertThat(service.cancel(2L)).isEmpty();
+    }
+
+    @Test
+    void staleTasksReleaseTheirLessons() {
+        long now = System.currentTimeMillis();
+        LessonGenerationTask dispatching = queue(1L, LessonSourceType.YOUTUBE, null);
+        dispatching.setStatus(GenerationTaskStatus.DISPATCHING);
+        dispatching.setDispatchedAt(new Timestamp(now - 11 * 60_000));
+        LessonGenerationTask running = queue(2L, LessonSourceType.YOUTUBE, null);
+        running.setStatus(GenerationTaskStatus.RUNNING);
+        running.setDispatchedAt(new Timestamp(now - 181 * 60_000));
+        when(taskRepository.findStale(eq(List.of(GenerationTaskStatus.DISPATCHING)), any()))
+                .thenReturn(List.of(dispatching));
+        when(taskRepository.findStale(eq(List.of(GenerationTaskStatus.RUNNING)), any()))
+                .thenReturn(List.of(running));
+
+        service.dispatch();
+
+        // DISPATCHING kẹt → xếp lại hàng (chờ backoff), lesson vẫn PROCESSING
+        assertThat(dispatching.getStatus()).isEqualTo(GenerationTaskStatus.QUEUED);
+        assertThat(dispatching.getAttempts()).isEqualTo(1);
+        assertThat(dispatching.getDispatchedAt()).isNull();
+        assertThat(lessons.get(1L).getStatus()).isEqualTo(LessonStatus.PROCESSING);
+
+        // RUNNING quá hạn → EXPIRED, lesson ERROR thay vì PROCESSING mãi
+        assertThat(running.getStatus()).isEqualTo(GenerationTaskStatus.EXPIRED);
+        assertThat(running.getFinishedAt()).isNotNull();
+        assertThat(lessons.get(2L).getStatus()).isEqualTo(LessonStatus.ERROR);
+        assertThat(lessons.get(2L).getProcessingStep()).isEqualTo(LessonProcessingStep.FAILED);
+    }
+
+    private LessonGenerationTask queue(Long lessonId, LessonSourceType sourceType, String requestedBy) {
+        Timestamp enqueuedAt = new Timestamp(System.currentTimeMillis() - 60_000 + lessonId);
+        LessonGenerationTask task = LessonGenerationTask.builder()
+                .id(lessonId * 10).lessonId(lessonId).sourceType(sourceType).requestedBy(requestedBy)
+                .priority(1).status(GenerationTaskStatus.QUEUED).attempts(0).isRestart(false)
+                .enqueuedAt(enqueuedAt).nextAttemptAt(enqueuedAt)
+                .build();
+        tasks.put(task.getId(), task);
+        queued.add(task);
+        lessons.put(lessonId, Lesson.builder().id(lessonId).sourceType(sourceType).title("Lesson " + lessonId)
+                .status(LessonStatus.PROCESSING).processingStep(LessonProcessingStep.NONE).build());
+        return task;
+    }
+}
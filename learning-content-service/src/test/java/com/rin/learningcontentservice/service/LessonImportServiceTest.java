@@ -0,0 +1,78 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.dto.request.BulkImportLessonRequest;
+import com.rin.learningcontentservice.dto.response.LessonImportResponse;
+import com.rin.learningcontentservice.dto.response.youtube.YouTubePlaylistItemsResponse;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.model.LessonImportBatch;
+import com.rin.learningcontentservice.model.Topic;
+import com.rin.learningcontentservice.repository.LessonGenerationTaskRepository;
+import com.rin.learningcontentservice.repository.LessonImportBatchRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import com.rin.learningcontentservice.repository.httpclient.YouTubeDataClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonImportServiceTest {
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final LessonImportBatchRepository importBatchRepository = mock(LessonImportBatchRepository.class);
+    private final YouTubeDataClient youTubeDataClient = mock(YouTubeDataClient.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private LessonImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonImportService(topicRepository, mock(LessonRepository.class),
+                mock(LessonGenerationTaskRepository.class), importBatchRepository, youTubeDataClient,
+                mock(KafkaProducer.class), mock(ApplicationEventPublisher.class), mock(TopicLessonCounterService.class),
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "maxUrls", 500);
+        ReflectionTestUtils.setField(service, "releaseIntervalMs", 15000L);
+        ReflectionTestUtils.setField(service, "youTubeApiKey", "key");
+
+        when(topicRepository.findCachedBySlug("travel")).thenReturn(Optional.of(
+                Topic.builder().id(1L).slug("travel").build()));
+        when(importBatchRepository.save(any())).thenAnswer(inv -> {
+            LessonImportBatch batch = inv.getArgument(0);
+            batch.setId(9L);
+            return batch;
+        });
+    }
+
+    @Test
+    void playlistIsExpandedBeforeTransactionStarts() {
+        when(youTubeDataClient.listPlaylistItems(any(), eq("PL1"), anyInt(), isNull(), any()))
+                .thenReturn(new YouTubePlaylistItemsResponse("page-2", List.of(item("aaaaaaaaaaa"))));
+        when(youTubeDataClient.listPlaylistItems(any(), eq("PL1"), anyInt(), eq("page-2"), any()))
+                .thenReturn(new YouTubePlaylistItemsResponse(null, List.of(item("bbbbbbbbbbb"))));
+
+        LessonImportResponse response = service.importLessons(BulkImportLessonRequest.builder()
+                .topicSlug("travel").playlistId("PL1").build());
+
+        assertThat(response.getBatchId()).isEqualTo(9L);
+        assertThat(response.getCreatedCount()).isEqualTo(2);
+        // Cả 2 trang playlist được gọi trước khi mở transaction → không giữ connection lúc chờ HTTP
+        InOrder order = inOrder(youTubeDataClient, transactionManager);
+        order.verify(youTubeDataClient, times(2)).listPlaylistItems(any(), any(), anyInt(), any(), any());
+        order.verify(transactionManager).getTransaction(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    private static YouTubePlaylistItemsResponse.Item item(String videoId) {
+        return new YouTubePlaylistItemsResponse.Item(new YouTubePlaylistItemsResponse.ContentDetails(videoId));
+    }
+}
@@ -0,0 +1,91 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.response.LessonDetailsResponse;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyResponse;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class LessonPackServiceTest {
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LessonService lessonService = mock(LessonService.class);
+    private final LessonVocabularyService lessonVocabularyService = mock(LessonVocabularyService.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MediaService> mediaService = mock(ObjectProvider.class);
+    private LessonPackService service;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonPackService(lessonRepository, lessonService, lessonVocabularyService,
+                new ObjectMapper(), mediaService, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        when(lessonService.getLessonDetails(7L)).thenReturn(LessonDetailsResponse.builder()
+                .id(7L).version(2).sentences(new ArrayList<>()).build());
+        when(lessonVocabularyService.getVocabulary(7L)).thenReturn(LessonVocabularyResponse.builder()
+                .lessonId(7L).words(List.of()).build());
+    }
+
+    @Test
+    void unreachableAudioFailsBeforeResponseIsCommitted() {
+        mockLesson(tempDir.resolve("missing.mp3").toUri().toString());
+
+        // Lỗi phải nổi ra ở preparePack (controller chưa gửi 200 + ETag), không phải giữa lúc stream zip
+        assertThatThrownBy(() -> service.preparePack(7L))
+                .isInstanceOfSatisfying(BaseException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(LearningContentErrorCode.MEDIA_FETCH_FAILED));
+    }
+
+    @Test
+    void packStreamsTheAudioOpenedDuringPrepare() throws Exception {
+        Path audioFile = Files.write(tempDir.resolve("clip.mp3"), new byte[]{1, 2, 3});
+        mockLesson(audioFile.toUri().toString());
+
+        LessonPackService.LessonPack pack = service.preparePack(7L);
+        // Xoá file sau khi prepare: writePack chỉ đọc stream đã mở sẵn
+        Files.delete(audioFile);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writePack(pack, out);
+
+        List<String> entries = new ArrayList<>();
+        byte[] audio = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                entries.add(entry.getName());
+                if (entry.getName().equals("audio.mp3")) audio = zip.readAllBytes();
+            }
+        }
+        assertThat(entries).containsExactly("manifest.json", "lesson.json", "vocabulary.json", "audio.mp3");
+        assertThat(audio).containsExactly(1, 2, 3);
+    }
+
+    private void mockLesson(String audioUrl) {
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(Lesson.builder()
+                .id(7L).slug("clip").status(LessonStatus.READY).version(2).audioUrl(audioUrl).build()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonSourceType;
+import com.rin.learningcontentservice.dto.response.LessonPipelineTimelineResponse;
+import com.rin.learningcontentservice.event.LessonStepRecordedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonProcessingTimeline;
+import com.rin.learningcontentservice.repository.LessonProcessingTimelineRepository;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LessonPipelineTimelineServiceTest {
+    @Mock private LessonProcessingTimelineRepository timelineRepository;
+    @Mock private LessonRepository lessonRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LessonPipelineTimelineService service;
+    private Lesson lesson;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LessonPipelineTimelineService(timelineRepository, lessonRepository, eventPublisher, meterRegistry);
+        lesson = Lesson.builder().id(1L).aiJobId("job-1").title("Lesson").sourceType(LessonSourceType.YOUTUBE).build();
+    }
+
+    @Test
+    void completedRunRecordsStepOffsetsAndPerAudioMinuteMetrics() {
+        // Job bắt đầu 120s trước, SOURCE_FETCHED ở giây thứ 30, audio dài 2 phút
+        long startedAt = System.currentTimeMillis() - 120_000;
+        LessonProcessingTimeline timeline = LessonProcessingTimeline.builder()
+                .lessonId(1L).aiJobId("job-1").sourceType(LessonSourceType.YOUTUBE)
+                .startedAt(new Timestamp(startedAt))
+                .stepOffsetsMs(new long[]{0, 30_000, -1, -1, -1})
+                .lastStep(LessonProcessingStep.SOURCE_FETCHED)
+                .audioSeconds(120)
+                .build();
+        when(timelineRepository.findById(1L)).thenReturn(Optional.of(timeline));
+
+        service.recordStep(lesson, LessonProcessingStep.COMPLETED, null);
+
+        assertThat(timeline.getLastStep()).isEqualTo(LessonProcessingStep.COMPLETED);
+        assertThat(timeline.getStepOffsetsMs()[4]).isBetween(120_000L, 125_000L);
+        assertThat(timeline.getTotalMs()).isEqualTo(timeline.getStepOffsetsMs()[4]);
+        assertThat(timeline.getFinishedAt()).isNotNull();
+
+        ArgumentCaptor<LessonStepRecordedEvent> captor = ArgumentCaptor.forClass(LessonStepRecordedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        LessonStepRecordedEvent event = captor.getValue();
+        assertThat(event.getStepMillis()).isEqualTo(timeline.getTotalMs() - 30_000);
+        assertThat(event.getTotalMillis()).isEqualTo(timeline.getTotalMs());
+
+        service.onStepRecorded(event);
+        assertThat(meterRegistry.get("lesson.pipeline.step.duration")
+                .tags("step", "COMPLETED", "source_type", "YOUTUBE").timer().totalTime(TimeUnit.SECONDS))
+                .isBetween(90.0, 95.0);
+        // 120s xử lý cho 2 phút audio → ~60s / phút
+        assertThat(meterRegistry.get("lesson.pipeline.total.seconds.per.audio.minute")
+                .tags("outcome", "completed", "source_type", "YOUTUBE").summary().mean())
+                .isBetween(60.0, 62.5);
+
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
+        LessonPipelineTimelineResponse response = service.getTimeline(1L);
+        assertThat(response.getSteps()).extracting("step").containsExactly(
+                LessonProcessingStep.PROCESSING_STARTED, LessonProcessingStep.SOURCE_FETCHED, LessonProcessingStep.COMPLETED);
+        assertThat(response.getSteps().get(1).getDurationSeconds()).isEqualTo(30.0);
+    }
+
+    @Test
+    void stepForUnknownRunStartsNewTimelineWithoutDuration() {
+        // Timeline cũ thuộc AI job trước → bỏ, đo lại từ step này
+        LessonProcessingTimeline stale = LessonProcessingTimeline.builder()
+                .lessonId(1L).aiJobId("job-0").startedAt(new Timestamp(0))
+                .stepOffsetsMs(new long[]{0, 1, 2, 3, -1}).build();
+        when(timelineRepository.findById(1L)).thenReturn(Optional.of(stale));
+
+        service.recordStep(lesson, LessonProcessingStep.TRANSCRIBED, 90);
+
+        ArgumentCaptor<LessonProcessingTimeline> saved = ArgumentCaptor.forClass(LessonProcessingTimeline.class);
+        verify(timelineRepository).save(saved.capture());
+        assertThat(saved.getValue().getAiJobId()).isEqualTo("job-1");
+        assertThat(saved.getValue().getStepOffsetsMs()).containsExactly(-1, -1, 0, -1, -1);
+        assertThat(saved.getValue().getAudioSeconds()).isEqualTo(90);
+
+        ArgumentCaptor<LessonStepRecordedEvent> captor = ArgumentCaptor.forClass(LessonStepRecordedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getStepMillis()).isNull();
+        service.onStepRecorded(captor.getValue());
+        assertThat(meterRegistry.find("lesson.pipeline.step.duration").timer()).isNull();
+    }
+}
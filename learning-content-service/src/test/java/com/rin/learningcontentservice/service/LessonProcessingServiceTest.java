@@ -1,11 +1,17 @@
 package com.rin.learningcontentservice.service;
 
+import com.rin.englishlearning.common.exception.BaseException;
+import com.rin.learningcontentservice.dto.request.DictationGradeRequest;
 import com.rin.learningcontentservice.dto.request.ProgressUpdateRequest;
 import com.rin.learningcontentservice.dto.response.ProgressUpdateResponse;
+import com.rin.learningcontentservice.dto.response.UserLessonProgressDto;
+import com.rin.learningcontentservice.event.LessonCompletedByUserEvent;
+import com.rin.learningcontentservice.exception.LearningContentErrorCode;
 import com.rin.learningcontentservice.kafka.KafkaProducer;
 import com.rin.learningcontentservice.model.*;
 import com.rin.learningcontentservice.repository.LessonRepository;
 import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import com.rin.learningcontentservice.service.support.SentenceStatsDelta;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,16 +19,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,13 +40,17 @@ class LessonProcessingServiceTest {
     @Mock private LessonRepository lessonRepository;
     @Mock private UserLessonProgressRepository progressRepository;
     @Mock private KafkaProducer kafkaProducer;
+    @Mock private SentenceDifficultyService sentenceDifficultyService;
+    @Mock private ReadYourWritesTracker readYourWritesTracker;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     private LessonProcessingService service;
     private UserLessonProgress progress;
 
     @BeforeEach
     void setUp() {
-        service = new LessonProcessingService(lessonRepository, progressRepository, kafkaProducer);
+        service = new LessonProcessingService(lessonRepository, progressRepository, kafkaProducer, sentenceDifficultyService,
+                readYourWritesTracker, eventPublisher);
         Jwt jwt = Jwt.withTokenValue("token").header("alg", "none")
                 .subject("user-1").issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build();
         SecurityContextHolder.getContext().setAuthentication(
@@ -47,9 +61,9 @@ class LessonProcessingServiceTest {
         progress = UserLessonProgress.builder().userId("user-1").lessonId(1L)
                 .mode(LearningMode.SHADOWING).lessonVersion(1).build();
         when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
-        when(progressRepository.findByUserIdAndLessonIdAndMode("user-1", 1L, LearningMode.SHADOWING))
+        lenient().when(progressRepository.findByUserIdAndLessonIdAndMode("user-1", 1L, LearningMode.SHADOWING))
                 .thenReturn(Optional.of(progress));
-        when(progressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(progressRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     @AfterEach
@@ -63,13 +77,15 @@ class LessonProcessingServiceTest {
         assertThat(first.isJustCompletedLesson()).isTrue();
         assertThat(progress.getProgressItems().get(10L).getBestScore()).isEqualTo(40);
         assertThat(progress.getLessonScore()).isEqualTo(40);
+        verify(eventPublisher).publishEvent(new LessonCompletedByUserEvent("user-1", 1L));
 
-        clearInvocations(kafkaProducer);
+        clearInvocations(kafkaProducer, eventPublisher);
         ProgressUpdateResponse lower = update(30);
         assertThat(lower.isJustCompletedLesson()).isFalse();
         assertThat(progress.getProgressItems().get(10L).getBestScore()).isEqualTo(40);
         assertThat(progress.getProgressItems().get(10L).getLatestScore()).isEqualTo(30);
         verifyNoInteractions(kafkaProducer);
+        verifyNoInteractions(eventPublisher);
 
         update(70);
         assertThat(progress.getProgressItems().get(10L).getBestScore()).isEqualTo(70);
@@ -81,8 +97,130 @@ class LessonProcessingServiceTest {
         assertThat(event.getValue().getDeltaScore()).isEqualTo(30);
     }
 
+    @Test
+    void responsesOnlyCarryItemsChangedSinceClientRevision() {
+        ProgressUpdateResponse first = update(40, null);
+        long firstRevision = first.getProgress().getRevision();
+        assertThat(first.getProgress().getFullSync()).isTrue();
+        progress.getProgressItems().put(11L, ProgressItem.builder().bestScore(50.0).revision(firstRevision).build());
+
+        ProgressUpdateResponse second = update(60, firstRevision);
+        assertThat(second.getProgress().getFullSync()).isFalse();
+        assertThat(second.getProgress().getRevision()).isGreaterThan(firstRevision);
+        assertThat(second.getProgress().getProgressItems()).containsOnlyKeys(10L);
+
+        UserLessonProgressDto upToDate = service.syncProgress(1L, LearningMode.SHADOWING, second.getProgress().getRevision());
+        assertThat(upToDate.getFullSync()).isFalse();
+        assertThat(upToDate.getProgressItems()).isEmpty();
+
+        progress.setResetRevision(second.getProgress().getRevision());
+        UserLessonProgressDto stale = service.syncProgress(1L, LearningMode.SHADOWING, firstRevision);
+        assertThat(stale.getFullSync()).isTrue();
+        assertThat(stale.getProgressItems()).containsOnlyKeys(10L, 11L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void difficultyRollupCountsLearnerOnceAndMovesBestScoreBucket() {
+        ArgumentCaptor<Map<Long, SentenceStatsDelta>> deltas = ArgumentCaptor.forClass(Map.class);
+
+        update(40);
+        update(30);
+        update(70);
+        verify(sentenceDifficultyService, times(3))
+                .applyDeltas(eq(1L), eq(LearningMode.SHADOWING), deltas.capture());
+
+        SentenceStatsDelta first = deltas.getAllValues().get(0).get(10L);
+        assertThat(first.getLearners()).isEqualTo(1);
+        assertThat(first.getHistogram()[4]).isEqualTo(1);
+
+        SentenceStatsDelta lower = deltas.getAllValues().get(1).get(10L);
+        assertThat(lower.getLearners()).isZero();
+        assertThat(lower.getScoreSqSum()).isEqualTo(900);
+        assertThat(lower.getHistogram()).containsOnly(0);
+
+        SentenceStatsDelta improved = deltas.getAllValues().get(2).get(10L);
+        assertThat(improved.getHistogram()[4]).isEqualTo(-1);
+        assertThat(improved.getHistogram()[7]).isEqualTo(1);
+    }
+
+    @Test
+    void oversizedDictationIsRejectedBeforeAlignment() {
+        LessonSentence sentence = LessonSentence.builder().id(10L).isActive(true).lessonWords(List.of(
+                LessonWord.builder().id(1L).wordNormalized("hello").orderIndex(0).build(),
+                LessonWord.builder().id(2L).wordNormalized("world").orderIndex(1).build())).build();
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(
+                Lesson.builder().id(1L).version(1).sentences(List.of(sentence)).build()));
+
+        // ~10k từ thừa: align sẽ cấp phát hàng trăm MB nếu không bị chặn
+        String typed = "spam ".repeat(10_000);
+        assertThatThrownBy(() -> service.gradeDictation(DictationGradeRequest.builder()
+                .lessonId(1L).sentenceId(10L).typedText(typed).build()))
+                .isInstanceOfSatisfying(BaseException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(LearningContentErrorCode.DICTATION_INPUT_TOO_LONG));
+        verifyNoInteractions(progressRepository, sentenceDifficultyService);
+    }
+
+    @Test
+    void syncAfterLessonVersionChangeDropsItemsOfRemovedSentences() {
+        ProgressUpdateResponse first = update(40);
+        long revision = first.getProgress().getRevision();
+
+        // Lesson v2 tắt câu 10, client chưa ghi progress nào sau đó
+        stubLesson(2, false);
+        UserLessonProgressDto synced = service.syncProgress(1L, LearningMode.SHADOWING, revision);
+
+        assertThat(synced.getFullSync()).isTrue();
+        assertThat(synced.getProgressItems()).isEmpty();
+        assertThat(synced.getTotalSentenceCount()).isEqualTo(1);
+        assertThat(synced.getStatus()).isEqualTo(ProgressStatus.IN_PROGRESS);
+        assertThat(progress.getLessonVersion()).isEqualTo(2);
+        verify(progressRepository, times(2)).save(progress);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void learnerOfReactivatedSentenceIsNotCountedAgain() {
+        ArgumentCaptor<Map<Long, SentenceStatsDelta>> deltas = ArgumentCaptor.forClass(Map.class);
+        update(40);
+
+        // Lesson v2 tắt câu 10 → item bị cắt khỏi progress
+        stubLesson(2, false);
+        update(11L, 50, null);
+        assertThat(progress.getProgressItems()).containsOnlyKeys(11L);
+        assertThat(progress.getRetiredItems()).containsOnlyKeys(10L);
+
+        // Lesson v3 bật lại câu 10: learner cũ, chỉ dời bucket best score
+        stubLesson(3, true);
+        update(70);
+        verify(sentenceDifficultyService, times(3))
+                .applyDeltas(eq(1L), eq(LearningMode.SHADOWING), deltas.capture());
+        SentenceStatsDelta reactivated = deltas.getAllValues().get(2).get(10L);
+        assertThat(reactivated.getLearners()).isZero();
+        assertThat(reactivated.getHistogram()[4]).isEqualTo(-1);
+        assertThat(reactivated.getHistogram()[7]).isEqualTo(1);
+        assertThat(progress.getProgressItems().get(10L).getAttemptCount()).isEqualTo(2);
+        assertThat(progress.getRetiredItems()).isEmpty();
+    }
+
+    private void stubLesson(int version, boolean sentence10Active) {
+        Lesson lesson = Lesson.builder().id(1L).version(version).sentences(List.of(
+                LessonSentence.builder().id(10L).isActive(sentence10Active).build(),
+                LessonSentence.builder().id(11L).isActive(true).build())).build();
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
+    }
+
     private ProgressUpdateResponse update(double score) {
+        return update(score, null);
+    }
+
+    private ProgressUpdateResponse update(double score, Long sinceRevision) {
+        return update(10L, score, sinceRevision);
+    }
+
+    private ProgressUpdateResponse update(Long sentenceId, double score, Long sinceRevision) {
         return service.updateProgress(ProgressUpdateRequest.builder()
-                .lessonId(1L).sentenceId(10L).mode(LearningMode.SHADOWING).score(score).build());
+                .lessonId(1L).sentenceId(sentenceId).mode(LearningMode.SHADOWING).score(score)
+                .sinceRevision(sinceRevision).build());
     }
 }
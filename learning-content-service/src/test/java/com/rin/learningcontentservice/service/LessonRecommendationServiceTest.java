@@ -0,0 +1,77 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+import com.rin.learningcontentservice.event.LessonCompletedByUserEvent;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.UserLessonProgressRepository;
+import com.rin.learningcontentservice.repository.UserLessonRecommendationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonRecommendationServiceTest {
+
+    private final UserLessonRecommendationRepository recommendationRepository = mock(UserLessonRecommendationRepository.class);
+    private final UserLessonProgressRepository progressRepository = mock(UserLessonProgressRepository.class);
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final BackgroundTaskService backgroundTasks = mock(BackgroundTaskService.class);
+    private LessonRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonRecommendationService(recommendationRepository, progressRepository, lessonRepository,
+                mock(LessonService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                backgroundTasks);
+        ReflectionTestUtils.setField(service, "size", 20);
+        ReflectionTestUtils.setField(service, "maxPerTopic", 4);
+        ReflectionTestUtils.setField(service, "activeDays", 30);
+        ReflectionTestUtils.setField(service, "catalogTtlSeconds", 600L);
+
+        List<Object[]> candidates = new ArrayList<>();
+        candidates.add(new Object[]{1L, 5L, CefrLevel.A1, new Timestamp(System.currentTimeMillis())});
+        when(lessonRepository.findRecommendationCandidates()).thenReturn(candidates);
+        when(lessonRepository.findAllWithTopicByIdIn(any())).thenReturn(List.of());
+        when(recommendationRepository.findById(any())).thenReturn(Optional.empty());
+        when(progressRepository.findHistoryByUserId(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void firstRequestOfNewUserWritesThroughUpsert() {
+        service.getRecommended("user-1", 10);
+
+        verify(recommendationRepository).upsert(eq("user-1"), eq("{1}"), isNull(), any(Timestamp.class));
+        verify(recommendationRepository, never()).save(any());
+    }
+
+    @Test
+    void completionRecomputesInBackground() {
+        service.onLessonCompleted(new LessonCompletedByUserEvent("user-1", 1L));
+
+        verify(backgroundTasks).runLatest(eq("recommendations:user-1"), any());
+        verifyNoInteractions(progressRepository, recommendationRepository);
+    }
+
+    @Test
+    void changedCatalogIsRebuiltInBackgroundWhileOldOneKeepsServing() {
+        service.getRecommended("user-1", 10);
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+        verify(backgroundTasks).runLatest(eq("recommendations:catalog"), any());
+
+        service.getRecommended("user-2", 10);
+
+        // Chỉ lần đầu build trên thread của request
+        verify(lessonRepository, times(1)).findRecommendationCandidates();
+        verify(recommendationRepository).upsert(eq("user-2"), eq("{1}"), isNull(), any(Timestamp.class));
+    }
+}
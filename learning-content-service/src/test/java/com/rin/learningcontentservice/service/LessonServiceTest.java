@@ -0,0 +1,190 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.learningcontentservice.dto.response.LessonDetailsResponse;
+import com.rin.learningcontentservice.dto.response.LessonDiffResponse;
+import com.rin.learningcontentservice.dto.response.LessonSentenceChangeResponse;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.kafka.KafkaProducer;
+import com.rin.learningcontentservice.mapper.LessonMapper;
+import com.rin.learningcontentservice.mapper.SentenceMapper;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonChangeRecord;
+import com.rin.learningcontentservice.model.LessonChangeType;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final UserLessonProgressRepository progressRepository = mock(UserLessonProgressRepository.class);
+    private final LessonChangeRecordRepository changeRecordRepository = mock(LessonChangeRecordRepository.class);
+    private final LessonSentenceRepository sentenceRepository = mock(LessonSentenceRepository.class);
+    private final LessonChangeTracker changeTracker = mock(LessonChangeTracker.class);
+    private final LessonWordStorageService wordStorage = mock(LessonWordStorageService.class);
+    private final LessonGenerationQueueService generationQueue = mock(LessonGenerationQueueService.class);
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private LessonService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = spy(new LessonService(lessonRepository, mock(TopicRepository.class), mock(LessonMapper.class),
+                mock(KafkaProducer.class), generationQueue,
+                mock(TopicLessonCounterService.class), mock(LessonPipelineTimelineService.class),
+                redisTemplate, progressRepository, changeRecordRepository, sentenceRepository,
+                mock(SentenceMapper.class), changeTracker, mock(SentenceDifficultyStatsRepository.class), wordStorage,
+                eventPublisher));
+        doReturn(new LessonDetailsResponse()).when(service).getLessonDetailsWithoutInActivateSentences(anyLong());
+    }
+
+    @Test
+    void diffCollapsesRecordsToOneChangePerSentenceWithFinalState() {
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(
+                Lesson.builder().id(7L).version(5).diffBaseVersion(1).totalSentences(4).build()));
+        when(changeRecordRepository.findByLessonIdAndLessonVersionGreaterThanOrderByIdAsc(7L, 2)).thenReturn(List.of(
+                record(3, 10L, LessonChangeType.ADDED),
+                record(4, 11L, LessonChangeType.REORDERED),
+                record(4, 10L, LessonChangeType.UPDATED),
+                record(5, 12L, LessonChangeType.UPDATED),
+                record(5, 13L, LessonChangeType.UPDATED)));
+        when(sentenceRepository.findAllById(any())).thenReturn(List.of(
+                sentence(10L, 2, true), sentence(11L, 0, true), sentence(12L, 1, false)));
+
+        LessonDiffResponse diff = service.getLessonDiff(7L, 2);
+
+        assertThat(diff.isFullPayload()).isFalse();
+        assertThat(diff.getToVersion()).isEqualTo(5);
+        // Câu không còn / đã tắt → REMOVED (không có orderIndex, xếp đầu), còn lại theo orderIndex
+        assertThat(diff.getChanges()).extracting(LessonSentenceChangeResponse::getSentenceId,
+                        LessonSentenceChangeResponse::getChangeType)
+                .containsExactlyInAnyOrder(
+                        tuple(12L, LessonChangeType.REMOVED),
+                        tuple(13L, LessonChangeType.REMOVED),
+                        tuple(11L, LessonChangeType.REORDERED),
+                        tuple(10L, LessonChangeType.ADDED));
+        assertThat(diff.getChanges().subList(2, 4)).extracting(LessonSentenceChangeResponse::getSentenceId)
+                .containsExactly(11L, 10L);
+    }
+
+    @Test
+    void diffFallsBackToFullPayloadWhenHistoryCannotAnswer() {
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(
+                Lesson.builder().id(7L).version(60).diffBaseVersion(10).totalSentences(1).build()));
+
+        // Trước base (lịch sử đã bị cắt), client chưa có version, hoặc version lạ
+        assertThat(service.getLessonDiff(7L, 9).isFullPayload()).isTrue();
+        assertThat(service.getLessonDiff(7L, null).isFullPayload()).isTrue();
+        assertThat(service.getLessonDiff(7L, 61).isFullPayload()).isTrue();
+        verifyNoInteractions(changeRecordRepository);
+
+        // Số câu đổi vượt số câu của lesson → tải full rẻ hơn
+        when(changeRecordRepository.findByLessonIdAndLessonVersionGreaterThanOrderByIdAsc(7L, 50)).thenReturn(List.of(
+                record(51, 1L, LessonChangeType.ADDED), record(52, 2L, LessonChangeType.ADDED)));
+        LessonDiffResponse diff = service.getLessonDiff(7L, 50);
+        assertThat(diff.isFullPayload()).isTrue();
+        assertThat(diff.getLesson()).isNotNull();
+
+        assertThat(service.getLessonDiff(7L, 60).getChanges()).isEmpty();
+    }
+
+    @Test
+    void completionWithUnchangedContentKeepsVersionAndProgress() throws Exception {
+        Lesson lesson = Lesson.builder().id(7L).version(3).status(LessonStatus.PROCESSING)
+                .processingStep(LessonProcessingStep.NLP_ANALYZED).sentences(new ArrayList<>()).build();
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(lesson));
+        String metadataUrl = metadata("""
+                {"transcribed": {"segments": [
+                  {"start": 0.0, "end": 1.2, "text": " Hello world. ",
+                   "words": [{"word": "Hello", "start": 0.0, "end": 0.5, "lemma": "hello"},
+                             {"word": "world.", "start": 0.6, "end": 1.2, "lemma": "world"}]}
+                ]}}
+                """);
+
+        service.completeLessonWithMetadata(7L, metadataUrl);
+        assertThat(lesson.getSentences()).hasSize(1);
+        verify(changeTracker, times(1)).reset(lesson);
+        verify(progressRepository, times(1)).deleteByLessonId(7L);
+
+        // Admin retry, pipeline ra đúng nội dung cũ
+        lesson.setStatus(LessonStatus.PROCESSING);
+        LessonSentence kept = lesson.getSentences().get(0);
+        service.completeLessonWithMetadata(7L, metadataUrl);
+
+        assertThat(lesson.getStatus()).isEqualTo(LessonStatus.READY);
+        assertThat(lesson.getSentences()).containsExactly(kept);
+        verify(changeTracker, times(1)).reset(lesson);
+        verify(progressRepository, times(1)).deleteByLessonId(7L);
+
+        // Nội dung khác → thay sentence, reset version
+        service.completeLessonWithMetadata(7L, metadata("""
+                {"transcribed": {"segments": [{"start": 0.0, "end": 1.2, "text": "Hello there."}]}}
+                """));
+        assertThat(lesson.getSentences()).singleElement().isNotSameAs(kept);
+        verify(changeTracker, times(2)).reset(lesson);
+        verify(progressRepository, times(2)).deleteByLessonId(7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cancelOnlyFlagsTheJobThatIsActuallyRunning() {
+        ValueOperations<String, Object> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        // aiJobId của lesson là job lần generate trước, task mới còn trong hàng
+        Lesson queued = Lesson.builder().id(7L).status(LessonStatus.PROCESSING).aiJobId("job-old").build();
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(queued));
+        when(generationQueue.cancel(7L)).thenReturn(Optional.empty());
+
+        service.cancelLessonGeneration(7L);
+        assertThat(queued.getStatus()).isEqualTo(LessonStatus.DRAFT);
+        verifyNoInteractions(values);
+        // Home feed / transcript index bỏ lesson vừa về DRAFT
+        verify(eventPublisher).publishEvent(new LessonContentChangedEvent(7L, false));
+
+        Lesson running = Lesson.builder().id(8L).status(LessonStatus.PROCESSING).aiJobId("job-8").build();
+        when(lessonRepository.findById(8L)).thenReturn(Optional.of(running));
+        when(generationQueue.cancel(8L)).thenReturn(Optional.of("job-8"));
+
+        service.cancelLessonGeneration(8L);
+        verify(values).set("aiJobStatus:job-8", "CANCELLED", 12, TimeUnit.HOURS);
+    }
+
+    private String metadata(String json) throws Exception {
+        Path file = Files.createTempFile(tempDir, "metadata", ".json");
+        Files.writeString(file, json);
+        return file.toUri().toString();
+    }
+
+    private static LessonChangeRecord record(int version, Long sentenceId, LessonChangeType type) {
+        return LessonChangeRecord.builder().lessonId(7L).lessonVersion(version).sentenceId(sentenceId).changeType(type)
+                .build();
+    }
+
+    private static LessonSentence sentence(Long id, int orderIndex, boolean active) {
+        return LessonSentence.builder().id(id).orderIndex(orderIndex).textDisplay("s" + id).isActive(active).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.learningcontentservice.dto.response.LessonTransferImportResponse;
+import com.rin.learningcontentservice.mapper.LessonTransferMapperImpl;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.model.Topic;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.LessonWordRepository;
+import com.rin.learningcontentservice.repository.TopicRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LessonTransferServiceTest {
+    @Mock private LessonRepository lessonRepository;
+    @Mock private LessonSentenceRepository lessonSentenceRepository;
+    @Mock private LessonWordRepository lessonWordRepository;
+    @Mock private TopicRepository topicRepository;
+    @Mock private LessonWordStorageService lessonWordStorage;
+    @Mock private TopicLessonCounterService topicLessonCounters;
+    @Mock private LessonChangeTracker lessonChangeTracker;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private EntityManager entityManager;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private LessonTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonTransferService(lessonRepository, lessonSentenceRepository, lessonWordRepository,
+                topicRepository, new LessonTransferMapperImpl(), lessonWordStorage, topicLessonCounters,
+                lessonChangeTracker, eventPublisher, new TransactionTemplate(transactionManager), entityManager,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void importSkipsExistingSourcesAndInsertsSentencesWithAllocatedWordIds() throws Exception {
+        String file = String.join("\n",
+                "{\"type\":\"header\",\"version\":1}",
+                "{\"type\":\"topic\",\"slug\":\"daily-life\",\"name\":\"Daily life\"}",
+                "{\"type\":\"lesson\",\"topicSlug\":\"daily-life\",\"title\":\"Old\",\"sourceType\":\"YOUTUBE\","
+                        + "\"sourceReferenceId\":\"abc\",\"sentences\":[]}",
+                "{\"type\":\"lesson\",\"topicSlug\":\"daily-life\",\"title\":\"New\",\"sourceType\":\"YOUTUBE\","
+                        + "\"sourceReferenceId\":\"xyz\",\"published\":true,\"sentences\":[{\"orderIndex\":0,"
+                        + "\"textRaw\":\"Hi there\",\"words\":[{\"t\":\"Hi\",\"n\":\"hi\"},{\"t\":\"there\",\"n\":\"there\"}]}]}",
+                "");
+        when(topicRepository.findBySlug("daily-life")).thenReturn(Optional.of(Topic.builder().id(5L).slug("daily-life").build()));
+        when(lessonRepository.findExistingSources(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"abc", null}));
+        when(lessonRepository.save(any(Lesson.class))).thenAnswer(inv -> {
+            Lesson lesson = inv.getArgument(0);
+            lesson.setId(42L);
+            return lesson;
+        });
+        when(lessonWordRepository.allocateIds(2)).thenReturn(List.of(100L, 101L));
+        when(lessonWordStorage.getMode()).thenReturn(LessonWordStorageMode.ROWS);
+
+        LessonTransferImportResponse response = service.importLessons(
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThat(response.getImportedLessons()).isEqualTo(1);
+        assertThat(response.getSkippedLessons()).isEqualTo(1);
+        assertThat(response.getFailedLessons()).isEmpty();
+        assertThat(response.getTopicsCreated()).isZero();
+
+        ArgumentCaptor<Lesson> saved = ArgumentCaptor.forClass(Lesson.class);
+        verify(lessonRepository).save(saved.capture());
+        assertThat(saved.getValue().getTitle()).isEqualTo("New");
+        // publish = false → lesson publish ở nguồn vẫn vào dạng chưa publish
+        assertThat(saved.getValue().getPublishedAt()).isNull();
+        verify(topicLessonCounters).adjust(5L, 1, 0);
+
+        ArgumentCaptor<String[]> words = ArgumentCaptor.forClass(String[].class);
+        verify(lessonSentenceRepository).insertImportedSentences(eq(42L), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), words.capture());
+        assertThat(words.getValue()[0]).contains("\"id\":100").contains("\"id\":101");
+        verify(lessonWordRepository).insertFromEmbeddedWords(42L);
+        verify(lessonSentenceRepository).clearEmbeddedWords(42L);
+        verify(lessonChangeTracker).reset(saved.getValue());
+    }
+}
@@ -0,0 +1,106 @@
+package com.rin.learningcontentservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.constants.LessonStatus;
+import com.rin.learningcontentservice.dto.response.LessonVocabularyResponse;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonVocabularyProfile;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.VocabularyEntry;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import com.rin.learningcontentservice.repository.LessonVocabularyProfileRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LessonVocabularyServiceTest {
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LessonSentenceRepository sentenceRepository = mock(LessonSentenceRepository.class);
+    private final LessonVocabularyProfileRepository profileRepository = mock(LessonVocabularyProfileRepository.class);
+    private final LessonVocabularyService service = new LessonVocabularyService(lessonRepository, sentenceRepository,
+            profileRepository, new ObjectMapper());
+
+    @Test
+    void buildProfileCountsClickableWordsOfActiveSentencesByLemma() {
+        LessonSentence first = sentence(1L, true,
+                word("Running", "run", "VERB", true, 100),
+                word("dogs", "dog", "NOUN", true, 200),
+                word(",", null, null, false, null));
+        LessonSentence inactive = sentence(2L, false, word("cat", "cat", "NOUN", true, 300));
+        LessonSentence third = sentence(3L, true,
+                word("ran", "Run", "VERB", true, null),
+                word("home", null, "NOUN", true, null));
+
+        LessonVocabularyProfile profile = LessonVocabularyService.buildProfile(7L, 3, List.of(first, inactive, third));
+
+        assertThat(profile.getLessonId()).isEqualTo(7L);
+        assertThat(profile.getLessonVersion()).isEqualTo(3);
+        assertThat(profile.getTotalWordCount()).isEqualTo(4);
+        assertThat(profile.getUniqueLemmaCount()).isEqualTo(3);
+        assertThat(profile.getPosDistribution()).containsEntry("VERB", 2).containsEntry("NOUN", 2).hasSize(2);
+
+        // Cùng frequency giữ thứ tự xuất hiện; word không có lemma dùng wordNormalized
+        assertThat(profile.getEntries()).extracting(VocabularyEntry::getLemma).containsExactly("run", "dog", "home");
+        VocabularyEntry run = profile.getEntries().get(0);
+        assertThat(run.getFrequency()).isEqualTo(2);
+        assertThat(run.getText()).isEqualTo("running");
+        assertThat(run.getFirstSentenceId()).isEqualTo(1L);
+        assertThat(run.getFirstAudioStartMs()).isEqualTo(100);
+        // Word thiếu timestamp lấy mốc của sentence
+        assertThat(profile.getEntries().get(2).getFirstAudioStartMs()).isEqualTo(500);
+    }
+
+    @Test
+    void staleProfileIsRecomputedThroughUpsertInsteadOfInsert() {
+        Lesson lesson = Lesson.builder().id(7L).version(2).status(LessonStatus.READY).build();
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(lesson));
+        when(profileRepository.findById(7L)).thenReturn(Optional.empty());
+        when(sentenceRepository.findWithWordsByLessonId(7L)).thenReturn(List.of(
+                sentence(1L, true, word("hello", null, "INTJ", true, 0))));
+
+        LessonVocabularyResponse response = service.getVocabulary(7L);
+
+        assertThat(response.getLessonVersion()).isEqualTo(2);
+        assertThat(response.getWords()).hasSize(1);
+        verify(profileRepository).upsertIfNewer(eq(7L), eq(2), eq(1), eq(1), eq("{\"INTJ\":1}"),
+                contains("\"l\":\"hello\""));
+        verify(profileRepository, never()).save(any());
+    }
+
+    @Test
+    void freshProfileIsServedWithoutRecompute() {
+        Lesson lesson = Lesson.builder().id(7L).version(2).status(LessonStatus.READY).build();
+        when(lessonRepository.findById(7L)).thenReturn(Optional.of(lesson));
+        when(profileRepository.findById(7L)).thenReturn(Optional.of(LessonVocabularyProfile.builder()
+                .lessonId(7L).lessonVersion(2).totalWordCount(0).uniqueLemmaCount(0).build()));
+
+        service.getVocabulary(7L);
+
+        verifyNoInteractions(sentenceRepository);
+        verify(profileRepository, never()).upsertIfNewer(anyLong(), anyInt(), anyInt(), anyInt(), any(), any());
+    }
+
+    private static LessonSentence sentence(Long id, boolean active, LessonWord... words) {
+        List<LessonWord> ordered = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            words[i].setOrderIndex(i);
+            ordered.add(words[i]);
+        }
+        return LessonSentence.builder().id(id).isActive(active).audioStartMs(id.intValue() == 3 ? 500 : 0)
+                .lessonWords(ordered).build();
+    }
+
+    private static LessonWord word(String text, String lemma, String pos, boolean clickable, Integer startMs) {
+        return LessonWord.builder().wordText(text).wordNormalized(text.toLowerCase()).lemma(lemma).posTag(pos)
+                .isClickable(clickable).audioStartMs(startMs).build();
+    }
+}
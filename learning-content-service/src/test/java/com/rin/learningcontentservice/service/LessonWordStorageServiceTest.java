@@ -0,0 +1,77 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.LessonWordStorageMode;
+import com.rin.learningcontentservice.repository.LessonWordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LessonWordStorageServiceTest {
+    @Mock private LessonWordRepository lessonWordRepository;
+
+    private LessonWordStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LessonWordStorageService(lessonWordRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void embeddedModeAllocatesIdsOnceAndKeepsWordOrder() {
+        ReflectionTestUtils.setField(service, "mode", LessonWordStorageMode.EMBEDDED);
+        // Word build theo thứ tự bất kỳ, orderIndex quyết định vị trí trong mảng
+        LessonSentence first = sentence(word(1, "world"), word(0, "hello"));
+        LessonSentence second = sentence(word(0, "bye"));
+        when(lessonWordRepository.allocateIds(3)).thenReturn(List.of(100L, 101L, 102L));
+
+        service.store(List.of(first, second));
+
+        verify(lessonWordRepository, times(1)).allocateIds(anyInt());
+        assertThat(first.getLessonWords()).isEmpty();
+        assertThat(first.getOrderedWords()).extracting(LessonWord::getId, LessonWord::getWordText, LessonWord::getOrderIndex)
+                .containsExactly(tuple(100L, "hello", 0), tuple(101L, "world", 1));
+        assertThat(second.getOrderedWords()).extracting(LessonWord::getId).containsExactly(102L);
+    }
+
+    @Test
+    void embedKeepsRowIdsAndRowsModeLeavesSentencesUntouched() {
+        LessonSentence sentence = sentence(word(1, "b"), word(0, "a"));
+        sentence.getLessonWords().get(0).setId(8L);
+        sentence.getLessonWords().get(1).setId(7L);
+
+        service.store(List.of(sentence));
+        assertThat(sentence.isWordsEmbedded()).isFalse();
+        verifyNoInteractions(lessonWordRepository);
+
+        service.embed(sentence);
+        assertThat(sentence.getLessonWords()).isEmpty();
+        assertThat(sentence.getWords()).extracting("id").containsExactly(7L, 8L);
+    }
+
+    private static LessonSentence sentence(LessonWord... words) {
+        LessonSentence sentence = LessonSentence.builder().orderIndex(0).textRaw("").lessonWords(new ArrayList<>()).build();
+        for (LessonWord word : words) {
+            word.setSentence(sentence);
+            sentence.getLessonWords().add(word);
+        }
+        return sentence;
+    }
+
+    private static LessonWord word(int orderIndex, String text) {
+        return LessonWord.builder().orderIndex(orderIndex).wordText(text).wordNormalized(text).build();
+    }
+}
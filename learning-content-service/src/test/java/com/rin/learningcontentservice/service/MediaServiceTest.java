@@ -0,0 +1,41 @@
+package com.rin.learningcontentservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaServiceTest {
+
+    private static final String HOST = "res.cloudinary.com";
+
+    @Test
+    void remoteUrlMustStayUnderProjectCloud() {
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/english/video/upload/v1/tts/run.mp3", HOST, "english")).isTrue();
+
+        // Tenant khác trên cùng host, path thoát prefix, scheme / port lạ, chưa cấu hình cloud
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/attacker/raw/upload/x.html", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/english/../attacker/x.mp3", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/english/%2e%2e/attacker/x.mp3", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/englishx/a.mp3", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "file://res.cloudinary.com/english/a.mp3", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com:8443/english/a.mp3", HOST, "english")).isFalse();
+        assertThat(MediaService.isAllowedRemote(
+                "https://res.cloudinary.com/english/a.mp3", HOST, "")).isFalse();
+    }
+
+    @Test
+    void onlyAudioAndRasterImagesAreServable() {
+        assertThat(MediaService.isServableType("audio/mpeg")).isTrue();
+        assertThat(MediaService.isServableType("image/webp; charset=binary")).isTrue();
+        assertThat(MediaService.isServableType("image/svg+xml")).isFalse();
+        assertThat(MediaService.isServableType("text/html")).isFalse();
+        assertThat(MediaService.isServableType("application/octet-stream")).isFalse();
+    }
+}
@@ -0,0 +1,178 @@
+package com.rin.learningcontentservice.service;
+
+import com.rin.englishlearning.common.dto.PageResponse;
+import com.rin.learningcontentservice.dto.response.TranscriptSearchHit;
+import com.rin.learningcontentservice.event.LessonContentChangedEvent;
+import com.rin.learningcontentservice.model.Lesson;
+import com.rin.learningcontentservice.model.LessonSentence;
+import com.rin.learningcontentservice.model.LessonWord;
+import com.rin.learningcontentservice.model.TranscriptQueryType;
+import com.rin.learningcontentservice.repository.LessonRepository;
+import com.rin.learningcontentservice.repository.LessonSentenceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TranscriptSearchServiceTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final LessonSentenceRepository sentenceRepository = mock(LessonSentenceRepository.class);
+    private TranscriptSearchService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new TranscriptSearchService(lessonRepository, sentenceRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(BackgroundTaskService.class));
+        ReflectionTestUtils.setField(service, "indexDir", indexDir.toString());
+        service.open();
+        when(lessonRepository.findAllById(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.close();
+    }
+
+    @Test
+    void lemmaQueryIsLemmatizedWithFormsSeenInTranscripts() {
+        Lesson lesson = lesson(1L);
+        stubSentences(1L, sentence(10L, "She was running home", word("running", "run")),
+                sentence(11L, "They ran away", word("ran", "run")));
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+
+        assertThat(sentenceIds(service.search("runs", TranscriptQueryType.LEMMA, false, 0, 10))).isEmpty();
+        assertThat(sentenceIds(service.search("running", TranscriptQueryType.LEMMA, false, 0, 10)))
+                .containsExactlyInAnyOrder(10L, 11L);
+        assertThat(sentenceIds(service.search("Ran", TranscriptQueryType.LEMMA, false, 0, 10)))
+                .containsExactlyInAnyOrder(10L, 11L);
+        // Phrase search vẫn so khớp đúng dạng từ
+        assertThat(sentenceIds(service.search("running", TranscriptQueryType.PHRASE, false, 0, 10)))
+                .containsExactly(10L);
+    }
+
+    @Test
+    void pagesBeyondResultWindowAreEmpty() {
+        stubSentences(1L, sentence(10L, "hello world"));
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson(1L)));
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+
+        PageResponse<TranscriptSearchHit> first = service.search("hello", TranscriptQueryType.PHRASE, false, 0, 10);
+        assertThat(first.getData()).hasSize(1);
+        assertThat(first.getTotalPages()).isEqualTo(1);
+
+        PageResponse<TranscriptSearchHit> deep = service.search("hello", TranscriptQueryType.PHRASE, false,
+                Integer.MAX_VALUE, 50);
+        assertThat(deep.getData()).isEmpty();
+        assertThat(deep.isHasNext()).isFalse();
+    }
+
+    @Test
+    void changesDuringRebuildWaitAndAreAppliedAfterwards() throws Exception {
+        stubSentences(1L, sentence(10L, "old text"));
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson(1L)));
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+
+        CountDownLatch rebuildPaging = new CountDownLatch(1);
+        CountDownLatch eventFired = new CountDownLatch(1);
+        when(lessonRepository.findAll(any(Pageable.class))).thenAnswer(inv -> {
+            rebuildPaging.countDown();
+            assertThat(eventFired.await(5, TimeUnit.SECONDS)).isTrue();
+            return new PageImpl<>(List.of(lesson(1L)), PageRequest.of(0, 50), 1);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> rebuild = executor.submit(service::rebuild);
+            assertThat(rebuildPaging.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Event tới khi rebuild đang giữ lock: không được commit index dở dang (deleteAll chưa xong)
+            stubSentences(2L, sentence(20L, "new lesson"));
+            when(lessonRepository.findById(2L)).thenReturn(Optional.of(lesson(2L)));
+            service.onLessonContentChanged(new LessonContentChangedEvent(2L, false));
+            assertThat(sentenceIds(service.search("old", TranscriptQueryType.PHRASE, false, 0, 10)))
+                    .containsExactly(10L);
+            assertThat(sentenceIds(service.search("new", TranscriptQueryType.PHRASE, false, 0, 10))).isEmpty();
+            eventFired.countDown();
+
+            assertThat(rebuild.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(sentenceIds(service.search("old", TranscriptQueryType.PHRASE, false, 0, 10)))
+                .containsExactly(10L);
+        assertThat(sentenceIds(service.search("new", TranscriptQueryType.PHRASE, false, 0, 10)))
+                .containsExactly(20L);
+    }
+
+    @Test
+    void deletedLessonIsRemovedFromIndex() {
+        stubSentences(1L, sentence(10L, "hello world"));
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson(1L)));
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, false));
+
+        service.onLessonContentChanged(new LessonContentChangedEvent(1L, true));
+
+        assertThat(sentenceIds(service.search("hello", TranscriptQueryType.PHRASE, false, 0, 10))).isEmpty();
+        verify(lessonRepository, times(1)).findById(anyLong());
+    }
+
+    private List<Long> sentenceIds(PageResponse<TranscriptSearchHit> page) {
+        return page.getData().stream().map(TranscriptSearchHit::getSentenceId).toList();
+    }
+
+    private void stubSentences(Long lessonId, LessonSentence... sentences) {
+        when(sentenceRepository.findWithWordsByLessonId(lessonId)).thenReturn(List.of(sentences));
+    }
+
+    private static Lesson lesson(Long id) {
+        return Lesson.builder().id(id).publishedAt(new Timestamp(System.currentTimeMillis())).build();
+    }
+
+    private static LessonSentence sentence(Long id, String text, LessonWord... lemmaWords) {
+        List<LessonWord> words = new ArrayList<>();
+        String[] tokens = text.toLowerCase().split(" ");
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            LessonWord word = List.of(lemmaWords).stream()
+                    .filter(w -> w.getWordNormalized().equals(token))
+                    .findFirst()
+                    .orElseGet(() -> word(token, null));
+            word.setOrderIndex(i);
+            words.add(word);
+        }
+        return LessonSentence.builder().id(id).orderIndex(id.intValue()).textDisplay(text).isActive(true)
+                .lessonWords(words).build();
+    }
+
+    private static LessonWord word(String normalized, String lemma) {
+        return LessonWord.builder().wordText(normalized).wordNormalized(normalized).lemma(lemma).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.rin.learningcontentservice.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import static com.rin.learningcontentservice.service.support.DictationAligner.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictationAlignerTest {
+
+    @Test
+    void tokenizeMatchesLessonWordNormalization() {
+        assertThat(tokenize("  \"Don’t\"  STOP, me-now!! ... "))
+                .containsExactly("don't", "stop", "me-now");
+        assertThat(tokenize("")).isEmpty();
+    }
+
+    @Test
+    void alignReportsMissingExtraAndSubstitutedWords() {
+        String[] expected = {"i", "really", "like", "this", "song"};
+
+        assertThat(align(expected, expected.clone())).containsExactly(MATCH, MATCH, MATCH, MATCH, MATCH);
+        assertThat(align(expected, tokenize("I like this song")))
+                .containsExactly(MATCH, MISSING, MATCH, MATCH, MATCH);
+        assertThat(align(expected, tokenize("I really really like this song")))
+                .containsExactly(MATCH, MATCH, EXTRA, MATCH, MATCH, MATCH);
+        assertThat(align(expected, tokenize("I really love this song")))
+                .containsExactly(MATCH, MATCH, MISSING, EXTRA, MATCH, MATCH);
+        assertThat(align(expected, new String[0]))
+                .containsExactly(MISSING, MISSING, MISSING, MISSING, MISSING);
+        assertThat(align(new String[0], tokenize("hello"))).containsExactly(EXTRA);
+    }
+
+    @Test
+    void typedLimitScalesWithSentenceLength() {
+        assertThat(maxTypedTokens(0)).isEqualTo(10);
+        assertThat(maxTypedTokens(12)).isEqualTo(34);
+    }
+
+    @Test
+    void alignStaysConsistentOnLongSentences() {
+        String[] expected = new String[400];
+        String[] typed = new String[398];
+        for (int i = 0, j = 0; i < expected.length; i++) {
+            expected[i] = "w" + i;
+            if (i != 17 && i != 250) typed[j++] = expected[i];
+        }
+        byte[] ops = align(expected, typed);
+        int matched = 0, missing = 0;
+        for (byte op : ops) {
+            if (op == MATCH) matched++;
+            if (op == MISSING) missing++;
+        }
+        assertThat(matched).isEqualTo(398);
+        assertThat(missing).isEqualTo(2);
+        assertThat(ops[17]).isEqualTo(MISSING);
+    }
+
+    @Test
+    void curlyApostropheInExpectedMatchesStraightAndCurlyTyped() {
+        // wordNormalized từ transcript có thể giữ nháy cong
+        String[] expected = {normalizeToken("I"), normalizeToken("don’t"), normalizeToken("know")};
+        assertThat(expected).containsExactly("i", "don't", "know");
+        assertThat(normalizeToken("...")).isNull();
+
+        assertThat(align(expected, tokenize("I don't know"))).containsOnly(MATCH);
+        assertThat(align(expected, tokenize("i DON’T know."))).containsOnly(MATCH);
+    }
+
+    @Test
+    void scorePenalizesMissingAndExtraWords() {
+        assertThat(score(5, 5, 5)).isEqualTo(100.0);
+        assertThat(score(4, 5, 4)).isEqualTo(80.0);
+        assertThat(score(4, 5, 5)).isEqualTo(66.7);
+        assertThat(score(0, 0, 0)).isEqualTo(0.0);
+    }
+}
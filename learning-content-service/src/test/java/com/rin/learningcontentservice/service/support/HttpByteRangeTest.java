@@ -0,0 +1,29 @@
+package com.rin.learningcontentservice.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpByteRangeTest {
+
+    @Test
+    void parsesSingleRangeForms() {
+        assertThat(HttpByteRange.parse("bytes=0-99", 1000)).isEqualTo(new HttpByteRange(0, 99));
+        assertThat(HttpByteRange.parse("bytes=900-", 1000)).isEqualTo(new HttpByteRange(900, 999));
+        assertThat(HttpByteRange.parse("bytes=-100", 1000)).isEqualTo(new HttpByteRange(900, 999));
+        assertThat(HttpByteRange.parse("bytes=-5000", 1000)).isEqualTo(new HttpByteRange(0, 999));
+        assertThat(HttpByteRange.parse("bytes=990-2000", 1000)).isEqualTo(new HttpByteRange(990, 999));
+    }
+
+    @Test
+    void ignoresInvalidOrMultiRangeAndRejectsOutOfBounds() {
+        assertThat(HttpByteRange.parse(null, 1000)).isNull();
+        assertThat(HttpByteRange.parse("items=0-1", 1000)).isNull();
+        assertThat(HttpByteRange.parse("bytes=0-1,5-9", 1000)).isNull();
+        assertThat(HttpByteRange.parse("bytes=50-10", 1000)).isNull();
+        assertThat(HttpByteRange.parse("bytes=abc-", 1000)).isNull();
+
+        assertThat(HttpByteRange.parse("bytes=1000-", 1000)).isSameAs(HttpByteRange.UNSATISFIABLE);
+        assertThat(HttpByteRange.parse("bytes=-0", 1000)).isSameAs(HttpByteRange.UNSATISFIABLE);
+    }
+}
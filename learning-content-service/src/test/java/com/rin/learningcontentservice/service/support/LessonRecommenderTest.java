@@ -0,0 +1,63 @@
+package com.rin.learningcontentservice.service.support;
+
+import com.rin.englishlearning.common.constants.CefrLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.rin.learningcontentservice.service.support.LessonRecommender.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LessonRecommenderTest {
+
+    private static final long NOW = 1_000L * 86_400_000L;
+
+    @Test
+    void prefersEstimatedLevelAndFamiliarTopicsAndSkipsStartedLessons() {
+        List<Candidate> catalog = List.of(
+                new Candidate(1, 10, CefrLevel.B1, NOW),
+                new Candidate(2, 10, CefrLevel.B1, NOW),
+                new Candidate(3, 10, CefrLevel.B1, NOW),   // topic quen, đúng level
+                new Candidate(4, 20, CefrLevel.B1, NOW),   // topic lạ, đúng level
+                new Candidate(5, 10, CefrLevel.C2, NOW),   // topic quen, lệch 3 bậc
+                new Candidate(6, 20, CefrLevel.A1, NOW));
+        List<HistoryEntry> history = List.of(
+                new HistoryEntry(1, true, 70.0, 1L),
+                new HistoryEntry(2, false, null, null));
+
+        Result result = recommend(catalog, history, 10, 10, NOW);
+
+        assertThat(result.estimatedLevel()).isEqualTo(CefrLevel.B1);
+        assertThat(result.lessonIds()).containsExactly(3, 4, 5, 6);
+    }
+
+    @Test
+    void highRecentScoresRaiseTargetLevelAndTopicCapKeepsListDiverse() {
+        List<Candidate> catalog = List.of(
+                new Candidate(1, 10, CefrLevel.B1, NOW),
+                new Candidate(2, 10, CefrLevel.B2, NOW),
+                new Candidate(3, 10, CefrLevel.B2, NOW),
+                new Candidate(4, 10, CefrLevel.B2, NOW),
+                new Candidate(5, 20, CefrLevel.B2, NOW - 365L * 86_400_000L));
+        List<HistoryEntry> history = List.of(new HistoryEntry(1, true, 95.0, 5L));
+
+        Result result = recommend(catalog, history, 3, 2, NOW);
+
+        // B1 + nửa bậc → làm tròn B2
+        assertThat(result.estimatedLevel()).isEqualTo(CefrLevel.B2);
+        // Topic 10 tối đa 2 lesson, chỗ còn lại nhường topic 20 dù cũ hơn
+        assertThat(result.lessonIds()).containsExactly(4, 3, 5);
+    }
+
+    @Test
+    void newUserGetsNewestLessonsWithoutLevel() {
+        List<Candidate> catalog = List.of(
+                new Candidate(1, 10, CefrLevel.A1, NOW - 90L * 86_400_000L),
+                new Candidate(2, 20, null, NOW));
+
+        Result result = recommend(catalog, List.of(), 5, 5, NOW);
+
+        assertThat(result.estimatedLevel()).isNull();
+        assertThat(result.lessonIds()).containsExactly(2, 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.rin.learningcontentservice.service.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalMediaCacheTest {
+
+    @TempDir
+    Path remote;
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void entriesJustHandedToRequestsAreNotEvictedEvenOverBudget() throws Exception {
+        String a = remoteFile("a.mp3", "0123456789");
+        String b = remoteFile("b.mp3", "abcdefghij");
+        LocalMediaCache cache = new LocalMediaCache(cacheDir, 15, type -> type.startsWith("audio/"));
+        cache.open();
+
+        LocalMediaCache.Entry first = cache.get(a);
+        LocalMediaCache.Entry second = cache.get(b);
+
+        // Controller / sendfile của Tomcat mở file theo tên sau khi get() trả về → file phải còn
+        assertThat(first.getFile()).exists();
+        assertThat(second.getFile()).exists();
+        assertThat(cache.get(a)).isSameAs(first);
+        assertThat(first.getContentType()).isEqualTo("audio/mpeg");
+    }
+
+    @Test
+    void repeatedGetsReuseCachedFile() throws Exception {
+        String a = remoteFile("a.mp3", "0123456789");
+        LocalMediaCache cache = new LocalMediaCache(cacheDir, 1024, type -> type.startsWith("audio/"));
+        cache.open();
+
+        LocalMediaCache.Entry entry = cache.get(a);
+
+        assertThat(cache.get(a)).isSameAs(entry);
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files.filter(f -> f.toString().endsWith(".bin"))).hasSize(1);
+        }
+    }
+
+    private String remoteFile(String name, String content) throws Exception {
+        Path file = remote.resolve(name);
+        Files.writeString(file, content);
+        return file.toUri().toString();
+    }
+}
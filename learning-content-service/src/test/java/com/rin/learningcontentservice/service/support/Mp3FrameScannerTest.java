@@ -0,0 +1,65 @@
+package com.rin.learningcontentservice.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Mp3FrameScannerTest {
+
+    // MPEG1 Layer III, 128 kbps, 44.1 kHz, stereo, không padding → 417 byte / frame, 1152 sample / frame
+    private static final byte[] HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00};
+    private static final int FRAME_LENGTH = 417;
+
+    @Test
+    void scanSkipsTagsInfoFrameAndJunk() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(new byte[]{'I', 'D', '3', 4, 0, 0, 0, 0, 0, 20});
+        file.write(new byte[20]);
+        file.write(frame("Xing"));
+        file.write(frame(null));
+        file.write(frame(null));
+        file.write(new byte[]{1, 2, 3});
+        file.write(frame(null));
+        file.write("TAG".getBytes());
+        file.write(new byte[125]);
+
+        Mp3FrameIndex index = Mp3FrameScanner.scan(new ByteArrayInputStream(file.toByteArray()));
+
+        long firstAudio = 30 + FRAME_LENGTH;
+        assertThat(index.getSampleRate()).isEqualTo(44100);
+        assertThat(index.getSamplesPerFrame()).isEqualTo(1152);
+        assertThat(index.getFrameOffsets())
+                .containsExactly(firstAudio, firstAudio + FRAME_LENGTH, firstAudio + 2L * FRAME_LENGTH + 3);
+        assertThat(index.getDataEnd()).isEqualTo(firstAudio + 3L * FRAME_LENGTH + 3);
+    }
+
+    @Test
+    void byteRangeCoversSentenceWithReservoirPaddingAndSurvivesEncoding() {
+        long[] offsets = new long[20];
+        for (int i = 0; i < offsets.length; i++) offsets[i] = 100 + (long) i * FRAME_LENGTH;
+        Mp3FrameIndex index = new Mp3FrameIndex(44100, 1152, offsets, 100 + 20L * FRAME_LENGTH);
+
+        // ~26.12 ms / frame: 100 ms → frame 3 (lùi 2 frame), 150 ms → frame 6
+        assertThat(index.byteRange(100, 150)).containsExactly(offsets[1], offsets[7] - 1);
+        assertThat(index.byteRange(0, 10_000)).containsExactly(offsets[0], index.getDataEnd() - 1);
+        assertThat(index.byteRange(200, 100)).isNull();
+
+        Mp3FrameIndex decoded = Mp3FrameIndex.decode(44100, 1152, offsets.length, index.encodeOffsets());
+        assertThat(decoded.getFrameOffsets()).containsExactly(offsets);
+        assertThat(decoded.getDataEnd()).isEqualTo(index.getDataEnd());
+        assertThat(index.encodeOffsets().length).isLessThan(offsets.length * 3);
+    }
+
+    private static byte[] frame(String infoTag) {
+        byte[] frame = new byte[FRAME_LENGTH];
+        System.arraycopy(HEADER, 0, frame, 0, HEADER.length);
+        if (infoTag != null) {
+            System.arraycopy(infoTag.getBytes(), 0, frame, 4 + 32, infoTag.length());
+        }
+        return frame;
+    }
+}
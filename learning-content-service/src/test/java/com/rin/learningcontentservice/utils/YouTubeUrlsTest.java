@@ -0,0 +1,26 @@
+package com.rin.learningcontentservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YouTubeUrlsTest {
+
+    @Test
+    void extractsVideoIdFromCommonLinkForms() {
+        assertThat(YouTubeUrls.extractVideoId("https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=42s")).isEqualTo("dQw4w9WgXcQ");
+        assertThat(YouTubeUrls.extractVideoId("https://m.youtube.com/watch?feature=share&v=dQw4w9WgXcQ")).isEqualTo("dQw4w9WgXcQ");
+        assertThat(YouTubeUrls.extractVideoId("youtu.be/dQw4w9WgXcQ?si=abc")).isEqualTo("dQw4w9WgXcQ");
+        assertThat(YouTubeUrls.extractVideoId("https://www.youtube.com/shorts/dQw4w9WgXcQ")).isEqualTo("dQw4w9WgXcQ");
+        assertThat(YouTubeUrls.extractVideoId("https://www.youtube.com/embed/dQw4w9WgXcQ")).isEqualTo("dQw4w9WgXcQ");
+        assertThat(YouTubeUrls.extractVideoId(" dQw4w9WgXcQ ")).isEqualTo("dQw4w9WgXcQ");
+    }
+
+    @Test
+    void rejectsNonVideoLinks() {
+        assertThat(YouTubeUrls.extractVideoId("https://www.youtube.com/playlist?list=PL123")).isNull();
+        assertThat(YouTubeUrls.extractVideoId("https://vimeo.com/123456")).isNull();
+        assertThat(YouTubeUrls.extractVideoId("https://www.youtube.com/watch?v=short")).isNull();
+        assertThat(YouTubeUrls.extractVideoId("not a url")).isNull();
+    }
+}
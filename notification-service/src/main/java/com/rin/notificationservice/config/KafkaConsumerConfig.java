@@ -4,20 +4,27 @@ import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
 import com.rin.englishlearning.common.event.VocabSubTopicProgressEvent;
 import com.rin.englishlearning.common.event.VocabSubTopicReadyEvent;
 import com.rin.englishlearning.common.event.VocabSubtopicsGeneratedEvent;
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.kafka.KafkaTopicDefinitions;
+import com.rin.englishlearning.common.kafka.KafkaRetryConfiguration;
+import com.rin.englishlearning.common.kafka.KafkaRetrySupport;
+import com.rin.englishlearning.common.kafka.KafkaRetryTopics;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
-import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import com.rin.englishlearning.common.event.NotificationPushEvent;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Import(KafkaRetryConfiguration.class)
 public class KafkaConsumerConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -36,11 +43,7 @@ public class KafkaConsumerConfig {
     }
 
     private <T> ConsumerFactory<String, T> consumerFactory(Class<T> eventClass) {
-        return new DefaultKafkaConsumerFactory<>(
-                baseProps(),
-                new StringDeserializer(),
-                new JsonDeserializer<>(eventClass)
-        );
+        return KafkaRetrySupport.consumerFactory(baseProps(), eventClass);
     }
 
     private <T> ConcurrentKafkaListenerContainerFactory<String, T> containerFactory(Class<T> eventClass) {
@@ -79,4 +82,31 @@ public class KafkaConsumerConfig {
     notificationPushEventContainerFactory() {
         return containerFactory(NotificationPushEvent.class);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LessonProcessingStepNotifyEvent>
+    lessonProcessingStateContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, LessonProcessingStepNotifyEvent> factory =
+                containerFactory(LessonProcessingStepNotifyEvent.class);
+        // Không bao giờ ack → không commit offset, group tạm của instance không để lại gì trên broker
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public NewTopic lessonProcessingStateTopic() {
+        return KafkaTopicDefinitions.lessonProcessingState();
+    }
+
+    @Bean
+    public KafkaRetryTopics kafkaRetryTopics() {
+        // State topic chỉ put vào map, không có gì để retry
+        return KafkaRetryTopics.of(
+                KafkaTopics.NOTIFICATION_PUSH_TOPIC,
+                KafkaTopics.LESSON_PROCESSING_STEP_NOTIFY_TOPIC,
+                KafkaTopics.VOCAB_SUBTOPIC_READY_TOPIC,
+                KafkaTopics.VOCAB_SUBTOPICS_GENERATED_TOPIC,
+                KafkaTopics.VOCAB_SUBTOPIC_PROGRESS_TOPIC
+        ).excluding(KafkaTopics.LESSON_PROCESSING_STATE_TOPIC);
+    }
+}
@@ -56,8 +56,14 @@ public class KafkaConsumer {
     )
     public void handleLessonProcessingStepUpdatedEvent(LessonProcessingStepNotifyEvent event) {
         log.info("Received LessonProcessingStepNotifyEvent: lessonId={}, step={}", event.getLessonId(), event.getProcessingStep());
-        String destination = "/topic/learning-contents/lessons/" + event.getLessonId() + "/processing-step";
-        messagingTemplate.convertAndSend(destination, event);
+        if (event.getLessonId() != null) {
+            String destination = "/topic/learning-contents/lessons/" + event.getLessonId() + "/processing-step";
+            messagingTemplate.convertAndSend(destination, event);
+        }
+        // Tiến độ tổng của đợt import hàng loạt
+        if (event.getImportBatchId() != null) {
+            messagingTemplate.convertAndSend("/topic/learning-contents/imports/" + event.getImportBatchId() + "/progress", event);
+        }
     }
 
     @KafkaListener(
@@ -0,0 +1,43 @@
+package com.rin.notificationservice.kafka;
+
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
+import com.rin.notificationservice.state.LessonProcessingStateStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonProcessingStateConsumer {
+
+    private final LessonProcessingStateStore stateStore;
+
+    /**
+     * Group id riêng cho từng instance và không commit offset → mỗi lần start đều đọc lại từ đầu topic
+     * (topic compacted nên chỉ còn ~1 record / lesson).
+     */
+    @KafkaListener(
+            topics = KafkaTopics.LESSON_PROCESSING_STATE_TOPIC,
+            groupId = "${spring.kafka.consumer.group-id}-state-${random.uuid}",
+            containerFactory = "lessonProcessingStateContainerFactory"
+    )
+    public void handleLessonProcessingState(ConsumerRecord<String, LessonProcessingStepNotifyEvent> record) {
+        Long lessonId;
+        try {
+            lessonId = Long.valueOf(record.key());
+        } catch (NumberFormatException e) {
+            log.warn("Bỏ qua lesson processing state với key không hợp lệ: {}", record.key());
+            return;
+        }
+        if (record.value() == null) {
+            // Tombstone: lesson đã bị xóa
+            stateStore.remove(lessonId);
+        } else {
+            stateStore.put(lessonId, record.value());
+        }
+    }
+}
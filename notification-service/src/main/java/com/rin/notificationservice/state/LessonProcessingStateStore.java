@@ -0,0 +1,34 @@
+package com.rin.notificationservice.state;
+
+import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bản sao in-memory của topic compacted lesson-processing-state-v1: state mới nhất của từng lesson.
+ * Mỗi instance tự đọc lại toàn bộ topic khi start nên không cần đồng bộ giữa các instance.
+ */
+@Component
+public class LessonProcessingStateStore {
+
+    private final Map<Long, LessonProcessingStepNotifyEvent> states = new ConcurrentHashMap<>();
+
+    public Optional<LessonProcessingStepNotifyEvent> get(Long lessonId) {
+        return Optional.ofNullable(states.get(lessonId));
+    }
+
+    public void put(Long lessonId, LessonProcessingStepNotifyEvent state) {
+        states.put(lessonId, state);
+    }
+
+    public void remove(Long lessonId) {
+        states.remove(lessonId);
+    }
+
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,75 @@
+package com.rin.notificationservice.ws.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
+import com.rin.notificationservice.state.LessonProcessingStateStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client vừa SUBSCRIBE kênh processing-step của lesson → gửi ngay state hiện tại cho riêng session đó,
+ * UI không phải gọi REST để lấy trạng thái ban đầu.
+ */
+@Slf4j
+@Component
+public class LessonProcessingSubscribeListener implements ApplicationListener<SessionSubscribeEvent> {
+
+    private static final Pattern PROCESSING_STEP_DESTINATION =
+            Pattern.compile("^/topic/learning-contents/lessons/(\\d+)/processing-step$");
+
+    private final LessonProcessingStateStore stateStore;
+    private final MessageChannel clientOutboundChannel;
+    private final ObjectMapper objectMapper;
+
+    public LessonProcessingSubscribeListener(LessonProcessingStateStore stateStore,
+                                             @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                             ObjectMapper objectMapper) {
+        this.stateStore = stateStore;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = subscribe.getDestination();
+        if (destination == null) return;
+        Matcher matcher = PROCESSING_STEP_DESTINATION.matcher(destination);
+        if (!matcher.matches()) return;
+
+        Long lessonId = Long.valueOf(matcher.group(1));
+        stateStore.get(lessonId).ifPresent(state ->
+                sendToSubscription(subscribe.getSessionId(), subscribe.getSubscriptionId(), destination, state));
+    }
+
+    private void sendToSubscription(String sessionId, String subscriptionId, String destination,
+                                    LessonProcessingStepNotifyEvent state) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(state);
+        } catch (JsonProcessingException e) {
+            log.warn("Không serialize được processing state của lesson {}: {}", state.getLessonId(), e.getMessage());
+            return;
+        }
+        // Giống message SimpleBroker gửi cho subscription, nhưng chỉ tới session vừa subscribe
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        clientOutboundChannel.send(MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+    }
+}
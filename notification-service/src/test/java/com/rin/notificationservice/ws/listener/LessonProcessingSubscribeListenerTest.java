@@ -0,0 +1,72 @@
+package com.rin.notificationservice.ws.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rin.englishlearning.common.constants.LessonProcessingStep;
+import com.rin.englishlearning.common.event.LessonProcessingStepNotifyEvent;
+import com.rin.notificationservice.state.LessonProcessingStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LessonProcessingSubscribeListenerTest {
+
+    private LessonProcessingStateStore stateStore;
+    private MessageChannel outbound;
+    private LessonProcessingSubscribeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        stateStore = new LessonProcessingStateStore();
+        outbound = mock(MessageChannel.class);
+        listener = new LessonProcessingSubscribeListener(stateStore, outbound, new ObjectMapper());
+    }
+
+    @Test
+    void subscribeToKnownLessonSendsCurrentStateToThatSubscriptionOnly() {
+        stateStore.put(42L, LessonProcessingStepNotifyEvent.builder()
+                .lessonId(42L).processingStep(LessonProcessingStep.TRANSCRIBED).build());
+
+        listener.onApplicationEvent(subscribe("/topic/learning-contents/lessons/42/processing-step"));
+
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(outbound).send(captor.capture());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(captor.getValue());
+        assertThat(headers.getSessionId()).isEqualTo("session-1");
+        assertThat(headers.getSubscriptionId()).isEqualTo("sub-0");
+        assertThat(headers.getDestination()).isEqualTo("/topic/learning-contents/lessons/42/processing-step");
+        assertThat(new String((byte[]) captor.getValue().getPayload(), StandardCharsets.UTF_8))
+                .contains("\"processingStep\":\"TRANSCRIBED\"");
+    }
+
+    @Test
+    void unknownLessonOrOtherDestinationSendsNothing() {
+        stateStore.put(42L, LessonProcessingStepNotifyEvent.builder().lessonId(42L).build());
+
+        listener.onApplicationEvent(subscribe("/topic/learning-contents/lessons/7/processing-step"));
+        listener.onApplicationEvent(subscribe("/topic/vocab/subtopic-ready"));
+
+        verify(outbound, never()).send(any());
+    }
+
+    private static SessionSubscribeEvent subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionSubscribeEvent(new Object(), message);
+    }
+}
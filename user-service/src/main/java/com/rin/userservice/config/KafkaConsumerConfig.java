@@ -1,20 +1,24 @@
 package com.rin.userservice.config;
 
 import com.rin.englishlearning.common.event.GamificationRewardEvent;
+import com.rin.englishlearning.common.constants.KafkaTopics;
+import com.rin.englishlearning.common.kafka.KafkaRetryConfiguration;
+import com.rin.englishlearning.common.kafka.KafkaRetrySupport;
+import com.rin.englishlearning.common.kafka.KafkaRetryTopics;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
-import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Import(KafkaRetryConfiguration.class)
 public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -32,11 +36,7 @@ public class KafkaConsumerConfig {
     }
 
     private <T> ConsumerFactory<String, T> consumerFactory(Class<T> eventClass) {
-        return new DefaultKafkaConsumerFactory<>(
-                baseProps(),
-                new StringDeserializer(),
-                new JsonDeserializer<>(eventClass)
-        );
+        return KafkaRetrySupport.consumerFactory(baseProps(), eventClass);
     }
 
     private <T> ConcurrentKafkaListenerContainerFactory<String, T> containerFactory(Class<T> eventClass) {
@@ -52,4 +52,8 @@ public class KafkaConsumerConfig {
         return containerFactory(GamificationRewardEvent.class);
     }
 
+    @Bean
+    public KafkaRetryTopics kafkaRetryTopics() {
+        return KafkaRetryTopics.of(KafkaTopics.GAMIFICATION_REWARD_TOPIC);
+    }
 }